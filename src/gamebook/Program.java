@@ -1,5 +1,6 @@
 package gamebook;
 
+import gamebook.domains.BookLibrary;
 import gamebook.domains.GameBook;
 import gamebook.domains.GameBookFactory;
 import gamebook.domains.Session;
@@ -13,30 +14,34 @@ import gamebook.swing.SwingEditView;
 import gamebook.swing.SwingReaderView;
 
 /**
- * Construit le systme logiciel.
+ * Construit le système logiciel.
  * */
 public class Program {
+	// Livre ouvert au démarrage et taille maximale des livres gardés en mémoire.
+	private static final String DEFAULT_BOOK = "default";
+	private static final long LIBRARY_CAPACITY = 256L << 20;
 	
 	/**
-	 * Point d'entre du programme
+	 * Point d'entrée du programme
 	 * */
 	public static void main(String[] args) {
-		// Crer un livre
-		GameBook book = GameBookFactory.makeGameBook();
+		// Créer la bibliothèque et ouvrir un livre
+		BookLibrary library = new BookLibrary(id -> GameBookFactory.makeGameBook(), LIBRARY_CAPACITY);
+		GameBook book = library.get(DEFAULT_BOOK);
 		
-		// Crer la session
+		// Créer la session
 		Session sess = new Session(book);
 		
-		// Crer les Objet d'algorithme de vrification
+		// Créer les Objet d'algorithme de vérification
 		ShortestWayToTheEnd swtte = new ShortestWayToTheEnd();
 		TargetParagraphFrequency tpf = new TargetParagraphFrequency();
 
-		// Crer les superviser
+		// Créer les superviser
 		ReadSuperviser readSuperviser = new ReadSuperviser(sess, book);
 		CheckSuperviser checkSuperviser = new CheckSuperviser(book, swtte, tpf);
 		EditSuperviser editSuperviser = new EditSuperviser(book, readSuperviser, checkSuperviser);
 		
-		// Crer l'interface
+		// Créer l'interface
 		var mainWindow = new MainWindow(
 				new SwingReaderView(readSuperviser),
 				new SwingEditView(editSuperviser),
@@ -1,14 +1,14 @@
 /**
  * File name    : BookEditedEventHandler.java
  *
- * Description  : Interface d'implmentation des vnements de modification
+ * Description  : Interface d'implémentation des évènements de modification
  *                du livre.
  *
- * Version      : 1.0
+ * Version      : 1.1
  * Since        : 1.1
  * Date         : 08/05/2021
  *
- * Author       : Jrmi Nihart <j.nihart@student.helmo.be>
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
  * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
  */
 package gamebook.domains;
@@ -16,20 +16,35 @@ package gamebook.domains;
 /**
  * BookEditedEventHandler
  *
- * Interface de mthode permetant de signaler des modification du livre. 
+ * Interface de méthode permetant de signaler des modification du livre. 
  *
- * @version     1.0
+ * @version     1.1
  *
- * @author      Jrmi Nihart
+ * @author      Jérémi Nihart
  */
 public interface BookEditedEventHandler {
 	
 	/** 
-	 * Mthode d'vnement, est appell lorsque le livre est modifi.
+	 * Méthode d'évènement, est appellé lorsque le livre est modifié.
 	 *
 	 * @since       1.0
 	 *
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public void onBookEdited();
+	
+	/** 
+	 * Méthode d'évènement, est appellé lorsque des paragraphes ont été supprimés par
+	 * {@link GameBook#compact()}. Par défaut la compaction est traitée comme une modification.
+	 *
+	 * @param		map Table des anciens ID vers les nouveaux (-1 : paragraphe supprimé).
+	 *
+	 * @since       1.1
+	 *
+	 * @see			BookEditedEventHandler#onBookEdited()
+	 * @author      Jérémi Nihart
+	 */
+	public default void onBookCompacted(int[] map) {
+		onBookEdited();
+	}
 }
\ No newline at end of file
@@ -0,0 +1,302 @@
+/**
+ * File name    : BookLibrary.java
+ *
+ * Description  : Bibliothèque de livres chargés à la demande, bornée en mémoire.
+ *
+ * Version      : 1.0
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+
+/**
+ * BookLibrary
+ *
+ * Bibliothèque de livres désignés par un identifiant : un livre est chargé au premier
+ * accès par le chargeur fourni, puis gardé en mémoire tant que la taille estimée des
+ * livres chargés ({@link GameBook#getMemoryFootprint()}) ne dépasse pas la capacité de
+ * la bibliothèque. Au-delà, les livres les moins récemment utilisés sont libérés.
+ *
+ * <hr>
+ *
+ * <h2>Livres chargés : LinkedHashMap (ordre d'accès)</h2>
+ * <p>J'utilise une LinkedHashMap en ordre d'accès : chaque accès place le livre à la fin de
+ * la liste, le premier livre de la liste est donc le moins récemment utilisé (LRU). Chaque
+ * entrée garde la taille du livre au dernier relevé, la somme des tailles est tenue à jour.</p>
+ *
+ * <h2>Chargements en cours : HashMap de FutureTask</h2>
+ * <p>Le premier thread qui demande un livre absent crée une FutureTask et exécute le chargement
+ * hors verrou, les threads qui demandent le même livre pendant ce temps attendent la même tâche :
+ * un livre n'est chargé qu'une seule fois. Un chargement qui échoue n'est pas gardé, son exception
+ * est transmise à tous les threads qui l'attendaient et le prochain accès recommence.</p>
+ *
+ * <h2>Libération</h2>
+ * <p>Après chaque chargement, la taille des livres chargés est relevée à nouveau (un livre modifié
+ * peut avoir grandi) puis les livres les moins récemment utilisés sont libérés jusqu'à revenir
+ * sous la capacité. Le livre qui vient d'être chargé n'est jamais libéré par son propre chargement,
+ * même s'il dépasse seul la capacité. Un livre libéré n'est plus référencé par la bibliothèque,
+ * les sessions qui le lisent encore le gardent jusqu'à leur fin.</p>
+ *
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>get() :         <u>CTT:</u> <b>O(1)</b> si le livre est chargé, <b>O(k)</b> plus le
+ * 	                    chargement sinon ou 'k' est le nombre de livres chargés</li>
+ *  <li>evict() :       <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>isResident() :  <u>CTT:</u> <b>O(1)</b></li>
+ * </ul>
+ *
+ * <h2>Complémentaire :</h2>
+ * <p>La bibliothèque est partagée entre threads, ses opérations sont protégées par un seul
+ * verrou qui n'est jamais gardé pendant un chargement. Les livres servis à plusieurs threads
+ * doivent être créés en mode concurrent par le chargeur (voir {@link GameBook#GameBook(String, java.util.Collection, boolean)}).</p>
+ * <hr>
+ *
+ * @version     1.0
+ *
+ * @see         GameBook
+ * @see         MemoryFootprint
+ * @author      Jérémi Nihart
+ */
+public final class BookLibrary {
+
+	/**
+	 * Livre chargé et sa taille estimée au dernier relevé.
+	 */
+	private static final class Resident {
+		private final GameBook book;
+		private long bytes;
+
+		private Resident(GameBook book) {
+			this.book = book;
+		}
+	}
+
+	// Variables Objet
+	private final Function<String, GameBook> loader;
+	private final long capacity;
+	private final Map<String, Resident> resident = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<String, FutureTask<GameBook>> loading = new HashMap<>();
+	private long residentBytes;
+
+	/**
+	 * Constructeur
+	 *
+	 * @param		loader Chargeur d'un livre par identifiant, retourne null si le livre n'existe pas.
+	 * @param		capacity Taille estimée maximale des livres gardés en mémoire, en octets.
+	 *
+	 * @throws		IllegalArgumentException si 'capacity' est négative.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public BookLibrary(Function<String, GameBook> loader, long capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Capacity: " + capacity);
+		}
+		this.loader = Objects.requireNonNull(loader);
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Permet d'obtenir le livre 'id', chargé s'il n'est pas en mémoire. Les demandes
+	 * simultanées d'un même livre absent attendent un seul chargement.<br>
+	 * <u>CTT : O(1)</u> si le livre est chargé, <b>O(k)</b> plus le chargement sinon.
+	 *
+	 * @return		Le livre, null si le chargeur ne le trouve pas (rien n'est gardé).
+	 * @param		id Identifiant du livre, non null.
+	 *
+	 * @throws		RuntimeException l'exception levée par le chargeur.
+	 * @throws		IllegalStateException si le thread est interrompu pendant l'attente d'un chargement.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public GameBook get(String id) {
+		Objects.requireNonNull(id);
+		FutureTask<GameBook> task;
+		boolean owner = false;
+		synchronized (resident) {
+			Resident found = resident.get(id);
+			if (found != null) {
+				measure(found);
+				return found.book;
+			}
+			task = loading.get(id);
+			if (task == null) {
+				task = new FutureTask<>(() -> loader.apply(id));
+				loading.put(id, task);
+				owner = true;
+			}
+		}
+		if (owner) {
+			task.run();
+			finishLoading(id, task);
+		}
+		return await(task);
+	}
+
+	/**
+	 * Permet de libérer le livre 'id' s'il est en mémoire (par exemple après sa mise à jour
+	 * hors de la bibliothèque), le prochain accès le charge à nouveau.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		True si le livre était en mémoire.
+	 * @param		id Identifiant du livre.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public boolean evict(String id) {
+		synchronized (resident) {
+			Resident removed = resident.remove(id);
+			if (removed == null) {
+				return false;
+			}
+			residentBytes -= removed.bytes;
+			return true;
+		}
+	}
+
+	/**
+	 * Indique si le livre 'id' est en mémoire, sans changer son rang d'utilisation.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		True si le livre est en mémoire.
+	 * @param		id Identifiant du livre.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public boolean isResident(String id) {
+		synchronized (resident) {
+			return resident.containsKey(id);
+		}
+	}
+
+	/**
+	 * Getter, permettant de récupérer le nombre de livres en mémoire.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre de livres en mémoire.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getResidentCount() {
+		synchronized (resident) {
+			return resident.size();
+		}
+	}
+
+	/**
+	 * Getter, permettant de récupérer la taille estimée des livres en mémoire au dernier relevé.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre d'octets estimé.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public long getResidentBytes() {
+		synchronized (resident) {
+			return residentBytes;
+		}
+	}
+
+	/**
+	 * Getter, permettant de récupérer la capacité de la bibliothèque.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Taille estimée maximale des livres en mémoire, en octets.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public long getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Range le livre chargé par 'task' et retire la tâche, dans un même bloc : un autre
+	 * thread trouve le livre soit en mémoire soit en cours de chargement.
+	 */
+	private void finishLoading(String id, FutureTask<GameBook> task) {
+		synchronized (resident) {
+			loading.remove(id);
+			GameBook book = task.isCancelled() ? null : loaded(task);
+			if (book != null) {
+				Resident entry = new Resident(book);
+				resident.put(id, entry);
+				trim(entry);
+			}
+		}
+	}
+
+	/**
+	 * Relève la taille de chaque livre puis libère les moins récemment utilisés, sauf 'kept',
+	 * jusqu'à revenir sous la capacité.
+	 */
+	private void trim(Resident kept) {
+		for (Resident entry : resident.values()) {
+			measure(entry);
+		}
+		Iterator<Resident> eldest = resident.values().iterator();
+		while (residentBytes > capacity && eldest.hasNext()) {
+			Resident entry = eldest.next();
+			if (entry != kept) {
+				residentBytes -= entry.bytes;
+				eldest.remove();
+			}
+		}
+	}
+
+	private void measure(Resident entry) {
+		long bytes = entry.book.getMemoryFootprint().getTotalBytes();
+		residentBytes += bytes - entry.bytes;
+		entry.bytes = bytes;
+	}
+
+	/**
+	 * Résultat d'une tâche terminée, null si elle a échoué (l'échec est transmis par await()).
+	 */
+	private static GameBook loaded(FutureTask<GameBook> task) {
+		try {
+			return task.get();
+		} catch (ExecutionException | InterruptedException e) {
+			return null;
+		}
+	}
+
+	private static GameBook await(FutureTask<GameBook> task) {
+		try {
+			return task.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw (RuntimeException) e.getCause();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Chargement du livre interrompu", e);
+		}
+	}
+}
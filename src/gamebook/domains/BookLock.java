@@ -0,0 +1,345 @@
+/**
+ * File name    : BookLock.java
+ *
+ * Description  : Verrou d'un livre partagé entre plusieurs threads.
+ *
+ * Version      : 1.0
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * BookLock
+ *
+ * Verrou partagé par un livre créé en mode concurrent et par tous ses paragraphes. Les
+ * lectures ne prennent pas de verrou tant qu'aucune modification n'a lieu en même temps,
+ * les modifications sont exclusives.
+ *
+ * <hr>
+ *
+ * <h2>L'implémentation utilisée : StampedLock</h2>
+ * <p>Une lecture commence par une lecture optimiste : elle lit la structure sans verrou puis
+ * vérifie via {@link StampedLock#validate(long)} qu'aucune écriture n'a eu lieu entre-temps. Dans
+ * le cas courant (pas d'écriture), elle ne coûte qu'une lecture de l'état du verrou avant et après.
+ * Si une écriture a eu lieu, ou si la lecture a rencontré une structure à moitié modifiée et levé
+ * une exception, elle est recommencée avec le verrou de lecture.</p>
+ *
+ * <h2>Lectures longues : verrou de lecture</h2>
+ * <p>La lecture optimiste est réservée aux lectures courtes (quelques champs, une copie des choix
+ * ou du contenu d'un paragraphe) : rien n'est validé avant la fin de la lecture, une structure lue
+ * à moitié modifiée peut donc faire travailler la lecture sur des données incohérentes, et seule
+ * une {@link RuntimeException} est rattrapée. Les lectures qui parcourent tout le livre, comme la
+ * compilation d'une version figée, prennent directement le verrou de lecture
+ * ({@link BookLock#readLocked(Supplier)}, {@link BookLock#latest(Supplier)}) : elles ne voient
+ * jamais une écriture en cours et ne sont jamais faites deux fois.</p>
+ *
+ * <h2>Lectures qui remplissent un cache</h2>
+ * <p>Certaines lectures remplissent un cache à la demande (empreintes, index des libellés). Elles
+ * ne modifient pas le livre et ne prennent donc pas le verrou d'écriture, qui bloquerait les autres
+ * lecteurs et rendrait obsolète la version figée courante : {@link BookLock#readCaching(Supplier)}
+ * prend le verrou de lecture, et un moniteur propre au verrou sérialise entre eux les lecteurs qui
+ * remplissent un cache.</p>
+ *
+ * <h2>Versions figées (MVCC)</h2>
+ * <p>Chaque écriture invalide les stamps de lecture obtenus avant elle. {@link BookLock#latest(Supplier)}
+ * garde la dernière version figée construite et le stamp de l'état qu'elle représente : tant que ce
+ * stamp reste valide (aucune écriture depuis), la même version est retournée à tous les lecteurs. La
+ * première lecture après une écriture construit la version suivante, avec le verrou de lecture. Un lecteur qui garde une version
+ * n'est pas concerné par les écritures suivantes, et une version que plus aucun lecteur ne garde est
+ * récupérée par le GC.</p>
+ *
+ * <h2>Ré-entrance des écritures</h2>
+ * <p>StampedLock n'est pas ré-entrant. Le thread qui possède le verrou d'écriture est retenu : ses
+ * lectures et ses écritures imbriquées (par exemple les modifications de paragraphes pendant
+ * {@link GameBook#edit(java.util.function.Consumer)}) s'exécutent directement.</p>
+ *
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>read() :        <u>CTT:</u> <b>O(1)</b> + la lecture (deux fois si elle est invalidée)</li>
+ * 	<li>readLocked() :  <u>CTT:</u> <b>O(1)</b> + la lecture (une seule fois)</li>
+ * 	<li>readCaching() : <u>CTT:</u> <b>O(1)</b> + la lecture (une seule fois)</li>
+ * 	<li>latest() :      <u>CTT:</u> <b>O(1)</b> si aucune écriture n'a eu lieu depuis la version précédente</li>
+ *  <li>write() :       <u>CTT:</u> <b>O(1)</b> + la modification</li>
+ * </ul>
+ *
+ * <h2>Complémentaire :</h2>
+ * <p>Les livres créés sans le mode concurrent et les paragraphes hors livre utilisent
+ * {@link BookLock#NONE}, qui exécute directement lectures et écritures. Une lecture optimiste
+ * peut être exécutée deux fois : elle ne doit donc rien modifier.</p>
+ * <hr>
+ *
+ * @version     1.0
+ *
+ * @see         GameBook#GameBook(String, java.util.Collection, boolean)
+ * @author      Jérémi Nihart
+ */
+final class BookLock {
+	// Constante(s)
+	static final BookLock NONE = new BookLock(null);
+
+	// Variables Objet
+	private final StampedLock lock;
+	private final Object caches = new Object();  // Moniteur des lectures qui remplissent un cache.
+	private Thread writer;  // Seul le thread propriétaire compare cette valeur à lui-même.
+	private volatile Version latest;
+
+	/**
+	 * Version figée et stamp de l'état du livre qu'elle représente.
+	 */
+	private static final class Version {
+		private final long stamp;
+		private final Object value;
+
+		private Version(long stamp, Object value) {
+			this.stamp = stamp;
+			this.value = value;
+		}
+	}
+
+	BookLock() {
+		this(new StampedLock());
+	}
+
+	private BookLock(StampedLock lock) {
+		this.lock = lock;
+	}
+
+	/**
+	 * Indique si le verrou protège réellement un livre (mode concurrent).<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		False pour {@link BookLock#NONE}.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	boolean isConcurrent() {
+		return lock != null;
+	}
+
+	/**
+	 * Exécute une lecture courte, d'abord de manière optimiste puis avec le verrou de lecture si
+	 * une écriture l'a invalidée. Une lecture qui parcourt tout le livre doit utiliser
+	 * {@link BookLock#readLocked(Supplier)}.<br>
+	 * <u>CTT : O(1)</u> + la lecture.
+	 *
+	 * @return		Le résultat de la lecture.
+	 * @param		reader Lecture sans effet de bord.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	<T> T read(Supplier<T> reader) {
+		if (lock == null || writer == Thread.currentThread()) {
+			return reader.get();
+		}
+		long stamp = lock.tryOptimisticRead();
+		if (stamp != 0) {
+			try {
+				T value = reader.get();
+				if (lock.validate(stamp)) {
+					return value;
+				}
+			} catch (RuntimeException e) {
+				// Structure lue pendant une modification : la lecture est recommencée.
+			}
+		}
+		stamp = lock.readLock();
+		try {
+			return reader.get();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Exécute une lecture longue (parcours ou compilation du livre) avec le verrou de lecture,
+	 * sans tentative optimiste : les écritures attendent la fin de la lecture.<br>
+	 * <u>CTT : O(1)</u> + la lecture.
+	 *
+	 * @return		Le résultat de la lecture.
+	 * @param		reader Lecture sans effet de bord.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	<T> T readLocked(Supplier<T> reader) {
+		if (lock == null || writer == Thread.currentThread()) {
+			return reader.get();
+		}
+		long stamp = lock.readLock();
+		try {
+			return reader.get();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Exécute une lecture qui remplit un cache à la demande avec le verrou de lecture : les
+	 * écritures attendent, les autres lectures continuent et la version figée courante reste
+	 * valide. Les lecteurs qui remplissent un cache sont sérialisés entre eux par un moniteur.<br>
+	 * <u>CTT : O(1)</u> + la lecture.
+	 *
+	 * @return		Le résultat de la lecture.
+	 * @param		reader Lecture qui ne modifie que des caches.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	<T> T readCaching(Supplier<T> reader) {
+		if (lock == null) {
+			return reader.get();
+		}
+		return readLocked(() -> {
+			synchronized (caches) {
+				return reader.get();
+			}
+		});
+	}
+
+	/**
+	 * Variante de {@link BookLock#read(Supplier)} pour une lecture courte d'entier, sans boxing.<br>
+	 * <u>CTT : O(1)</u> + la lecture.
+	 *
+	 * @return		Le résultat de la lecture.
+	 * @param		reader Lecture sans effet de bord.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	int readInt(IntSupplier reader) {
+		if (lock == null || writer == Thread.currentThread()) {
+			return reader.getAsInt();
+		}
+		long stamp = lock.tryOptimisticRead();
+		if (stamp != 0) {
+			try {
+				int value = reader.getAsInt();
+				if (lock.validate(stamp)) {
+					return value;
+				}
+			} catch (RuntimeException e) {
+				// Structure lue pendant une modification : la lecture est recommencée.
+			}
+		}
+		stamp = lock.readLock();
+		try {
+			return reader.getAsInt();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Getter, permettant de récupérer la dernière version construite par {@link BookLock#latest(Supplier)},
+	 * même si une écriture l'a rendue obsolète (elle reste gardée jusqu'à la suivante).<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		La dernière version, null si aucune n'a été construite.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	Object cached() {
+		Version version = latest;
+		return (version == null) ? null : version.value;
+	}
+
+	/**
+	 * Permet d'obtenir la version figée de l'état courant : la version précédente si aucune
+	 * écriture n'a eu lieu depuis sa construction, sinon une nouvelle version construite par
+	 * 'builder' avec le verrou de lecture (comme {@link BookLock#readLocked(Supplier)}). Des
+	 * lecteurs arrivés ensemble après une écriture réutilisent la version construite par le
+	 * premier d'entre eux qui a terminé. Sans verrou réel ou depuis le thread qui écrit, 'builder'
+	 * est exécuté à chaque appel.<br>
+	 * <u>CTT : O(1)</u> + la construction si une écriture a eu lieu.
+	 *
+	 * @return		La version figée, immuable.
+	 * @param		builder Construction d'une version figée, sans effet de bord.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@SuppressWarnings("unchecked")
+	<T> T latest(Supplier<T> builder) {
+		if (lock == null || writer == Thread.currentThread()) {
+			return builder.get();
+		}
+		Version version = latest;
+		if (version != null && lock.validate(version.stamp)) {
+			return (T) version.value;
+		}
+		long readStamp = lock.readLock();
+		try {
+			version = latest;
+			if (version != null && lock.validate(version.stamp)) {
+				return (T) version.value;  // Construite par un autre lecteur pendant l'attente du verrou.
+			}
+			// Aucune écriture n'est possible pendant la lecture : ce stamp reste valide jusqu'à la suivante.
+			long stamp = lock.tryOptimisticRead();
+			T value = builder.get();
+			latest = new Version(stamp, value);
+			return value;
+		} finally {
+			lock.unlockRead(readStamp);
+		}
+	}
+
+	/**
+	 * Exécute une modification avec le verrou d'écriture.<br>
+	 * <u>CTT : O(1)</u> + la modification.
+	 *
+	 * @return		Le résultat de la modification.
+	 * @param		change Modification à exécuter.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	<T> T write(Supplier<T> change) {
+		if (lock == null || writer == Thread.currentThread()) {
+			return change.get();
+		}
+		long stamp = lock.writeLock();
+		writer = Thread.currentThread();
+		try {
+			return change.get();
+		} finally {
+			writer = null;
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Variante de {@link BookLock#write(Supplier)} pour une modification sans résultat.<br>
+	 * <u>CTT : O(1)</u> + la modification.
+	 *
+	 * @param		change Modification à exécuter.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	void update(Runnable change) {
+		write(() -> {
+			change.run();
+			return null;
+		});
+	}
+}
@@ -0,0 +1,383 @@
+/**
+ * File name    : ChainGraph.java
+ *
+ * Description  : Graphe des choix dont les couloirs de paragraphes à choix
+ *                unique sont réduits à un seul arc pondéré.
+ *
+ * Version      : 1.0
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains;
+
+import java.util.Arrays;
+
+/**
+ * ChainGraph
+ *
+ * Graphe compressé d'un livre figé ({@link GameBookGraph}) pour les analyses : un paragraphe
+ * qui n'a qu'un seul choix et qu'un seul choix entrant (un couloir) ne peut être atteint que
+ * par son prédécesseur et ne mène qu'à son successeur. Chaque suite maximale de tels paragraphes
+ * est réduite à un arc pondéré par le nombre de choix qu'elle représente, un parcours ne visite
+ * plus les couloirs paragraphe par paragraphe.
+ *
+ * <hr>
+ *
+ * <h2>Noeuds et arcs</h2>
+ * <p>Les noeuds sont les paragraphes qui ne sont pas des couloirs (le paragraphe un en est
+ * toujours un), dans l'ordre du livre. Chaque choix d'un noeud donne un arc, dans l'ordre des
+ * choix : l'arc suit les couloirs jusqu'au noeud suivant et retient sa longueur (le nombre de
+ * choix suivis, au moins 1) et la position du choix de départ dans le livre. Les arcs sont rangés
+ * en tableaux CSR comme les choix de {@link PublishedGameBook}.</p>
+ * <p>Un couloir appartient à un seul arc ({@link ChainGraph#getEdge(int)}) et
+ * {@link ChainGraph#expand(int)} retrouve les ID des paragraphes traversés par un arc, pour
+ * présenter un résultat avec les vrais numéros de paragraphe. Les couloirs qui ne forment qu'un
+ * cycle (aucun noeud n'y mène) n'appartiennent à aucun arc : ils ne sont jamais atteints.</p>
+ *
+ * <h2>Synchronisation avec le livre</h2>
+ * <p>Le graphe est immuable et suit la version du livre dont il est construit.
+ * {@link GameBook#getChainGraph()} le garde tant que {@link GameBook#snapshot()} retourne la même
+ * version, une modification du livre le fait reconstruire au prochain appel.</p>
+ *
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>of() :          <u>CTT:</u> <b>O(n+e)</b></li>
+ * 	<li>getEdgeTarget() : <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>reachable() :   <u>CTT:</u> <b>O(N+E)</b> (noeuds et arcs du graphe compressé)</li>
+ *  <li>expand() :      <u>CTT:</u> <b>O(l)</b> ou 'l' est la longueur de l'arc</li>
+ * </ul>
+ * <hr>
+ *
+ * @version     1.0
+ *
+ * @see         GameBook#getChainGraph()
+ * @author      Jérémi Nihart
+ */
+public final class ChainGraph {
+	// Variables Objet
+	private final GameBookGraph book;
+	private final int[] paragraphs;  // paragraphe de chaque noeud
+	private final int[] nodes;       // noeud de chaque paragraphe, -1 pour un couloir
+	private final int[] chains;      // arc de chaque couloir, -1 pour un noeud
+	private final int[] firstEdge;
+	private final int[] edgeTargets;
+	private final int[] edgeLengths;
+	private final int[] edgeChoices;
+	private final int[] edgeSources;
+
+	private ChainGraph(GameBookGraph book) {
+		this.book = book;
+		int size = book.getSize();
+		int[] incoming = new int[size];
+		for (int c = 0; c < book.getTotalChoiceCount(); c++) {
+			if (book.getChoiceTarget(c) >= 0) {
+				incoming[book.getChoiceTarget(c)]++;
+			}
+		}
+		nodes = new int[size];
+		int nodeCount = 0;
+		for (int p = 0; p < size; p++) {
+			boolean corridor = p > 0 && incoming[p] == 1 && book.getChoiceCount(p) == 1
+					&& book.getChoiceTarget(book.getFirstChoice(p)) >= 0;
+			nodes[p] = corridor ? -1 : nodeCount++;
+		}
+		paragraphs = new int[nodeCount];
+		firstEdge = new int[nodeCount + 1];
+		for (int p = 0; p < size; p++) {
+			if (nodes[p] >= 0) {
+				paragraphs[nodes[p]] = p;
+				firstEdge[nodes[p] + 1] = firstEdge[nodes[p]] + book.getChoiceCount(p);
+			}
+		}
+		int edgeCount = firstEdge[nodeCount];
+		edgeTargets = new int[edgeCount];
+		edgeLengths = new int[edgeCount];
+		edgeChoices = new int[edgeCount];
+		edgeSources = new int[edgeCount];
+		chains = new int[size];
+		Arrays.fill(chains, -1);
+		int edge = 0;
+		for (int node = 0; node < nodeCount; node++) {
+			int p = paragraphs[node];
+			for (int c = book.getFirstChoice(p); c < book.getFirstChoice(p + 1); c++, edge++) {
+				int target = book.getChoiceTarget(c);
+				int length = 1;
+				while (target >= 0 && nodes[target] < 0) {
+					chains[target] = edge;
+					target = book.getChoiceTarget(book.getFirstChoice(target));
+					length++;
+				}
+				edgeTargets[edge] = (target < 0) ? -1 : nodes[target];
+				edgeLengths[edge] = length;
+				edgeChoices[edge] = c;
+				edgeSources[edge] = node;
+			}
+		}
+	}
+
+	/**
+	 * Permet de construire le graphe compressé d'un livre figé.<br>
+	 * <u>CTT : O(n+e)</u> ou 'n' est le nombre de paragraphes et 'e' le nombre de choix.
+	 *
+	 * @return		Le graphe compressé.
+	 * @param		book Livre à compresser, non null.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			GameBook#getChainGraph()
+	 * @author      Jérémi Nihart
+	 */
+	public static ChainGraph of(GameBookGraph book) {
+		return new ChainGraph(book);
+	}
+
+	/**
+	 * Getter, permettant de récupérer le livre dont le graphe est construit (pour le contenu
+	 * et le head des paragraphes).<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Le livre figé.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public GameBookGraph getBook() {
+		return book;
+	}
+
+	/**
+	 * Getter, permettant de récupérer le nombre de noeuds (paragraphes qui ne sont pas des couloirs).<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Nombre de noeuds, le noeud 0 est le paragraphe un.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getNodeCount() {
+		return paragraphs.length;
+	}
+
+	/**
+	 * Getter, permettant de récupérer l'ID du paragraphe d'un noeud.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      L'ID du paragraphe.
+	 * @param		node Numéro du noeud.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getParagraph(int node) {
+		return paragraphs[node];
+	}
+
+	/**
+	 * Getter, permettant de récupérer le noeud d'un paragraphe.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Le numéro du noeud, -1 si le paragraphe est un couloir (voir {@link ChainGraph#getEdge(int)}).
+	 * @param		paragraph ID du paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getNode(int paragraph) {
+		return nodes[paragraph];
+	}
+
+	/**
+	 * Getter, permettant de récupérer l'arc qui traverse un couloir.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Le numéro de l'arc, -1 si le paragraphe est un noeud ou un couloir jamais atteint.
+	 * @param		paragraph ID du paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getEdge(int paragraph) {
+		return chains[paragraph];
+	}
+
+	/**
+	 * Getter, permettant de récupérer le nombre d'arcs du graphe compressé.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Nombre d'arcs.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getEdgeCount() {
+		return edgeTargets.length;
+	}
+
+	/**
+	 * Getter, permettant de récupérer le premier arc d'un noeud (CSR) : les arcs du noeud 'n'
+	 * vont de <code>getFirstEdge(n)</code> à <code>getFirstEdge(n+1)</code> (exclu), dans l'ordre
+	 * des choix de son paragraphe.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Numéro du premier arc.
+	 * @param		node Numéro du noeud, de 0 à {@link ChainGraph#getNodeCount()} (inclus).
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getFirstEdge(int node) {
+		return firstEdge[node];
+	}
+
+	/**
+	 * Getter, permettant de récupérer le noeud de départ d'un arc.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Numéro du noeud de départ.
+	 * @param		edge Numéro de l'arc.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getEdgeSource(int edge) {
+		return edgeSources[edge];
+	}
+
+	/**
+	 * Getter, permettant de récupérer le noeud d'arrivée d'un arc.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Numéro du noeud d'arrivée, -1 si le choix ne cible aucun paragraphe du livre.
+	 * @param		edge Numéro de l'arc.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getEdgeTarget(int edge) {
+		return edgeTargets[edge];
+	}
+
+	/**
+	 * Getter, permettant de récupérer la longueur d'un arc : le nombre de choix suivis entre
+	 * ses deux noeuds (1 pour un choix direct, plus un par couloir traversé).<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Longueur de l'arc.
+	 * @param		edge Numéro de l'arc.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getEdgeLength(int edge) {
+		return edgeLengths[edge];
+	}
+
+	/**
+	 * Getter, permettant de récupérer la position dans le livre du choix par lequel l'arc quitte
+	 * son noeud de départ (pour en connaître le libellé).<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Position du choix (voir {@link GameBookGraph#getChoiceLabelId(int)}).
+	 * @param		edge Numéro de l'arc.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getEdgeChoice(int edge) {
+		return edgeChoices[edge];
+	}
+
+	/**
+	 * Permet d'estimer les octets retenus par les tableaux du graphe, sans le livre dont il
+	 * est construit (voir {@link MemoryFootprint}).<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Nombre d'octets estimé.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public long footprint() {
+		long bytes = 0;
+		for (int[] table : new int[][] {paragraphs, nodes, chains, firstEdge, edgeTargets, edgeLengths, edgeChoices, edgeSources}) {
+			bytes += MemoryFootprint.array(table.length, Integer.BYTES);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Permet de retrouver les paragraphes traversés par un arc : les couloirs dans l'ordre de
+	 * lecture puis le paragraphe du noeud d'arrivée.<br>
+	 * <u>CTT : O(l)</u> ou 'l' est la longueur de l'arc.
+	 *
+	 * @return      Les ID des paragraphes, sans celui du noeud de départ (vide si l'arc ne cible
+	 * 				aucun paragraphe).
+	 * @param		edge Numéro de l'arc.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int[] expand(int edge) {
+		if (edgeTargets[edge] < 0) {
+			return new int[0];
+		}
+		int[] way = new int[edgeLengths[edge]];
+		int paragraph = book.getChoiceTarget(edgeChoices[edge]);
+		for (int i = 0; i < way.length; i++) {
+			way[i] = paragraph;
+			if (i + 1 < way.length) {
+				paragraph = book.getChoiceTarget(book.getFirstChoice(paragraph));
+			}
+		}
+		return way;
+	}
+
+	/**
+	 * Permet de savoir quels noeuds le lecteur peut atteindre depuis le paragraphe un
+	 * (parcours en largeur des arcs). Les couloirs d'un arc sont atteints si son noeud de
+	 * départ l'est.<br>
+	 * <u>CTT : O(N+E)</u> ou 'N' et 'E' sont les nombres de noeuds et d'arcs.
+	 *
+	 * @return      Un tableau indexé par noeud, true si le noeud est atteint.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public boolean[] reachable() {
+		boolean[] reached = new boolean[paragraphs.length];
+		if (paragraphs.length == 0) {
+			return reached;
+		}
+		int[] queue = new int[paragraphs.length];
+		int tail = 0;
+		reached[0] = true;
+		queue[tail++] = 0;
+		for (int head = 0; head < tail; head++) {
+			for (int e = firstEdge[queue[head]]; e < firstEdge[queue[head] + 1]; e++) {
+				int target = edgeTargets[e];
+				if (target >= 0 && !reached[target]) {
+					reached[target] = true;
+					queue[tail++] = target;
+				}
+			}
+		}
+		return reached;
+	}
+}
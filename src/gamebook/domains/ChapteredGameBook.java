@@ -0,0 +1,523 @@
+/**
+ * File name    : ChapteredGameBook.java
+ *
+ * Description  : Livre figé découpé en chapitres chargés à la demande.
+ *
+ * Version      : 1.0
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * ChapteredGameBook
+ *
+ * Livre figé ({@link GameBookGraph}) découpé en chapitres de paragraphes consécutifs. Seule
+ * la table des matières (nombre de paragraphes et de choix de chaque chapitre) est connue à la
+ * construction : un chapitre est chargé par le chargeur fourni la première fois qu'une lecture
+ * touche un de ses paragraphes ou de ses choix. Ouvrir le premier paragraphe
+ * ({@link Session#forPublished(GameBookGraph)}) ne charge que le premier chapitre, quelle que
+ * soit la taille du livre.
+ *
+ * <hr>
+ *
+ * <h2>Choix entre chapitres : ID global</h2>
+ * <p>Les paragraphes gardent l'ID de tout le livre et un choix cible l'ID global de son paragraphe :
+ * un choix vers un autre chapitre n'est qu'un entier tant que personne ne le suit. Le chapitre
+ * ciblé n'est chargé que lorsque son paragraphe est lu.</p>
+ *
+ * <h2>Positions des choix : table des matières</h2>
+ * <p>La position globale d'un choix est celle du premier choix de son chapitre (somme des chapitres
+ * précédents) plus sa position dans le chapitre. Le premier choix du premier paragraphe d'un
+ * chapitre est donc connu sans le charger : le nombre de choix du dernier paragraphe d'un chapitre
+ * ne charge pas le chapitre suivant. Le chapitre d'un paragraphe ou d'un choix est trouvé par
+ * recherche dichotomique dans la table des matières.</p>
+ *
+ * <h2>Libellés</h2>
+ * <p>Les libellés d'un chapitre reçoivent un identifiant du livre à son chargement :
+ * {@link ChapteredGameBook#getLabelCount()} ne compte que les libellés des chapitres déjà chargés.</p>
+ *
+ * <h2>Chargements en cours : une FutureTask par chapitre</h2>
+ * <p>Comme dans {@link BookLibrary}, le premier thread qui demande un chapitre absent place une
+ * FutureTask dans la case du chapitre et exécute le chargement hors verrou, les threads qui
+ * demandent le même chapitre attendent cette tâche. Le chargement d'un chapitre lent ne bloque
+ * donc pas celui des autres chapitres, seule l'attribution des identifiants de libellés est
+ * faite sous le verrou de la table des libellés.</p>
+ *
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>getContent() :     <u>CTT:</u> <b>O(log c)</b> ou 'c' est le nombre de chapitres,
+ * 	                       plus le chargement du chapitre au premier accès</li>
+ *  <li>getFirstChoice() : <u>CTT:</u> <b>O(log c)</b></li>
+ *  <li>getChoiceTarget() : <u>CTT:</u> <b>O(log c)</b></li>
+ *  <li>getTarget() :      <u>CTT:</u> <b>O(log c + k)</b> ou 'k' est le nombre de choix du paragraphe</li>
+ * </ul>
+ *
+ * <h2>Complémentaire :</h2>
+ * <p>Un chapitre est chargé une seule fois même si plusieurs threads le demandent en même temps.
+ * Un chargement qui échoue n'est pas gardé, l'accès suivant le recommence. Un chapitre qui ne
+ * correspond pas à la table des matières lève IllegalStateException.</p>
+ * <hr>
+ *
+ * @version     1.0
+ *
+ * @see         GameBookGraph
+ * @see         Session#forPublished(GameBookGraph)
+ * @author      Jérémi Nihart
+ */
+public final class ChapteredGameBook implements GameBookGraph {
+	// Variables Objet
+	private final String title;
+	private final int[] firstParagraph;  // Premier paragraphe de chaque chapitre, puis la taille du livre.
+	private final int[] firstChoice;     // Premier choix de chaque chapitre, puis le nombre de choix.
+	private final IntFunction<Chapter> loader;
+	private final AtomicReferenceArray<Chapter> chapters;
+	private final AtomicReferenceArray<FutureTask<Chapter>> loading;
+	private final List<String> labels = new ArrayList<>();
+	private final Map<String, Integer> labelIds = new HashMap<>();
+
+	/**
+	 * Constructeur, à partir de la table des matières du livre.<br>
+	 * <u>CTT : O(c)</u> ou 'c' est le nombre de chapitres, aucun chapitre n'est chargé.
+	 *
+	 * @param		title Titre du livre.
+	 * @param		paragraphCounts Nombre de paragraphes de chaque chapitre.
+	 * @param		choiceCounts Nombre de choix de chaque chapitre.
+	 * @param		loader Chargeur d'un chapitre par numéro (0 pour le premier).
+	 *
+	 * @throws		IllegalArgumentException si les tables n'ont pas la même taille, contiennent
+	 * 				un nombre négatif ou si le livre n'a aucun paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public ChapteredGameBook(String title, int[] paragraphCounts, int[] choiceCounts, IntFunction<Chapter> loader) {
+		if (paragraphCounts.length != choiceCounts.length) {
+			throw new IllegalArgumentException("Chapter tables differ in length");
+		}
+		this.title = title;
+		this.loader = Objects.requireNonNull(loader);
+		firstParagraph = new int[paragraphCounts.length + 1];
+		firstChoice = new int[choiceCounts.length + 1];
+		for (int c = 0; c < paragraphCounts.length; c++) {
+			if (paragraphCounts[c] < 0 || choiceCounts[c] < 0) {
+				throw new IllegalArgumentException("Negative count in chapter " + c);
+			}
+			firstParagraph[c + 1] = Math.addExact(firstParagraph[c], paragraphCounts[c]);
+			firstChoice[c + 1] = Math.addExact(firstChoice[c], choiceCounts[c]);
+		}
+		if (firstParagraph[paragraphCounts.length] == 0) {
+			throw new IllegalArgumentException("Book has no paragraph");
+		}
+		chapters = new AtomicReferenceArray<>(paragraphCounts.length);
+		loading = new AtomicReferenceArray<>(paragraphCounts.length);
+	}
+
+	/**
+	 * Permet de découper un livre lu par ID en chapitres de 'chapterSize' paragraphes, chargés
+	 * à la demande depuis 'book' (par exemple pour n'ouvrir qu'une partie d'un {@link OffHeapGameBook}).<br>
+	 * <u>CTT : O(n / chapterSize)</u>
+	 *
+	 * @return		Le livre découpé.
+	 * @param		book Livre à découper, non null.
+	 * @param		chapterSize Nombre de paragraphes par chapitre (le dernier peut en avoir moins).
+	 *
+	 * @throws		IllegalArgumentException si 'chapterSize' est inférieur à 1.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public static ChapteredGameBook of(GameBookGraph book, int chapterSize) {
+		if (chapterSize < 1) {
+			throw new IllegalArgumentException("Chapter size: " + chapterSize);
+		}
+		int count = (book.getSize() + chapterSize - 1) / chapterSize;
+		int[] paragraphCounts = new int[count];
+		int[] choiceCounts = new int[count];
+		for (int c = 0; c < count; c++) {
+			int start = c * chapterSize;
+			int end = Math.min(book.getSize(), start + chapterSize);
+			paragraphCounts[c] = end - start;
+			choiceCounts[c] = book.getFirstChoice(end) - book.getFirstChoice(start);
+		}
+		return new ChapteredGameBook(book.getTitle(), paragraphCounts, choiceCounts, chapter -> {
+			Chapter loaded = new Chapter();
+			int start = chapter * chapterSize;
+			for (int p = start; p < start + paragraphCounts[chapter]; p++) {
+				loaded.addParagraph(book.getContent(p));
+				for (int c = book.getFirstChoice(p); c < book.getFirstChoice(p + 1); c++) {
+					loaded.addChoice(book.getLabel(book.getChoiceLabelId(c)), book.getChoiceTarget(c));
+				}
+			}
+			return loaded;
+		});
+	}
+
+	/**
+	 * Getter, permettant de récupérer le nombre de chapitres du livre.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Nombre de chapitres.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getChapterCount() {
+		return chapters.length();
+	}
+
+	/**
+	 * Getter, permettant de récupérer le chapitre qui contient un paragraphe.<br>
+	 * <u>CTT : O(log c)</u>
+	 *
+	 * @return      Numéro du chapitre.
+	 * @param		paragraph ID du paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getChapterOf(int paragraph) {
+		return chapterAt(firstParagraph, Objects.checkIndex(paragraph, getSize()));
+	}
+
+	/**
+	 * Indique si un chapitre est chargé.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      True si le chapitre est chargé.
+	 * @param		chapter Numéro du chapitre.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public boolean isLoaded(int chapter) {
+		return chapters.get(chapter) != null;
+	}
+
+	@Override
+	public String getTitle() {
+		return title;
+	}
+
+	@Override
+	public int getSize() {
+		return firstParagraph[firstParagraph.length - 1];
+	}
+
+	/**
+	 * Getter, permettant de récupérer le contenu d'un paragraphe, son chapitre est chargé si besoin.<br>
+	 * <u>CTT : O(log c)</u>, plus le chargement du chapitre au premier accès.
+	 *
+	 * @return      Le contenu du paragraphe.
+	 * @param		paragraph ID du paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public String getContent(int paragraph) {
+		int chapter = getChapterOf(paragraph);
+		return chapter(chapter).contents.get(paragraph - firstParagraph[chapter]);
+	}
+
+	/**
+	 * Getter, permettant de récupérer l'ID du paragraphe ciblé par le choix 'key' du
+	 * paragraphe 'paragraph' (parcours des choix du paragraphe).<br>
+	 * <u>CTT : O(log c + k)</u> ou 'k' est le nombre de choix du paragraphe.
+	 *
+	 * @return      L'ID du paragraphe ciblé, -1 si le choix n'existe pas ou ne cible
+	 * 				aucun paragraphe du livre.
+	 * @param		paragraph ID du paragraphe.
+	 * @param		key Libellé du choix.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public int getTarget(int paragraph, String key) {
+		int chapter = getChapterOf(paragraph);
+		Chapter loaded = chapter(chapter);
+		int local = paragraph - firstParagraph[chapter];
+		for (int c = loaded.firstChoice[local]; c < loaded.firstChoice[local + 1]; c++) {
+			if (loaded.labels.get(c).equals(key)) {
+				return loaded.targets[c];
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int getTotalChoiceCount() {
+		return firstChoice[firstChoice.length - 1];
+	}
+
+	@Override
+	public int getFirstChoice(int paragraph) {
+		if (Objects.checkIndex(paragraph, getSize() + 1) == getSize()) {
+			return getTotalChoiceCount();
+		}
+		int chapter = chapterAt(firstParagraph, paragraph);
+		if (paragraph == firstParagraph[chapter]) {
+			return firstChoice[chapter];
+		}
+		return firstChoice[chapter] + chapter(chapter).firstChoice[paragraph - firstParagraph[chapter]];
+	}
+
+	@Override
+	public int getChoiceTarget(int choice) {
+		int chapter = chapterAt(firstChoice, Objects.checkIndex(choice, getTotalChoiceCount()));
+		return chapter(chapter).targets[choice - firstChoice[chapter]];
+	}
+
+	@Override
+	public int getChoiceLabelId(int choice) {
+		int chapter = chapterAt(firstChoice, Objects.checkIndex(choice, getTotalChoiceCount()));
+		return chapter(chapter).labelIds[choice - firstChoice[chapter]];
+	}
+
+	@Override
+	public int getLabelCount() {
+		synchronized (labels) {
+			return labels.size();
+		}
+	}
+
+	@Override
+	public String getLabel(int labelId) {
+		synchronized (labels) {
+			return labels.get(labelId);
+		}
+	}
+
+	/**
+	 * Getter, permettant de récupérer l'estimation des octets retenus par les chapitres chargés
+	 * et la table des matières.<br>
+	 * <u>CTT : O(c + t)</u> ou 't' est le nombre de paragraphes et de choix des chapitres chargés.
+	 *
+	 * @return      Le relevé de la mémoire retenue.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public MemoryFootprint getMemoryFootprint() {
+		long content = MemoryFootprint.string(title);
+		long choices = 0;
+		for (int c = 0; c < chapters.length(); c++) {
+			Chapter loaded = chapters.get(c);
+			if (loaded != null) {
+				content += MemoryFootprint.array(loaded.contents.size(), MemoryFootprint.REFERENCE);
+				for (String text : loaded.contents) {
+					content += MemoryFootprint.string(text);
+				}
+				choices += MemoryFootprint.array(loaded.firstChoice.length, Integer.BYTES)
+						+ MemoryFootprint.array(loaded.targets.length, Integer.BYTES)
+						+ MemoryFootprint.array(loaded.labelIds.length, Integer.BYTES)
+						+ MemoryFootprint.array(loaded.labels.size(), MemoryFootprint.REFERENCE);
+			}
+		}
+		long labelBytes = 0;
+		synchronized (labels) {
+			for (String label : labels) {
+				labelBytes += MemoryFootprint.string(label) + MemoryFootprint.MAP_ENTRY + MemoryFootprint.REFERENCE;
+			}
+		}
+		long tables = MemoryFootprint.array(firstParagraph.length, Integer.BYTES)
+				+ MemoryFootprint.array(firstChoice.length, Integer.BYTES)
+				+ MemoryFootprint.array(chapters.length(), MemoryFootprint.REFERENCE);
+		return new MemoryFootprint(content, choices, labelBytes, tables, 0, 0);
+	}
+
+	/**
+	 * Retourne le chapitre 'chapter', chargé et vérifié au premier accès. Le premier thread qui
+	 * le demande exécute la FutureTask du chapitre, les autres l'attendent. Un chargement qui
+	 * échoue libère la case : l'accès suivant le recommence.
+	 */
+	private Chapter chapter(int chapter) {
+		Chapter loaded = chapters.get(chapter);
+		if (loaded != null) {
+			return loaded;
+		}
+		FutureTask<Chapter> task = loading.get(chapter);
+		if (task == null) {
+			FutureTask<Chapter> created = new FutureTask<>(() -> load(chapter));
+			task = loading.compareAndExchange(chapter, null, created);
+			if (task == null) {
+				task = created;
+				task.run();
+				loading.set(chapter, null);
+			}
+		}
+		return await(task);
+	}
+
+	/**
+	 * Charge et vérifie le chapitre, attribue les identifiants de ses libellés puis le publie.
+	 * Le chapitre peut déjà être publié si sa tâche a été retirée entre les deux lectures de
+	 * {@link ChapteredGameBook#chapter(int)}.
+	 */
+	private Chapter load(int chapter) {
+		Chapter loaded = chapters.get(chapter);
+		if (loaded != null) {
+			return loaded;
+		}
+		loaded = loader.apply(chapter);
+		check(chapter, loaded);
+		loaded.labelIds = new int[loaded.choices];
+		synchronized (labels) {
+			for (int c = 0; c < loaded.choices; c++) {
+				loaded.labelIds[c] = labelIds.computeIfAbsent(loaded.labels.get(c), key -> {
+					labels.add(key);
+					return labels.size() - 1;
+				});
+			}
+		}
+		chapters.set(chapter, loaded);
+		return loaded;
+	}
+
+	private static Chapter await(FutureTask<Chapter> task) {
+		try {
+			return task.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw (RuntimeException) e.getCause();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Chargement du chapitre interrompu", e);
+		}
+	}
+
+	private void check(int chapter, Chapter loaded) {
+		if (loaded == null) {
+			throw new IllegalStateException("Chapter " + chapter + " not found");
+		}
+		if (loaded.contents.size() != firstParagraph[chapter + 1] - firstParagraph[chapter]
+				|| loaded.choices != firstChoice[chapter + 1] - firstChoice[chapter]) {
+			throw new IllegalStateException("Chapter " + chapter + " does not match the table of contents");
+		}
+		for (int c = 0; c < loaded.choices; c++) {
+			if (loaded.targets[c] >= getSize()) {
+				throw new IllegalStateException("Choice " + c + " of chapter " + chapter
+						+ " targets missing paragraph " + loaded.targets[c]);
+			}
+		}
+	}
+
+	/**
+	 * Recherche dichotomique du dernier chapitre dont le début ('starts') est inférieur ou égal à
+	 * 'index' : les chapitres vides sont ainsi ignorés.
+	 */
+	private static int chapterAt(int[] starts, int index) {
+		int low = 0;
+		int high = starts.length - 2;
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+			if (starts[middle] <= index) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Chapter
+	 *
+	 * Contenu d'un chapitre retourné par le chargeur : ses paragraphes dans l'ordre du livre,
+	 * chacun suivi de ses choix. Un choix cible l'ID global d'un paragraphe du livre, qu'il soit
+	 * dans ce chapitre ou dans un autre.
+	 *
+	 * @version     1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public static final class Chapter {
+		// Variables Objet
+		private final List<String> contents = new ArrayList<>();
+		private final List<String> labels = new ArrayList<>();
+		private int[] firstChoice = new int[16];
+		private int[] targets = new int[16];
+		private int[] labelIds;  // Identifiants du livre, attribués au chargement.
+		private int choices;
+
+		/**
+		 * Permet d'ajouter un paragraphe à la fin du chapitre, les choix ajoutés ensuite lui appartiennent.
+		 *
+		 * @return		La position du paragraphe dans le chapitre.
+		 * @param		content Contenu du paragraphe, non null.
+		 *
+		 * @since       1.0
+		 *
+		 * @author      Jérémi Nihart
+		 */
+		public int addParagraph(String content) {
+			contents.add(Objects.requireNonNull(content));
+			if (contents.size() + 1 > firstChoice.length) {
+				firstChoice = Arrays.copyOf(firstChoice, 2 * firstChoice.length);
+			}
+			firstChoice[contents.size()] = choices;
+			return contents.size() - 1;
+		}
+
+		/**
+		 * Permet d'ajouter un choix au dernier paragraphe ajouté.
+		 *
+		 * @return		Ce chapitre.
+		 * @param		label Libellé du choix, non null et unique dans le paragraphe.
+		 * @param		target ID global du paragraphe ciblé, -1 si le choix ne cible aucun paragraphe.
+		 *
+		 * @throws		IllegalArgumentException si la cible est invalide ou si le libellé existe déjà.
+		 * @throws		IllegalStateException si aucun paragraphe n'est ajouté.
+		 *
+		 * @since       1.0
+		 *
+		 * @author      Jérémi Nihart
+		 */
+		public Chapter addChoice(String label, int target) {
+			if (contents.isEmpty()) {
+				throw new IllegalStateException("No paragraph to add the choice to");
+			}
+			if (target < -1) {
+				throw new IllegalArgumentException("Invalid target: " + target);
+			}
+			for (int c = firstChoice[contents.size() - 1]; c < choices; c++) {
+				if (labels.get(c).equals(label)) {
+					throw new IllegalArgumentException("Duplicate choice: " + label);
+				}
+			}
+			if (choices == targets.length) {
+				targets = Arrays.copyOf(targets, 2 * targets.length);
+			}
+			labels.add(Objects.requireNonNull(label));
+			targets[choices++] = target;
+			firstChoice[contents.size()] = choices;
+			return this;
+		}
+	}
+}
@@ -0,0 +1,82 @@
+/**
+ * File name    : ChoiceEdge.java
+ *
+ * Description  : Choix d'un paragraphe vu comme un arc du graphe du livre.
+ *
+ * Version      : 1.0
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains;
+
+/**
+ * ChoiceEdge
+ *
+ * Arc du graphe des choix : le paragraphe source, le libellé du choix et le paragraphe
+ * ciblé. Les arcs sont créés par le parcours de {@link GameBook#edges()}, l'objet est immuable
+ * mais ne suit pas les modifications ultérieures du livre.
+ *
+ * <hr>
+ *
+ * @version     1.0
+ *
+ * @see         GameBook#edges()
+ * @author      Jérémi Nihart
+ */
+public final class ChoiceEdge {
+	// Variables Objet
+	private final Paragraph source;
+	private final String label;
+	private final Paragraph target;
+
+	ChoiceEdge(Paragraph source, String label, Paragraph target) {
+		this.source = source;
+		this.label = label;
+		this.target = target;
+	}
+
+	/**
+	 * Getter, permettant de récupérer le paragraphe qui possède le choix.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Le paragraphe source.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public Paragraph getSource() {
+		return source;
+	}
+
+	/**
+	 * Getter, permettant de récupérer le libellé du choix.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Le libellé du choix.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public String getLabel() {
+		return label;
+	}
+
+	/**
+	 * Getter, permettant de récupérer le paragraphe ciblé par le choix.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Le paragraphe ciblé (peut être null).
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public Paragraph getTarget() {
+		return target;
+	}
+}
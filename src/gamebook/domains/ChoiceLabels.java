@@ -0,0 +1,293 @@
+/**
+ * File name    : ChoiceLabels.java
+ *
+ * Description  : Table des libellés de choix d'un livre.
+ *
+ * Version      : 1.1
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ChoiceLabels
+ *
+ * Table des symboles des libellés de choix : chaque libellé distinct reçoit un
+ * identifiant entier compact et n'est conservé qu'une seule fois. Les paragraphes
+ * rangent l'identifiant de leurs libellés au lieu d'une String par choix, comparer
+ * deux libellés revient donc à comparer deux entiers.
+ *
+ * <hr>
+ *
+ * <h2>Libellé vers identifiant : HashMap</h2>
+ * <p>Une HashMap associe chaque libellé à son identifiant, elle n'est consultée qu'une
+ * fois par opération sur un choix (conversion de la clé reçue).</p>
+ *
+ * <h2>Identifiant vers libellé : ArrayList</h2>
+ * <p>Les identifiants sont attribués dans l'ordre (0, 1, 2, ...), l'ArrayList retrouve donc
+ * le libellé d'un identifiant par son index.</p>
+ *
+ * <h2>Libellés inutilisés : compteurs d'utilisation</h2>
+ * <p>Chaque identifiant compte les choix du livre qui l'utilisent. Lorsque le dernier choix d'un
+ * libellé disparaît, le libellé est retiré de la table et son identifiant est placé dans une pile
+ * pour être réattribué au prochain nouveau libellé : la table ne grandit qu'avec le nombre de
+ * libellés utilisés en même temps.</p>
+ *
+ * <h2>Identifiant vers paragraphes : ArrayList de HashSet</h2>
+ * <p>L'index des paragraphes qui utilisent chaque libellé n'est construit qu'à la première
+ * recherche par libellé (un parcours du livre), il est ensuite tenu à jour par chaque
+ * modification d'un choix. Tant qu'aucune recherche n'est faite, il n'occupe pas de mémoire.</p>
+ *
+ * <h2>Mémoire retenue</h2>
+ * <p>La table compte les octets de ses libellés et ceux de l'index à chaque ajout et retrait
+ * ({@link ChoiceLabels#footprint()} et {@link ChoiceLabels#indexFootprint()}, voir {@link MemoryFootprint}).</p>
+ *
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>acquire() :     <u>CTT:</u> <b>O(1)</b></li>
+ * 	<li>release() :     <u>CTT:</u> <b>O(1)</b></li>
+ * 	<li>idOf() :        <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>labelOf() :     <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>paragraphsWith() : <u>CTT:</u> <b>O(1)</b> (<b>O(n+e)</b> à la première recherche)</li>
+ * </ul>
+ *
+ * <h2>Complémentaire :</h2>
+ * <p>Chaque {@link GameBook} possède sa table, utilisée uniquement sous le verrou du livre.
+ * Les paragraphes qui ne sont dans aucun livre n'utilisent aucune table : ils gardent leurs
+ * libellés sous forme de String, convertis vers la table du livre lorsqu'ils y sont ajoutés
+ * (voir {@link ChoiceStore}).</p>
+ * <hr>
+ *
+ * @version     1.1
+ *
+ * @see         GameBook#getParagraphsByChoiceLabel(String)
+ * @author      Jérémi Nihart
+ */
+public final class ChoiceLabels {
+	// Constante(s)
+	private static final int HASH_SET = 16 + 48 + 80;  // HashSet, sa HashMap et une table de 16 cases.
+
+	// Variables Objet
+	private final Map<String, Integer> ids = new HashMap<>();
+	private final List<String> labels = new ArrayList<>();  // null : identifiant libre.
+	private int[] uses = new int[16];
+	private final Deque<Integer> free = new ArrayDeque<>();
+	private List<Set<Paragraph>> users;  // Construit à la première recherche.
+	private long bytes;
+	private long indexBytes;
+
+	ChoiceLabels() {
+	}
+
+	/**
+	 * Signale qu'un choix de 'paragraph' utilise maintenant le libellé 'label' et retourne
+	 * son identifiant. Un libellé absent de la table reçoit un identifiant libéré s'il y en a
+	 * un, un nouvel identifiant sinon.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		L'identifiant du libellé.
+	 * @param		label Libellé non null.
+	 * @param		paragraph Paragraphe qui possède le choix.
+	 *
+	 * @since       1.1
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	int acquire(String label, Paragraph paragraph) {
+		Integer id = ids.get(label);
+		if (id == null) {
+			id = free.isEmpty() ? labels.size() : free.pop();
+			ids.put(label, id);
+			if (id == labels.size()) {
+				labels.add(label);
+				if (id == uses.length) {
+					uses = Arrays.copyOf(uses, 2 * uses.length);
+				}
+				if (users != null) {
+					users.add(null);
+					indexBytes += MemoryFootprint.REFERENCE;
+				}
+			} else {
+				labels.set(id, label);
+			}
+			bytes += MemoryFootprint.string(label) + MemoryFootprint.MAP_ENTRY + MemoryFootprint.REFERENCE;
+		}
+		uses[id]++;
+		register(id, paragraph);
+		return id;
+	}
+
+	/**
+	 * Signale qu'un choix de 'paragraph' n'utilise plus le libellé 'id'. Le libellé est retiré
+	 * de la table s'il n'est plus utilisé par aucun choix.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @param		id Identifiant du libellé.
+	 * @param		paragraph Paragraphe qui possédait le choix.
+	 *
+	 * @since       1.1
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	void release(int id, Paragraph paragraph) {
+		unregister(id, paragraph);
+		if (--uses[id] == 0) {
+			String label = labels.set(id, null);
+			ids.remove(label);
+			free.push(id);
+			bytes -= MemoryFootprint.string(label) + MemoryFootprint.MAP_ENTRY + MemoryFootprint.REFERENCE;
+			if (users != null && users.set(id, null) != null) {
+				indexBytes -= HASH_SET;
+			}
+		}
+	}
+
+	/**
+	 * Permet d'obtenir l'identifiant d'un libellé sans l'ajouter à la table.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		L'identifiant du libellé, -1 si aucun choix du livre ne l'utilise.
+	 * @param		label Libellé recherché (peut être null).
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int idOf(Object label) {
+		Integer id = ids.get(label);
+		return (id == null) ? -1 : id;
+	}
+
+	/**
+	 * Permet d'obtenir le libellé d'un identifiant.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Le libellé (l'unique instance conservée par la table), null si l'identifiant
+	 * 				est libre.
+	 * @param		id Identifiant attribué par la table.
+	 *
+	 * @throws		IndexOutOfBoundsException si l'identifiant n'a jamais été attribué.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public String labelOf(int id) {
+		return labels.get(id);
+	}
+
+	/**
+	 * Getter, permettant de récupérer le nombre de libellés distincts utilisés par les choix du livre.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre de libellés.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int size() {
+		return ids.size();
+	}
+
+	/**
+	 * Permet de récupérer les paragraphes possédant un choix de libellé 'label'.
+	 * L'index est construit au premier appel en parcourant 'book'.<br>
+	 * <u>CTT : O(1)</u> (<b>O(n+e)</b> au premier appel).
+	 *
+	 * @return		Set non modifiable des paragraphes, vide si le libellé est inconnu.
+	 * @param		label Libellé recherché.
+	 * @param		book Paragraphes utilisant cette table.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	Set<Paragraph> paragraphsWith(String label, Iterable<Paragraph> book) {
+		if (users == null) {
+			users = new ArrayList<>(Collections.nCopies(labels.size(), null));
+			indexBytes = MemoryFootprint.array(labels.size(), MemoryFootprint.REFERENCE);
+			for (Paragraph paragraph : book) {
+				paragraph.forEachChoiceLabelId(id -> register(id, paragraph));
+			}
+		}
+		int id = idOf(label);
+		Set<Paragraph> found = (id < 0) ? null : users.get(id);
+		return (found == null) ? Collections.emptySet() : Collections.unmodifiableSet(found);
+	}
+
+	/**
+	 * Ajoute 'paragraph' à l'index des paragraphes du libellé 'id' s'il est construit.
+	 */
+	private void register(int id, Paragraph paragraph) {
+		if (users != null) {
+			Set<Paragraph> set = users.get(id);
+			if (set == null) {
+				set = new HashSet<>();
+				users.set(id, set);
+				indexBytes += HASH_SET;
+			}
+			if (set.add(paragraph)) {
+				indexBytes += MemoryFootprint.MAP_ENTRY;
+			}
+		}
+	}
+
+	/**
+	 * Retire 'paragraph' de l'index des paragraphes du libellé 'id' s'il est construit.
+	 */
+	private void unregister(int id, Paragraph paragraph) {
+		if (users != null) {
+			Set<Paragraph> set = users.get(id);
+			if (set != null && set.remove(paragraph)) {
+				indexBytes -= MemoryFootprint.MAP_ENTRY;
+			}
+		}
+	}
+
+	/**
+	 * Getter, permettant de récupérer l'estimation des octets retenus par les libellés
+	 * (chaînes, HashMap et ArrayList), tenue à jour à chaque nouveau libellé.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre d'octets estimé.
+	 *
+	 * @since       1.1
+	 *
+	 * @see			MemoryFootprint
+	 * @author      Jérémi Nihart
+	 */
+	long footprint() {
+		return bytes;
+	}
+
+	/**
+	 * Getter, permettant de récupérer l'estimation des octets retenus par l'index des
+	 * paragraphes par libellé, 0 tant qu'il n'est pas construit.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre d'octets estimé.
+	 *
+	 * @since       1.1
+	 *
+	 * @see			ChoiceLabels#paragraphsWith(String, Iterable)
+	 * @author      Jérémi Nihart
+	 */
+	long indexFootprint() {
+		return indexBytes;
+	}
+}
@@ -0,0 +1,591 @@
+/**
+ * File name    : ChoiceStore.java
+ *
+ * Description  : Stockage adaptatif des choix d'un paragraphe.
+ *
+ * Version      : 1.1
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+
+/**
+ * ChoiceStore
+ *
+ * Map des choix d'un paragraphe (clé du choix vers paragraphe ciblé) dont la
+ * représentation s'adapte au nombre de choix.
+ *
+ * <hr>
+ *
+ * <h2>Clés : identifiants de libellés</h2>
+ * <p>Dans un livre, les clés ne sont pas rangées sous forme de String mais sous forme d'identifiant
+ * attribué par la table {@link ChoiceLabels} du livre. Une clé reçue est convertie une seule fois
+ * par opération, les comparaisons suivantes portent sur des entiers. Chaque ajout ou retrait d'un
+ * choix est signalé à la table, qui compte les choix de chaque libellé.</p>
+ * <p>Un paragraphe qui n'est dans aucun livre garde ses clés sous forme de String dans un tableau
+ * parallèle : aucune table n'est partagée entre paragraphes hors livre, ils peuvent donc être
+ * construits par plusieurs threads. Les clés sont converties en identifiants par
+ * {@link ChoiceStore#rebind(ChoiceLabels)} lorsque le paragraphe est ajouté à un livre.</p>
+ *
+ * <h2>Petit nombre de choix : tableaux parallèles</h2>
+ * <p>Jusqu'à {@link ChoiceStore#INLINE_LIMIT} choix, les clés et les cibles sont rangées
+ * dans deux tableaux parallèles, dans l'ordre d'ajout. Un paragraphe terminal n'alloue
+ * aucun tableau et un paragraphe typique (2 ou 3 choix) n'alloue que deux petits tableaux,
+ * là où une HashMap alloue une table de 16 cases et un noeud par choix. Les recherches
+ * sont linéaires mais portent sur au plus {@link ChoiceStore#INLINE_LIMIT} clés.</p>
+ *
+ * <h2>Grand nombre de choix : table d'adressage ouvert</h2>
+ * <p>Au-delà de {@link ChoiceStore#INLINE_LIMIT} choix, les tableaux parallèles gardent les choix
+ * dans l'ordre d'ajout et un tableau d'entiers sert d'index (adressage ouvert, sondage linéaire,
+ * rempli au plus à moitié) : chaque case contient la position d'un choix dans les tableaux.
+ * Une recherche reste en <b>O(1)</b> sans convertir l'identifiant en Integer. Un retrait laisse
+ * un trou dans les tableaux et décale les cases suivantes de l'index (aucune pierre tombale),
+ * les trous sont retirés lorsque les tableaux sont pleins. L'index est conservé même si le
+ * nombre de choix diminue ensuite.</p>
+ *
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>get() :       	<u>CTT:</u> <b>O(k)</b> (k &lt;= 8) puis <b>O(1)</b></li>
+ *  <li>put() :       	<u>CTT:</u> <b>O(k)</b> (k &lt;= 8) puis <b>O(1)</b></li>
+ * 	<li>remove() :      <u>CTT:</u> <b>O(k)</b> (k &lt;= 8) puis <b>O(1)</b></li>
+ *  <li>size() :        <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>forEach() :     <u>CTT:</u> <b>O(k)</b></li>
+ * </ul>
+ *
+ * <h2>Empreinte mémoire mesurée (1 000 000 de paragraphes, JVM 64 bits, oops compressés) :</h2>
+ * <p>Livre de 1M paragraphes dont 20% terminaux et les autres avec 1 à 3 choix
+ * (2 en moyenne), mesure du tas après GC sans compter le contenu des paragraphes :</p>
+ * <ul>
+ *  <li>HashMap par paragraphe : environ 166 octets par paragraphe (158 Mo) ;</li>
+ *  <li>ChoiceStore : environ 86 octets par paragraphe (82 Mo).</li>
+ * </ul>
+ * <hr>
+ *
+ * @version     1.1
+ *
+ * @see         Paragraph
+ * @see         ChoiceLabels
+ * @author      Jérémi Nihart
+ */
+final class ChoiceStore extends AbstractMap<String, Paragraph> {
+	// Constante(s)
+	static final int INLINE_LIMIT = 8;
+
+	private static final int[] NO_KEYS = {};
+	private static final String[] NO_NAMES = {};
+	private static final Paragraph[] NO_TARGETS = {};
+	private static final int HOLE = -1;  // Position libérée par un retrait (mode index).
+
+	// Variables Objet
+	private final Paragraph owner;
+	private ChoiceLabels labels;          // null : paragraphe hors livre, clés rangées dans 'names'.
+	private int[] keys = NO_KEYS;
+	private String[] names = NO_NAMES;
+	private Paragraph[] targets = NO_TARGETS;
+	private int size;
+	private int end;      // Positions utilisées, trous compris (égal à 'size' sans index).
+	private int[] index;  // Position + 1 de chaque choix, 0 : case vide. Null jusqu'à INLINE_LIMIT.
+	private int modCount;
+
+	/**
+	 * Constructeur
+	 *
+	 * @param		owner Paragraphe auquel appartiennent les choix.
+	 *
+	 * @since       1.1
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	ChoiceStore(Paragraph owner) {
+		this.owner = owner;
+	}
+
+	/**
+	 * Getter, permettant de récupérer la table des libellés utilisée par les clés.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		La table des libellés, null si le paragraphe n'est dans aucun livre.
+	 *
+	 * @since       1.1
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	ChoiceLabels labels() {
+		return labels;
+	}
+
+	/**
+	 * Convertit les clés vers la table 'to' (ajout du paragraphe à un livre) ou en String
+	 * si 'to' est null (retrait du livre).<br>
+	 * <u>CTT : O(k)</u> ou 'k' est le nombre de choix.
+	 *
+	 * @param		to Nouvelle table des libellés (peut être null).
+	 *
+	 * @since       1.1
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	void rebind(ChoiceLabels to) {
+		if (to == labels) {
+			return;
+		}
+		String[] named = names;
+		if (labels != null) {
+			named = (targets.length == 0) ? NO_NAMES : new String[targets.length];
+			for (int i = 0; i < end; i++) {
+				if (keys[i] != HOLE) {
+					named[i] = labels.labelOf(keys[i]);
+					labels.release(keys[i], owner);
+				}
+			}
+		}
+		labels = to;
+		if (to == null) {
+			names = named;
+			keys = NO_KEYS;
+		} else {
+			keys = (targets.length == 0) ? NO_KEYS : new int[targets.length];
+			for (int i = 0; i < end; i++) {
+				keys[i] = (named[i] == null) ? HOLE : to.acquire(named[i], owner);
+			}
+			names = NO_NAMES;
+		}
+		if (index != null) {
+			reindex(targets.length);  // Les positions sont rangées selon la clé, qui a changé.
+		}
+		modCount++;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return find(key) >= 0;
+	}
+
+	@Override
+	public Paragraph get(Object key) {
+		int i = find(key);
+		return (i < 0) ? null : targets[i];
+	}
+
+	@Override
+	public Paragraph put(String key, Paragraph target) {
+		int i = find(key);
+		if (i >= 0) {
+			Paragraph old = targets[i];
+			targets[i] = target;
+			return old;
+		}
+		if (index == null && size == INLINE_LIMIT) {
+			reindex(2 * INLINE_LIMIT);
+		} else if (end == targets.length) {
+			// Sans index, les tableaux ont exactement la taille nécessaire (au plus INLINE_LIMIT copies).
+			if (index == null) {
+				resize(size + 1);
+			} else {
+				reindex((end - size > size / 2) ? targets.length : 2 * targets.length);
+			}
+		}
+		if (labels == null) {
+			names[end] = key;
+		} else {
+			keys[end] = labels.acquire(key, owner);
+		}
+		targets[end] = target;
+		if (index != null) {
+			place(end);
+		}
+		end++;
+		size++;
+		modCount++;
+		return null;
+	}
+
+	/**
+	 * Ajoute un choix à la position 'position' parmi les choix (ordre d'ajout), les choix
+	 * suivants sont décalés d'une position. Si la clé existe déjà seule sa cible est remplacée.<br>
+	 * <u>CTT : O(k)</u> ou 'k' est le nombre de choix.
+	 *
+	 * @return		L'ancienne cible de la clé, null si elle n'existait pas.
+	 * @param		position Position du choix (bornée au nombre de choix).
+	 * @param		key Clé du choix.
+	 * @param		target Paragraphe ciblé.
+	 *
+	 * @since       1.1
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	Paragraph putAt(int position, String key, Paragraph target) {
+		if (find(key) >= 0) {
+			return put(key, target);
+		}
+		put(key, target);
+		if (end != size) {
+			reindex(targets.length);  // Sans trou, la position d'un choix est son rang.
+		}
+		int last = end - 1;
+		int at = Math.max(0, Math.min(position, last));
+		if (at == last) {
+			return null;
+		}
+		Paragraph moved = targets[last];
+		System.arraycopy(targets, at, targets, at + 1, last - at);
+		targets[at] = moved;
+		if (labels == null) {
+			String name = names[last];
+			System.arraycopy(names, at, names, at + 1, last - at);
+			names[at] = name;
+		} else {
+			int id = keys[last];
+			System.arraycopy(keys, at, keys, at + 1, last - at);
+			keys[at] = id;
+		}
+		if (index != null) {
+			reindex(targets.length);
+		}
+		modCount++;
+		return null;
+	}
+
+	/**
+	 * Permet de récupérer le rang d'un choix parmi les choix (ordre d'ajout).<br>
+	 * <u>CTT : O(k)</u> ou 'k' est le nombre de choix.
+	 *
+	 * @return		Le rang du choix, -1 si la clé n'existe pas.
+	 * @param		key Clé du choix.
+	 *
+	 * @since       1.1
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	int indexOfKey(Object key) {
+		int i = find(key);
+		int rank = i;
+		for (int j = 0; j < i; j++) {
+			rank -= isHole(j) ? 1 : 0;
+		}
+		return rank;
+	}
+
+	@Override
+	public Paragraph remove(Object key) {
+		int i = find(key);
+		if (i < 0) {
+			return null;
+		}
+		Paragraph old = targets[i];
+		removeAt(i);
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		forEachLabelId(id -> labels.release(id, owner));
+		keys = NO_KEYS;
+		names = NO_NAMES;
+		targets = NO_TARGETS;
+		size = 0;
+		end = 0;
+		index = null;
+		modCount++;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super String, ? super Paragraph> action) {
+		int expectedModCount = modCount;
+		for (int i = 0; i < end; i++) {
+			if (!isHole(i)) {
+				action.accept(labelAt(i), targets[i]);
+			}
+		}
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+	/**
+	 * Parcourt les identifiants des libellés des choix, rien si le paragraphe n'est
+	 * dans aucun livre.<br>
+	 * <u>CTT : O(k)</u> ou 'k' est le nombre de choix.
+	 *
+	 * @param		action Action à exécuter pour chaque identifiant.
+	 *
+	 * @since       1.1
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	void forEachLabelId(IntConsumer action) {
+		if (labels == null) {
+			return;
+		}
+		for (int i = 0; i < end; i++) {
+			if (keys[i] != HOLE) {
+				action.accept(keys[i]);
+			}
+		}
+	}
+
+	@Override
+	public Set<Map.Entry<String, Paragraph>> entrySet() {
+		// Vue créée à la demande : elle n'occupe pas de place dans chaque paragraphe.
+		return new AbstractSet<>() {
+			@Override
+			public int size() {
+				return ChoiceStore.this.size();
+			}
+
+			@Override
+			public Iterator<Map.Entry<String, Paragraph>> iterator() {
+				return new ChoiceIterator();
+			}
+		};
+	}
+
+	/**
+	 * Permet d'estimer les octets retenus par les choix : les deux tableaux parallèles et
+	 * l'index s'il existe, voir {@link MemoryFootprint}.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre d'octets estimé, sans l'objet ChoiceStore lui-même.
+	 *
+	 * @since       1.1
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	long footprint() {
+		long arrays = (targets == NO_TARGETS) ? 0 : MemoryFootprint.array(targets.length, Integer.BYTES)
+				+ MemoryFootprint.array(targets.length, MemoryFootprint.REFERENCE);
+		return (index == null) ? arrays : arrays + MemoryFootprint.array(index.length, Integer.BYTES);
+	}
+
+	private boolean isHole(int i) {
+		return (labels == null) ? names[i] == null : keys[i] == HOLE;
+	}
+
+	private String labelAt(int i) {
+		return (labels == null) ? names[i] : labels.labelOf(keys[i]);
+	}
+
+	private int hashAt(int i) {
+		return (labels == null) ? names[i].hashCode() : keys[i];
+	}
+
+	/**
+	 * Position du choix de clé 'key', -1 s'il n'existe pas. Dans un livre la clé est
+	 * convertie une seule fois, les comparaisons portent ensuite sur des entiers.
+	 */
+	private int find(Object key) {
+		if (labels == null) {
+			return (key instanceof String) ? search(key.hashCode(), key, HOLE) : -1;
+		}
+		int id = labels.idOf(key);
+		return (id < 0) ? -1 : search(id, null, id);
+	}
+
+	private int search(int hash, Object name, int id) {
+		if (index == null) {
+			for (int i = 0; i < size; i++) {
+				if (matches(i, name, id)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+		int mask = index.length - 1;
+		int slot = slotOf(hash, mask);
+		// Au plus une case sur deux est occupée : une case vide termine toujours le sondage.
+		for (int probes = 0; index[slot] != 0 && probes <= mask; probes++) {
+			if (matches(index[slot] - 1, name, id)) {
+				return index[slot] - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	private boolean matches(int i, Object name, int id) {
+		return (labels == null) ? name.equals(names[i]) : keys[i] == id;
+	}
+
+	private void resize(int capacity) {
+		if (labels == null) {
+			names = Arrays.copyOf(names, capacity);
+		} else {
+			keys = Arrays.copyOf(keys, capacity);
+		}
+		targets = Arrays.copyOf(targets, capacity);
+	}
+
+	/**
+	 * Retire les trous des tableaux en gardant l'ordre des choix, leur donne 'capacity' cases
+	 * puis reconstruit l'index (deux cases par case des tableaux).
+	 */
+	private void reindex(int capacity) {
+		int next = 0;
+		for (int i = 0; i < end; i++) {
+			if (!isHole(i)) {
+				if (labels == null) {
+					names[next] = names[i];
+				} else {
+					keys[next] = keys[i];
+				}
+				targets[next++] = targets[i];
+			}
+		}
+		end = next;
+		resize(capacity);
+		Arrays.fill(targets, end, capacity, null);
+		if (labels == null) {
+			Arrays.fill(names, end, capacity, null);
+		}
+		index = new int[2 * capacity];
+		for (int i = 0; i < end; i++) {
+			place(i);
+		}
+		modCount++;
+	}
+
+	private void place(int position) {
+		int mask = index.length - 1;
+		int slot = slotOf(hashAt(position), mask);
+		while (index[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		index[slot] = position + 1;
+	}
+
+	/**
+	 * Retire la position 'position' de l'index en ramenant les cases suivantes de la même
+	 * suite de sondage (retrait sans pierre tombale).
+	 */
+	private void unplace(int position) {
+		int mask = index.length - 1;
+		int hole = slotOf(hashAt(position), mask);
+		while (index[hole] != position + 1) {
+			hole = (hole + 1) & mask;
+		}
+		for (int next = (hole + 1) & mask; index[next] != 0; next = (next + 1) & mask) {
+			int home = slotOf(hashAt(index[next] - 1), mask);
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				index[hole] = index[next];
+				hole = next;
+			}
+		}
+		index[hole] = 0;
+	}
+
+	private static int slotOf(int hash, int mask) {
+		int h = hash * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	private void removeAt(int i) {
+		if (labels != null) {
+			labels.release(keys[i], owner);
+		}
+		if (index != null) {
+			unplace(i);
+			if (labels == null) {
+				names[i] = null;
+			} else {
+				keys[i] = HOLE;
+			}
+			targets[i] = null;
+			size--;
+			if (size == 0) {
+				end = 0;
+			}
+			modCount++;
+			return;
+		}
+		int moved = size - i - 1;
+		if (labels == null) {
+			System.arraycopy(names, i + 1, names, i, moved);
+		} else {
+			System.arraycopy(keys, i + 1, keys, i, moved);
+		}
+		System.arraycopy(targets, i + 1, targets, i, moved);
+		size--;
+		end--;
+		targets[size] = null;
+		if (labels == null) {
+			names[size] = null;
+		}
+		if (size == 0) {
+			keys = NO_KEYS;
+			names = NO_NAMES;
+			targets = NO_TARGETS;
+		}
+		modCount++;
+	}
+
+	/**
+	 * Itérateur sur les choix dans l'ordre d'ajout, qui traduit les identifiants en libellés.
+	 */
+	private final class ChoiceIterator implements Iterator<Map.Entry<String, Paragraph>> {
+		private int next;
+		private int last = -1;
+		private int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext() {
+			while (next < end && isHole(next)) {
+				next++;
+			}
+			return next < end;
+		}
+
+		@Override
+		public Map.Entry<String, Paragraph> next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			last = next++;
+			return new SimpleImmutableEntry<>(labelAt(last), targets[last]);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			removeAt(last);
+			if (index == null) {
+				next = last;  // Les choix suivants ont été décalés d'une position.
+			} else if (end == 0) {
+				next = 0;
+			}
+			last = -1;
+			expectedModCount = modCount;
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/**
+ * File name    : Fingerprint.java
+ *
+ * Description  : Fonctions de hachage 64 bits des empreintes du livre.
+ *
+ * Version      : 1.0
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains;
+
+/**
+ * Fingerprint
+ *
+ * Fonctions utilisées pour calculer l'empreinte d'un paragraphe
+ * ({@link Paragraph#getFingerprint()}) et celle d'un livre ({@link GameBook#getFingerprint()}).
+ *
+ * <hr>
+ *
+ * <h2>Les fonctions utilisées : FNV-1a et mélange de SplitMix64</h2>
+ * <p>Une chaîne est hachée caractère par caractère avec FNV-1a 64 bits, puis le résultat
+ * est mélangé par la fonction finale de SplitMix64 pour répartir les bits. Une suite de
+ * valeurs est combinée comme un polynôme de base {@link Fingerprint#BASE} : l'empreinte
+ * dépend de l'ordre des valeurs et non de la manière dont la suite a été découpée.</p>
+ *
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>of() :          <u>CTT:</u> <b>O(m)</b> ou 'm' est la taille de la chaîne</li>
+ * 	<li>mix() :         <u>CTT:</u> <b>O(1)</b></li>
+ * </ul>
+ *
+ * <h2>Complémentaire :</h2>
+ * <p>Une empreinte ne vaut jamais 0 : les classes qui la gardent en cache utilisent cette
+ * valeur pour "à recalculer". Deux empreintes différentes garantissent un contenu différent,
+ * deux empreintes égales un contenu identique à une collision près (probabilité 2<sup>-64</sup>).</p>
+ * <hr>
+ *
+ * @version     1.0
+ *
+ * @see         ParagraphSequence#fingerprint()
+ * @author      Jérémi Nihart
+ */
+final class Fingerprint {
+	// Constante(s)
+	static final long BASE = 0x100000001B3L;  // Nombre premier de FNV, impair.
+	private static final long OFFSET = 0xCBF29CE484222325L;
+
+	private Fingerprint() {
+	}
+
+	/**
+	 * Permet de hacher une chaîne.<br>
+	 * <u>CTT : O(m)</u> ou 'm' est la taille de la chaîne.
+	 *
+	 * @return		L'empreinte de la chaîne.
+	 * @param		text Chaîne à hacher, non null.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	static long of(String text) {
+		long h = OFFSET;
+		for (int i = 0; i < text.length(); i++) {
+			h ^= text.charAt(i);
+			h *= BASE;
+		}
+		return mix(h);
+	}
+
+	/**
+	 * Permet de mélanger les bits d'une valeur (fonction finale de SplitMix64).<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		La valeur mélangée.
+	 * @param		value Valeur à mélanger.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	static long mix(long value) {
+		long h = value + 0x9E3779B97F4A7C15L;
+		h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+		h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+		return h ^ (h >>> 31);
+	}
+
+	/**
+	 * Remplace la valeur réservée 0 par 1.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Une empreinte non nulle.
+	 * @param		value Empreinte calculée.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	static long nonZero(long value) {
+		return (value == 0) ? 1 : value;
+	}
+}
@@ -1,20 +1,32 @@
 /**
  * File name    : GameBook.java
  *
- * Description  : Classe grant le livre.
+ * Description  : Classe gérant le livre.
  *
- * Version      : 1.2
+ * Version      : 1.3
  * Since        : 1.0
- * Date         : 11/05/2021
+ * Date         : 18/10/2026
  *
- * Author       : Jrmi Nihart <j.nihart@student.helmo.be>
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
  * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
  */
 package gamebook.domains;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * GameBook
@@ -22,68 +34,118 @@ import java.util.List;
  * Permet d'attribuer un titre au livre ainsi que des paragraphes.
  * 
  * <hr>
- * <b>(Mis  jour depuis v1.0)</b>
+ * <b>(Mis à jour depuis v1.2)</b>
  * 
- * <h2>L'interface utilise : List</h2>
+ * <h2>L'interface utilisée : List</h2>
  * <p>J'utilise une List comme interface car elle permet de construire une simple
- * liste de {@link Paragraph} ordonne en fonction de leurs index (dans un
- * ordre croisant d'insertion) et d'implmenter par la suite une ArrayList.</p>
+ * liste de {@link Paragraph} ordonnée en fonction de leurs index (dans l'ordre
+ * choisi par l'auteur : ajout à la fin, insertion ou déplacement).</p>
  * 
- * <h2>L'implmentation utilise : ArrayList</h2>
- * <p>J'ai implment une ArrayList comme moyen de stockage de mes paragaphes
- * pour y avoir accs directement depuis leurs index...</p>
+ * <h2>L'implémentation utilisée : ParagraphSequence</h2>
+ * <p>L'ArrayList utilisée auparavant décalait tous les paragraphes suivants lors d'une
+ * suppression et ne permettait pas de réordonner le livre sans le reconstruire. J'utilise
+ * maintenant {@link ParagraphSequence}, un arbre de statistique d'ordre (treap implicite)
+ * accompagné d'un index paragraphe vers noeud : la position d'un paragraphe et le paragraphe
+ * d'une position restent en <b>O(log n)</b> quelles que soient les insertions, suppressions
+ * et déplacements effectués.</p>
  * 
- * Pincipales oprations (cas gnreux) :
+ * Pincipales opérations :
  * <ul>
- * 	<li>indexOf() :     <u>CTT:</u> <b>O(n)</b>*</li>
- * 	<li>get() :       	<u>CTT:</u> <b>O(1)</b></li>
- *  <li>add() :       	<u>CTT:</u> <b>O(1)</b></li>
- * 	<li>addAll() :      <u>CTT:</u> <b>O(n+m)</b>**</li>
+ * 	<li>get() :       	<u>CTT:</u> <b>O(log n)</b></li>
+ * 	<li>indexOf() :     <u>CTT:</u> <b>O(log n)</b></li>
+ * 	<li>contains() :    <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>add() :       	<u>CTT:</u> <b>O(log n)</b></li>
+ *  <li>move() :       	<u>CTT:</u> <b>O(log n)</b></li>
  *  <li>size() :        <u>CTT:</u> <b>O(1)</b></li>
- *  <li>remove() :      <u>CTT:</u> <b>O(n)</b>***</li>
+ *  <li>remove() :      <u>CTT:</u> <b>O(log n)</b></li>
  * </ul>
  * 
- * <h2>Complmentaire :</h2>
- * <p><b><u>Invariant:</u></b> Le livre doit toujours possder un titre non null et un pragraphe
- * initialis qui sera son numro un.</p>
+ * <h2>Complémentaire :</h2>
+ * <p><b><u>Invariant:</u></b> Le livre doit toujours posséder un titre non null et un pragraphe
+ * initialisé qui sera son numéro un. Un même objet {@link Paragraph} ne figure qu'une seule fois
+ * dans le livre et n'appartient qu'à un seul livre.</p>
  * 
- * <hr>
+ * <h2>Libellés des choix : ChoiceLabels</h2>
+ * <p>Le livre possède une table {@link ChoiceLabels} qui attribue un identifiant entier à chaque
+ * libellé de choix distinct. Les paragraphes du livre rangent ces identifiants au lieu d'une
+ * String par choix et la table permet de retrouver les paragraphes d'un libellé sans parcourir
+ * le livre (voir {@link GameBook#getParagraphsByChoiceLabel(String)}).</p>
+ * 
+ * <h2>Contenu des paragraphes : TextArena</h2>
+ * <p>Le contenu des paragraphes du livre est rangé en UTF-8 dans une zone {@link TextArena}
+ * partagée, au lieu d'une String par paragraphe (voir {@link Paragraph#getContent()}).</p>
+ * 
+ * <h2>Mode concurrent : BookLock</h2>
+ * <p>Un livre créé en mode concurrent partage un {@link BookLock} (StampedLock) avec ses paragraphes :
+ * lectures optimistes et modifications exclusives (voir {@link GameBook#GameBook(String, Collection, boolean)}).
+ * Sans ce mode, le verrou ne fait rien et le livre reste réservé à un seul thread.</p>
+ * 
+ * <h2>Identifiants permanents : pierres tombales</h2>
+ * <p>L'ID d'un paragraphe est sa position : une insertion, un déplacement ou une suppression change
+ * celui des paragraphes suivants. Le livre attribue donc aussi à chaque paragraphe ajouté un identifiant
+ * permanent ({@link Paragraph#getPermanentId()}), l'indice de sa case dans une ArrayList. Une suppression
+ * laisse une pierre tombale (null) dans sa case au lieu de décaler les suivants : l'identifiant n'est
+ * jamais réattribué et une référence vers un paragraphe supprimé mène à null plutôt qu'à un autre
+ * paragraphe. Les positions restent compactées par {@link ParagraphSequence} et le numéro affiché
+ * ({@link GameBook#getParagraphHead(Paragraph)}) est calculé à la demande.</p>
+ * <p>La table garde donc une case (une référence, comptée par {@link GameBook#getMemoryFootprint()})
+ * par identifiant attribué, seule la case du dernier identifiant est rendue par une suppression.
+ * Les traitements de tout le livre ({@link GameBook#compact()}, renumérotation) n'indexent que les
+ * paragraphes présents et ne dépendent pas du nombre de pierres tombales.</p>
+ * 
+ * <h2>Empreinte du livre : arbre de Merkle</h2>
+ * <p>{@link GameBook#getFingerprint()} résume le titre et tous les paragraphes du livre en 64 bits.
+ * Chaque paragraphe garde sa propre empreinte ({@link Paragraph#getFingerprint()}) et chaque noeud
+ * de {@link ParagraphSequence} celle de son sous-arbre : une modification ne marque à recalculer
+ * que le chemin du paragraphe modifié jusqu'à la racine, en <b>O(log n)</b>, au lieu de hacher à
+ * nouveau tout le livre.</p>
+ * 
+ * <h2>Renumérotation : localité</h2>
+ * <p>L'ordre des paragraphes est celui choisi par l'auteur, des paragraphes liés par un choix peuvent
+ * donc être très éloignés. {@link GameBook#reorderBreadthFirst()} et {@link GameBook#reorderCuthillMcKee()}
+ * renumérotent le livre en une passe pour que les voisins du graphe reçoivent des ID proches, avant
+ * de le publier pour une analyse ({@link GameBook#snapshot()}).</p>
  * 
- * <u>Lgende :</u>
- * <p>*: Dans le meilleur des cas (si un seul paragraphe est prsent dans la liste) la CTT de
- * indexOf est de <b>O(1)</b>. Dans un cas plus gnrale indexOf boucle ses lments (les lments de
- * sa liste) pour vrifier qu'ils correspondent, donc la CTT est de <b>O(n)</b> ou 'n' est le nombre
- * de paragraphe (plus d'informations dans la mthode l'utilisant:
- * {@link GameBook#getParagraphIdByObject(Paragraph)}).</p>
- * <p>**: En faisant des recherche sur le fonctionnement de cette fonction
- * j'ai pu dcouvrir qu'en Java 11 <code>addAll()</code> a t rcrite, celle-ci fonctionne
- * comme suit:<br>De base l'implmentation de collection utilis est convertie
- * en tableau, elle itre tout c'est lment(s) donc <b>O(n)</b>
- * Ensuite dans le cas ou notre ArrayList est trop petite
- * pour contenir les lments  ajouter ont l'agrandit donc O(m) de plus la
- * fonction utilise <code>System.arraycopy()</code> pour copier les nouveaux
- * lments je n'ai pas pu trouver le code de cette fonction et donc par
- * dduction sa CTT est dans le meilleur des cas <b>O(1)</b> et dans le pire
- * <b>O(n)</b> (pour faire une boucle permettant de copier les lments) la CTT
- * final reste donc inchang.<br>
- * Dans le cas o l'on ne prend pas en compte l'agrandissement de la List, CTT: <b>O(n)</b>.</p>
- * <p>***: Dans la pire des cas la CTT de remove est de <b>O(n)</b> ou 'n' est le nombre d'lment
- *  dcaler prcdent celui  supprimer. Tandit que dans le meilleur des cas la CTT est de <b>O(1)</b>,
- * si l'lement  supprimer est le dernier de la liste.</p>
+ * <h2>Graphe compressé : couloirs</h2>
+ * <p>{@link GameBook#getChainGraph()} réduit chaque suite de paragraphes à choix unique (un seul choix,
+ * un seul choix entrant) à un arc pondéré par sa longueur. Les analyses le parcourent noeud par noeud
+ * et retrouvent les vrais numéros de paragraphe avec {@link ChainGraph#expand(int)}.</p>
+ * 
+ * <h2>Mémoire retenue : compteurs</h2>
+ * <p>{@link GameBook#getMemoryFootprint()} donne les octets retenus par composant sans parcourir le
+ * livre : la zone des contenus et la table des libellés tiennent leurs compteurs à jour, les noeuds
+ * de la liste des paragraphes gardent ceux de leur sous-arbre comme leur nombre de choix.</p>
+ * 
+ * <h2>Flux des paragraphes et des choix : Stream</h2>
+ * <p>{@link GameBook#paragraphs()} et {@link GameBook#edges()} parcourent le livre sans boucle sur
+ * {@link GameBook#getParagraphByID(int)} (<b>O(log n)</b> par appel) ni copie des choix. Leurs
+ * Spliterator connaissent leur taille exacte et se découpent en moitiés égales : un traitement
+ * {@code parallel()} répartit le livre entre les coeurs.</p>
  * <hr>
  *
- * @version     1.2
+ * @version     1.3
  *
  * @see         Paragraph
- * @author      Jrmi Nihart
+ * @author      Jérémi Nihart
  */
 public class GameBook {
 	// Constante publique
 	public static final String BOOK_TITLE = "Nouveau livre";
 
+	// Constante(s)
+	private static final int PARAGRAPH_BYTES = 72 + 48 + 32 + 88 + MemoryFootprint.MAP_ENTRY;  // Paragraph, ChoiceStore, vue des choix, noeud et entrée de l'index de la liste.
+
 	// Variable Objet
 	private String title;
-	private final List<Paragraph> paragraphs = new ArrayList<>();
+	private final ParagraphSequence paragraphs = new ParagraphSequence();
+	private final ChoiceLabels labels = new ChoiceLabels();
+	private final TextArena text = new TextArena(paragraphs);
+	private final BookLock lock;
+	private final List<Paragraph> byPermanentId = new ArrayList<>();  // null : paragraphe supprimé.
+	private PublishedGameBook published;  // Dernière version de snapshot() hors mode concurrent.
+	private long titleChanges;
+	private long publishedVersion;        // Nombre de modifications lors de la compilation de 'published'.
+	private volatile ChainGraph chains;   // Graphe compressé de la version publiée, voir getChainGraph().
 	
 	/** 
 	 * Constructeur
@@ -95,9 +157,39 @@ public class GameBook {
 	 * @since       1.2
 	 *
 	 * @see 		Paragraph
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public GameBook(String title, Collection<Paragraph> paragraphs) {
+		this(title, paragraphs, false);
+	}
+	
+	/** 
+	 * Constructeur, permettant de créer un livre partagé entre plusieurs threads.
+	 * 
+	 * <hr>
+	 * 
+	 * <p>En mode concurrent, les lectures du livre et de ses paragraphes ({@link GameBook#getSize()},
+	 *    {@link GameBook#getParagraphByID(int)}, {@link Paragraph#getChoices()},
+	 *    {@link Paragraph#getParagraphByChoiceKey(String)}, ...) sont des lectures optimistes d'un
+	 *    {@link BookLock} : sans modification simultanée elles ne prennent aucun verrou. Les modifications
+	 *    du livre et de ses paragraphes prennent le verrou d'écriture, une transaction
+	 *    {@link GameBook#edit(Consumer)} le garde jusqu'à sa fin.</p>
+	 * <p>Les vues vivantes ({@link Paragraph#getChoiceView()}) ne sont pas protégées, et un paragraphe
+	 *    hors livre ne doit être modifié que par un seul thread.</p>
+	 * <hr>
+	 *
+	 * @param		title Titre du livre.
+	 * @param		paragraphs Collection contenant les paragraphes de base
+	 * 						   du livre.
+	 * @param		concurrent True pour protéger le livre par un verrou.
+	 *
+	 * @since       1.3
+	 *
+	 * @see 		BookLock
+	 * @author      Jérémi Nihart
+	 */
+	public GameBook(String title, Collection<Paragraph> paragraphs, boolean concurrent) {
+		lock = concurrent ? new BookLock() : BookLock.NONE;
 		setTitle(title);
 		if (paragraphs == null || paragraphs.isEmpty()) {
 			addParagraph(new Paragraph(null));
@@ -109,52 +201,52 @@ public class GameBook {
 	}
 	
 	/** 
-	 * Getter, permettan de rcuprer le titre du livre.
+	 * Getter, permettan de récupérer le titre du livre.
 	 *
 	 * @return      Titre du livre.
 	 *
 	 * @since       1.0
 	 *
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public String getTitle() {
-		return title;
+		return lock.read(() -> title);
 	}
 	
 	/** 
-	 * Getter, permettan de rcuprer la taille du livre.
+	 * Getter, permettan de récupérer la taille du livre.
 	 *
 	 * @return      Taille du livre.
 	 *
 	 * @since       1.2
 	 *
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public int getSize() {
-		return paragraphs.size();
+		return lock.readInt(paragraphs::size);
 	}
 	
 	/**
-	 * Getter, permet de rcuprer l'en-tte d'un paragraphe.<br>
-	 * <u>CTT : O(n)</u> (voir {@link GameBook#getParagraphIdByObject(Paragraph)}).
+	 * Getter, permet de récupérer l'en-tête d'un paragraphe.<br>
+	 * <u>CTT : O(log n)</u> (voir {@link GameBook#getParagraphIdByObject(Paragraph)}).
 	 *
-	 * @return      En-tte d'un paragraphe {@link Paragraph}.
+	 * @return      En-tête d'un paragraphe {@link Paragraph}.
 	 *                      Exemple: <i>Paragraphe 17</i>
 	 * @param 		paragraph Objet {@link Paragraph} pour lequel on a besoin de
-	 *                        rcuprer le head (titre).
+	 *                        récupérer le head (titre).
 	 *
 	 * @since       1.1
 	 *
 	 * @see 		Paragraph#PARAGRAPH_HEAD
 	 * @see 		GameBook#getParagraphIdByObject(Paragraph)
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public String getParagraphHead(Paragraph paragraph) {
 		return String.format("%s %s", Paragraph.PARAGRAPH_HEAD, getParagraphIdByObject(paragraph)+1);
 	}
 	
 	/**
-	 * Getter, permettant de rcuprer une liste du contenu de tous les paragraphes.<br>
+	 * Getter, permettant de récupérer une liste du contenu de tous les paragraphes.<br>
 	 * <u>CTT : O(n)</u> ou 'n' est le nombre de paragraphe(s) du livre.
 	 *
 	 * @return      Une liste du contenu de chaque objet {@link Paragraph} du
@@ -163,182 +255,1055 @@ public class GameBook {
 	 * @since       1.1
 	 *
 	 * @see 		Paragraph#getContent()
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public List<String> getParagraphsContents() {
-		List<String> heads = new ArrayList<>();
-		for (Paragraph paragraph : paragraphs) {
-			heads.add(paragraph.getContent());
-		}
-		return heads;
+		return lock.readLocked(() -> {
+			List<String> heads = new ArrayList<>();
+			for (Paragraph paragraph : paragraphs) {
+				heads.add(paragraph.getContent());
+			}
+			return heads;
+		});
 	}
 	
 	/** 
 	 * Getter, permettant d'obtenir un paragraphe en fonction de sa
 	 * position dans la liste de paragraphes de l'objet {@link GameBook}.<br>
-	 * <u>CTT : O(1)</u>
+	 * <u>CTT : O(log n)</u>
 	 *
-	 * @return      Objet {@link Paragraph} dont le numro correspond.
+	 * @return      Objet {@link Paragraph} dont le numéro correspond.
 	 * @param		id L'ID du paragraphe dans la liste de paragraphes du livre.
 	 *
 	 * @since       1.0
 	 *
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public Paragraph getParagraphByID(int id) {
-		return paragraphs.get(id);
+		return lock.read(() -> paragraphs.get(id));
 	}
 	
 	/** 
-	 * Getter, permettant de rcuprer le dernier paragraphe.<br>
-	 * <u>CTT : O(1)</u>
+	 * Getter, permettant de récupérer le dernier paragraphe.<br>
+	 * <u>CTT : O(log n)</u>
 	 *
-	 * @return      Objet {@link Paragraph} numro [nombre de paragraphe-1].
+	 * @return      Objet {@link Paragraph} numéro [nombre de paragraphe-1].
 	 *
 	 * @since       1.1
 	 *
 	 * @see			GameBook#getParagraphByID(int)
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public Paragraph getLastParagraph() {
-		return getParagraphByID(getSize()-1);
+		return lock.read(() -> paragraphs.get(paragraphs.size()-1));
 	}
 	
 	/** 
-	 * Getter, permettant de rcuprer l'ID d'un paragraphe par son objet.<br>
-	 * <u>Meilleur CTT : O(1)</u> dans le cas ou le nombre de paragraphe est plus
-	 *    petit ou gale  un.<br>
-	 * <u>Pire CTT : O(n)</u> dans le cas o le nombre de paragraphe est plus grand
-	 *    que 1, 'n' quivaut  sa position dans la liste, plus gnralement O(n/2).
+	 * Getter, permettant de récupérer l'ID d'un paragraphe par son objet.<br>
+	 * <u>CTT : O(log n)</u> la position est calculée depuis le noeud du paragraphe
+	 *    dans {@link ParagraphSequence} au lieu de parcourir la liste des paragraphes.
 	 *
-	 * @return      ID du paragraphe (quivaut  l'index).
-	 * @param		paragraph Objet {@link Paragraph} dont l'on souhaite rcuprer l'ID.
+	 * @return      ID du paragraphe (équivaut à l'index) ou -1 si le paragraphe
+	 *                  n'appartient pas au livre.
+	 * @param		paragraph Objet {@link Paragraph} dont l'on souhaite récupérer l'ID.
 	 *
 	 * @since       1.1
 	 *
-	 * @see			Paragraph
-	 * @author      Jrmi Nihart
+	 * @see			ParagraphSequence#indexOf(Object)
+	 * @author      Jérémi Nihart
 	 */
 	public int getParagraphIdByObject(Paragraph paragraph) {
-		return paragraphs.indexOf(paragraph);
+		return lock.readInt(() -> paragraphs.indexOf(paragraph));
+	}
+	
+	/** 
+	 * Getter, permettant de récupérer un paragraphe par son identifiant permanent.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Objet {@link Paragraph} dont l'identifiant correspond, null si il a été
+	 * 					supprimé du livre ou si l'identifiant n'a jamais été attribué.
+	 * @param		permanentId Identifiant permanent du paragraphe.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			Paragraph#getPermanentId()
+	 * @author      Jérémi Nihart
+	 */
+	public Paragraph getParagraphByPermanentId(int permanentId) {
+		return lock.read(() -> (permanentId < 0 || permanentId >= byPermanentId.size()) ? null
+				: byPermanentId.get(permanentId));
+	}
+	
+	/** 
+	 * Getter, permettant de récupérer l'ID (la position actuelle) d'un paragraphe à partir
+	 * de son identifiant permanent.<br>
+	 * <u>CTT : O(log n)</u>
+	 *
+	 * @return      ID du paragraphe ou -1 si il a été supprimé du livre.
+	 * @param		permanentId Identifiant permanent du paragraphe.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			GameBook#getParagraphIdByObject(Paragraph)
+	 * @author      Jérémi Nihart
+	 */
+	public int getParagraphIdByPermanentId(int permanentId) {
+		return lock.readInt(() -> (permanentId < 0 || permanentId >= byPermanentId.size()) ? -1
+				: paragraphs.indexOf(byPermanentId.get(permanentId)));
+	}
+	
+	/** 
+	 * Permet de parcourir les paragraphes du livre dans l'ordre, éventuellement en parallèle.
+	 * 
+	 * <hr>
+	 * 
+	 * <p>Le flux repose sur {@link ParagraphSequence#spliterator()} : taille exacte (SIZED, SUBSIZED)
+	 *    et découpe en deux moitiés égales en <b>O(log n)</b>. Le livre ne doit pas être modifié
+	 *    pendant le parcours (ConcurrentModificationException si un paragraphe est inséré, supprimé
+	 *    ou déplacé). En mode concurrent, le flux parcourt une copie de la liste prise par une lecture
+	 *    de {@link BookLock}.</p>
+	 * <hr>
+	 * <u>CTT : O(n)</u> pour un parcours complet.
+	 *
+	 * @return		Flux des paragraphes du livre.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			GameBook#edges()
+	 * @author      Jérémi Nihart
+	 */
+	public Stream<Paragraph> paragraphs() {
+		if (lock.isConcurrent()) {
+			return lock.readLocked(() -> List.copyOf(paragraphs)).stream();
+		}
+		return StreamSupport.stream(paragraphs.spliterator(), false);
+	}
+	
+	/** 
+	 * Permet de parcourir tous les choix du livre ({@link ChoiceEdge} : source, libellé, cible), dans
+	 * l'ordre des paragraphes puis de leurs choix, éventuellement en parallèle.
+	 * 
+	 * <hr>
+	 * 
+	 * <p>Chaque noeud de {@link ParagraphSequence} connaît le nombre de choix de son sous-arbre : le
+	 *    flux connaît donc son nombre exact de choix et se découpe en deux moitiés de même nombre de
+	 *    choix en <b>O(log n)</b> (voir {@link ParagraphSequence#edgeSpliterator()}). Mêmes restrictions
+	 *    que {@link GameBook#paragraphs()}, les choix ne doivent pas non plus être modifiés pendant le
+	 *    parcours.</p>
+	 * <hr>
+	 * <u>CTT : O(n+e)</u> pour un parcours complet ou 'e' est le nombre de choix.
+	 *
+	 * @return		Flux des choix du livre.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			ChoiceEdge
+	 * @author      Jérémi Nihart
+	 */
+	public Stream<ChoiceEdge> edges() {
+		if (lock.isConcurrent()) {
+			return lock.readLocked(() -> StreamSupport.stream(paragraphs.edgeSpliterator(), false)
+					.collect(Collectors.toUnmodifiableList())).stream();
+		}
+		return StreamSupport.stream(paragraphs.edgeSpliterator(), false);
+	}
+	
+	/** 
+	 * Getter, permettant de récupérer la table des libellés de choix du livre.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      La table des libellés.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			ChoiceLabels
+	 * @author      Jérémi Nihart
+	 */
+	public ChoiceLabels getChoiceLabels() {
+		return labels;
+	}
+	
+	/** 
+	 * Getter, permettant de récupérer les paragraphes du livre qui possèdent un
+	 * choix de libellé 'label'.<br>
+	 * <u>CTT : O(1)</u> La première recherche construit l'index des libellés en
+	 *    <b>O(n+e)</b>, il est ensuite tenu à jour par chaque modification d'un choix.
+	 *
+	 * @return      Set non modifiable des paragraphes, vide si aucun choix n'a ce libellé. En mode
+	 * 					concurrent, une copie (la première recherche remplit l'index, voir
+	 * 					{@link BookLock#readCaching(java.util.function.Supplier)}).
+	 * @param		label Libellé recherché.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			ChoiceLabels
+	 * @author      Jérémi Nihart
+	 */
+	public Set<Paragraph> getParagraphsByChoiceLabel(String label) {
+		return lock.readCaching(() -> {
+			Set<Paragraph> found = labels.paragraphsWith(label, paragraphs);
+			return lock.isConcurrent() ? Set.copyOf(found) : found;
+		});
 	}
 	
 	/** 
-	 * Setter, permettant de dfinir le titre du livre.
+	 * Setter, permettant de définir le titre du livre.
 	 *
-	 * @return 		True si la valeur du paramtre 'title' est valide et que le titre courant a t
-	 *              	 mis  jour avec et False dans le cas o la valeur de titre est invalide.
-	 * @param		title Titre souhait. <b>Attention le titre ne doit tre ni null ni blanc.</b>
+	 * @return 		True si la valeur du paramètre 'title' est valide et que le titre courant a été
+	 *              	 mis à jour avec et False dans le cas où la valeur de titre est invalide.
+	 * @param		title Titre souhaité. <b>Attention le titre ne doit être ni null ni blanc.</b>
 	 *
 	 * @since       1.0
 	 *
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public boolean setTitle(String title) {
-		if (title == null || title.isBlank()) {
-			if (this.title == null) {
-				this.title = BOOK_TITLE;
+		return lock.write(() -> {
+			if (title == null || title.isBlank()) {
+				if (this.title == null) {
+					this.title = BOOK_TITLE;
+				}
+				return false;
+			} else {
+				this.title = title;
+				titleChanges++;
+				return true;
 			}
+		});
+	}
+	
+	/** 
+	 * Permet d'ajouter un paragraphe à la fin du livre.<br>
+	 * <u>CTT : O(log n)</u>
+	 *
+	 * @return		True : Le paragraphe a été ajouté.<br>
+	 * 					   False : Le paragraphe est null ou figure déjà dans le livre.
+	 * @param		paragraph Paragraphe à ajouter au livre.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public boolean addParagraph(Paragraph paragraph) {
+		if (paragraph == null) {
 			return false;
+		}
+		// La position est lue avec le verrou d'écriture : un autre ajout ou une suppression
+		// ne peut pas avoir lieu entre la lecture de la taille et l'insertion.
+		return lock.write(() -> insert(paragraphs.size(), paragraph, byPermanentId.size()));
+	}
+	
+	/** 
+	 * Permet d'insérer un paragraphe à la position 'index' du livre, les
+	 * paragraphes suivants sont décalés d'une position. Le paragraphe reçoit un
+	 * nouvel identifiant permanent.<br>
+	 * <u>CTT : O(log n)</u>
+	 *
+	 * @return		True : Le paragraphe a été inséré.<br>
+	 * 					   False : Le paragraphe est null ou figure déjà dans ce livre ou un autre.
+	 * @param		index Position du paragraphe après l'insertion (0 &lt;= index &lt;= taille du livre).
+	 * @param		paragraph Paragraphe à insérer dans le livre.
+	 * 
+	 * @throws		IndexOutOfBoundsException si 'index' est hors limite.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			ParagraphSequence#add(int, Paragraph)
+	 * @author      Jérémi Nihart
+	 */
+	public boolean insertParagraphAt(int index, Paragraph paragraph) {
+		if (paragraph == null) {
+			return false;
+		}
+		return lock.write(() -> insert(index, paragraph, byPermanentId.size()));
+	}
+	
+	/** 
+	 * Permet de remettre un paragraphe supprimé à la position 'index' du livre avec son
+	 * ancien identifiant permanent (utilisé pour annuler une suppression).<br>
+	 * <u>CTT : O(log n)</u>
+	 *
+	 * @return		True si le paragraphe a été remis dans le livre.
+	 * @param		index Position du paragraphe après l'insertion.
+	 * @param		paragraph Paragraphe supprimé.
+	 * @param		permanentId Identifiant permanent du paragraphe avant sa suppression.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			GameBookBatch#deleteParagraph(int)
+	 * @author      Jérémi Nihart
+	 */
+	boolean restoreParagraphAt(int index, Paragraph paragraph, int permanentId) {
+		return lock.write(() -> byPermanentId.get(permanentId) == null && insert(index, paragraph, permanentId));
+	}
+	
+	private boolean insert(int index, Paragraph paragraph, int permanentId) {
+		if (paragraph.getChoiceLabels() != null) {
+			return false;
+		}
+		paragraphs.add(index, paragraph);
+		if (permanentId == byPermanentId.size()) {
+			byPermanentId.add(paragraph);
 		} else {
-			this.title = title;
-			return true;
+			byPermanentId.set(permanentId, paragraph);
+		}
+		paragraph.setPermanentId(permanentId);
+		paragraph.setSequence(paragraphs);
+		paragraph.setChoiceLabels(labels);
+		paragraph.setTextArena(text);
+		paragraph.setBookLock(lock);
+		paragraphs.invalidate(paragraph);  // Le contenu est maintenant compté par la zone.
+		targetChanged(paragraph);
+		return true;
+	}
+	
+	/** 
+	 * Permet de déplacer le paragraphe de la position 'from' à la position 'to',
+	 * les paragraphes situés entre ces deux positions sont décalés d'une position.
+	 * Les choix ne sont pas modifiés car ils référencent des objets {@link Paragraph}.<br>
+	 * <u>CTT : O(log n)</u>
+	 *
+	 * @param		from Position actuelle du paragraphe.
+	 * @param		to Nouvelle position du paragraphe.
+	 * 
+	 * @throws		IndexOutOfBoundsException si 'from' ou 'to' est hors limite.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			ParagraphSequence#move(int, int)
+	 * @author      Jérémi Nihart
+	 */
+	public void moveParagraph(int from, int to) {
+		lock.update(() -> paragraphs.move(from, to));
+	}
+	
+	/** 
+	 * Permet de compiler le livre en une version figée destinée à la lecture : les
+	 * modifications ultérieures du livre ne la modifient pas.<br>
+	 * <u>CTT : O(n+e)</u> ou 'n' est le nombre de paragraphes et 'e' le nombre de choix.
+	 *
+	 * @return		Le livre publié.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			PublishedGameBook
+	 * @author      Jérémi Nihart
+	 */
+	public PublishedGameBook freeze() {
+		return lock.readLocked(() -> new PublishedGameBook(this));
+	}
+	
+	/** 
+	 * Permet d'obtenir la version publiée courante du livre pour une lecture ou une analyse
+	 * qui ne doit pas voir une modification à moitié appliquée.
+	 * 
+	 * <hr>
+	 * 
+	 * <p>En mode concurrent, les lecteurs partagent la même version tant que le livre n'est pas
+	 *    modifié : un appel ne coûte alors qu'une validation de stamp. La première demande après
+	 *    une modification compile la version suivante avec le verrou de lecture (voir
+	 *    {@link BookLock#latest(java.util.function.Supplier)}) : les modifications attendent la fin
+	 *    de la compilation, qui ne voit jamais un état à moitié modifié. Une version gardée par un
+	 *    lecteur ne change plus, elle est libérée par le GC lorsque plus personne ne la garde.</p>
+	 * <p>Sans le mode concurrent, la version est gardée avec le nombre de modifications du livre
+	 *    ({@link GameBook#getModificationCount()}) : elle est retournée tant qu'aucune
+	 *    modification n'a eu lieu, sinon une nouvelle version est compilée ({@link GameBook#freeze()}).
+	 *    L'empreinte ({@link GameBook#getFingerprint()}) n'est pas utilisée : deux états différents
+	 *    peuvent avoir la même empreinte de 64 bits.</p>
+	 * <p>La version publiée est aussi l'export du graphe en tableaux d'entiers (CSR et CSR inverse,
+	 *    voir {@link PublishedGameBook#getFirstChoice(int)}) : les algorithmes de graphe la réutilisent
+	 *    jusqu'à la modification suivante.</p>
+	 * <hr>
+	 * <u>CTT : O(1)</u> si le livre n'a pas été modifié depuis la version précédente, <b>O(n+e)</b> sinon.
+	 *
+	 * @return		La version publiée courante.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			PublishedGameBook
+	 * @author      Jérémi Nihart
+	 */
+	public PublishedGameBook snapshot() {
+		if (lock.isConcurrent()) {
+			return lock.latest(() -> new PublishedGameBook(this));
 		}
+		long version = modificationCount();
+		if (published == null || publishedVersion != version) {
+			published = new PublishedGameBook(this);
+			publishedVersion = version;
+		}
+		return published;
 	}
 	
 	/** 
-	 * Permet d'ajouter un paragraphe au livre.<br>
+	 * Getter, permettant de récupérer le graphe compressé de la version publiée courante
+	 * ({@link GameBook#snapshot()}) : les couloirs de paragraphes à choix unique y sont réduits
+	 * à un arc pondéré, pour les analyses du livre.
+	 * 
+	 * <hr>
+	 * 
+	 * <p>Le graphe est gardé avec la version dont il est construit et reconstruit au premier appel
+	 *    qui suit une modification du livre (nouvelle version publiée). En mode concurrent, deux
+	 *    lecteurs peuvent le construire en même temps, l'un des deux est gardé. La version publiée
+	 *    ne décode pas les contenus (voir {@link PublishedGameBook}) : la reconstruction ne dépend
+	 *    pas de la taille des textes.</p>
+	 * <hr>
+	 * <u>CTT : O(1)</u> si le livre n'a pas été modifié depuis l'appel précédent, <b>O(n+e)</b> sinon.
+	 *
+	 * @return		Le graphe compressé de la version publiée courante.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			ChainGraph
+	 * @author      Jérémi Nihart
+	 */
+	public ChainGraph getChainGraph() {
+		PublishedGameBook version = snapshot();
+		ChainGraph graph = chains;
+		if (graph == null || graph.getBook() != version) {
+			graph = ChainGraph.of(version);
+			chains = graph;
+		}
+		return graph;
+	}
+	
+	/** 
+	 * Getter, permettant de récupérer l'estimation des octets retenus par le livre, par composant
+	 * (contenu, choix, libellés, paragraphes et caches d'analyse).
+	 * 
+	 * <hr>
+	 * 
+	 * <p>Le relevé est lu sur des compteurs tenus à jour à chaque modification (voir {@link MemoryFootprint}) :
+	 *    zone des contenus, table des libellés et sommes des sous-arbres de la liste des paragraphes.
+	 *    Les caches d'analyse sont la version publiée et le graphe compressé gardés par le livre, et
+	 *    l'index des paragraphes par libellé s'il a été construit.</p>
+	 * <hr>
 	 * <u>CTT : O(1)</u>
 	 *
-	 * @param		paragraph Paragraphe  ajouter au livre.
+	 * @return		Le relevé de la mémoire retenue par le livre.
 	 *
-	 * @since       1.0
+	 * @since       1.3
 	 *
-	 * @author      Jrmi Nihart
+	 * @see			MemoryFootprint
+	 * @author      Jérémi Nihart
 	 */
-	public void addParagraph(Paragraph paragraph) {
-		this.paragraphs.add(paragraph);
+	public MemoryFootprint getMemoryFootprint() {
+		return lock.read(() -> {
+			long content = MemoryFootprint.string(title) + text.allocatedBytes() + paragraphs.contentBytes();
+			long structure = (long) paragraphs.size() * PARAGRAPH_BYTES + (long) byPermanentId.size() * MemoryFootprint.REFERENCE;
+			long caches = labels.indexFootprint();
+			Object version = lock.isConcurrent() ? lock.cached() : published;
+			if (version != null) {
+				caches += ((PublishedGameBook) version).getMemoryFootprint().getTotalBytes();
+			}
+			ChainGraph graph = chains;
+			if (graph != null) {
+				caches += graph.footprint();
+				if (graph.getBook() != version) {
+					caches += graph.getBook().getMemoryFootprint().getTotalBytes();
+				}
+			}
+			return new MemoryFootprint(content, paragraphs.choiceBytes(), labels.footprint(), structure, 0, caches);
+		});
+	}
+	
+	/** 
+	 * Getter, permettant de récupérer le nombre de modifications du livre depuis sa création :
+	 * changements de titre, ajouts, retraits et déplacements de paragraphes et modifications de
+	 * leur contenu ou de leurs choix ({@link ParagraphSequence#changeCount()}). Deux appels qui
+	 * retournent la même valeur encadrent un livre inchangé ; contrairement à l'empreinte
+	 * ({@link GameBook#getFingerprint()}), deux états différents ne donnent jamais la même valeur.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre de modifications.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			GameBook#snapshot()
+	 * @author      Jérémi Nihart
+	 */
+	public long getModificationCount() {
+		return lock.read(this::modificationCount);
+	}
+	
+	private long modificationCount() {
+		return titleChanges + paragraphs.changeCount();
+	}
+	
+	/** 
+	 * Getter, permettant de récupérer l'empreinte du livre : un hachage de 64 bits du titre
+	 * et de la suite des paragraphes (voir {@link Paragraph#getFingerprint()}). Deux appels qui
+	 * retournent la même valeur encadrent un livre inchangé, une analyse peut donc être évitée.
+	 * 
+	 * <hr>
+	 * 
+	 * <p>Les empreintes sont gardées en cache par les paragraphes et par les noeuds de
+	 *    {@link ParagraphSequence} (arbre de Merkle). Une modification efface celle du paragraphe
+	 *    et celles des noeuds de son chemin jusqu'à la racine ; seules celles-ci sont recalculées.
+	 *    En mode concurrent, le calcul remplit ces caches avec le verrou de lecture (voir
+	 *    {@link BookLock#readCaching(java.util.function.Supplier)}) : il ne bloque pas les autres
+	 *    lecteurs et ne rend pas obsolète la version publiée courante.</p>
+	 * <hr>
+	 * <u>CTT : O(1)</u> si le livre n'a pas été modifié, <b>O(k (log n + m))</b> sinon ou 'k' est le
+	 *    nombre de paragraphes modifiés et 'm' la taille de leur contenu.
+	 *
+	 * @return		L'empreinte du livre.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			ParagraphSequence#fingerprint()
+	 * @author      Jérémi Nihart
+	 */
+	public long getFingerprint() {
+		return lock.readCaching(() -> Fingerprint.nonZero(Fingerprint.of(title) * Fingerprint.BASE + paragraphs.fingerprint()));
+	}
+	
+	/** 
+	 * Getter, permettant de récupérer l'empreinte des paragraphes accessibles depuis 'from'
+	 * en suivant les choix (parcours en largeur, dans l'ordre des choix). Le graphe des choix
+	 * contient des cycles : cette empreinte n'est pas tenue à jour comme celle du livre, elle
+	 * combine les empreintes en cache des paragraphes visités.<br>
+	 * <u>CTT : O(r+e)</u> ou 'r' est le nombre de paragraphes accessibles et 'e' leur nombre
+	 *    de choix, plus le calcul des empreintes de paragraphes modifiés.
+	 *
+	 * @return		L'empreinte des paragraphes accessibles, 0 si 'from' n'est pas dans le livre.
+	 * @param		from Paragraphe de départ.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			GameBook#getFingerprint()
+	 * @author      Jérémi Nihart
+	 */
+	public long getReachableFingerprint(Paragraph from) {
+		return lock.readCaching(() -> {
+			if (!paragraphs.contains(from)) {
+				return 0L;
+			}
+			Set<Paragraph> visited = new HashSet<>();
+			Deque<Paragraph> queue = new ArrayDeque<>();
+			visited.add(from);
+			queue.add(from);
+			long h = 0;
+			while (!queue.isEmpty()) {
+				Paragraph current = queue.removeFirst();
+				h = h * Fingerprint.BASE + current.fingerprint();
+				current.forEachChoice((key, target) -> {
+					if (target != null && visited.add(target)) {
+						queue.addLast(target);
+					}
+				});
+			}
+			return Fingerprint.nonZero(h);
+		});
+	}
+	
+	/** 
+	 * Getter, permettant de savoir si le livre a été créé en mode concurrent.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		True si le livre est protégé par un verrou.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			GameBook#GameBook(String, Collection, boolean)
+	 * @author      Jérémi Nihart
+	 */
+	public boolean isConcurrent() {
+		return lock.isConcurrent();
+	}
+	
+	/** 
+	 * Getter, permettant de parcourir les paragraphes du livre dans l'ordre.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		La liste des paragraphes du livre.
+	 *
+	 * @since       1.3
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	ParagraphSequence sequence() {
+		return paragraphs;
+	}
+	
+	/** 
+	 * Permet de retirer un paragraphe de la liste des paragraphes sans toucher
+	 * aux choix (utilisé pour annuler une insertion). Si son identifiant permanent est
+	 * le dernier attribué, ce qui est toujours le cas lorsque les insertions sont annulées
+	 * dans l'ordre inverse, il est rendu au lieu de laisser une pierre tombale.<br>
+	 * <u>CTT : O(log n)</u>
+	 *
+	 * @return		Le paragraphe retiré.
+	 * @param		index Position du paragraphe à retirer.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			GameBookBatch#insertParagraphAt(int, Paragraph)
+	 * @author      Jérémi Nihart
+	 */
+	Paragraph removeParagraphAt(int index) {
+		return lock.write(() -> {
+			Paragraph removed = paragraphs.remove(index);
+			int permanentId = removed.getPermanentId();
+			release(removed);
+			if (permanentId == byPermanentId.size() - 1) {
+				byPermanentId.remove(permanentId);
+			}
+			return removed;
+		});
+	}
+	
+	/** 
+	 * Permet d'appliquer plusieurs modifications au livre dans une même transaction.
+	 * 
+	 * <hr>
+	 * 
+	 * <p>Les modifications sont appliquées au fur et à mesure via l'objet {@link GameBookBatch}
+	 *    passé à 'changes'. A la fin de 'changes' la transaction est validée, sauf si
+	 *    {@link GameBookBatch#rollback()} a été appelé ou si un paragraphe modifié pointe
+	 *    vers un paragraphe absent du livre : dans ces cas toutes les modifications sont annulées.
+	 *    Si 'changes' lève une exception, les modifications sont annulées et l'exception est
+	 *    relancée.</p>
+	 * <p>La méthode ne signale rien elle-même : l'appelant émet une seule notification
+	 *    {@link BookEditedEventHandler#onBookEdited()} lorsqu'elle retourne 'true', au lieu
+	 *    d'une notification par modification.</p>
+	 * 
+	 * <hr>
+	 *
+	 * @return		True : La transaction a été validée et a modifié le livre.<br>
+	 * 					   False : La transaction a été annulée ou n'a rien modifié.
+	 * @param		changes Modifications à appliquer au livre.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			GameBookBatch
+	 * @author      Jérémi Nihart
+	 */
+	public boolean edit(Consumer<GameBookBatch> changes) {
+		return lock.write(() -> {
+			GameBookBatch batch = new GameBookBatch(this);
+			try {
+				changes.accept(batch);
+			} catch (RuntimeException e) {
+				batch.undo();
+				throw e;
+			}
+			if (!batch.canCommit()) {
+				batch.undo();
+				return false;
+			}
+			return batch.hasChanges();
+		});
 	}
 	
 	/** 
 	 * Permet de supprimer un {@link Paragraph} par son ID, de la liste de
 	 * paragraphes du {@link GameBook} tout en supprimant tous les choix
-	 * des paragraphes le rfrenant.
+	 * des paragraphes le référençant.
 	 * 
 	 * <hr>
 	 * 
-	 * <h2>Prcondition de la mthode :</h2>
+	 * <h2>Précondition de la méthode :</h2>
 	 * <p>
-	 *    Le nombre de {@link Paragraph} prsent dans la liste de paragraphe du
-	 *    livre ({@link GameBook}) doit tre plus grand que 1.
+	 *    Le nombre de {@link Paragraph} présent dans la liste de paragraphe du
+	 *    livre ({@link GameBook}) doit être plus grand que 1.
 	 * </p>
 	 * 
-	 * <h2>Postconditions (ensures) de la mthode :</h2>
-	 * <p><u>En cas de respect de la prcondition :</u> L'Objet {@link Paragraph} dont
-	 *    l'ID correspond au paramtre 'id' aura t supprim du livre ({@link GameBook})
-	 *    et tous les choix des paragraphes du livre ({@link GameBook}) le rfrenant
-	 *    auront t supprims. De plus les id des paragraphes sucdent celui suprim
-	 *    sont mis  jour automatiquement par la list de manire  combler le vide
-	 *    laiss. La mthode retourn 'true'.
+	 * <h2>Postconditions (ensures) de la méthode :</h2>
+	 * <p><u>En cas de respect de la précondition :</u> L'Objet {@link Paragraph} dont
+	 *    l'ID correspond au paramètre 'id' aura été supprimé du livre ({@link GameBook})
+	 *    et tous les choix des paragraphes du livre ({@link GameBook}) le référençant
+	 *    auront été supprimés. De plus les id des paragraphes sucédent celui suprimé
+	 *    sont mis à jour automatiquement par la list de manière à combler le vide
+	 *    laissé, leurs identifiants permanents ne changent pas. La méthode retourn 'true'.
 	 * </p>
 	 * <p>
-	 *  <u>En cas de non respect de la prcondition :</u> Aucune action n'est effectu et la
-	 *     mthode retourne 'false'.
+	 *  <u>En cas de non respect de la précondition :</u> Aucune action n'est effectué et la
+	 *     méthode retourne 'false'.
 	 * </p>
 	 * 
-	 * <h2>Etapes de l'algorithme de la mthode :</h2>
+	 * <h2>Etapes de l'algorithme de la méthode :</h2>
 	 * <p>
-	 *    Brve explication du fonctionnement de la mthode et de ses tapes, not que dans le cas
-	 *    ou la prcondition n'est pas valid l'algorithme s'arrte  l'tape 1 et retourne 'false'.
+	 *    Bréve explication du fonctionnement de la méthode et de ses étapes, noté que dans le cas
+	 *    ou la précondition n'est pas validé l'algorithme s'arrête à l'étape 1 et retourne 'false'.
 	 * </p>
 	 * <ol>
-	 *  <li>Vrification de la prcondition ;</li>
-	 *  <li>Cration d'une variable 'toRemove' pointant sur le {@link Paragraph}  supprimer qui 
-	 *      t rcupr dans la liste de paragraphe du {@link GameBook} par son ID ;</li>
+	 *  <li>Vérification de la précondition ;</li>
+	 *  <li>Création d'une variable 'toRemove' pointant sur le {@link Paragraph} à supprimer qui à
+	 *      été récupéré dans la liste de paragraphe du {@link GameBook} par son ID ;</li>
 	 *  <li>Suppression du {@link Paragraph} de la liste des paragraphe du {@link GameBook} sur
 	 *      base de son ID ;</li>
-	 *  <li>Bouclage des lments de la liste de {@link Paragraph} du {@link GameBook} en appellant
-	 *      leur mthode {@link Paragraph#deleteChoiceByParagraph(Paragraph)} ou le paramtre
-	 *      'paragraph' est le paragraphe  supprimer 'toRemove'. (cette mthode supprime les choix
-	 *      rfrenant un paragraphe donn) ;</li>
-	 *  <li>Retourne 'true' et met fin  cette algorithme.</li>
+	 *  <li>Détachement de 'toRemove' du graphe des choix : seuls les paragraphes présents dans son
+	 *      index des choix entrants ({@link Paragraph#getIncomingParagraphs()}) voient leurs choix
+	 *      le référençant supprimés, puis ses propres choix sont supprimés ;</li>
+	 *  <li>Retourne 'true' et met fin à cette algorithme.</li>
 	 * </ol>
 	 * 
-	 * <h2>valuation de la CTT de la mthode :</h2>
+	 * <h2>Évaluation de la CTT de la méthode :</h2>
 	 * <ul>
 	 *  <li><u>CTT</u> dans le meilleur des cas : <b>O(1)</b></li>
-	 *  <li><u>CTT</u> dans le pire des cas (cas courant): <b>O(n^2)</b></li>
+	 *  <li><u>CTT</u> dans le pire des cas (cas courant): <b>O(log n + e)</b></li>
 	 * </ul>
 	 * <p>
 	 * 	<b>Explications :</b><br>
-	 *  <u>Meilleur des cas :</u> La prcondition n'est pas valide, fin de l'algorithme donc <b>O(1)</b>.<br>
-	 *  <u>Pire des cas (et cas courant) :</u> Deux boucles imbriques ce succdent la premire boucle les
-	 *     lments de la <b>List</b> de {@link Paragraph} du {@link GameBook} la deuxime provient de l'appel de la mthode
-	 *     {@link Paragraph#deleteChoiceByParagraph} qui boucle les cls de sa <b>Map</b> de choix pour supprimer
-	 *     ceux rfranants le paragraphe  supprimer. Ces deux boucles succssives nous donnent donc une
-	 *     complexit de <b>O(x*c)</b> ou 'x' est le nombre de paragraphe dans le livre et 'c' le nombre de choix
-	 *     du paragrahe x.
+	 *  <u>Meilleur des cas :</u> La précondition n'est pas validée, fin de l'algorithme donc <b>O(1)</b>.<br>
+	 *  <u>Pire des cas (et cas courant) :</u> Le retrait dans {@link ParagraphSequence} ne décale plus
+	 *     les paragraphes qui suivent celui supprimé, il coûte <b>O(log n)</b>. Le détachement ne boucle
+	 *     que les paragraphes qui pointent vers le paragraphe supprimé : 'e' est la somme de leurs choix
+	 *     (via {@link Paragraph#deleteChoiceByParagraph}) et des choix du paragraphe supprimé, et non plus
+	 *     le nombre total de choix du livre.
 	 * </p>
 	 * <hr>
 	 * 
-	 * @return      True : Suppression du paragraphe effectue.<br>
-	 *                     False : Suppression du paragraphe refuse.
-	 * @param		id (IN) L'id du paragraphe ({@link Paragraph})  supprimer. 
+	 * @return      True : Suppression du paragraphe effectuée.<br>
+	 *                     False : Suppression du paragraphe refusée.
+	 * @param		id (IN) L'id du paragraphe ({@link Paragraph}) à supprimer. 
 	 *
 	 * @since       1.1
 	 *
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public boolean deleteParagraph(int id) {
-		if (paragraphs.size() > 1) {
-			Paragraph toRemove = paragraphs.get(id);
-			paragraphs.remove(id);
-			for (Paragraph p : paragraphs) {
-				p.deleteChoiceByParagraph(toRemove);
+		return lock.write(() -> {
+			if (paragraphs.size() > 1) {
+				Paragraph toRemove = paragraphs.remove(id);
+				toRemove.detach();
+				release(toRemove);
+				return true;
+			}
+			return false;
+		});
+	}
+	
+	/** 
+	 * Permet de supprimer plusieurs {@link Paragraph} du livre en une fois, à partir
+	 * de leurs ID avant suppression, tout en supprimant les choix qui les référencent.
+	 * 
+	 * <hr>
+	 * 
+	 * <h2>Précondition de la méthode :</h2>
+	 * <p>Chaque ID doit être compris entre 0 et la taille du livre (exclue), et au moins un
+	 *    paragraphe doit rester dans le livre après la suppression. Les doublons sont ignorés.</p>
+	 * 
+	 * <h2>Etapes de l'algorithme de la méthode :</h2>
+	 * <ol>
+	 *  <li>Marquage des paragraphes à supprimer dans un tableau de boolean indexé par ID ;</li>
+	 *  <li>Compaction : une seule passe sur les paragraphes sépare les survivants (dans leur
+	 *      ordre) des victimes ;</li>
+	 *  <li>Une seconde passe détache chaque victime du graphe des choix via son index des
+	 *      choix entrants (voir {@link GameBook#deleteParagraph(int)}) ;</li>
+	 *  <li>{@link ParagraphSequence#rebuild(List)} reconstruit la liste avec les survivants.</li>
+	 * </ol>
+	 * 
+	 * <h2>Évaluation de la CTT de la méthode :</h2>
+	 * <p><b>O(n+e)</b> ou 'n' est le nombre de paragraphes du livre et 'e' le nombre de choix
+	 *    touchant les paragraphes supprimés, quel que soit le nombre de paragraphes supprimés.
+	 *    L'appelant n'a plus besoin de trier les ID ni de les ajuster après chaque suppression.</p>
+	 * <hr>
+	 * 
+	 * @return      True : Suppression des paragraphes effectuée.<br>
+	 *                     False : Aucun ID fourni ou la suppression viderait le livre.
+	 * @param		ids (IN) Les id des paragraphes ({@link Paragraph}) à supprimer. 
+	 * 
+	 * @throws		IndexOutOfBoundsException si un ID est hors limite (rien n'est supprimé).
+	 *
+	 * @since       1.3
+	 *
+	 * @see			GameBook#deleteParagraph(int)
+	 * @author      Jérémi Nihart
+	 */
+	public boolean deleteParagraphs(Collection<Integer> ids) {
+		return lock.write(() -> {
+			boolean[] marked = new boolean[paragraphs.size()];
+			int count = 0;
+			for (int id : ids) {
+				Objects.checkIndex(id, marked.length);
+				if (!marked[id]) {
+					marked[id] = true;
+					count++;
+				}
+			}
+			return deleteMarked(marked, count);
+		});
+	}
+	
+	/** 
+	 * Permet de supprimer en une fois tous les paragraphes que le lecteur ne peut pas atteindre
+	 * depuis le paragraphe un (paragraphes orphelins), tout en supprimant leurs choix.
+	 * 
+	 * <hr>
+	 * 
+	 * <h2>Etapes de l'algorithme de la méthode :</h2>
+	 * <ol>
+	 *  <li>Une passe sur les paragraphes leur attribue un indice temporaire (leur ID) ;</li>
+	 *  <li>Un parcours en largeur depuis le paragraphe un marque les paragraphes atteignables,
+	 *      chaque choix n'est suivi qu'une fois ;</li>
+	 *  <li>Une passe sur les marques calcule le nouvel ID de chaque survivant ;</li>
+	 *  <li>Les paragraphes non marqués sont supprimés comme par {@link GameBook#deleteParagraphs(Collection)} :
+	 *      une seule reconstruction de la liste. Aucun survivant ne cible un paragraphe supprimé, seuls
+	 *      les choix des paragraphes supprimés sont détachés.</li>
+	 * </ol>
+	 * 
+	 * <h2>Évaluation de la CTT de la méthode :</h2>
+	 * <p><b>O(n+e)</b> en moyenne ou 'n' est le nombre de paragraphes et 'e' le nombre de choix du livre, au lieu
+	 *    d'un appel à {@link GameBook#deleteParagraph(int)} par paragraphe orphelin.</p>
+	 * <hr>
+	 * 
+	 * @return      Table des anciens ID vers les nouveaux : <code>map[ancien ID]</code> est le nouvel ID
+	 * 				du paragraphe, -1 s'il a été supprimé. Les survivants gardent leur ordre et leur
+	 * 				identifiant permanent.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			GameBook#getReachableFingerprint(Paragraph)
+	 * @see			Session#dropRemovedParagraphs()
+	 * @author      Jérémi Nihart
+	 */
+	public int[] compact() {
+		return lock.write(() -> {
+			int size = paragraphs.size();
+			Paragraph[] order = new Paragraph[size];
+			Map<Paragraph, Integer> ids = indexParagraphs(order);
+			boolean[] unreachable = new boolean[size];
+			Arrays.fill(unreachable, 1, size, true);
+			int[] queue = new int[size];
+			int[] tail = {1};
+			for (int head = 0; head < tail[0]; head++) {
+				order[queue[head]].forEachChoice((key, target) -> {
+					int id = idOf(target, ids);
+					if (id >= 0 && unreachable[id]) {
+						unreachable[id] = false;
+						queue[tail[0]++] = id;
+					}
+				});
+			}
+			int[] map = new int[size];
+			int removed = 0;
+			for (int id = 0; id < size; id++) {
+				map[id] = unreachable[id] ? -1 : id - removed;
+				removed += unreachable[id] ? 1 : 0;
+			}
+			deleteMarked(unreachable, removed);
+			return map;
+		});
+	}
+	
+	/** 
+	 * Permet de renuméroter les paragraphes dans l'ordre d'un parcours en largeur des choix
+	 * depuis le paragraphe un : les paragraphes qu'un lecteur rencontre ensemble reçoivent des
+	 * ID proches. Les paragraphes non atteints suivent, dans leur ordre actuel, chacun point de
+	 * départ d'un nouveau parcours.
+	 * 
+	 * <hr>
+	 * 
+	 * <p>Les paragraphes ne changent pas (contenu, choix et identifiant permanent) : seul leur
+	 *    ID change. Les tableaux indexés par ID ({@link GameBook#snapshot()}, {@link OffHeapGameBook})
+	 *    rangent alors un paragraphe près de ceux qu'il cible et un parcours du graphe lit des
+	 *    cases voisines au lieu de sauter d'un bout à l'autre des tableaux.</p>
+	 * <p><u>CTT : O(n+e)</u> en moyenne ou 'n' est le nombre de paragraphes et 'e' le nombre de choix.</p>
+	 * <hr>
+	 *
+	 * @return      Table des anciens ID vers les nouveaux : <code>map[ancien ID]</code> est le nouvel ID.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			GameBook#reorderCuthillMcKee()
+	 * @author      Jérémi Nihart
+	 */
+	public int[] reorderBreadthFirst() {
+		return lock.write(() -> reorder(false));
+	}
+	
+	/** 
+	 * Permet de renuméroter les paragraphes dans l'ordre de Cuthill-McKee inverse (RCM) : un
+	 * parcours en largeur du graphe non orienté des choix (choix sortants et entrants) qui visite
+	 * d'abord les voisins ayant le moins de liens, dont l'ordre est ensuite inversé. Cet ordre
+	 * réduit l'écart entre l'ID d'un paragraphe et celui de ses voisins (largeur de bande).
+	 * 
+	 * <hr>
+	 * 
+	 * <p>Le paragraphe un reste en tête du livre puisque la lecture commence par lui, seuls les
+	 *    suivants sont inversés. Comme pour {@link GameBook#reorderBreadthFirst()} les paragraphes
+	 *    ne changent pas, seul leur ID change.</p>
+	 * <p><u>CTT : O(n+e log d)</u> ou 'd' est le plus grand nombre de voisins d'un paragraphe
+	 *    (tri des voisins par nombre de liens).</p>
+	 * <hr>
+	 *
+	 * @return      Table des anciens ID vers les nouveaux : <code>map[ancien ID]</code> est le nouvel ID.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			GameBook#reorderBreadthFirst()
+	 * @author      Jérémi Nihart
+	 */
+	public int[] reorderCuthillMcKee() {
+		return lock.write(() -> reorder(true));
+	}
+	
+	private int[] reorder(boolean cuthillMcKee) {
+		int size = paragraphs.size();
+		Paragraph[] old = new Paragraph[size];
+		Map<Paragraph, Integer> ids = indexParagraphs(old);
+		// Graphe des choix en tableaux CSR : voisins de 'p' entre first[p] et first[p+1] (exclu).
+		int[] first = new int[size + 1];
+		for (int p = 0; p < size; p++) {
+			first[p + 1] = first[p] + old[p].choiceCount();
+		}
+		int[] targets = new int[first[size]];
+		int[] next = {0};
+		for (Paragraph paragraph : old) {
+			paragraph.forEachChoice((key, target) -> targets[next[0]++] = idOf(target, ids));
+		}
+		int[] neighbours = targets;
+		if (cuthillMcKee) {
+			int[] undirected = new int[2 * neighbours.length];
+			int[] start = new int[size + 1];
+			for (int p = 0; p < size; p++) {
+				for (int c = first[p]; c < first[p + 1]; c++) {
+					if (targets[c] >= 0) {
+						start[p + 1]++;
+						start[targets[c] + 1]++;
+					}
+				}
+			}
+			for (int p = 0; p < size; p++) {
+				start[p + 1] += start[p];
+			}
+			int[] free = Arrays.copyOf(start, size);
+			for (int p = 0; p < size; p++) {
+				for (int c = first[p]; c < first[p + 1]; c++) {
+					if (targets[c] >= 0) {
+						undirected[free[p]++] = targets[c];
+						undirected[free[targets[c]]++] = p;
+					}
+				}
+			}
+			first = start;
+			neighbours = undirected;
+		}
+		int[] order = new int[size];  // order[nouvel ID] = ancien ID
+		boolean[] visited = new boolean[size];
+		int tail = 0;
+		for (int root = 0; root < size; root++) {
+			if (visited[root]) {
+				continue;
+			}
+			visited[root] = true;
+			order[tail++] = root;
+			for (int head = tail - 1; head < tail; head++) {
+				int p = order[head];
+				int from = tail;
+				for (int c = first[p]; c < first[p + 1]; c++) {
+					int q = neighbours[c];
+					if (q >= 0 && !visited[q]) {
+						visited[q] = true;
+						order[tail++] = q;
+					}
+				}
+				if (cuthillMcKee) {
+					sortByDegree(order, from, tail, first);
+				}
 			}
-			return true;
 		}
-		return false;
+		if (cuthillMcKee) {
+			for (int i = 1, j = size - 1; i < j; i++, j--) {
+				int swap = order[i];
+				order[i] = order[j];
+				order[j] = swap;
+			}
+		}
+		List<Paragraph> reordered = new ArrayList<>(size);
+		int[] map = new int[size];
+		for (int id = 0; id < size; id++) {
+			reordered.add(old[order[id]]);
+			map[order[id]] = id;
+		}
+		paragraphs.permute(reordered);
+		return map;
 	}
 	
-}
\ No newline at end of file
+	/**
+	 * Range les paragraphes du livre dans 'order' par ID et retourne l'ID de chaque paragraphe.
+	 * La table ne contient que les paragraphes présents : sa taille ne dépend pas des pierres
+	 * tombales de la table des identifiants permanents.
+	 */
+	private Map<Paragraph, Integer> indexParagraphs(Paragraph[] order) {
+		Map<Paragraph, Integer> ids = new HashMap<>();
+		int index = 0;
+		for (Paragraph paragraph : paragraphs) {
+			ids.put(paragraph, index);
+			order[index++] = paragraph;
+		}
+		return ids;
+	}
+	
+	/**
+	 * Donne l'ID de 'target' à partir de la table de {@link GameBook#indexParagraphs(Paragraph[])},
+	 * -1 si 'target' est null ou n'est pas dans le livre.
+	 */
+	private static int idOf(Paragraph target, Map<Paragraph, Integer> ids) {
+		Integer id = (target == null) ? null : ids.get(target);
+		return (id == null) ? -1 : id;
+	}
+	
+	/**
+	 * Trie les ID de order[from..to[ par nombre de voisins croissant (puis par ID).
+	 */
+	private static void sortByDegree(int[] order, int from, int to, int[] first) {
+		if (to - from < 2) {
+			return;
+		}
+		long[] keys = new long[to - from];
+		for (int i = from; i < to; i++) {
+			keys[i - from] = ((long) (first[order[i] + 1] - first[order[i]]) << 32) | order[i];
+		}
+		Arrays.sort(keys);
+		for (int i = from; i < to; i++) {
+			order[i] = (int) keys[i - from];
+		}
+	}
+	
+	private boolean deleteMarked(boolean[] marked, int count) {
+		if (count == 0 || count >= marked.length) {
+			return false;
+		}
+		List<Paragraph> survivors = new ArrayList<>(marked.length - count);
+		List<Paragraph> victims = new ArrayList<>(count);
+		int id = 0;
+		for (Paragraph paragraph : paragraphs) {
+			(marked[id++] ? victims : survivors).add(paragraph);
+		}
+		// Les victimes rendent leur contenu avant de quitter la liste : un compactage de la zone
+		// de texte pendant la boucle recopie encore celles qui ne sont pas libérées.
+		for (Paragraph victim : victims) {
+			victim.detach();
+			release(victim);
+		}
+		paragraphs.rebuild(survivors);
+		return true;
+	}
+	
+	/**
+	 * Rend au paragraphe retiré du livre ses ressources propres (table des libellés,
+	 * contenu et verrou hors livre) et laisse une pierre tombale à son identifiant permanent.
+	 */
+	private void release(Paragraph removed) {
+		byPermanentId.set(removed.getPermanentId(), null);
+		removed.setSequence(null);
+		removed.setPermanentId(Paragraph.NO_PERMANENT_ID);
+		targetChanged(removed);
+		removed.setChoiceLabels(null);
+		removed.setTextArena(null);
+		removed.setBookLock(BookLock.NONE);
+	}
+	
+	/**
+	 * Efface l'empreinte des paragraphes qui ciblent 'target', dont l'identifiant permanent
+	 * vient de changer.
+	 */
+	private void targetChanged(Paragraph target) {
+		for (Paragraph source : target.getIncomingParagraphs()) {
+			source.changed();
+		}
+	}
+}
@@ -0,0 +1,478 @@
+/**
+ * File name    : GameBookBatch.java
+ *
+ * Description  : Classe regroupant plusieurs modifications du livre dans
+ *                une même transaction.
+ *
+ * Version      : 1.0
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * GameBookBatch
+ *
+ * Transaction de modification d'un livre {@link GameBook}, obtenue par
+ * {@link GameBook#edit(java.util.function.Consumer)}. Chaque modification est
+ * appliquée directement au livre et son inverse est enregistré dans un journal.
+ * Si la transaction est annulée ({@link GameBookBatch#rollback()}), si une exception
+ * est levée ou si le livre est incohérent à la validation, le journal est rejoué
+ * à l'envers pour remettre le livre dans son état de départ.
+ *
+ * <hr>
+ *
+ * <b>Journal des opérations inverses :</b>
+ *
+ * <h2>L'interface utilisée : Deque</h2>
+ * <p>J'utilise une Deque comme interface car le journal est une pile : la dernière
+ * modification appliquée est la première à devoir être annulée.</p>
+ *
+ * <h2>L'implémentation utilisée : ArrayDeque</h2>
+ * <p>L'ArrayDeque permet d'empiler et de dépiler en <b>O(1)</b> sans créer de noeud
+ * par élément comme le ferait une LinkedList.</p>
+ *
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>push() :        <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>pop() :         <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>isEmpty() :     <u>CTT:</u> <b>O(1)</b></li>
+ * </ul>
+ *
+ * <b>Paragraphes dont les choix ont été modifiés :</b>
+ *
+ * <h2>L'interface utilisée : Set / L'implémentation utilisée : HashSet</h2>
+ * <p>Seuls ces paragraphes doivent être vérifiés à la validation, chacun une seule fois.
+ * Le HashSet les indexe par identité avec des opérations en <b>O(1)</b>.</p>
+ *
+ * <h2>Annulation exacte</h2>
+ * <p>Chaque inverse remet le livre dans l'état exact d'avant la modification : un choix
+ * supprimé ou renommé reprend sa position parmi les choix de son paragraphe, une insertion
+ * annulée rend l'identifiant permanent qu'elle avait pris et une modification partielle du
+ * contenu ({@link GameBookBatch#insertText(Paragraph, int, String)},
+ * {@link GameBookBatch#deleteText(Paragraph, int, int)}) est annulée par l'opération inverse.
+ * Le livre n'est pas exposé par la transaction : toute modification doit passer par elle pour
+ * être enregistrée dans le journal.</p>
+ *
+ * <h2>Complémentaire :</h2>
+ * <p>La validation vérifie que chaque paragraphe du livre inséré ou dont les choix ont
+ * été modifiés ne possède que des choix pointant vers des paragraphes du livre.
+ * Elle coûte <b>O(k)</b> ou 'k' est le nombre de choix de ces paragraphes, la transaction
+ * complète coûte donc <b>O(k+n)</b> au lieu de <b>O(k*n)</b> pour 'k' modifications
+ * signalées une à une.</p>
+ * <hr>
+ *
+ * @version     1.0
+ *
+ * @see         GameBook#edit(java.util.function.Consumer)
+ * @author      Jérémi Nihart
+ */
+public final class GameBookBatch {
+	// Variables Objet
+	private final GameBook book;
+	private final Deque<Runnable> undoLog = new ArrayDeque<>();
+	private final Set<Paragraph> touched = new HashSet<>();
+	private boolean rollbackRequested;
+
+	/**
+	 * Constructeur
+	 *
+	 * @param		book Livre modifié par la transaction.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	GameBookBatch(GameBook book) {
+		this.book = book;
+	}
+
+	/**
+	 * Getter, permettant de récupérer le nombre de paragraphes du livre modifié.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Nombre de paragraphes.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			GameBook#getSize()
+	 * @author      Jérémi Nihart
+	 */
+	public int getSize() {
+		return book.getSize();
+	}
+
+	/**
+	 * Getter, permettant de récupérer un paragraphe du livre modifié par son ID.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Le paragraphe.
+	 * @param		id Position du paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			GameBook#getParagraphByID(int)
+	 * @author      Jérémi Nihart
+	 */
+	public Paragraph getParagraphByID(int id) {
+		return book.getParagraphByID(id);
+	}
+
+	/**
+	 * Demande l'annulation de la transaction, toutes les modifications
+	 * seront annulées à la fin de celle-ci.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public void rollback() {
+		rollbackRequested = true;
+	}
+
+	/**
+	 * Modifie le titre du livre.
+	 *
+	 * @return      True si le titre a été modifié.
+	 * @param		title Nouveau titre du livre.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			GameBook#setTitle(String)
+	 * @author      Jérémi Nihart
+	 */
+	public boolean setTitle(String title) {
+		String old = book.getTitle();
+		if (book.setTitle(title)) {
+			undoLog.push(() -> book.setTitle(old));
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Ajoute un paragraphe à la fin du livre.
+	 *
+	 * @return      True si le paragraphe a été ajouté.
+	 * @param		paragraph Paragraphe à ajouter.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			GameBook#addParagraph(Paragraph)
+	 * @author      Jérémi Nihart
+	 */
+	public boolean addParagraph(Paragraph paragraph) {
+		return insertParagraphAt(book.getSize(), paragraph);
+	}
+
+	/**
+	 * Insère un paragraphe à la position 'index' du livre.
+	 *
+	 * @return      True si le paragraphe a été inséré.
+	 * @param		index Position du paragraphe après l'insertion.
+	 * @param		paragraph Paragraphe à insérer.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			GameBook#insertParagraphAt(int, Paragraph)
+	 * @author      Jérémi Nihart
+	 */
+	public boolean insertParagraphAt(int index, Paragraph paragraph) {
+		if (book.insertParagraphAt(index, paragraph)) {
+			touched.add(paragraph);
+			undoLog.push(() -> book.removeParagraphAt(book.getParagraphIdByObject(paragraph)));
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Déplace un paragraphe du livre.
+	 *
+	 * @param		from Position actuelle du paragraphe.
+	 * @param		to Nouvelle position du paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			GameBook#moveParagraph(int, int)
+	 * @author      Jérémi Nihart
+	 */
+	public void moveParagraph(int from, int to) {
+		book.moveParagraph(from, to);
+		undoLog.push(() -> book.moveParagraph(to, from));
+	}
+
+	/**
+	 * Supprime un paragraphe du livre ainsi que les choix qui le référencent.
+	 * Les choix supprimés, leur position et l'identifiant permanent du paragraphe sont
+	 * mémorisés pour pouvoir être restaurés.<br>
+	 * <u>CTT : O(log n + e)</u> (voir {@link GameBook#deleteParagraph(int)}).
+	 *
+	 * @return      True si le paragraphe a été supprimé.
+	 * @param		id Position du paragraphe à supprimer.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			GameBook#deleteParagraph(int)
+	 * @author      Jérémi Nihart
+	 */
+	public boolean deleteParagraph(int id) {
+		if (book.getSize() <= 1) {
+			return false;
+		}
+		Paragraph victim = book.getParagraphByID(id);
+		int permanentId = victim.getPermanentId();
+		List<Runnable> restore = new ArrayList<>();
+		victim.forEachChoice((key, target) -> restore.add(() -> victim.addChoice(key, target)));
+		for (Paragraph source : victim.getIncomingParagraphs()) {
+			if (source == victim) {
+				continue;  // Ses choix vers lui-même sont remis avec ses propres choix.
+			}
+			int[] index = {0};
+			source.forEachChoice((key, target) -> {
+				int position = index[0]++;
+				if (target == victim) {
+					// Dans l'ordre croissant des positions : chaque choix retrouve sa place.
+					restore.add(() -> source.restoreChoice(position, key, victim));
+				}
+			});
+		}
+		book.deleteParagraph(id);
+		undoLog.push(() -> {
+			book.restoreParagraphAt(id, victim, permanentId);
+			restore.forEach(Runnable::run);
+		});
+		return true;
+	}
+
+	/**
+	 * Modifie le contenu d'un paragraphe.
+	 *
+	 * @return      True si le contenu a été modifié.
+	 * @param		paragraph Paragraphe à modifier.
+	 * @param		content Nouveau contenu du paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			Paragraph#setContent(String)
+	 * @author      Jérémi Nihart
+	 */
+	public boolean setContent(Paragraph paragraph, String content) {
+		String old = paragraph.getContent();
+		if (paragraph.setContent(content)) {
+			undoLog.push(() -> paragraph.setContent(old));
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Insère du texte dans le contenu d'un paragraphe.<br>
+	 * <u>CTT : O(log m + t)</u> (voir {@link Paragraph#insertText(int, String)}).
+	 *
+	 * @return      True si le texte a été inséré.
+	 * @param		paragraph Paragraphe à modifier.
+	 * @param		offset Position d'insertion.
+	 * @param		text Texte à insérer.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			Paragraph#insertText(int, String)
+	 * @author      Jérémi Nihart
+	 */
+	public boolean insertText(Paragraph paragraph, int offset, String text) {
+		if (paragraph.insertText(offset, text)) {
+			undoLog.push(() -> paragraph.deleteText(offset, text.length()));
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Supprime une partie du contenu d'un paragraphe, le texte supprimé est mémorisé
+	 * pour pouvoir être réinséré.<br>
+	 * <u>CTT : O(log m + length)</u> (voir {@link Paragraph#deleteText(int, int)}).
+	 *
+	 * @return      True si le texte a été supprimé.
+	 * @param		paragraph Paragraphe à modifier.
+	 * @param		offset Position du premier caractère supprimé.
+	 * @param		length Nombre de caractères à supprimer.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			Paragraph#deleteText(int, int)
+	 * @author      Jérémi Nihart
+	 */
+	public boolean deleteText(Paragraph paragraph, int offset, int length) {
+		String removed;
+		try {
+			removed = paragraph.getText(offset, length);
+		} catch (IndexOutOfBoundsException | ArithmeticException e) {
+			return false;  // Plage hors limite : deleteText() ne modifierait rien.
+		}
+		if (paragraph.deleteText(offset, length)) {
+			undoLog.push(() -> paragraph.insertText(offset, removed));
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Ajoute (ou remplace) un choix d'un paragraphe.
+	 *
+	 * @param		paragraph Paragraphe auquel ajouter le choix.
+	 * @param		key Clé du choix.
+	 * @param		target Paragraphe ciblé par le choix.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			Paragraph#addChoice(String, Paragraph)
+	 * @author      Jérémi Nihart
+	 */
+	public void addChoice(Paragraph paragraph, String key, Paragraph target) {
+		String workKey = Paragraph.toChoiceKey(key);
+		Paragraph old = paragraph.getParagraphByChoiceKey(workKey);
+		paragraph.addChoice(workKey, target);
+		touched.add(paragraph);
+		undoLog.push(() -> {
+			if (old == null) {
+				paragraph.deleteChoice(workKey);
+			} else {
+				paragraph.addChoice(workKey, old);
+			}
+		});
+	}
+
+	/**
+	 * Supprime un choix d'un paragraphe.
+	 *
+	 * @param		paragraph Paragraphe dont il faut supprimer le choix.
+	 * @param		key Clé du choix à supprimer.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			Paragraph#deleteChoice(String)
+	 * @author      Jérémi Nihart
+	 */
+	public void deleteChoice(Paragraph paragraph, String key) {
+		int index = paragraph.getChoiceIndex(key);
+		if (index >= 0) {
+			Paragraph old = paragraph.getParagraphByChoiceKey(key);
+			paragraph.deleteChoice(key);
+			undoLog.push(() -> paragraph.restoreChoice(index, key, old));
+		}
+	}
+
+	/**
+	 * Modifie la clé d'un choix d'un paragraphe.
+	 *
+	 * @return      True si la clé a été modifiée.
+	 * @param		paragraph Paragraphe dont il faut modifier le choix.
+	 * @param		oldKey Clé actuelle du choix.
+	 * @param		newKey Nouvelle clé du choix.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			Paragraph#updateChoiceKey(String, String)
+	 * @author      Jérémi Nihart
+	 */
+	public boolean updateChoiceKey(Paragraph paragraph, String oldKey, String newKey) {
+		int index = paragraph.getChoiceIndex(oldKey);
+		Paragraph target = paragraph.getParagraphByChoiceKey(oldKey);
+		if (paragraph.updateChoiceKey(oldKey, newKey)) {
+			undoLog.push(() -> {
+				paragraph.deleteChoice(newKey);
+				paragraph.restoreChoice(index, oldKey, target);
+			});
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Modifie le paragraphe ciblé par un choix.
+	 *
+	 * @param		paragraph Paragraphe dont il faut modifier le choix.
+	 * @param		key Clé du choix.
+	 * @param		target Nouveau paragraphe ciblé par le choix.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			Paragraph#updateChoiceParagraph(String, Paragraph)
+	 * @author      Jérémi Nihart
+	 */
+	public void updateChoiceParagraph(Paragraph paragraph, String key, Paragraph target) {
+		Paragraph old = paragraph.getParagraphByChoiceKey(key);
+		if (old != null) {
+			paragraph.updateChoiceParagraph(key, target);
+			touched.add(paragraph);
+			undoLog.push(() -> paragraph.updateChoiceParagraph(key, old));
+		}
+	}
+
+	/**
+	 * Indique si la transaction a modifié le livre.
+	 *
+	 * @return      True si au moins une modification a été appliquée.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	boolean hasChanges() {
+		return !undoLog.isEmpty();
+	}
+
+	/**
+	 * Indique si la transaction doit être validée : aucune annulation n'a été
+	 * demandée et les paragraphes du livre insérés ou dont les choix ont été
+	 * modifiés ne pointent que vers des paragraphes du livre.<br>
+	 * <u>CTT : O(k log n)</u> ou 'k' est le nombre de choix des paragraphes modifiés.
+	 *
+	 * @return      True si la transaction peut être validée.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	boolean canCommit() {
+		if (rollbackRequested) {
+			return false;
+		}
+		for (Paragraph paragraph : touched) {
+			if (book.getParagraphIdByObject(paragraph) < 0) {
+				continue;  // Paragraphe hors du livre ou supprimé durant la transaction.
+			}
+			for (Paragraph target : paragraph.getChoiceView().values()) {
+				if (book.getParagraphIdByObject(target) < 0) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Annule toutes les modifications appliquées, de la plus récente
+	 * à la plus ancienne.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	void undo() {
+		while (!undoLog.isEmpty()) {
+			undoLog.pop().run();
+		}
+	}
+}
@@ -3,23 +3,23 @@ package gamebook.domains;
 import java.util.List;
 
 /**
- * Dclare les donnes relatives au livre donn en exemple.
- * Ces donnes sont notamment utilises  des fins de tests pour l'itration 1.
+ * Déclare les données relatives au livre donné en exemple.
+ * Ces données sont notamment utilisées à des fins de tests pour l'itération 1.
  * */
 public class GameBookFactory {
-	public static final String BOOK_TITLE = " la poursuite du Colonel Moutarde";
+	public static final String BOOK_TITLE = "À la poursuite du Colonel Moutarde";
 	
-	public static final String P1_CONTENT = "Vous tes en train de parcourir un blog passionnant depuis de longues heures quand vous entendez le parquet craquer derrire vous.";
-	public static final String P2_CONTENT = "Discrtement une personne sest glisse dans votre dos. Vous tes assassin par le Colonel Moutarde avec un Chandelier.";
-	public static final String P3_CONTENT = "Vous tournez la tte et avez le temps de voir une personne massive fuir par la porte de derrire, laissant une forte odeur de pipe dans son sillage.";
-	public static final String P4_CONTENT = "Vous vous tirez et vous levez pour marcher un peu. La lumire de la lampe vous montre une personne avec un complet veston orang dun got douteux. Il tient un chandelier dargent  la main et commence  senfuir.";
-	public static final String P5_CONTENT = "La mystrieuse personne court moins vite que vous, probablement  cause de ses poumons qui contiennent plus de goudron quune bretelle dautoroute. Vous la rattrapez dans le jardin et la plaquez dans un parterre de roses. Le colonel Moutarde meurt quelques instants plus tard en murmurant  Monde de merde . Vous avez limin un dangereux tueur. Youpi, cest gagn ! ";
+	public static final String P1_CONTENT = "Vous êtes en train de parcourir un blog passionnant depuis de longues heures quand vous entendez le parquet craquer derrière vous.";
+	public static final String P2_CONTENT = "Discrètement une personne s’est glissée dans votre dos. Vous êtes assassiné par le Colonel Moutarde avec un Chandelier.";
+	public static final String P3_CONTENT = "Vous tournez la tête et avez le temps de voir une personne massive fuir par la porte de derrière, laissant une forte odeur de pipe dans son sillage.";
+	public static final String P4_CONTENT = "Vous vous étirez et vous levez pour marcher un peu. La lumière de la lampe vous montre une personne avec un complet veston orangé d’un goût douteux. Il tient un chandelier d’argent à la main et commence à s’enfuir.";
+	public static final String P5_CONTENT = "La mystérieuse personne court moins vite que vous, probablement à cause de ses poumons qui contiennent plus de goudron qu’une bretelle d’autoroute. Vous la rattrapez dans le jardin et la plaquez dans un parterre de roses. Le colonel Moutarde meurt quelques instants plus tard en murmurant « Monde de merde ». Vous avez éliminé un dangereux tueur. Youpi, c’est gagné ! ";
 	
-	public static final String IGNORE = "Vous remettre  lire comme si rien ne stait pass";
+	public static final String IGNORE = "Vous remettre à lire comme si rien ne s’était passé";
 	public static final String FOLLOW = "Poursuivre cette personne";
-	public static final String WALK = "Se dgourdir les jambes";
-	public static final String KEEP_READING = "Continuer  lire";
-	public static final String LOOK_BEHIND = "Regarder derrire";
+	public static final String WALK = "Se dégourdir les jambes";
+	public static final String KEEP_READING = "Continuer à lire";
+	public static final String LOOK_BEHIND = "Regarder derrière";
 	
 	/**
 	 * Constructor for the 100 percent.
@@ -27,12 +27,12 @@ public class GameBookFactory {
 	private GameBookFactory() {}
 	
 	/** 
-	 * Craie un objet GameBook initialis.
+	 * Craie un objet GameBook initialisé.
 	 *
-	 * @return      Objet {@link GameBook} initialis.
+	 * @return      Objet {@link GameBook} initialisé.
 	 *
 	 * @see         GameBook
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public static final GameBook makeGameBook() {
 		List<Paragraph> paragraphs = makeParagraphs();
@@ -46,7 +46,7 @@ public class GameBookFactory {
 	 * @return      Une liste de paragraphes.
 	 *
 	 * @see         Paragraph
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public static final List<Paragraph> makeParagraphs() {
 		return List.of(
@@ -59,16 +59,16 @@ public class GameBookFactory {
 	}
 	
 	/** 
-	 * Dfinir les choix d'un groupe de paragraphes.<br>
+	 * Définir les choix d'un groupe de paragraphes.<br>
 	 * <u>TTC : O(n)</u>
 	 *
 	 * @param       target Objet {@link Paragraph} sur lequel pointe le choix.
 	 * @param       title Titre du choix (contenu).
-	 * @param       paragraphs Intration d'objet {@link Paragraph} auquels ajouter les choix.
+	 * @param       paragraphs Intération d'objet {@link Paragraph} auquels ajouter les choix.
 	 *
 	 * @see         Paragraph
 	 * @see			Paragraph#addChoice(String, Paragraph)
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public static final void setChoices(Paragraph target, String title, Paragraph...paragraphs) {
 		for(Paragraph p : paragraphs) {
@@ -83,7 +83,7 @@ public class GameBookFactory {
 	 *
 	 * @see         Paragraph
 	 * @see			GameBookFactory#setChoices(Paragraph, String, Paragraph...)
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public static final void makeChoices(List<Paragraph> paragraphs) {
 		setChoices(paragraphs.get(1), IGNORE, paragraphs.get(2), paragraphs.get(3));
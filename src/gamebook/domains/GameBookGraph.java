@@ -0,0 +1,238 @@
+/**
+ * File name    : GameBookGraph.java
+ *
+ * Description  : Interface de lecture d'un livre figé dont les paragraphes
+ *                sont désignés par leur ID.
+ *
+ * Version      : 1.0
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * GameBookGraph
+ *
+ * Interface de lecture commune aux livres figés : les paragraphes sont désignés par leur ID
+ * (leur position dans le livre) et les choix par leur position dans un tableau commun (CSR).
+ * Une session de lecture ({@link Session#forPublished(GameBookGraph)}) et les algorithmes de
+ * graphe travaillent avec cette interface sans savoir où les données sont rangées.
+ *
+ * <hr>
+ * <b>Implémentations :</b>
+ * <ul>
+ *  <li>{@link PublishedGameBook} : tableaux Java, table d'adressage ouvert par paragraphe.</li>
+ *  <li>{@link OffHeapGameBook} : mémoire hors tas, pour les très grands livres.</li>
+ *  <li>{@link ChapteredGameBook} : chapitres chargés à la demande, pour ouvrir un très grand
+ *      livre sans le charger entièrement.</li>
+ * </ul>
+ * <hr>
+ *
+ * @version     1.0
+ *
+ * @see         GameBook#snapshot()
+ * @author      Jérémi Nihart
+ */
+public interface GameBookGraph {
+
+	/**
+	 * Getter, permettant de récupérer le titre du livre.
+	 *
+	 * @return      Titre du livre.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public String getTitle();
+
+	/**
+	 * Getter, permettant de récupérer le nombre de paragraphes du livre.
+	 *
+	 * @return      Nombre de paragraphes.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getSize();
+
+	/**
+	 * Getter, permettant de récupérer le head (titre) d'un paragraphe, identique à
+	 * {@link GameBook#getParagraphHead(Paragraph)}.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Le head du paragraphe.
+	 * @param		paragraph ID du paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public default String getHead(int paragraph) {
+		return String.format("%s %s", Paragraph.PARAGRAPH_HEAD, paragraph + 1);
+	}
+
+	/**
+	 * Getter, permettant de récupérer le contenu d'un paragraphe.
+	 *
+	 * @return      Le contenu du paragraphe.
+	 * @param		paragraph ID du paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public String getContent(int paragraph);
+
+	/**
+	 * Getter, permettant de récupérer le nombre de choix d'un paragraphe.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Nombre de choix.
+	 * @param		paragraph ID du paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public default int getChoiceCount(int paragraph) {
+		return getFirstChoice(paragraph + 1) - getFirstChoice(paragraph);
+	}
+
+	/**
+	 * Getter, permettant de récupérer les libellés des choix d'un paragraphe, dans
+	 * l'ordre de {@link Paragraph#getChoices()}.<br>
+	 * <u>CTT : O(1)</u> la liste est une vue non modifiable sur les choix du livre.
+	 *
+	 * @return      List des libellés.
+	 * @param		paragraph ID du paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public default List<String> getChoices(int paragraph) {
+		int first = getFirstChoice(paragraph);
+		int count = getChoiceCount(paragraph);
+		return new AbstractList<>() {
+			@Override
+			public String get(int index) {
+				return getLabel(getChoiceLabelId(first + Objects.checkIndex(index, count)));
+			}
+
+			@Override
+			public int size() {
+				return count;
+			}
+		};
+	}
+
+	/**
+	 * Getter, permettant de récupérer l'ID du paragraphe ciblé par le choix 'key' du
+	 * paragraphe 'paragraph'.
+	 *
+	 * @return      L'ID du paragraphe ciblé, -1 si le choix n'existe pas ou ne cible
+	 * 				aucun paragraphe du livre.
+	 * @param		paragraph ID du paragraphe.
+	 * @param		key Libellé du choix.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getTarget(int paragraph, String key);
+
+	/**
+	 * Getter, permettant de récupérer le nombre total de choix du livre.
+	 *
+	 * @return      Nombre de choix, les positions des choix vont de 0 à ce nombre (exclu).
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getTotalChoiceCount();
+
+	/**
+	 * Getter, permettant de récupérer la position du premier choix d'un paragraphe (CSR) :
+	 * les choix du paragraphe 'p' occupent les positions <code>getFirstChoice(p)</code> à
+	 * <code>getFirstChoice(p+1)</code> (exclue).
+	 *
+	 * @return      Position du premier choix.
+	 * @param		paragraph ID du paragraphe, de 0 à {@link GameBookGraph#getSize()} (inclus).
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getFirstChoice(int paragraph);
+
+	/**
+	 * Getter, permettant de récupérer l'ID du paragraphe ciblé par le choix de position 'choice'.
+	 *
+	 * @return      L'ID du paragraphe ciblé, -1 si le choix ne cible aucun paragraphe du livre.
+	 * @param		choice Position du choix.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getChoiceTarget(int choice);
+
+	/**
+	 * Getter, permettant de récupérer l'identifiant du libellé du choix de position 'choice'.
+	 *
+	 * @return      L'identifiant du libellé (voir {@link GameBookGraph#getLabel(int)}).
+	 * @param		choice Position du choix.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getChoiceLabelId(int choice);
+
+	/**
+	 * Getter, permettant de récupérer le nombre de libellés distincts du livre.
+	 *
+	 * @return      Nombre de libellés, les identifiants vont de 0 à ce nombre (exclu).
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getLabelCount();
+
+	/**
+	 * Getter, permettant de récupérer le libellé d'identifiant 'labelId'.
+	 *
+	 * @return      Le libellé.
+	 * @param		labelId Identifiant du libellé.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public String getLabel(int labelId);
+
+	/**
+	 * Getter, permettant de récupérer l'estimation des octets retenus par le livre, calculée
+	 * à sa construction (le livre ne change plus).<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Le relevé de la mémoire retenue, sans historique ni cache.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			MemoryFootprint
+	 * @author      Jérémi Nihart
+	 */
+	public MemoryFootprint getMemoryFootprint();
+}
@@ -1,14 +1,14 @@
 /**
  * File name    : GameBookStatement.java
  *
- * Description  : Interface d'implmentation des classes de statement du livre
- * 				  permettent une vrification de la cohrence.
+ * Description  : Interface d'implémentation des classes de statement du livre
+ * 				  permettent une vérification de la cohérence.
  *
  * Version      : 1.0
  * Since        : 1.2
  * Date         : 13/05/2021
  *
- * Author       : Jrmi Nihart <j.nihart@student.helmo.be>
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
  * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
  */
 package gamebook.domains;
@@ -18,15 +18,15 @@ import java.util.Collection;
 /**
  * GameBookStatement
  *
- * Interface de mthodes permettent d'implmenter les controllers de statut du livre.
+ * Interface de méthodes permettent d'implémenter les controllers de statut du livre.
  * 
  * <hr>
- * <b>Postconditions des donnes pour : <i>B. Relev du nombre de fois que chaque 
+ * <b>Postconditions des données pour : <i>B. Relevé du nombre de fois que chaque §
  *    figure dans une destination</i></b>
  * <ul>
  *  <li>Titre : Indique ce que fait le controller.</li>
- *  <li>Description : Mentionne le titre du livre trait.</li>
- *  <li>Rsultat(s) : Numro du paragraphe dans le livre jeu, suivi du nombre
+ *  <li>Description : Mentionne le titre du livre traité.</li>
+ *  <li>Résultat(s) : Numéro du paragraphe dans le livre jeu, suivi du nombre
  *      d'apparition, suivi du contenu du paragraphe.</li>
  * </ul>
  * 
@@ -34,51 +34,51 @@ import java.util.Collection;
  *
  * @version     1.0
  *
- * @author      Jrmi Nihart
+ * @author      Jérémi Nihart
  */
 public interface GameBookStatement {
 	
 	/** 
-	 * Indique au controller de dmarrer une vrification des donnes.
+	 * Indique au controller de démarrer une vérification des données.
 	 * 
 	 * @param 		book Objet {@link GameBook} avec lequel travailer.
 	 *
 	 * @since       1.0
 	 *
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public void parse(GameBook book);
 	
 	/** 
-	 * Rcuprer le titre du controller.
+	 * Récupérer le titre du controller.
 	 * 
 	 * @return 		Le titre du controller.
 	 *
 	 * @since       1.0
 	 *
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public String getTitle();
 	
 	/** 
-	 * Rcuprer la description du controller.
+	 * Récupérer la description du controller.
 	 * 
 	 * @return 		La description du controller.
 	 *
 	 * @since       1.0
 	 *
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public String getDescription();
 	
 	/** 
-	 * Rcuprer les rsultats du controller.
+	 * Récupèrer les résultats du controller.
 	 * 
-	 * @return 		Liste des rsultats format du controller.
+	 * @return 		Liste des résultats formaté du controller.
 	 *
 	 * @since       1.0
 	 *
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public Collection<String> getResults();
 	
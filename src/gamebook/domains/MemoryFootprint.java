@@ -0,0 +1,252 @@
+/**
+ * File name    : MemoryFootprint.java
+ *
+ * Description  : Estimation de la mémoire retenue par un livre ou une session.
+ *
+ * Version      : 1.0
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains;
+
+/**
+ * MemoryFootprint
+ *
+ * Relevé immuable des octets retenus par un livre ou une session, par composant. Les
+ * valeurs sont des estimations tenues à jour à chaque modification par les structures
+ * du livre : obtenir un relevé ne parcourt ni le livre ni le tas.
+ *
+ * <hr>
+ *
+ * <h2>Composants</h2>
+ * <ul>
+ *  <li>contenu : blocs UTF-8 de {@link TextArena}, contenus en cours de modification
+ *      ({@link Rope}) et titre ;</li>
+ *  <li>choix : tables des choix de chaque paragraphe ({@link ChoiceStore}) et leur entrée
+ *      dans l'index des choix entrants de la cible ;</li>
+ *  <li>libellés : table des libellés du livre ({@link ChoiceLabels}) ;</li>
+ *  <li>paragraphes : objets {@link Paragraph}, noeuds de {@link ParagraphSequence} et index
+ *      des identifiants permanents ;</li>
+ *  <li>historique : historique de lecture d'une {@link Session} ;</li>
+ *  <li>caches d'analyse : versions publiées gardées par le livre ({@link GameBook#snapshot()},
+ *      {@link GameBook#getChainGraph()}) et index des paragraphes par libellé.</li>
+ * </ul>
+ *
+ * <h2>Estimation</h2>
+ * <p>Les tailles sont celles d'une JVM 64 bits avec oops compressés (en-tête de 12 octets,
+ * référence de 4 octets, alignement sur 8 octets), comme les mesures de {@link ChoiceStore}.
+ * Une String est comptée en Latin-1 (1 octet par caractère, le cas du français), une HashMap
+ * à 40 octets par entrée. Le contenu gardé en cache par une SoftReference n'est pas compté :
+ * le GC le libère au besoin. Pour {@link OffHeapGameBook}, les octets hors tas sont comptés
+ * avec le reste.</p>
+ *
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>getTotalBytes() : <u>CTT:</u> <b>O(1)</b></li>
+ * 	<li>withHistory() :   <u>CTT:</u> <b>O(1)</b></li>
+ * </ul>
+ * <hr>
+ *
+ * @version     1.0
+ *
+ * @see         GameBook#getMemoryFootprint()
+ * @see         Session#getMemoryFootprint()
+ * @author      Jérémi Nihart
+ */
+public final class MemoryFootprint {
+	// Constante(s)
+	static final int HEADER = 12;
+	static final int REFERENCE = 4;
+	static final int MAP_ENTRY = 40;
+
+	// Variables Objet
+	private final long content;
+	private final long choices;
+	private final long labels;
+	private final long paragraphs;
+	private final long history;
+	private final long caches;
+
+	/**
+	 * Constructeur
+	 *
+	 * @param		content Octets du contenu des paragraphes.
+	 * @param		choices Octets des tables de choix.
+	 * @param		labels Octets des libellés.
+	 * @param		paragraphs Octets des objets paragraphes et de leur index.
+	 * @param		history Octets de l'historique de lecture.
+	 * @param		caches Octets des caches d'analyse.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	MemoryFootprint(long content, long choices, long labels, long paragraphs, long history, long caches) {
+		this.content = content;
+		this.choices = choices;
+		this.labels = labels;
+		this.paragraphs = paragraphs;
+		this.history = history;
+		this.caches = caches;
+	}
+
+	/**
+	 * Getter, permettant de récupérer les octets du contenu des paragraphes et du titre.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre d'octets estimé.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public long getContentBytes() {
+		return content;
+	}
+
+	/**
+	 * Getter, permettant de récupérer les octets des tables de choix.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre d'octets estimé.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public long getChoiceBytes() {
+		return choices;
+	}
+
+	/**
+	 * Getter, permettant de récupérer les octets de la table des libellés.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre d'octets estimé.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public long getLabelBytes() {
+		return labels;
+	}
+
+	/**
+	 * Getter, permettant de récupérer les octets des objets paragraphes et de leur index.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre d'octets estimé.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public long getParagraphBytes() {
+		return paragraphs;
+	}
+
+	/**
+	 * Getter, permettant de récupérer les octets de l'historique de lecture (0 pour un livre).<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre d'octets estimé.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public long getHistoryBytes() {
+		return history;
+	}
+
+	/**
+	 * Getter, permettant de récupérer les octets des caches d'analyse.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre d'octets estimé.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public long getCacheBytes() {
+		return caches;
+	}
+
+	/**
+	 * Getter, permettant de récupérer la somme de tous les composants.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre d'octets estimé.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public long getTotalBytes() {
+		return content + choices + labels + paragraphs + history + caches;
+	}
+
+	/**
+	 * Permet d'obtenir le même relevé avec l'historique de lecture 'history'.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Un nouveau relevé.
+	 * @param		history Octets de l'historique de lecture.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public MemoryFootprint withHistory(long history) {
+		return new MemoryFootprint(content, choices, labels, paragraphs, history, caches);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("contenu=%d, choix=%d, libellés=%d, paragraphes=%d, historique=%d, caches=%d, total=%d",
+				content, choices, labels, paragraphs, history, caches, getTotalBytes());
+	}
+
+	/**
+	 * Permet d'estimer la taille d'un tableau.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre d'octets, en-tête et alignement compris.
+	 * @param		length Nombre d'éléments.
+	 * @param		elementBytes Taille d'un élément (REFERENCE pour un tableau d'objets).
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	static long array(long length, int elementBytes) {
+		return align(HEADER + Integer.BYTES + length * elementBytes);
+	}
+
+	/**
+	 * Permet d'estimer la taille d'une String en Latin-1 et de son tableau.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre d'octets, 0 pour null.
+	 * @param		text Chaîne à estimer.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	static long string(String text) {
+		return (text == null) ? 0 : align(HEADER + 3 * Integer.BYTES) + array(text.length(), Byte.BYTES);
+	}
+
+	/**
+	 * Arrondit 'bytes' au multiple de 8 supérieur (alignement des objets).
+	 */
+	static long align(long bytes) {
+		return (bytes + 7) & ~7L;
+	}
+}
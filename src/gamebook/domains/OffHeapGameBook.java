@@ -0,0 +1,447 @@
+/**
+ * File name    : OffHeapGameBook.java
+ *
+ * Description  : Livre figé rangé hors du tas Java, pour les très grands livres.
+ *
+ * Version      : 1.0
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * OffHeapGameBook
+ *
+ * Livre figé dont le graphe et les contenus sont rangés dans des tampons directs
+ * ({@link ByteBuffer#allocateDirect(int)}), hors du tas Java. Un livre de plusieurs millions
+ * de paragraphes ne représente alors que quelques objets pour le ramasse-miettes : les
+ * collections ne parcourent plus des millions de {@link String} et de tableaux, et les
+ * analyses lisent les mêmes tableaux CSR que {@link PublishedGameBook} par l'interface
+ * {@link GameBookGraph}. L'objet est immuable une fois construit, plusieurs lecteurs peuvent
+ * l'utiliser en même temps sans verrou (les lectures sont des accès absolus aux tampons).
+ *
+ * <hr>
+ *
+ * <h2>Rangement :</h2>
+ * <ul>
+ * 	<li>Les choix : trois tampons d'entiers CSR (premier choix de chaque paragraphe, ID du
+ * 		paragraphe ciblé, identifiant du libellé), comme {@link PublishedGameBook}.</li>
+ * 	<li>Les contenus : encodés en UTF-8 à la suite dans des blocs d'au plus 1 Go (limite d'un
+ * 		tampon), un tampon de positions (long) et un tampon de longueurs désignent le contenu de
+ * 		chaque paragraphe. Un contenu n'est jamais coupé entre deux blocs.</li>
+ * 	<li>Les libellés distincts et le titre restent sur le tas (peu nombreux).</li>
+ * </ul>
+ * <p>La mémoire hors tas est rendue lorsque le livre n'est plus référencé (nettoyage des tampons
+ * directs par le ramasse-miettes), elle est limitée par l'option <code>-XX:MaxDirectMemorySize</code>.</p>
+ *
+ * <h2>Construction :</h2>
+ * <p>{@link OffHeapGameBook#of(GameBookGraph)} copie un livre publié. Un générateur de très grands
+ * livres utilise directement {@link OffHeapGameBook.Builder} pour ne jamais créer les objets
+ * {@link Paragraph} : les tampons doublent de taille lorsqu'ils sont pleins.</p>
+ *
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>getTarget() :      <u>CTT:</u> <b>O(k)</b> (k le nombre de choix du paragraphe)</li>
+ * 	<li>getContent() :     <u>CTT:</u> <b>O(l)</b> (décodage des l octets du contenu)</li>
+ *  <li>getChoiceCount() : <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>getChoiceTarget() : <u>CTT:</u> <b>O(1)</b></li>
+ * </ul>
+ * <hr>
+ *
+ * @version     1.0
+ *
+ * @see         GameBookGraph
+ * @see         PublishedGameBook
+ * @author      Jérémi Nihart
+ */
+public final class OffHeapGameBook implements GameBookGraph {
+	// Constante(s)
+	private static final int CHUNK_BITS = 30;
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	private static final int MAX_INTS = Integer.MAX_VALUE / Integer.BYTES;
+	private static final int MAX_LONGS = Integer.MAX_VALUE / Long.BYTES;
+
+	// Variables Objet
+	private final String title;
+	private final int size;
+	private final int choiceCount;
+	private final IntBuffer firstChoice;
+	private final IntBuffer choiceTargets;
+	private final IntBuffer choiceLabels;
+	private final LongBuffer contentStarts;
+	private final IntBuffer contentLengths;
+	private final ByteBuffer[] text;
+	private final String[] labels;
+	private final Map<String, Integer> labelIds;
+
+	private OffHeapGameBook(Builder builder) {
+		title = builder.title;
+		size = builder.size;
+		choiceCount = builder.choices;
+		firstChoice = builder.firstChoice;
+		choiceTargets = builder.choiceTargets;
+		choiceLabels = builder.choiceLabels;
+		contentStarts = builder.contentStarts;
+		contentLengths = builder.contentLengths;
+		text = builder.text.toArray(new ByteBuffer[0]);
+		labels = builder.labels.toArray(new String[0]);
+		labelIds = builder.labelIds;
+	}
+
+	/**
+	 * Permet de copier hors du tas un livre lu par ID, par exemple le résultat de
+	 * {@link GameBook#snapshot()}.<br>
+	 * <u>CTT : O(n+e+t)</u> ou 't' est la taille totale des contenus.
+	 *
+	 * @return		Un nouveau livre hors tas identique à 'book'.
+	 * @param		book Livre à copier, non null.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public static OffHeapGameBook of(GameBookGraph book) {
+		Builder builder = new Builder(book.getTitle());
+		for (int p = 0; p < book.getSize(); p++) {
+			builder.addParagraph(book.getContent(p));
+			for (int c = book.getFirstChoice(p); c < book.getFirstChoice(p + 1); c++) {
+				builder.addChoice(book.getLabel(book.getChoiceLabelId(c)), book.getChoiceTarget(c));
+			}
+		}
+		return builder.build();
+	}
+
+	@Override
+	public String getTitle() {
+		return title;
+	}
+
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Getter, permettant de récupérer l'estimation des octets retenus par le livre : la capacité
+	 * des tampons hors tas (contenus et tableaux des choix) et les libellés gardés sur le tas.<br>
+	 * <u>CTT : O(c+l)</u> ou 'c' est le nombre de blocs de contenu et 'l' le nombre de libellés.
+	 *
+	 * @return      Le relevé de la mémoire retenue.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public MemoryFootprint getMemoryFootprint() {
+		long content = MemoryFootprint.string(title) + (long) contentStarts.capacity() * Long.BYTES
+				+ (long) contentLengths.capacity() * Integer.BYTES;
+		for (ByteBuffer chunk : text) {
+			content += chunk.capacity();
+		}
+		long choices = (long) (firstChoice.capacity() + choiceTargets.capacity() + choiceLabels.capacity()) * Integer.BYTES;
+		long labelBytes = MemoryFootprint.array(labels.length, MemoryFootprint.REFERENCE)
+				+ (long) labels.length * MemoryFootprint.MAP_ENTRY;
+		for (String label : labels) {
+			labelBytes += MemoryFootprint.string(label);
+		}
+		return new MemoryFootprint(content, choices, labelBytes, 0, 0, 0);
+	}
+
+	/**
+	 * Getter, permettant de récupérer le contenu d'un paragraphe, décodé depuis la mémoire hors tas.<br>
+	 * <u>CTT : O(l)</u> ou 'l' est la longueur du contenu.
+	 *
+	 * @return      Le contenu du paragraphe.
+	 * @param		paragraph ID du paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public String getContent(int paragraph) {
+		long start = contentStarts.get(Objects.checkIndex(paragraph, size));
+		byte[] bytes = new byte[contentLengths.get(paragraph)];
+		ByteBuffer chunk = text[(int) (start >>> CHUNK_BITS)].duplicate();
+		chunk.position((int) (start & (CHUNK_SIZE - 1)));
+		chunk.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Getter, permettant de récupérer l'ID du paragraphe ciblé par le choix 'key' du
+	 * paragraphe 'paragraph' (parcours des choix du paragraphe).<br>
+	 * <u>CTT : O(k)</u> ou 'k' est le nombre de choix du paragraphe.
+	 *
+	 * @return      L'ID du paragraphe ciblé, -1 si le choix n'existe pas ou ne cible
+	 * 				aucun paragraphe du livre.
+	 * @param		paragraph ID du paragraphe.
+	 * @param		key Libellé du choix.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public int getTarget(int paragraph, String key) {
+		Integer id = labelIds.get(key);
+		if (id == null) {
+			return -1;
+		}
+		for (int c = getFirstChoice(paragraph); c < getFirstChoice(paragraph + 1); c++) {
+			if (choiceLabels.get(c) == id) {
+				return choiceTargets.get(c);
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int getTotalChoiceCount() {
+		return choiceCount;
+	}
+
+	@Override
+	public int getFirstChoice(int paragraph) {
+		return firstChoice.get(Objects.checkIndex(paragraph, size + 1));
+	}
+
+	@Override
+	public int getChoiceTarget(int choice) {
+		return choiceTargets.get(Objects.checkIndex(choice, choiceCount));
+	}
+
+	@Override
+	public int getChoiceLabelId(int choice) {
+		return choiceLabels.get(Objects.checkIndex(choice, choiceCount));
+	}
+
+	@Override
+	public int getLabelCount() {
+		return labels.length;
+	}
+
+	@Override
+	public String getLabel(int labelId) {
+		return labels[labelId];
+	}
+
+	/**
+	 * Builder
+	 *
+	 * Construit un {@link OffHeapGameBook} paragraphe par paragraphe, sans créer d'objet
+	 * {@link Paragraph} : chaque paragraphe est ajouté avec son contenu puis ses choix, un choix
+	 * peut cibler un paragraphe qui n'est pas encore ajouté. Les tampons doublent de taille
+	 * lorsqu'ils sont pleins (<u>CTT : O(1)</u> amorti par ajout).
+	 *
+	 * @version     1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public static final class Builder {
+		// Variables Objet
+		private final String title;
+		private int size;
+		private int choices;
+		private IntBuffer firstChoice = allocateInts(16);
+		private IntBuffer choiceTargets = allocateInts(16);
+		private IntBuffer choiceLabels = allocateInts(16);
+		private LongBuffer contentStarts = allocateLongs(16);
+		private IntBuffer contentLengths = allocateInts(16);
+		private final List<ByteBuffer> text = new ArrayList<>();
+		private long textEnd;
+		private final List<String> labels = new ArrayList<>();
+		private final Map<String, Integer> labelIds = new HashMap<>();
+		private boolean built;
+
+		/**
+		 * Constructeur
+		 *
+		 * @param		title Titre du livre.
+		 *
+		 * @since       1.0
+		 *
+		 * @author      Jérémi Nihart
+		 */
+		public Builder(String title) {
+			this.title = title;
+			firstChoice.put(0, 0);
+		}
+
+		/**
+		 * Permet d'ajouter un paragraphe à la fin du livre, les choix ajoutés ensuite lui appartiennent.
+		 *
+		 * @return		L'ID du paragraphe ajouté.
+		 * @param		content Contenu du paragraphe, non null.
+		 *
+		 * @throws		IllegalArgumentException si le contenu encodé dépasse 1 Go.
+		 * @throws		IllegalStateException si le livre est déjà construit.
+		 *
+		 * @since       1.0
+		 *
+		 * @author      Jérémi Nihart
+		 */
+		public int addParagraph(String content) {
+			checkNotBuilt();
+			byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+			if (bytes.length > CHUNK_SIZE) {
+				throw new IllegalArgumentException("Paragraph content exceeds " + CHUNK_SIZE + " bytes");
+			}
+			long start = reserveText(bytes.length);
+			ByteBuffer chunk = text.get(text.size() - 1).duplicate();
+			chunk.position((int) (start & (CHUNK_SIZE - 1)));
+			chunk.put(bytes);
+			firstChoice = growInts(firstChoice, size + 2);
+			contentStarts = growLongs(contentStarts, size + 1);
+			contentLengths = growInts(contentLengths, size + 1);
+			contentStarts.put(size, start);
+			contentLengths.put(size, bytes.length);
+			firstChoice.put(size + 1, choices);
+			return size++;
+		}
+
+		/**
+		 * Permet d'ajouter un choix au dernier paragraphe ajouté.
+		 *
+		 * @return		Ce builder.
+		 * @param		label Libellé du choix, non null et unique dans le paragraphe.
+		 * @param		target ID du paragraphe ciblé, -1 si le choix ne cible aucun paragraphe.
+		 *
+		 * @throws		IllegalArgumentException si la cible est invalide ou si le libellé existe déjà.
+		 * @throws		IllegalStateException si aucun paragraphe n'est ajouté ou si le livre est déjà construit.
+		 *
+		 * @since       1.0
+		 *
+		 * @author      Jérémi Nihart
+		 */
+		public Builder addChoice(String label, int target) {
+			checkNotBuilt();
+			if (size == 0) {
+				throw new IllegalStateException("No paragraph to add the choice to");
+			}
+			if (target < -1) {
+				throw new IllegalArgumentException("Invalid target: " + target);
+			}
+			int id = labelIds.computeIfAbsent(Objects.requireNonNull(label), key -> {
+				labels.add(key);
+				return labels.size() - 1;
+			});
+			for (int c = firstChoice.get(size - 1); c < choices; c++) {
+				if (choiceLabels.get(c) == id) {
+					throw new IllegalArgumentException("Duplicate choice: " + label);
+				}
+			}
+			choiceTargets = growInts(choiceTargets, choices + 1);
+			choiceLabels = growInts(choiceLabels, choices + 1);
+			choiceTargets.put(choices, target);
+			choiceLabels.put(choices++, id);
+			firstChoice.put(size, choices);
+			return this;
+		}
+
+		/**
+		 * Permet de terminer la construction du livre, le builder n'est plus utilisable ensuite.<br>
+		 * <u>CTT : O(e)</u> vérification des cibles.
+		 *
+		 * @return		Le livre hors tas.
+		 *
+		 * @throws		IllegalStateException si un choix cible un paragraphe qui n'a pas été
+		 * 				ajouté ou si le livre est déjà construit.
+		 *
+		 * @since       1.0
+		 *
+		 * @author      Jérémi Nihart
+		 */
+		public OffHeapGameBook build() {
+			checkNotBuilt();
+			for (int c = 0; c < choices; c++) {
+				if (choiceTargets.get(c) >= size) {
+					throw new IllegalStateException("Choice " + c + " targets missing paragraph " + choiceTargets.get(c));
+				}
+			}
+			if (text.isEmpty()) {
+				text.add(ByteBuffer.allocateDirect(0));
+			}
+			built = true;
+			return new OffHeapGameBook(this);
+		}
+
+		private void checkNotBuilt() {
+			if (built) {
+				throw new IllegalStateException("Book already built");
+			}
+		}
+
+		/**
+		 * Réserve 'length' octets à la fin du dernier bloc, ou au début d'un nouveau bloc si le
+		 * dernier est plein. Le dernier bloc double de taille tant qu'il n'atteint pas 1 Go.
+		 */
+		private long reserveText(int length) {
+			int offset = (int) (textEnd & (CHUNK_SIZE - 1));
+			if (text.isEmpty() || (textEnd > 0 && offset == 0) || CHUNK_SIZE - offset < length) {
+				textEnd = (long) text.size() << CHUNK_BITS;
+				offset = 0;
+				text.add(ByteBuffer.allocateDirect(Math.max(length, 1024)));
+			}
+			int last = text.size() - 1;
+			ByteBuffer chunk = text.get(last);
+			if (chunk.capacity() - offset < length) {
+				long capacity = Math.min(CHUNK_SIZE, Math.max((long) offset + length, 2L * chunk.capacity()));
+				ByteBuffer grown = ByteBuffer.allocateDirect((int) capacity);
+				chunk.clear().limit(offset);
+				grown.put(chunk).clear();
+				text.set(last, grown);
+			}
+			long start = textEnd;
+			textEnd += length;
+			return start;
+		}
+
+		private static IntBuffer allocateInts(int capacity) {
+			return ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+		}
+
+		private static LongBuffer allocateLongs(int capacity) {
+			return ByteBuffer.allocateDirect(capacity * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+		}
+
+		private static IntBuffer growInts(IntBuffer buffer, int needed) {
+			if (needed <= buffer.capacity()) {
+				return buffer;
+			}
+			if (needed > MAX_INTS) {
+				throw new IllegalStateException("Book too large");
+			}
+			IntBuffer grown = allocateInts((int) Math.min(MAX_INTS, Math.max(needed, 2L * buffer.capacity())));
+			grown.put(buffer.duplicate().clear()).clear();
+			return grown;
+		}
+
+		private static LongBuffer growLongs(LongBuffer buffer, int needed) {
+			if (needed <= buffer.capacity()) {
+				return buffer;
+			}
+			if (needed > MAX_LONGS) {
+				throw new IllegalStateException("Book too large");
+			}
+			LongBuffer grown = allocateLongs((int) Math.min(MAX_LONGS, Math.max(needed, 2L * buffer.capacity())));
+			grown.put(buffer.duplicate().clear()).clear();
+			return grown;
+		}
+	}
+}
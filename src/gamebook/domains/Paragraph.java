@@ -1,39 +1,52 @@
 /**
  * File name    : Paragraph.java
  *
- * Description  : Classe grant les paragraphe et choix assosis.
+ * Description  : Classe gérant les paragraphe et choix assosiés.
  *
- * Version      : 1.1
+ * Version      : 1.2
  * Since        : 1.0
- * Date         : 04/05/2021
+ * Date         : 18/10/2026
  *
- * Author       : Jrmi Nihart <j.nihart@student.helmo.be>
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
  * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
  */
 package gamebook.domains;
 
+import java.lang.ref.SoftReference;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
 
 /**
  * Paragraph
  *	
- * Permet de crer un paragraphe du livre et de lui assigner
+ * Permet de créer un paragraphe du livre et de lui assigner
  * un contenu par defaut, ainsi que de lui attribuer des choix.
  *
  * <hr>
  * 
- * <h2>L'interface utilise : Map</h2>
- * <p>J'utilise une Map comme interface car j'ai besoin d'avoir un dictionaire cl valeur
- * pour accder  mes choix. J'utilise le libell du choix comme cl et un objet Paragraph comme valeur.</p>
+ * <h2>L'interface utilisée : Map</h2>
+ * <p>J'utilise une Map comme interface car j'ai besoin d'avoir un dictionaire clé valeur
+ * pour accéder à mes choix. J'utilise le libellé du choix comme clé et un objet Paragraph comme valeur.</p>
  * 
- * <h2>L'implmentation utilise : HashMap</h2>
- * <p>J'ai implment une HashMap car chaque cl doit est unique, et qu'il m'ait inutile de
- * trier les lments qu'elle contient. De plus ses principales oprations ont une CTT de <b>O(1)</b></p>
+ * <h2>L'implémentation utilisée : ChoiceStore</h2>
+ * <p>J'ai d'abord implémenté une HashMap car chaque clé doit est unique, et qu'il m'ait inutile de
+ * trier les éléments qu'elle contient. Mais une HashMap par paragraphe (même terminal) occupait la
+ * majorité de la mémoire des grands livres. {@link ChoiceStore} garde les choix dans deux petits
+ * tableaux parallèles tant qu'il y en a peu et ne leur ajoute un index d'entiers (adressage
+ * ouvert) qu'au-delà de {@link ChoiceStore#INLINE_LIMIT} choix. Les principales opérations restent
+ * en <b>O(1)</b> sans allocation et les choix gardent leur ordre d'ajout.</p>
+ * <p>Les libellés ne sont pas rangés tels quels : {@link ChoiceStore} range l'identifiant
+ * entier que leur attribue la table {@link ChoiceLabels} du livre, un libellé répété dans tout
+ * le livre n'est donc conservé qu'une fois.</p>
  * 
- * Pincipales oprations :
+ * Pincipales opérations :
  * <ul>
  * 	<li>keySet() :      <u>CTT:</u> <b>O(1)</b></li>
  * 	<li>get() :       	<u>CTT:</u> <b>O(1)</b></li>
@@ -44,171 +57,809 @@ import java.util.Map;
  *  <li>containsKey() : <u>CTT:</u> <b>O(1)</b></li>
  * </ul>
  * 
- * @version     1.1
+ * <hr>
+ * 
+ * <b>Index des choix entrants (les paragraphes qui pointent vers ce paragraphe) :</b>
+ * 
+ * <h2>L'interface utilisée : Map</h2>
+ * <p>J'utilise une Map dont la clé est le paragraphe source d'un choix et la valeur le nombre
+ * de choix de cette source qui ciblent le paragraphe courant (une source peut avoir plusieurs
+ * choix vers la même cible).</p>
+ * 
+ * <h2>L'implémentation utilisée : HashMap</h2>
+ * <p>Les sources sont indexées par identité et sans ordre particulié. La HashMap n'est
+ * créée qu'au premier choix entrant, un paragraphe que rien ne cible n'en alloue pas.
+ * L'index est mis à jour en <b>O(1)</b> par chaque modification d'un choix et permet de savoir "qui pointe ici" sans
+ * parcourir tout le livre.</p>
+ * 
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>get() :       	<u>CTT:</u> <b>O(1)</b></li>
+ *  <li>put() :       	<u>CTT:</u> <b>O(1)</b></li>
+ * 	<li>remove() :      <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>keySet() :      <u>CTT:</u> <b>O(1)</b></li>
+ * </ul>
+ * 
+ * <hr>
+ * 
+ * <b>Contenu du paragraphe :</b>
+ * 
+ * <p>Hors d'un livre le contenu est une simple String. Dans un livre il est rangé en UTF-8
+ * dans la zone {@link TextArena} du livre et n'est décodé qu'à la lecture ; la String décodée
+ * est gardée par une SoftReference, le GC peut donc la libérer lorsque la mémoire manque.
+ * {@link Paragraph#getContent()} et {@link Paragraph#setContent(String)} se comportent de la
+ * même façon dans les deux cas.</p>
+ * <p>Après une première modification partielle ({@link Paragraph#insertText(int, String)} ou
+ * {@link Paragraph#deleteText(int, int)}), le contenu est rangé dans un {@link Rope} jusqu'au
+ * prochain {@link Paragraph#setContent(String)}.</p>
+ * <p>Dans un livre concurrent (voir {@link GameBook#GameBook(String, java.util.Collection, boolean)})
+ * les lectures et les modifications du paragraphe passent par le verrou {@link BookLock} du livre.
+ * Le cache du contenu décodé n'y est alors rempli que par {@link Paragraph#setContent(String)}.</p>
+ * 
+ * <hr>
+ * 
+ * <b>Empreinte du paragraphe :</b>
+ * 
+ * <p>{@link Paragraph#getFingerprint()} hache le contenu, l'identifiant permanent et les choix
+ * (libellé et identifiant permanent de la cible, dans l'ordre). Elle est gardée en cache et
+ * chaque modification l'efface puis prévient la liste {@link ParagraphSequence} du livre, qui
+ * tient à jour l'empreinte du livre (voir {@link GameBook#getFingerprint()}).</p>
+ * 
+ * @version     1.2
  *
- * @author      Jrmi Nihart
+ * @author      Jérémi Nihart
  */
 public class Paragraph {
 	// Constante(s) publique(s)
 	public static final String PARAGRAPH_HEAD = "Paragraphe";
 	public static final String PARAGRAPH_CONTENT = "Nouveau paragraphe";
 	public static final String PARAGRAPH_CHOICE = "Nouveau choix";
+	public static final int NO_PERMANENT_ID = -1;
 
 	// Variables Objet
-	private String content;
-	private final Map<String, Paragraph> choices = new HashMap<>();
+	private String content;  // Contenu tant que le paragraphe n'est dans aucun livre.
+	private TextArena arena;  // Zone du livre qui contient le paragraphe.
+	private long contentRef;
+	private int contentLength;
+	private SoftReference<String> cachedContent;
+	private Rope rope;  // Contenu après une première modification partielle.
+	private final ChoiceStore choices = new ChoiceStore(this);
+	private Map<Paragraph, Integer> incoming;  // Créée au premier choix entrant.
+	private BookLock lock = BookLock.NONE;  // Verrou du livre si il est en mode concurrent.
+	private int permanentId = NO_PERMANENT_ID;  // Attribué par le livre, jamais réutilisé.
+	private ParagraphSequence sequence;  // Liste du livre, prévenue de chaque modification.
+	private long fingerprint;  // 0 : à recalculer.
+	private final Map<String, Paragraph> choicesView = Collections.unmodifiableMap(choices);
 	
 	/** 
 	 * Constructeur
 	 *
-	 * @param		content Contenu du paragraphe, si aucun contenu n'est spcifi
-	 *                      la fonction d'assigniation du contenu dfinira
+	 * @param		content Contenu du paragraphe, si aucun contenu n'est spécifié
+	 *                      la fonction d'assigniation du contenu définira
 	 *                      {@link Paragraph#PARAGRAPH_CONTENT} comme valeur par defaut.
 	 *
 	 * @since       1.0
 	 *
 	 * @see 		Paragraph#setContent(String)
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public Paragraph(String content) {
 		setContent(content);
 	}
 	
 	/** 
-	 * Getter, permettant de rcuprer le contenu du paragraphe.
+	 * Getter, permettant de récupérer le contenu du paragraphe.
 	 *
 	 * @return      Le contenu du paragraphe.
 	 *
 	 * @since       1.0
 	 *
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public String getContent() {
-		return content;
+		return lock.read(this::loadContent);
+	}
+	
+	private String loadContent() {
+		if (arena == null && rope == null) {
+			return content;
+		}
+		SoftReference<String> cached = cachedContent;
+		String decoded = (cached == null) ? null : cached.get();
+		if (decoded == null) {
+			decoded = (rope != null) ? rope.toString() : arena.load(contentRef, contentLength);
+			if (!lock.isConcurrent()) {
+				// Une lecture optimiste peut lire un contenu périmé : elle ne remplit pas le cache.
+				cachedContent = new SoftReference<>(decoded);
+			}
+		}
+		return decoded;
+	}
+	
+	/**
+	 * Permet de figer le contenu pour {@link PublishedGameBook} sans le décoder : la String du
+	 * contenu si elle existe déjà, sinon une tranche de la zone du livre ({@link TextArena.Slice}),
+	 * décodée par toString(). Seul un contenu en cours d'édition ({@link Rope}) est recopié.
+	 * Le cache du contenu n'est pas rempli.<br>
+	 * <u>CTT : O(1)</u>, O(m) pour un contenu en cours d'édition.
+	 *
+	 * @return		Le contenu figé, sa valeur est donnée par toString().
+	 *
+	 * @since       1.2
+	 *
+	 * @see			PublishedGameBook#getContent(int)
+	 * @author      Jérémi Nihart
+	 */
+	Object publishedContent() {
+		if (arena == null && rope == null) {
+			return content;
+		}
+		SoftReference<String> cached = cachedContent;
+		String decoded = (cached == null) ? null : cached.get();
+		if (decoded != null) {
+			return decoded;
+		}
+		return (rope != null) ? rope.toString() : arena.slice(contentRef, contentLength);
 	}
 	
 	/** 
-	 * Getter, permettant de rcuprer une List de toutes les cls
-	 * des choix disponibles pour le paragraphe.<br>
-	 * <u>CTT : O(1)</u>
+	 * Getter, permettant de récupérer une copie sous forme de List de toutes
+	 * les clés des choix disponibles pour le paragraphe.<br>
+	 * <u>CTT : O(n)</u> ou 'n' est le nombre de choix (une nouvelle liste est créée
+	 *    à chaque appel, pour un parcours préférer {@link Paragraph#forEachChoice(BiConsumer)}
+	 *    ou {@link Paragraph#getChoiceView()}).
 	 *
-	 * @return      List des cls des choix.
+	 * @return      List des clés des choix.
 	 *
 	 * @since       1.1
 	 *
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public List<String> getChoices() {
-		return new ArrayList<>(choices.keySet());
+		return lock.read(() -> new ArrayList<>(choices.keySet()));
 	}
 	
 	/** 
-	 * Getter, permettant de rcuprer l'objet {@link Paragraph} associ  la cl 'key'.<br>
+	 * Getter, permettant de récupérer une vue non modifiable des choix du paragraphe
+	 * (clé du choix vers paragraphe ciblé). La vue suit les modifications du paragraphe
+	 * et n'est créée qu'une seule fois. Elle n'est pas protégée par le verrou d'un livre
+	 * concurrent, préférer alors {@link Paragraph#forEachChoice(BiConsumer)}.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Map non modifiable des choix.
+	 *
+	 * @since       1.2
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public Map<String, Paragraph> getChoiceView() {
+		return choicesView;
+	}
+	
+	/** 
+	 * Getter, permettant de récupérer le nombre de choix du paragraphe.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Nombre de choix.
+	 *
+	 * @since       1.2
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int choiceCount() {
+		return lock.readInt(choices::size);
+	}
+	
+	/** 
+	 * Parcourt les choix du paragraphe en donnant à 'action' la clé et le
+	 * paragraphe ciblé de chaque choix, sans créer de liste intermédiaire ni
+	 * rechercher une seconde fois chaque clé.<br>
+	 * <u>CTT : O(n)</u> ou 'n' est le nombre de choix.
+	 *
+	 * @param		action Action à exécuter pour chaque choix.
+	 *
+	 * @since       1.2
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public void forEachChoice(BiConsumer<? super String, ? super Paragraph> action) {
+		if (!lock.isConcurrent()) {
+			choices.forEach(action);
+			return;
+		}
+		// 'action' ne peut pas être rejouée : les choix sont copiés avant d'être parcourus.
+		for (Map.Entry<String, Paragraph> choice : lock.read(() -> new ArrayList<>(choices.entrySet()))) {
+			action.accept(choice.getKey(), choice.getValue());
+		}
+	}
+	
+	/** 
+	 * Parcourt les identifiants des libellés des choix du paragraphe dans la
+	 * table {@link ChoiceLabels} courante.<br>
+	 * <u>CTT : O(n)</u> ou 'n' est le nombre de choix.
+	 *
+	 * @param		action Action à exécuter pour chaque identifiant.
+	 *
+	 * @since       1.2
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	void forEachChoiceLabelId(IntConsumer action) {
+		choices.forEachLabelId(action);
+	}
+	
+	/** 
+	 * Getter, permettant de récupérer la table des libellés utilisée par les choix :
+	 * celle du livre qui contient le paragraphe, null s'il n'est dans aucun livre.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      La table des libellés.
+	 *
+	 * @since       1.2
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	ChoiceLabels getChoiceLabels() {
+		return choices.labels();
+	}
+	
+	/** 
+	 * Setter, permettant de convertir les libellés des choix vers la table 'labels'
+	 * (ajout du paragraphe à un livre ou retrait de celui-ci).<br>
+	 * <u>CTT : O(n)</u> ou 'n' est le nombre de choix.
+	 *
+	 * @param		labels Nouvelle table des libellés, null lors du retrait du livre.
+	 *
+	 * @since       1.2
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	void setChoiceLabels(ChoiceLabels labels) {
+		choices.rebind(labels);
+	}
+	
+	/** 
+	 * Getter, permettant de récupérer l'identifiant permanent du paragraphe dans son livre.
+	 * Contrairement à son ID (sa position, voir {@link GameBook#getParagraphIdByObject(Paragraph)}),
+	 * il ne change pas lorsque des paragraphes sont insérés, déplacés ou supprimés.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      L'identifiant permanent, {@link Paragraph#NO_PERMANENT_ID} si le paragraphe
+	 * 					n'appartient à aucun livre.
+	 *
+	 * @since       1.2
+	 *
+	 * @see			GameBook#getParagraphByPermanentId(int)
+	 * @author      Jérémi Nihart
+	 */
+	public int getPermanentId() {
+		return lock.readInt(() -> permanentId);
+	}
+	
+	/** 
+	 * Setter, permettant de définir l'identifiant permanent attribué par le livre.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @param		permanentId Identifiant attribué ou {@link Paragraph#NO_PERMANENT_ID}.
+	 *
+	 * @since       1.2
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	void setPermanentId(int permanentId) {
+		this.permanentId = permanentId;
+		changed();
+	}
+	
+	/** 
+	 * Setter, permettant de définir la liste du livre qui contient le paragraphe, prévenue
+	 * de chaque modification pour tenir à jour l'empreinte du livre.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @param		sequence Liste des paragraphes du livre, null hors livre.
+	 *
+	 * @since       1.2
+	 *
+	 * @see			ParagraphSequence#invalidate(Paragraph)
+	 * @author      Jérémi Nihart
+	 */
+	void setSequence(ParagraphSequence sequence) {
+		this.sequence = sequence;
+	}
+	
+	/** 
+	 * Getter, permettant de récupérer l'empreinte du paragraphe : un hachage de 64 bits de
+	 * son contenu, de son identifiant permanent et de ses choix (libellé et identifiant
+	 * permanent de la cible, dans l'ordre).<br>
+	 * <u>CTT : O(1)</u> si le paragraphe n'a pas été modifié depuis le calcul précédent,
+	 *    <b>O(m+k)</b> sinon ou 'm' est la taille du contenu et 'k' le nombre de choix.
+	 *
+	 * @return      L'empreinte, jamais 0. Elle change à chaque modification du paragraphe.
+	 *
+	 * @since       1.2
+	 *
+	 * @see			GameBook#getFingerprint()
+	 * @author      Jérémi Nihart
+	 */
+	public long getFingerprint() {
+		// Le calcul remplit le cache : verrou de lecture et moniteur des caches du livre.
+		return lock.readCaching(this::fingerprint);
+	}
+	
+	/** 
+	 * Variante de {@link Paragraph#getFingerprint()} sans verrou, appelée par le livre.<br>
+	 * <u>CTT : O(1)</u> ou <b>O(m+k)</b> (voir {@link Paragraph#getFingerprint()}).
+	 *
+	 * @return      L'empreinte du paragraphe.
+	 *
+	 * @since       1.2
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	long fingerprint() {
+		if (fingerprint == 0) {
+			long[] h = {Fingerprint.mix(Fingerprint.of(loadContent()) + permanentId)};
+			choices.forEach((key, target) -> {
+				long choice = Fingerprint.of(key) + ((target == null) ? NO_PERMANENT_ID : target.permanentId);
+				h[0] = h[0] * Fingerprint.BASE + Fingerprint.mix(choice);
+			});
+			fingerprint = Fingerprint.nonZero(h[0]);
+		}
+		return fingerprint;
+	}
+	
+	/** 
+	 * Permet d'estimer les octets retenus par le contenu qui n'est pas dans la zone d'un livre :
+	 * le {@link Rope} d'un contenu modifié partiellement ou la String d'un paragraphe hors livre
+	 * (le contenu rangé dans la zone est compté par {@link TextArena#allocatedBytes()}).<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Nombre d'octets estimé.
+	 *
+	 * @since       1.2
+	 *
+	 * @see			MemoryFootprint
+	 * @author      Jérémi Nihart
+	 */
+	long contentFootprint() {
+		if (rope != null) {
+			return rope.footprint();
+		}
+		return (arena == null) ? MemoryFootprint.string(content) : 0;
+	}
+	
+	/** 
+	 * Permet d'estimer les octets retenus par les choix du paragraphe : leur table
+	 * ({@link ChoiceStore#footprint()}) et l'entrée de chaque choix dans l'index des choix
+	 * entrants de sa cible.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Nombre d'octets estimé.
+	 *
+	 * @since       1.2
+	 *
+	 * @see			MemoryFootprint
+	 * @author      Jérémi Nihart
+	 */
+	long choiceFootprint() {
+		return choices.footprint() + (long) choices.size() * MemoryFootprint.MAP_ENTRY;
+	}
+	
+	/**
+	 * Efface l'empreinte en cache et prévient la liste du livre (modification du paragraphe
+	 * ou de l'identifiant permanent d'une de ses cibles).
+	 */
+	void changed() {
+		fingerprint = 0;
+		if (sequence != null) {
+			sequence.invalidate(this);
+		}
+	}
+	
+	/** 
+	 * Setter, permettant de définir le verrou qui protège le paragraphe : celui du livre
+	 * concurrent qui le contient ou {@link BookLock#NONE}.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @param		lock Verrou du livre.
+	 *
+	 * @since       1.2
+	 *
+	 * @see			BookLock
+	 * @author      Jérémi Nihart
+	 */
+	void setBookLock(BookLock lock) {
+		this.lock = lock;
+	}
+	
+	/** 
+	 * Getter, permettant de récupérer l'objet {@link Paragraph} associé à la clé 'key'.<br>
 	 * <u>CTT : O(1)</u>
 	 *
 	 * @return      Un Objet {@link Paragraph}.
-	 * @param		key Cl du choix associ  un paragraphe.
+	 * @param		key Clé du choix associé à un paragraphe.
 	 *
 	 * @since       1.0
 	 *
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public Paragraph getParagraphByChoiceKey(String key) {
-		return choices.get(key);
+		return lock.read(() -> choices.get(key));
+	}
+	
+	/** 
+	 * Getter, permettant de récupérer les paragraphes possédant au moins un
+	 * choix qui pointe vers ce paragraphe ("qui pointe ici").<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Set non modifiable des paragraphes sources.
+	 *
+	 * @since       1.2
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public Set<Paragraph> getIncomingParagraphs() {
+		if (lock.isConcurrent()) {
+			return lock.read(() -> (incoming == null) ? Collections.emptySet() : Set.copyOf(incoming.keySet()));
+		}
+		return (incoming == null) ? Collections.emptySet() : Collections.unmodifiableSet(incoming.keySet());
 	}
 	
 	/** 
-	 * Setter, permettant de dfinir le contenu du paragraphe courant.
+	 * Setter, permettant de définir le contenu du paragraphe courant.
 	 * 
 	 * <hr>
 	 * 
-	 * <u>Prconditions:</u> Le paramtre 'content' doit tre une valeur non null et non vide.<br>
+	 * <u>Préconditions:</u> Le paramètre 'content' doit être une valeur non null et non vide.<br>
 	 * <ul>
-	 *  <li>Dans le cas contaire et que le contenu du paragraphe n'a pas t initialis  la cration de
-	 *      l'objet celui-ci est dfini  {@link Paragraph#PARAGRAPH_CONTENT}.</li>
-	 *  <li>Si il  dj t initialis et que les prconditions ne sont pas respctes, il reste inchang.</li>
-	 *  <li>Si les prconditions sont respctes, il est mis  jour avec la nouvelle valeur.</li>
+	 *  <li>Dans le cas contaire et que le contenu du paragraphe n'a pas été initialisé à la création de
+	 *      l'objet celui-ci est défini à {@link Paragraph#PARAGRAPH_CONTENT}.</li>
+	 *  <li>Si il à déjà été initialisé et que les préconditions ne sont pas respéctées, il reste inchangé.</li>
+	 *  <li>Si les préconditions sont respéctées, il est mis à jour avec la nouvelle valeur.</li>
 	 * </ul>
 	 * <hr>
 	 *
-	 * @return      True: Si le contenu spcifi a t dfini comme contenu courrant<br>
-	 * 				      False: Si le contenu spcifi a t refus.
-	 * @param		content La valeur que l'on souhaite dfinir comme contenu du paragraphe.
+	 * @return      True: Si le contenu spécifié a été défini comme contenu courrant<br>
+	 * 				      False: Si le contenu spécifié a été refusé.
+	 * @param		content La valeur que l'on souhaite définir comme contenu du paragraphe.
 	 *
 	 * @since       1.1
 	 *
 	 * @see 		Paragraph#PARAGRAPH_CONTENT
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public boolean setContent(String content) {
+		return lock.write(() -> replaceContent(content));
+	}
+	
+	private boolean replaceContent(String content) {
 		if (content == null || content.isBlank()) {
-			if (this.content == null) {
+			if (this.content == null && arena == null && rope == null) {
 				this.content = PARAGRAPH_CONTENT;
 			}
 			return false;
-		} else {
+		}
+		boolean inArena = (arena != null && rope == null);
+		long oldRef = contentRef;
+		int oldLength = contentLength;
+		rope = null;
+		if (arena == null) {
 			this.content = content;
+			cachedContent = null;
+		} else {
+			storeContent(content);
+			cachedContent = new SoftReference<>(content);
+			if (inArena) {
+				arena.release(oldRef, oldLength);
+			}
+		}
+		changed();
+		return true;
+	}
+	
+	/** 
+	 * Permet d'insérer 'text' à la position 'offset' du contenu sans le remplacer entièrement.
+	 * 
+	 * <hr>
+	 * 
+	 * <p>A la première modification partielle le contenu est converti en {@link Rope} (<b>O(m)</b>
+	 *    une seule fois), les modifications suivantes ne recopient plus tout le contenu. Le paragraphe
+	 *    reprend sa représentation habituelle au prochain {@link Paragraph#setContent(String)}.</p>
+	 * <hr>
+	 * <u>CTT : O(log m + t)</u> ou 'm' est la taille du contenu et 't' celle du texte inséré.
+	 *
+	 * @return      True : Le texte a été inséré.<br>
+	 * 				      False : Le texte est null ou vide, ou 'offset' est hors limite.
+	 * @param		offset Position d'insertion (0 &lt;= offset &lt;= taille du contenu).
+	 * @param		text Texte à insérer.
+	 *
+	 * @since       1.2
+	 *
+	 * @see			Rope
+	 * @author      Jérémi Nihart
+	 */
+	public boolean insertText(int offset, String text) {
+		if (text == null || text.isEmpty()) {
+			return false;
+		}
+		return lock.write(() -> {
+			if (offset < 0 || offset > textLength()) {
+				return false;
+			}
+			toRope().insert(offset, text);
+			cachedContent = null;
+			changed();
+			return true;
+		});
+	}
+	
+	/** 
+	 * Permet de supprimer 'length' caractères du contenu à partir de la position 'offset'
+	 * sans le remplacer entièrement (voir {@link Paragraph#insertText(int, String)}).<br>
+	 * <u>CTT : O(log m)</u> ou 'm' est la taille du contenu.
+	 *
+	 * @return      True : Le texte a été supprimé.<br>
+	 * 				      False : La plage est vide ou hors limite, ou le contenu serait vide
+	 * 				      ou blanc après la suppression (même précondition que
+	 * 				      {@link Paragraph#setContent(String)}).
+	 * @param		offset Position du premier caractère supprimé.
+	 * @param		length Nombre de caractères à supprimer.
+	 *
+	 * @since       1.2
+	 *
+	 * @see			Rope
+	 * @author      Jérémi Nihart
+	 */
+	public boolean deleteText(int offset, int length) {
+		return lock.write(() -> {
+			if (length <= 0 || offset < 0 || offset > textLength() - length || isBlankWithout(offset, length)) {
+				return false;
+			}
+			toRope().delete(offset, length);
+			cachedContent = null;
+			changed();
 			return true;
+		});
+	}
+	
+	/** 
+	 * Permet de récupérer 'length' caractères du contenu à partir de la position 'offset'
+	 * (utilisé pour annuler un {@link Paragraph#deleteText(int, int)}).<br>
+	 * <u>CTT : O(log m + length)</u> si le contenu est dans un {@link Rope}, <b>O(m)</b> sinon.
+	 *
+	 * @return      Les caractères de la plage.
+	 * @param		offset Position du premier caractère.
+	 * @param		length Nombre de caractères.
+	 *
+	 * @throws		IndexOutOfBoundsException si la plage est hors limite.
+	 *
+	 * @since       1.2
+	 *
+	 * @see			GameBookBatch#deleteText(Paragraph, int, int)
+	 * @author      Jérémi Nihart
+	 */
+	String getText(int offset, int length) {
+		return lock.read(() -> (rope != null) ? rope.substring(offset, length)
+				: loadContent().substring(offset, Math.addExact(offset, length)));
+	}
+	
+	/**
+	 * Nombre de caractères du contenu, sans changer sa représentation.
+	 */
+	private int textLength() {
+		return (rope != null) ? rope.length() : loadContent().length();
+	}
+
+	/**
+	 * Indique si le contenu serait vide ou blanc sans la plage donnée (déjà vérifiée),
+	 * sans changer sa représentation.
+	 */
+	private boolean isBlankWithout(int offset, int length) {
+		if (rope != null) {
+			return rope.isBlankWithout(offset, length);
+		}
+		String text = loadContent();
+		return text.substring(0, offset).isBlank() && text.substring(offset + length).isBlank();
+	}
+
+	/**
+	 * Convertit le contenu en {@link Rope} si ce n'est pas déjà fait, la copie
+	 * rangée dans la zone du livre est alors libérée. Appelé seulement pour une
+	 * modification acceptée : les octets retenus changent, le livre en est prévenu.
+	 */
+	private Rope toRope() {
+		if (rope == null) {
+			rope = new Rope(loadContent());
+			content = null;
+			if (arena != null) {
+				arena.release(contentRef, contentLength);
+			}
+			changed();
+		}
+		return rope;
+	}
+	
+	/** 
+	 * Setter, permettant de ranger le contenu du paragraphe dans la zone 'to' (ajout du
+	 * paragraphe à un livre) ou de le reprendre sous forme de String si 'to' est null
+	 * (retrait du livre).<br>
+	 * <u>CTT : O(m)</u> ou 'm' est la taille du contenu.
+	 *
+	 * @param		to Zone du livre qui contient le paragraphe, null hors livre.
+	 *
+	 * @since       1.2
+	 *
+	 * @see			TextArena
+	 * @author      Jérémi Nihart
+	 */
+	void setTextArena(TextArena to) {
+		if (to == arena) {
+			return;
+		}
+		if (rope != null) {
+			// Le contenu est dans le Rope, aucune zone n'en garde une copie.
+			arena = to;
+			return;
+		}
+		String text = getContent();
+		TextArena from = arena;
+		long oldRef = contentRef;
+		int oldLength = contentLength;
+		arena = to;
+		cachedContent = null;
+		if (to == null) {
+			content = text;
+		} else {
+			content = null;
+			storeContent(text);
+		}
+		if (from != null) {
+			from.release(oldRef, oldLength);
+		}
+	}
+	
+	/** 
+	 * Recopie le contenu du paragraphe pendant un compactage de sa zone.<br>
+	 * <u>CTT : O(m)</u> ou 'm' est la taille du contenu.
+	 *
+	 * @param		from Zone en cours de compactage.
+	 *
+	 * @since       1.2
+	 *
+	 * @see			TextArena
+	 * @author      Jérémi Nihart
+	 */
+	void relocateContent(TextArena from) {
+		if (arena == from && rope == null) {
+			contentRef = from.relocate(contentRef, contentLength);
 		}
 	}
 	
+	private void storeContent(String text) {
+		byte[] bytes = TextArena.encode(text);
+		contentRef = arena.store(bytes);
+		contentLength = bytes.length;
+	}
+	
 	/** 
-	 * Setter, permettant de dfini le contenu d'un paragraphe.
+	 * Setter, permettant de défini le contenu d'un paragraphe.
 	 *
-	 * @return      Un boolean indiquant si oui ou non la redfinition de contenu
-	 * 				    fonctionner.
-	 * @param 		paragraph Objet {@link Paragraph} dont il faut dfinir le contenu. 
-	 * @param 		content Contenu du paragraphe doit tre non null et non vide.
+	 * @return      Un boolean indiquant si oui ou non la redéfinition de contenu
+	 * 				   à fonctionner.
+	 * @param 		paragraph Objet {@link Paragraph} dont il faut définir le contenu. 
+	 * @param 		content Contenu du paragraphe doit être non null et non vide.
 	 *
 	 * @since       1.1
 	 *
 	 * @see			Paragraph#setContent(String)
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public static boolean setContent(Paragraph paragraph, String content) {
 		return paragraph.setContent(content);
 	}
 	
 	/**
-	 * Permet d'ajouter un choix au paragraph avec une cl 'key' pointant
+	 * Permet d'ajouter un choix au paragraph avec une clé 'key' pointant
 	 * sur un Objet 'paragraph' {@link Paragraph}.<br>
 	 * <u>CTT : O(1)</u>
 	 *
-	 * @param		key Cl du choix  associer au paragraphe. Si la cl est
-	 *                  null ou vide elle sera dfinie sur {@link Paragraph#PARAGRAPH_CHOICE}.
-	 * @param  		paragraph Objet paragraphe {@link Paragraph}  assigner  la cl.
+	 * @param		key Clé du choix à associer au paragraphe. Si la clé est
+	 *                  null ou vide elle sera définie sur {@link Paragraph#PARAGRAPH_CHOICE}.
+	 * @param  		paragraph Objet paragraphe {@link Paragraph} à assigner à la clé.
 	 *
 	 * @since       1.0
 	 *
 	 * @see 		Paragraph#PARAGRAPH_CHOICE
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public void addChoice(String key, Paragraph paragraph) {
-		String workKey = (key == null || key.isBlank()) ? PARAGRAPH_CHOICE : key;
-		choices.put(workKey, paragraph);
+		lock.update(() -> {
+			unlink(choices.put(toChoiceKey(key), paragraph));
+			link(paragraph);
+			changed();
+		});
+	}
+	
+	/**
+	 * Permet d'obtenir la clé réellement utilisée par {@link Paragraph#addChoice(String, Paragraph)}
+	 * pour une clé donnée.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		La clé si elle est valide, {@link Paragraph#PARAGRAPH_CHOICE} si elle est
+	 * 					null ou vide.
+	 * @param		key Clé du choix proposée.
+	 *
+	 * @since       1.2
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	static String toChoiceKey(String key) {
+		return (key == null || key.isBlank()) ? PARAGRAPH_CHOICE : key;
 	}
 	
 	/**
 	 * Permet de supprimer un choix du paragraphe.<br>
 	 * <u>CTT : O(1)</u>
 	 *
-	 * @param		key Cl du choix  supprimer du paragraphe courrant.
+	 * @param		key Clé du choix à supprimer du paragraphe courrant.
 	 *
 	 * @since       1.1
 	 *
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public void deleteChoice(String key) {
-		choices.remove(key);
+		lock.update(() -> {
+			if (choices.containsKey(key)) {
+				unlink(choices.remove(key));
+				changed();
+			}
+		});
+	}
+	
+	/**
+	 * Permet de récupérer la position d'un choix parmi les choix du paragraphe (ordre d'ajout).<br>
+	 * <u>CTT : O(k)</u> ou 'k' est le nombre de choix.
+	 *
+	 * @return		La position du choix, -1 si il n'existe pas.
+	 * @param		key Clé du choix.
+	 *
+	 * @since       1.2
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	int getChoiceIndex(String key) {
+		return lock.readInt(() -> choices.indexOfKey(key));
+	}
+	
+	/**
+	 * Permet de remettre un choix à la position 'index' parmi les choix du paragraphe
+	 * (utilisé pour annuler une suppression sans changer l'ordre des choix).<br>
+	 * <u>CTT : O(k)</u> ou 'k' est le nombre de choix.
+	 *
+	 * @param		index Position du choix (bornée au nombre de choix).
+	 * @param		key Clé du choix, si elle existe déjà seule la cible est remplacée.
+	 * @param  		paragraph Paragraphe ciblé par le choix.
+	 *
+	 * @since       1.2
+	 *
+	 * @see			GameBookBatch
+	 * @author      Jérémi Nihart
+	 */
+	void restoreChoice(int index, String key, Paragraph paragraph) {
+		lock.update(() -> {
+			unlink(choices.putAt(index, toChoiceKey(key), paragraph));
+			link(paragraph);
+			changed();
+		});
 	}
 	
 	/**
 	 * Permet de supprimer un choix du paragraphe si il cible un objet
-	 * {@link Paragraph} particuli.
+	 * {@link Paragraph} particulié.
 	 * 
 	 * <hr>
 	 * <u>Postcondition :</u> les choix qui pointes vers le paragraphe
-	 *    pass en paramtre ont t supprim.<br>
+	 *    passé en paramètre ont été supprimé.<br>
 	 * <u>CTT : O(n)</u> ou 'n' est le nombre de choix du paragraphe.
 	 *
 	 * @param		paragraph Objet {@link Paragraph} pour le quel il
@@ -217,66 +868,103 @@ public class Paragraph {
 	 *
 	 * @since       1.1
 	 *
-	 * @see			Paragraph#getChoices()
-	 * @see 		Paragraph#getParagraphByChoiceKey(String)
 	 * @see 		Paragraph#deleteChoice(String)
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public void deleteChoiceByParagraph(Paragraph paragraph) {
-		for (String key : getChoices()) {
-			if (paragraph.equals(getParagraphByChoiceKey(key))) {
-				deleteChoice(key);
+		lock.update(() -> {
+			Iterator<Paragraph> targets = choices.values().iterator();
+			while (targets.hasNext()) {
+				Paragraph target = targets.next();
+				if (paragraph.equals(target)) {
+					targets.remove();
+					unlink(target);
+					changed();
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Permet de détacher le paragraphe du graphe des choix : les choix des
+	 * paragraphes qui pointent vers lui ainsi que ses propres choix sont supprimés.<br>
+	 * <u>CTT : O(e)</u> ou 'e' est la somme des choix des paragraphes qui
+	 *    pointent vers lui et de ses propres choix.
+	 *
+	 * @since       1.2
+	 *
+	 * @see 		Paragraph#deleteChoiceByParagraph(Paragraph)
+	 * @author      Jérémi Nihart
+	 */
+	void detach() {
+		if (incoming != null) {
+			for (Paragraph source : new ArrayList<>(incoming.keySet())) {
+				source.deleteChoiceByParagraph(this);
 			}
 		}
+		for (Paragraph target : choices.values()) {
+			unlink(target);
+		}
+		choices.clear();
+		changed();
 	}
 	
 	/**
-	 * Permet de mettre  jour la cl d'un choix du paragraphe.
+	 * Permet de mettre à jour la clé d'un choix du paragraphe.
 	 * 
 	 * <hr>
 	 * 
-	 * <u>Postconditions:</u> La 'newKey' doit tre non null, non vide
+	 * <u>Postconditions:</u> La 'newKey' doit être non null, non vide
 	 *    et ne dois pas exister dans la Map tandis que oldKey doit exister.
 	 * <hr>
 	 *
-	 * @return 		True : La cl  t mise  jour<br>
-	 * 					   False : La cl n'a pas t mise  jour.
-	 * @param		oldKey Valeur actuel de la cl.
-	 * @param       newKey Nouvelle valeur de la cl.
+	 * @return 		True : La clé à été mise à jour<br>
+	 * 					   False : La clé n'a pas été mise à jour.
+	 * @param		oldKey Valeur actuel de la clé.
+	 * @param       newKey Nouvelle valeur de la clé.
 	 *
 	 * @since       1.1
 	 *
 	 * @see 		Paragraph#addChoice(String, Paragraph)
 	 * @see 		Paragraph#getParagraphByChoiceKey(String)
 	 * @see 		Paragraph#deleteChoice(String)
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public boolean updateChoiceKey(String oldKey, String newKey) {
 		if (newKey == null || newKey.isBlank()) {
 			return false;
 		}
-		if (choices.containsKey(oldKey) && !choices.containsKey(newKey)) {
-			addChoice(newKey, getParagraphByChoiceKey(oldKey));
-			deleteChoice(oldKey);
-			return true;
-		}
-		return false;
+		return lock.write(() -> {
+			if (choices.containsKey(oldKey) && !choices.containsKey(newKey)) {
+				// La cible ne change pas, l'index des choix entrants reste donc valide.
+				choices.put(newKey, choices.remove(oldKey));
+				changed();
+				return true;
+			}
+			return false;
+		});
 	}
 	
 	/**
-	 * Permet de mettre  jour le paragraph vers lequel pointe un choix.<br>
+	 * Permet de mettre à jour le paragraph vers lequel pointe un choix.<br>
 	 * <u>CTT : O(1)</u>
 	 *
-	 * @param		key Cl du choix dont il faut mettre  jour le paragraphe.
-	 * @param  		paragraph Objet paragraphe {@link Paragraph} a assign  la cl.
+	 * @param		key Clé du choix dont il faut mettre à jour le paragraphe.
+	 * @param  		paragraph Objet paragraphe {@link Paragraph} a assigné à la clé.
 	 *
 	 * @since       1.1
 	 *
 	 * @see 		Paragraph
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public void updateChoiceParagraph(String key, Paragraph paragraph) {
-		choices.replace(key, paragraph);
+		lock.update(() -> {
+			if (choices.containsKey(key)) {
+				unlink(choices.replace(key, paragraph));
+				link(paragraph);
+				changed();
+			}
+		});
 	}
 	
 	/** 
@@ -288,9 +976,46 @@ public class Paragraph {
 	 *
 	 * @since       1.0
 	 *
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public boolean hasChoice() {
-		return !choices.isEmpty();
+		return lock.read(() -> !choices.isEmpty());
+	}
+	
+	/**
+	 * Signale au paragraphe cible 'target' qu'un choix du paragraphe
+	 * courant pointe maintenant vers lui.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @param		target Paragraphe ciblé par le choix (peut être null).
+	 *
+	 * @since       1.2
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	private void link(Paragraph target) {
+		if (target != null) {
+			if (target.incoming == null) {
+				target.incoming = new HashMap<>();
+			}
+			target.incoming.merge(this, 1, Integer::sum);
+		}
+	}
+	
+	/**
+	 * Signale au paragraphe cible 'target' qu'un choix du paragraphe
+	 * courant ne pointe plus vers lui.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @param		target Paragraphe qui était ciblé par le choix (peut être null).
+	 *
+	 * @since       1.2
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	private void unlink(Paragraph target) {
+		if (target != null && target.incoming != null) {
+			target.incoming.computeIfPresent(this, (source, count) -> (count > 1) ? count - 1 : null);
+		}
 	}
 }
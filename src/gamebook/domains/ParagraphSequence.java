@@ -0,0 +1,816 @@
+/**
+ * File name    : ParagraphSequence.java
+ *
+ * Description  : Liste ordonnée de paragraphes implémentée par un arbre
+ *                de statistique d'ordre.
+ *
+ * Version      : 1.0
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * ParagraphSequence
+ *
+ * Liste des paragraphes d'un livre dans laquelle la position d'un paragraphe
+ * et le paragraphe d'une position sont retrouvés en <b>O(log n)</b>, même après
+ * des insertions, suppressions et déplacements au milieu de la liste.
+ *
+ * <hr>
+ *
+ * <h2>La structure utilisée : Treap implicite</h2>
+ * <p>Chaque noeud de l'arbre contient un paragraphe, une priorité aléatoire et la
+ * taille de son sous-arbre. La position d'un noeud n'est pas stockée : elle est
+ * déduite de la taille des sous-arbres gauches rencontrés (statistique d'ordre).
+ * Les priorités aléatoires maintiennent l'arbre équilibré en moyenne, une insertion
+ * ou une suppression ne décale donc plus les éléments suivants comme le fait une
+ * ArrayList.</p>
+ *
+ * <h2>Index des noeuds : HashMap</h2>
+ * <p>Une HashMap associe chaque paragraphe (par identité) à son noeud. Les noeuds
+ * connaissent leur parent, la position d'un paragraphe est donc calculée en remontant
+ * jusqu'à la racine.</p>
+ *
+ * <h2>Empreinte : arbre de Merkle</h2>
+ * <p>Chaque noeud garde aussi l'empreinte de la suite des paragraphes de son sous-arbre,
+ * calculée à partir de celles de ses enfants et de {@link Paragraph#fingerprint()}. Une
+ * modification d'un paragraphe ({@link ParagraphSequence#invalidate(Paragraph)}) ou de l'arbre
+ * ne fait que marquer à recalculer les noeuds de son chemin jusqu'à la racine, en <b>O(log n)</b> ;
+ * {@link ParagraphSequence#fingerprint()} ne recalcule ensuite que ces noeuds. L'empreinte est
+ * polynomiale : elle ne dépend pas de la forme (aléatoire) de l'arbre.</p>
+ *
+ * <h2>Parcours parallèles : Spliterator</h2>
+ * <p>{@link ParagraphSequence#spliterator()} découpe une plage de positions en deux moitiés
+ * exactes (SIZED et SUBSIZED) : chaque moitié retrouve son premier noeud en <b>O(log n)</b> puis
+ * suit les successeurs. Chaque noeud garde aussi le nombre de choix de son sous-arbre, tenu à jour
+ * par {@link ParagraphSequence#invalidate(Paragraph)} : {@link ParagraphSequence#edgeSpliterator()}
+ * découpe de la même manière la plage des choix du livre, quel que soit leur nombre par paragraphe.</p>
+ *
+ * <h2>Mémoire retenue</h2>
+ * <p>De la même manière que le nombre de choix, chaque noeud garde les octets estimés du contenu
+ * hors zone et des choix de son sous-arbre ({@link Paragraph#contentFootprint()} et
+ * {@link Paragraph#choiceFootprint()}) : ceux du livre sont lus à la racine en <b>O(1)</b>.</p>
+ *
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>get() :       	<u>CTT:</u> <b>O(log n)</b></li>
+ * 	<li>indexOf() :     <u>CTT:</u> <b>O(log n)</b></li>
+ * 	<li>contains() :    <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>add() :       	<u>CTT:</u> <b>O(log n)</b></li>
+ *  <li>remove() :      <u>CTT:</u> <b>O(log n)</b></li>
+ *  <li>move() :        <u>CTT:</u> <b>O(log n)</b></li>
+ *  <li>rebuild() :     <u>CTT:</u> <b>O(n)</b></li>
+ *  <li>invalidate() :  <u>CTT:</u> <b>O(log n)</b></li>
+ *  <li>fingerprint() : <u>CTT:</u> <b>O(k log n)</b> ou 'k' est le nombre de paragraphes modifiés</li>
+ *  <li>size() :        <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>iterator() :    <u>CTT:</u> <b>O(n)</b> pour un parcours complet</li>
+ *  <li>spliterator() : <u>CTT:</u> <b>O(log n)</b> par découpe, <b>O(n)</b> pour un parcours complet</li>
+ * </ul>
+ *
+ * <h2>Complémentaire :</h2>
+ * <p><b><u>Invariant:</u></b> Un même objet {@link Paragraph} ne figure qu'une seule fois
+ * dans la liste et la valeur null n'est pas acceptée.</p>
+ * <hr>
+ *
+ * @version     1.0
+ *
+ * @see         GameBook
+ * @author      Jérémi Nihart
+ */
+final class ParagraphSequence extends AbstractList<Paragraph> {
+
+	/**
+	 * Noeud de l'arbre : un paragraphe, sa priorité, la taille, le nombre de choix et les octets
+	 * estimés de son sous-arbre et l'empreinte de celui-ci ('power' vaut 0 tant qu'elle est à recalculer).
+	 */
+	private static final class Node {
+		private final Paragraph paragraph;
+		private final int priority = ThreadLocalRandom.current().nextInt();
+		private int size = 1;
+		private int choices;
+		private long contentBytes;
+		private long choiceBytes;
+		private Node left;
+		private Node right;
+		private Node parent;
+		private long hash;
+		private long power;  // BASE puissance 'size'.
+
+		private Node(Paragraph paragraph) {
+			this.paragraph = paragraph;
+			this.choices = paragraph.choiceCount();
+			this.contentBytes = paragraph.contentFootprint();
+			this.choiceBytes = paragraph.choiceFootprint();
+		}
+	}
+
+	// Variables Objet
+	private final Map<Paragraph, Node> nodes = new HashMap<>();
+	private Node root;
+	private long changes;  // Modifications de la liste ou de ses paragraphes, voir changeCount().
+
+	@Override
+	public int size() {
+		return size(root);
+	}
+
+	@Override
+	public Paragraph get(int index) {
+		return nodeAt(index).paragraph;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return nodes.containsKey(o);
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		Node node = nodes.get(o);
+		if (node == null) {
+			return -1;
+		}
+		int index = size(node.left);
+		for (Node n = node; n.parent != null; n = n.parent) {
+			if (n == n.parent.right) {
+				index += size(n.parent.left) + 1;
+			}
+		}
+		return index;
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		return indexOf(o);
+	}
+
+	@Override
+	public Paragraph set(int index, Paragraph paragraph) {
+		Paragraph old = remove(index);
+		add(index, paragraph);
+		return old;
+	}
+
+	/**
+	 * Insère un paragraphe à la position 'index', les paragraphes suivants
+	 * sont décalés d'une position.<br>
+	 * <u>CTT : O(log n)</u>
+	 *
+	 * @param		index Position d'insertion (0 &lt;= index &lt;= size()).
+	 * @param		paragraph Paragraphe à insérer, non null et absent de la liste.
+	 *
+	 * @throws		IllegalArgumentException si le paragraphe est null ou déjà présent.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public void add(int index, Paragraph paragraph) {
+		checkPositionIndex(index);
+		if (paragraph == null || nodes.containsKey(paragraph)) {
+			throw new IllegalArgumentException("Paragraph is null or already in the sequence");
+		}
+		Node node = new Node(paragraph);
+		nodes.put(paragraph, node);
+		insertNode(index, node);
+	}
+
+	/**
+	 * Retire le paragraphe de la position 'index', les paragraphes suivants
+	 * sont décalés d'une position.<br>
+	 * <u>CTT : O(log n)</u>
+	 *
+	 * @return		Le paragraphe retiré.
+	 * @param		index Position du paragraphe à retirer.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public Paragraph remove(int index) {
+		Node node = removeNode(index);
+		nodes.remove(node.paragraph);
+		return node.paragraph;
+	}
+
+	@Override
+	public void clear() {
+		nodes.clear();
+		root = null;
+		modified();
+	}
+
+	/**
+	 * Déplace le paragraphe de la position 'from' à la position 'to', les
+	 * paragraphes situés entre ces deux positions sont décalés d'une position.<br>
+	 * <u>CTT : O(log n)</u>
+	 *
+	 * @param		from Position actuelle du paragraphe.
+	 * @param		to Position du paragraphe après le déplacement.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public void move(int from, int to) {
+		checkElementIndex(to);
+		insertNode(to, removeNode(from));
+	}
+
+	/**
+	 * Remplace le contenu de la liste par les paragraphes de 'order', dans cet ordre.
+	 * Les noeuds des paragraphes déjà présents sont réutilisés avec leur priorité, l'arbre
+	 * est reconstruit en une passe avec une pile (construction d'un arbre cartésien).<br>
+	 * <u>CTT : O(n)</u> ou 'n' est le nombre de paragraphes de 'order'.
+	 *
+	 * @param		order Nouvelle suite de paragraphes, sans doublon ni valeur null.
+	 *
+	 * @throws		IllegalArgumentException si 'order' contient null ou un doublon.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public void rebuild(List<Paragraph> order) {
+		Map<Paragraph, Node> kept = new HashMap<>();
+		for (Paragraph paragraph : order) {
+			if (paragraph == null || kept.containsKey(paragraph)) {
+				throw new IllegalArgumentException("Paragraph is null or duplicated");
+			}
+			Node node = nodes.get(paragraph);
+			kept.put(paragraph, (node == null) ? new Node(paragraph) : node);
+		}
+		nodes.clear();
+		nodes.putAll(kept);
+		build(order);
+	}
+
+	/**
+	 * Réordonne la liste selon 'order', qui doit être une permutation de ses paragraphes (non
+	 * vérifié). Contrairement à {@link ParagraphSequence#rebuild(List)} l'index paragraphe vers
+	 * noeud est gardé tel quel, seul l'arbre est reconstruit.<br>
+	 * <u>CTT : O(n)</u>
+	 *
+	 * @param		order Les paragraphes de la liste dans leur nouvel ordre.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			GameBook#reorderBreadthFirst()
+	 * @author      Jérémi Nihart
+	 */
+	void permute(List<Paragraph> order) {
+		build(order);
+	}
+
+	private void build(List<Paragraph> order) {
+		Deque<Node> rightSpine = new ArrayDeque<>();
+		for (Paragraph paragraph : order) {
+			Node node = nodes.get(paragraph);
+			node.right = null;
+			node.parent = null;
+			Node last = null;
+			while (!rightSpine.isEmpty() && rightSpine.peek().priority < node.priority) {
+				last = rightSpine.pop();
+			}
+			node.left = last;
+			if (!rightSpine.isEmpty()) {
+				rightSpine.peek().right = node;
+			}
+			rightSpine.push(node);
+		}
+		root = rightSpine.peekLast();
+		updateAll(root);
+		modified();
+	}
+
+	/**
+	 * Marque à recalculer l'empreinte des noeuds du chemin de 'paragraph' jusqu'à la racine
+	 * et met à jour leur nombre de choix et leurs octets, après une modification de son contenu
+	 * ou de ses choix.<br>
+	 * <u>CTT : O(log n)</u>
+	 *
+	 * @param		paragraph Paragraphe modifié, ignoré si il n'est pas dans la liste.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	void invalidate(Paragraph paragraph) {
+		changes++;
+		for (Node n = nodes.get(paragraph); n != null; n = n.parent) {
+			n.power = 0;
+			n.choices = choices(n.left) + choices(n.right) + n.paragraph.choiceCount();
+			sum(n);
+		}
+	}
+
+	/**
+	 * Getter, permettant de récupérer le nombre de modifications de la liste (ajout, retrait,
+	 * déplacement) et de ses paragraphes (voir {@link ParagraphSequence#invalidate(Paragraph)})
+	 * depuis sa création. Contrairement à l'empreinte, deux états différents n'ont jamais la même
+	 * valeur.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre de modifications.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			GameBook#snapshot()
+	 * @author      Jérémi Nihart
+	 */
+	long changeCount() {
+		return changes;
+	}
+
+	private void modified() {
+		modCount++;
+		changes++;
+	}
+
+	/**
+	 * Permet d'obtenir l'empreinte de la suite des paragraphes : deux listes qui contiennent
+	 * des paragraphes de même empreinte dans le même ordre ont la même empreinte.<br>
+	 * <u>CTT : O(k log n)</u> ou 'k' est le nombre de paragraphes modifiés depuis l'appel
+	 *    précédent, <b>O(1)</b> si rien n'a changé.
+	 *
+	 * @return		L'empreinte de la liste, 0 si elle est vide.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			Paragraph#fingerprint()
+	 * @author      Jérémi Nihart
+	 */
+	long fingerprint() {
+		return hash(root);
+	}
+
+	/**
+	 * Permet d'obtenir le nombre total de choix des paragraphes de la liste.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Le nombre de choix.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	int choiceCount() {
+		return choices(root);
+	}
+
+	/**
+	 * Permet d'obtenir les octets estimés du contenu des paragraphes qui n'est pas rangé dans
+	 * la zone du livre (voir {@link Paragraph#contentFootprint()}).<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre d'octets estimé.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	long contentBytes() {
+		return (root == null) ? 0 : root.contentBytes;
+	}
+
+	/**
+	 * Permet d'obtenir les octets estimés des choix des paragraphes (voir {@link Paragraph#choiceFootprint()}).<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre d'octets estimé.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	long choiceBytes() {
+		return (root == null) ? 0 : root.choiceBytes;
+	}
+
+	/**
+	 * Découpe les paragraphes en plages de positions de même taille pour un parcours
+	 * parallèle. La taille est fixée au premier parcours ou à la première découpe, une
+	 * insertion, suppression ou déplacement ultérieur lève ConcurrentModificationException.<br>
+	 * <u>CTT : O(log n)</u> par découpe, <b>O(n)</b> pour un parcours complet.
+	 *
+	 * @return		Un Spliterator ORDERED, SIZED, SUBSIZED et NONNULL.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public Spliterator<Paragraph> spliterator() {
+		return new ParagraphRange(0, -1, 0);
+	}
+
+	/**
+	 * Découpe les choix des paragraphes, dans l'ordre de la liste puis des choix, en plages
+	 * de même nombre de choix (voir {@link ParagraphSequence#spliterator()}). Les choix ne doivent
+	 * pas être modifiés pendant le parcours.<br>
+	 * <u>CTT : O(log n)</u> par découpe, <b>O(n+e)</b> pour un parcours complet.
+	 *
+	 * @return		Un Spliterator ORDERED, SIZED, SUBSIZED et NONNULL.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			ChoiceEdge
+	 * @author      Jérémi Nihart
+	 */
+	Spliterator<ChoiceEdge> edgeSpliterator() {
+		return new EdgeRange(0, -1, 0);
+	}
+
+	/**
+	 * Plage [index, fence) de positions, 'fence' vaut -1 tant que la taille n'est pas fixée.
+	 */
+	private final class ParagraphRange implements Spliterator<Paragraph> {
+		private int index;
+		private int fence;
+		private int expectedModCount;
+		private Node next;
+
+		private ParagraphRange(int index, int fence, int expectedModCount) {
+			this.index = index;
+			this.fence = fence;
+			this.expectedModCount = expectedModCount;
+		}
+
+		private int getFence() {
+			if (fence < 0) {
+				fence = size();
+				expectedModCount = modCount;
+			}
+			return fence;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Paragraph> action) {
+			if (index >= getFence()) {
+				return false;
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			Node node = (next == null) ? nodeAt(index) : next;
+			next = (++index < fence) ? successor(node) : null;
+			action.accept(node.paragraph);
+			return true;
+		}
+
+		@Override
+		public Spliterator<Paragraph> trySplit() {
+			int hi = getFence();
+			int lo = index;
+			int mid = (lo + hi) >>> 1;
+			if (lo >= mid) {
+				return null;
+			}
+			index = mid;
+			next = null;
+			return new ParagraphRange(lo, mid, expectedModCount);
+		}
+
+		@Override
+		public long estimateSize() {
+			return getFence() - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | SIZED | SUBSIZED | NONNULL;
+		}
+	}
+
+	/**
+	 * Plage [index, fence) de choix numérotés dans l'ordre de la liste puis des choix.
+	 */
+	private final class EdgeRange implements Spliterator<ChoiceEdge> {
+		private int index;
+		private int fence;
+		private int expectedModCount;
+		private Node node;
+		private final List<ChoiceEdge> edges = new ArrayList<>();
+		private int offset;
+
+		private EdgeRange(int index, int fence, int expectedModCount) {
+			this.index = index;
+			this.fence = fence;
+			this.expectedModCount = expectedModCount;
+		}
+
+		private int getFence() {
+			if (fence < 0) {
+				fence = choices(root);
+				expectedModCount = modCount;
+			}
+			return fence;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super ChoiceEdge> action) {
+			if (index >= getFence()) {
+				return false;
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (node == null) {
+				seek(index);
+			}
+			while (offset >= edges.size()) {
+				load(successor(node));
+				offset = 0;
+			}
+			index++;
+			action.accept(edges.get(offset++));
+			return true;
+		}
+
+		/**
+		 * Retrouve le paragraphe qui possède le choix numéro 'edge' en descendant l'arbre.
+		 */
+		private void seek(int edge) {
+			Node n = root;
+			int k = edge;
+			while (true) {
+				int left = choices(n.left);
+				int own = n.choices - left - choices(n.right);
+				if (k < left) {
+					n = n.left;
+				} else if (k < left + own) {
+					load(n);
+					offset = k - left;
+					return;
+				} else {
+					k -= left + own;
+					n = n.right;
+				}
+			}
+		}
+
+		private void load(Node n) {
+			node = n;
+			edges.clear();
+			n.paragraph.forEachChoice((label, target) -> edges.add(new ChoiceEdge(n.paragraph, label, target)));
+		}
+
+		@Override
+		public Spliterator<ChoiceEdge> trySplit() {
+			int hi = getFence();
+			int lo = index;
+			int mid = (lo + hi) >>> 1;
+			if (lo >= mid) {
+				return null;
+			}
+			index = mid;
+			node = null;
+			return new EdgeRange(lo, mid, expectedModCount);
+		}
+
+		@Override
+		public long estimateSize() {
+			return getFence() - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | SIZED | SUBSIZED | NONNULL;
+		}
+	}
+
+	/**
+	 * Parcourt les paragraphes dans l'ordre de la liste en suivant les
+	 * successeurs de chaque noeud.<br>
+	 * <u>CTT : O(n)</u> pour un parcours complet.
+	 *
+	 * @return		Un itérateur sur les paragraphes.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public Iterator<Paragraph> iterator() {
+		return new Iterator<>() {
+			private Node next = leftmost(root);
+			private final int expectedModCount = modCount;
+
+			@Override
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			@Override
+			public Paragraph next() {
+				if (modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+				if (next == null) {
+					throw new NoSuchElementException();
+				}
+				Paragraph paragraph = next.paragraph;
+				next = successor(next);
+				return paragraph;
+			}
+		};
+	}
+
+	private void insertNode(int index, Node node) {
+		Node[] parts = split(root, index);
+		root = merge(merge(parts[0], node), parts[1]);
+		root.parent = null;
+		modified();
+	}
+
+	private Node removeNode(int index) {
+		checkElementIndex(index);
+		Node[] parts = split(root, index);
+		Node[] rest = split(parts[1], 1);
+		root = merge(parts[0], rest[1]);
+		if (root != null) {
+			root.parent = null;
+		}
+		modified();
+		return rest[0];
+	}
+
+	private Node nodeAt(int index) {
+		checkElementIndex(index);
+		Node node = root;
+		int i = index;
+		while (true) {
+			int leftSize = size(node.left);
+			if (i < leftSize) {
+				node = node.left;
+			} else if (i == leftSize) {
+				return node;
+			} else {
+				i -= leftSize + 1;
+				node = node.right;
+			}
+		}
+	}
+
+	/**
+	 * Sépare l'arbre 'node' en deux : les 'count' premiers éléments et les autres.
+	 */
+	private static Node[] split(Node node, int count) {
+		if (node == null) {
+			return new Node[] {null, null};
+		}
+		Node[] parts;
+		if (size(node.left) < count) {
+			parts = split(node.right, count - size(node.left) - 1);
+			node.right = parts[0];
+			parts[0] = node;
+		} else {
+			parts = split(node.left, count);
+			node.left = parts[1];
+			parts[1] = node;
+		}
+		update(node);
+		if (parts[0] != null) {
+			parts[0].parent = null;
+		}
+		if (parts[1] != null) {
+			parts[1].parent = null;
+		}
+		return parts;
+	}
+
+	/**
+	 * Fusionne deux arbres, tous les éléments de 'left' précédant ceux de 'right'.
+	 */
+	private static Node merge(Node left, Node right) {
+		if (left == null) {
+			return right;
+		}
+		if (right == null) {
+			return left;
+		}
+		if (left.priority > right.priority) {
+			left.right = merge(left.right, right);
+			update(left);
+			return left;
+		}
+		right.left = merge(left, right.left);
+		update(right);
+		return right;
+	}
+
+	/**
+	 * Recalcule les tailles et les parents de tout l'arbre 'node' (parcours suffixe).
+	 */
+	private static void updateAll(Node node) {
+		if (node != null) {
+			updateAll(node.left);
+			updateAll(node.right);
+			update(node);
+		}
+	}
+
+	private static long hash(Node node) {
+		if (node == null) {
+			return 0;
+		}
+		if (node.power == 0) {
+			long right = hash(node.right);
+			long rightPower = power(node.right);
+			node.hash = (hash(node.left) * Fingerprint.BASE + node.paragraph.fingerprint()) * rightPower + right;
+			node.power = power(node.left) * Fingerprint.BASE * rightPower;
+		}
+		return node.hash;
+	}
+
+	private static long power(Node node) {
+		return (node == null) ? 1 : node.power;
+	}
+
+	private static void update(Node node) {
+		node.power = 0;
+		node.size = 1 + size(node.left) + size(node.right);
+		node.choices = choices(node.left) + choices(node.right) + node.paragraph.choiceCount();
+		sum(node);
+		if (node.left != null) {
+			node.left.parent = node;
+		}
+		if (node.right != null) {
+			node.right.parent = node;
+		}
+	}
+
+	private static void sum(Node node) {
+		long content = node.paragraph.contentFootprint();
+		long choices = node.paragraph.choiceFootprint();
+		if (node.left != null) {
+			content += node.left.contentBytes;
+			choices += node.left.choiceBytes;
+		}
+		if (node.right != null) {
+			content += node.right.contentBytes;
+			choices += node.right.choiceBytes;
+		}
+		node.contentBytes = content;
+		node.choiceBytes = choices;
+	}
+
+	private static int size(Node node) {
+		return (node == null) ? 0 : node.size;
+	}
+
+	private static int choices(Node node) {
+		return (node == null) ? 0 : node.choices;
+	}
+
+	private static Node leftmost(Node node) {
+		Node n = node;
+		while (n != null && n.left != null) {
+			n = n.left;
+		}
+		return n;
+	}
+
+	private static Node successor(Node node) {
+		if (node.right != null) {
+			return leftmost(node.right);
+		}
+		Node n = node;
+		while (n.parent != null && n == n.parent.right) {
+			n = n.parent;
+		}
+		return n.parent;
+	}
+
+	private void checkElementIndex(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		}
+	}
+
+	private void checkPositionIndex(int index) {
+		if (index < 0 || index > size()) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		}
+	}
+}
@@ -0,0 +1,506 @@
+/**
+ * File name    : PersistentGameBook.java
+ *
+ * Description  : Version immuable d'un livre dont chaque modification
+ *                produit une nouvelle version.
+ *
+ * Version      : 1.0
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * PersistentGameBook
+ *
+ * Livre immuable : chaque modification (méthodes <code>with...</code>) retourne une nouvelle
+ * version du livre et laisse la version courante intacte. Garder une version revient à garder
+ * sa référence (<b>O(1)</b>), et deux versions successives partagent toute la structure que la
+ * modification n'a pas touchée. Un historique complet des modifications ne coûte donc que les
+ * quelques noeuds recopiés par chacune d'elles. L'objet peut être lu par plusieurs threads sans verrou.
+ *
+ * <hr>
+ *
+ * <h2>Les paragraphes : clés stables</h2>
+ * <p>Chaque paragraphe ({@link PersistentParagraph}) reçoit une clé entière à sa création. Les
+ * choix ciblent une clé et non un objet : modifier un paragraphe ne recopie donc que lui, pas les
+ * paragraphes qui pointent vers lui.</p>
+ *
+ * <h2>Clé vers paragraphe : PersistentMap (HAMT)</h2>
+ * <p>Les paragraphes sont rangés par clé dans un {@link PersistentMap}. Modifier le contenu ou
+ * les choix d'un paragraphe ne recopie que le chemin de sa clé, au plus 7 noeuds.</p>
+ *
+ * <h2>Ordre des paragraphes : PersistentVector</h2>
+ * <p>L'ordre du livre (la suite des clés) est rangé dans un {@link PersistentVector}, un treap
+ * implicite à recopie de chemin : insertion, suppression et déplacement en <b>O(log n)</b>.</p>
+ *
+ * <h2>Choix entrants : PersistentMap de PersistentMap</h2>
+ * <p>Pour chaque clé, les clés des paragraphes qui la ciblent et le nombre de choix concernés. La
+ * suppression d'un paragraphe ne parcourt que ces paragraphes, comme
+ * {@link GameBook#deleteParagraph(int)}.</p>
+ *
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>getParagraphByID() :  <u>CTT:</u> <b>O(log n)</b></li>
+ * 	<li>getParagraphByKey() : <u>CTT:</u> <b>O(log32 n)</b></li>
+ *  <li>withContent() :       <u>CTT:</u> <b>O(log n)</b></li>
+ *  <li>withChoice() :        <u>CTT:</u> <b>O(log n + k)</b> ou 'k' est le nombre de choix du paragraphe</li>
+ *  <li>withParagraphAt() :   <u>CTT:</u> <b>O(log n)</b></li>
+ *  <li>withParagraphMoved() : <u>CTT:</u> <b>O(log n)</b></li>
+ *  <li>withoutParagraph() :  <u>CTT:</u> <b>O((e+1) log n)</b> ou 'e' est le nombre de choix touchant le paragraphe</li>
+ * </ul>
+ *
+ * <h2>Complémentaire :</h2>
+ * <p><b><u>Invariant:</u></b> Comme {@link GameBook}, le livre possède toujours un titre non blanc et
+ * au moins un paragraphe. Les modifications refusées par {@link GameBook} (titre ou contenu blanc,
+ * suppression du dernier paragraphe) retournent la version courante.</p>
+ * <hr>
+ *
+ * @version     1.0
+ *
+ * @see         GameBook
+ * @see         PersistentParagraph
+ * @author      Jérémi Nihart
+ */
+public final class PersistentGameBook {
+	// Variables Objet
+	private final String title;
+	private final PersistentVector<Integer> order;
+	private final PersistentMap<Integer, PersistentParagraph> paragraphs;
+	private final PersistentMap<Integer, PersistentMap<Integer, Integer>> incoming;
+	private final int nextKey;
+
+	/**
+	 * Constructeur, crée la première version d'un livre ne contenant qu'un paragraphe
+	 * (voir {@link GameBook#GameBook(String, java.util.Collection)}).
+	 *
+	 * @param		title Titre du livre, {@link GameBook#BOOK_TITLE} si il est null ou blanc.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public PersistentGameBook(String title) {
+		this.title = isBlank(title) ? GameBook.BOOK_TITLE : title;
+		this.order = PersistentVector.<Integer>empty().withInserted(0, 0);
+		this.paragraphs = PersistentMap.<Integer, PersistentParagraph>empty()
+				.with(0, new PersistentParagraph(0, Paragraph.PARAGRAPH_CONTENT));
+		this.incoming = PersistentMap.empty();
+		this.nextKey = 1;
+	}
+
+	private PersistentGameBook(String title, PersistentVector<Integer> order,
+			PersistentMap<Integer, PersistentParagraph> paragraphs,
+			PersistentMap<Integer, PersistentMap<Integer, Integer>> incoming, int nextKey) {
+		this.title = title;
+		this.order = order;
+		this.paragraphs = paragraphs;
+		this.incoming = incoming;
+		this.nextKey = nextKey;
+	}
+
+	/**
+	 * Permet de créer la première version persistante d'un livre modifiable. Le paragraphe
+	 * d'ID 'i' reçoit la clé 'i'.<br>
+	 * <u>CTT : O(n log n + e)</u> ou 'n' est le nombre de paragraphes et 'e' le nombre de choix.
+	 *
+	 * @return		Le livre persistant.
+	 * @param		book Livre à copier.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public static PersistentGameBook of(GameBook book) {
+		Map<Paragraph, Integer> keys = new HashMap<>();
+		for (Paragraph paragraph : book.sequence()) {
+			keys.put(paragraph, keys.size());
+		}
+		PersistentGameBook copy = new PersistentGameBook(book.getTitle(), PersistentVector.empty(),
+				PersistentMap.empty(), PersistentMap.empty(), keys.size());
+		int key = 0;
+		for (Paragraph paragraph : book.sequence()) {
+			PersistentParagraph[] built = {new PersistentParagraph(key, paragraph.getContent())};
+			paragraph.forEachChoice((label, target) -> {
+				Integer targetKey = (target == null) ? null : keys.get(target);
+				built[0] = built[0].withChoice(label, (targetKey == null) ? -1 : targetKey);
+			});
+			copy = copy.insert(key, built[0]);
+			key++;
+		}
+		return copy;
+	}
+
+	/**
+	 * Permet de recréer un livre modifiable identique à cette version.<br>
+	 * <u>CTT : O(n log n + e)</u>
+	 *
+	 * @return		Un nouveau {@link GameBook}.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public GameBook toGameBook() {
+		Map<Integer, Paragraph> copies = new HashMap<>();
+		List<Paragraph> list = new ArrayList<>(getSize());
+		for (int key : order) {
+			Paragraph paragraph = new Paragraph(paragraphs.get(key).getContent());
+			copies.put(key, paragraph);
+			list.add(paragraph);
+		}
+		GameBook book = new GameBook(title, list);
+		for (int key : order) {
+			Paragraph source = copies.get(key);
+			paragraphs.get(key).forEachChoice((label, target) -> source.addChoice(label, copies.get(target)));
+		}
+		return book;
+	}
+
+	/**
+	 * Getter, permettant de récupérer le titre du livre.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Titre du livre.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public String getTitle() {
+		return title;
+	}
+
+	/**
+	 * Getter, permettant de récupérer le nombre de paragraphes du livre.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Nombre de paragraphes.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getSize() {
+		return order.size();
+	}
+
+	/**
+	 * Getter, permettant de récupérer le paragraphe de la position 'id'.<br>
+	 * <u>CTT : O(log n)</u>
+	 *
+	 * @return      Le paragraphe.
+	 * @param		id ID (position) du paragraphe.
+	 *
+	 * @throws		IndexOutOfBoundsException si 'id' est hors limite.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public PersistentParagraph getParagraphByID(int id) {
+		return paragraphs.get(order.get(id));
+	}
+
+	/**
+	 * Getter, permettant de récupérer un paragraphe par sa clé (la cible d'un choix).<br>
+	 * <u>CTT : O(log32 n)</u>
+	 *
+	 * @return      Le paragraphe, null si aucun paragraphe de cette version n'a cette clé.
+	 * @param		key Clé du paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public PersistentParagraph getParagraphByKey(int key) {
+		return paragraphs.get(key);
+	}
+
+	/**
+	 * Getter, permettant de récupérer l'ID (position) d'un paragraphe par sa clé.<br>
+	 * <u>CTT : O(n)</u> les noeuds ne connaissent pas leur parent, l'ordre est parcouru.
+	 *
+	 * @return      L'ID du paragraphe, -1 si aucun paragraphe de cette version n'a cette clé.
+	 * @param		key Clé du paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getParagraphIdByKey(int key) {
+		return (paragraphs.get(key) == null) ? -1 : order.indexOf(key);
+	}
+
+	/**
+	 * Getter, permettant de récupérer le head (titre) d'un paragraphe, identique à
+	 * {@link GameBook#getParagraphHead(Paragraph)}.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Le head du paragraphe.
+	 * @param		id ID du paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public String getHead(int id) {
+		return String.format("%s %s", Paragraph.PARAGRAPH_HEAD, id + 1);
+	}
+
+	/**
+	 * Permet d'obtenir une version dont le titre est 'title'.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		La nouvelle version, la version courante si le titre est null ou blanc.
+	 * @param		title Nouveau titre.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public PersistentGameBook withTitle(String title) {
+		if (isBlank(title)) {
+			return this;
+		}
+		return new PersistentGameBook(title, order, paragraphs, incoming, nextKey);
+	}
+
+	/**
+	 * Permet d'obtenir une version avec un nouveau paragraphe à la fin du livre.<br>
+	 * <u>CTT : O(log n)</u>
+	 *
+	 * @return		La nouvelle version.
+	 * @param		content Contenu du paragraphe, {@link Paragraph#PARAGRAPH_CONTENT} si il est
+	 * 					null ou blanc.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public PersistentGameBook withParagraph(String content) {
+		return withParagraphAt(getSize(), content);
+	}
+
+	/**
+	 * Permet d'obtenir une version avec un nouveau paragraphe à la position 'index', les
+	 * paragraphes suivants étant décalés d'une position. Sa clé est celle retournée par
+	 * <code>getParagraphByID(index).getKey()</code> sur la nouvelle version.<br>
+	 * <u>CTT : O(log n)</u>
+	 *
+	 * @return		La nouvelle version.
+	 * @param		index Position du paragraphe après l'insertion (0 &lt;= index &lt;= taille du livre).
+	 * @param		content Contenu du paragraphe, {@link Paragraph#PARAGRAPH_CONTENT} si il est
+	 * 					null ou blanc.
+	 *
+	 * @throws		IndexOutOfBoundsException si 'index' est hors limite.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public PersistentGameBook withParagraphAt(int index, String content) {
+		Objects.checkIndex(index, getSize() + 1);
+		String text = isBlank(content) ? Paragraph.PARAGRAPH_CONTENT : content;
+		PersistentGameBook next = new PersistentGameBook(title, order, paragraphs, incoming, nextKey + 1);
+		return next.insert(index, new PersistentParagraph(nextKey, text));
+	}
+
+	/**
+	 * Permet d'obtenir une version où le paragraphe 'id' a pour contenu 'content'.<br>
+	 * <u>CTT : O(log n)</u>
+	 *
+	 * @return		La nouvelle version, la version courante si le contenu est null ou blanc.
+	 * @param		id ID du paragraphe.
+	 * @param		content Nouveau contenu.
+	 *
+	 * @throws		IndexOutOfBoundsException si 'id' est hors limite.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public PersistentGameBook withContent(int id, String content) {
+		PersistentParagraph paragraph = getParagraphByID(id);
+		if (isBlank(content)) {
+			return this;
+		}
+		return replace(paragraph.withContent(content), incoming);
+	}
+
+	/**
+	 * Permet d'obtenir une version où le paragraphe 'id' possède un choix 'label' qui
+	 * cible le paragraphe 'targetId' (ajouté, ou remplacé si le libellé existe déjà).<br>
+	 * <u>CTT : O(log n + k)</u> ou 'k' est le nombre de choix du paragraphe.
+	 *
+	 * @return		La nouvelle version.
+	 * @param		id ID du paragraphe qui reçoit le choix.
+	 * @param		label Libellé du choix, {@link Paragraph#PARAGRAPH_CHOICE} si il est null ou blanc.
+	 * @param		targetId ID du paragraphe ciblé.
+	 *
+	 * @throws		IndexOutOfBoundsException si 'id' ou 'targetId' est hors limite.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public PersistentGameBook withChoice(int id, String label, int targetId) {
+		PersistentParagraph paragraph = getParagraphByID(id);
+		int target = order.get(targetId);
+		String key = Paragraph.toChoiceKey(label);
+		int old = paragraph.getTargetKey(key);
+		if (old == target) {
+			return this;
+		}
+		PersistentMap<Integer, PersistentMap<Integer, Integer>> links = incoming;
+		if (old >= 0) {
+			links = unlink(links, paragraph.getKey(), old);
+		}
+		links = link(links, paragraph.getKey(), target);
+		return replace(paragraph.withChoice(key, target), links);
+	}
+
+	/**
+	 * Permet d'obtenir une version où le paragraphe 'id' ne possède plus le choix 'label'
+	 * (normalisé comme dans {@link PersistentGameBook#withChoice(int, String, int)}).<br>
+	 * <u>CTT : O(log n + k)</u>
+	 *
+	 * @return		La nouvelle version, la version courante si le choix n'existe pas.
+	 * @param		id ID du paragraphe.
+	 * @param		label Libellé du choix à supprimer.
+	 *
+	 * @throws		IndexOutOfBoundsException si 'id' est hors limite.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public PersistentGameBook withoutChoice(int id, String label) {
+		PersistentParagraph paragraph = getParagraphByID(id);
+		String key = Paragraph.toChoiceKey(label);
+		PersistentParagraph updated = paragraph.withoutChoice(key);
+		if (updated == paragraph) {
+			return this;
+		}
+		int old = paragraph.getTargetKey(key);
+		PersistentMap<Integer, PersistentMap<Integer, Integer>> links = incoming;
+		if (old >= 0) {
+			links = unlink(links, paragraph.getKey(), old);
+		}
+		return replace(updated, links);
+	}
+
+	/**
+	 * Permet d'obtenir une version où le paragraphe de la position 'from' est déplacé à la
+	 * position 'to'. Les choix ne sont pas modifiés car ils ciblent des clés.<br>
+	 * <u>CTT : O(log n)</u>
+	 *
+	 * @return		La nouvelle version.
+	 * @param		from Position actuelle du paragraphe.
+	 * @param		to Nouvelle position du paragraphe.
+	 *
+	 * @throws		IndexOutOfBoundsException si 'from' ou 'to' est hors limite.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public PersistentGameBook withParagraphMoved(int from, int to) {
+		Objects.checkIndex(to, getSize());
+		int key = order.get(from);
+		if (from == to) {
+			return this;
+		}
+		PersistentVector<Integer> moved = order.without(from).withInserted(to, key);
+		return new PersistentGameBook(title, moved, paragraphs, incoming, nextKey);
+	}
+
+	/**
+	 * Permet d'obtenir une version sans le paragraphe 'id' ni les choix qui le ciblent
+	 * (voir {@link GameBook#deleteParagraph(int)}).<br>
+	 * <u>CTT : O((e+1) log n)</u> ou 'e' est le nombre de choix touchant le paragraphe.
+	 *
+	 * @return		La nouvelle version, la version courante si le livre n'a qu'un paragraphe.
+	 * @param		id ID du paragraphe à supprimer.
+	 *
+	 * @throws		IndexOutOfBoundsException si 'id' est hors limite.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public PersistentGameBook withoutParagraph(int id) {
+		int key = order.get(id);
+		if (getSize() == 1) {
+			return this;
+		}
+		List<Integer> sources = new ArrayList<>();
+		PersistentMap<Integer, Integer> in = incoming.get(key);
+		if (in != null) {
+			in.forEach((source, count) -> sources.add(source));
+		}
+		PersistentMap<Integer, PersistentParagraph> updated = paragraphs;
+		for (int source : sources) {
+			if (source != key) {
+				updated = updated.with(source, updated.get(source).withoutChoicesTo(key));
+			}
+		}
+		PersistentMap<Integer, PersistentMap<Integer, Integer>> links = incoming.without(key);
+		for (int target : paragraphs.get(key).targetKeys()) {
+			if (target >= 0 && target != key) {
+				links = unlink(links, key, target);
+			}
+		}
+		return new PersistentGameBook(title, order.without(id), updated.without(key), links, nextKey);
+	}
+
+	private PersistentGameBook insert(int index, PersistentParagraph paragraph) {
+		PersistentMap<Integer, PersistentMap<Integer, Integer>> links = incoming;
+		for (int target : paragraph.targetKeys()) {
+			if (target >= 0) {
+				links = link(links, paragraph.getKey(), target);
+			}
+		}
+		return new PersistentGameBook(title, order.withInserted(index, paragraph.getKey()),
+				paragraphs.with(paragraph.getKey(), paragraph), links, nextKey);
+	}
+
+	private PersistentGameBook replace(PersistentParagraph paragraph,
+			PersistentMap<Integer, PersistentMap<Integer, Integer>> links) {
+		return new PersistentGameBook(title, order, paragraphs.with(paragraph.getKey(), paragraph), links, nextKey);
+	}
+
+	private static PersistentMap<Integer, PersistentMap<Integer, Integer>> link(
+			PersistentMap<Integer, PersistentMap<Integer, Integer>> links, int source, int target) {
+		PersistentMap<Integer, Integer> sources = links.get(target);
+		if (sources == null) {
+			sources = PersistentMap.empty();
+		}
+		Integer count = sources.get(source);
+		return links.with(target, sources.with(source, (count == null) ? 1 : count + 1));
+	}
+
+	private static PersistentMap<Integer, PersistentMap<Integer, Integer>> unlink(
+			PersistentMap<Integer, PersistentMap<Integer, Integer>> links, int source, int target) {
+		PersistentMap<Integer, Integer> sources = links.get(target);
+		Integer count = (sources == null) ? null : sources.get(source);
+		if (count == null) {
+			return links;
+		}
+		sources = (count == 1) ? sources.without(source) : sources.with(source, count - 1);
+		return (sources.size() == 0) ? links.without(target) : links.with(target, sources);
+	}
+
+	private static boolean isBlank(String text) {
+		return text == null || text.isBlank();
+	}
+}
@@ -0,0 +1,394 @@
+/**
+ * File name    : PersistentMap.java
+ *
+ * Description  : Dictionnaire immuable dont chaque modification produit une
+ *                nouvelle version qui partage la structure de l'ancienne.
+ *
+ * Version      : 1.0
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains;
+
+import java.util.function.BiConsumer;
+
+/**
+ * PersistentMap
+ *
+ * Dictionnaire clé valeur immuable : {@link PersistentMap#with(Object, Object)} et
+ * {@link PersistentMap#without(Object)} retournent une nouvelle version et laissent
+ * l'ancienne intacte. Les deux versions partagent tous les noeuds qui n'ont pas été touchés,
+ * garder une ancienne version ne coûte donc que les noeuds recopiés par les modifications
+ * suivantes.
+ *
+ * <hr>
+ *
+ * <h2>La structure utilisée : HAMT (Hash Array Mapped Trie)</h2>
+ * <p>Le hash de la clé est lu par tranches de 5 bits, chaque tranche choisit une des 32
+ * branches d'un noeud. Un noeud ne range que ses branches utilisées, repérées par un
+ * masque de 32 bits, dans un tableau de la taille exacte. Une modification ne recopie que
+ * les noeuds du chemin de la racine à la clé, au plus 7 noeuds.</p>
+ *
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>get() :       	<u>CTT:</u> <b>O(log32 n)</b></li>
+ *  <li>with() :       	<u>CTT:</u> <b>O(log32 n)</b></li>
+ * 	<li>without() :     <u>CTT:</u> <b>O(log32 n)</b></li>
+ *  <li>size() :        <u>CTT:</u> <b>O(1)</b></li>
+ * </ul>
+ *
+ * <h2>Complémentaire :</h2>
+ * <p>Les clés ne sont pas ordonnées et la valeur null n'est pas acceptée comme clé.</p>
+ * <hr>
+ *
+ * @version     1.0
+ *
+ * @see         PersistentGameBook
+ * @author      Jérémi Nihart
+ */
+final class PersistentMap<K, V> {
+	// Constante(s)
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+
+	private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null, 0);
+	private static final Object NOT_FOUND = new Object();
+
+	// Variables Objet
+	private final Node root;
+	private final int size;
+
+	private PersistentMap(Node root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	/**
+	 * Permet d'obtenir le dictionnaire vide.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Le dictionnaire vide (partagé).
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@SuppressWarnings("unchecked")
+	static <K, V> PersistentMap<K, V> empty() {
+		return (PersistentMap<K, V>) EMPTY;
+	}
+
+	/**
+	 * Getter, permettant de récupérer le nombre de clés.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre de clés.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Getter, permettant de récupérer la valeur associée à 'key'.<br>
+	 * <u>CTT : O(log32 n)</u>
+	 *
+	 * @return		La valeur, null si la clé est absente.
+	 * @param		key Clé recherchée.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@SuppressWarnings("unchecked")
+	V get(Object key) {
+		if (root == null || key == null) {
+			return null;
+		}
+		Object found = root.find(0, hash(key), key);
+		return (found == NOT_FOUND) ? null : (V) found;
+	}
+
+	/**
+	 * Permet d'obtenir une version où 'key' est associée à 'value'.<br>
+	 * <u>CTT : O(log32 n)</u>
+	 *
+	 * @return		La nouvelle version, ou la version courante si rien ne change.
+	 * @param		key Clé non null.
+	 * @param		value Valeur à associer.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	PersistentMap<K, V> with(K key, V value) {
+		boolean[] added = {false};
+		Node start = (root == null) ? BitmapNode.EMPTY : root;
+		Node newRoot = start.assoc(0, hash(key), key, value, added);
+		if (newRoot == root) {
+			return this;
+		}
+		return new PersistentMap<>(newRoot, added[0] ? size + 1 : size);
+	}
+
+	/**
+	 * Permet d'obtenir une version sans la clé 'key'.<br>
+	 * <u>CTT : O(log32 n)</u>
+	 *
+	 * @return		La nouvelle version, ou la version courante si la clé est absente.
+	 * @param		key Clé à retirer.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	PersistentMap<K, V> without(Object key) {
+		if (root == null || key == null) {
+			return this;
+		}
+		Node newRoot = root.without(0, hash(key), key);
+		if (newRoot == root) {
+			return this;
+		}
+		return (newRoot == null) ? empty() : new PersistentMap<>(newRoot, size - 1);
+	}
+
+	/**
+	 * Parcourt toutes les associations du dictionnaire, sans ordre particulier.<br>
+	 * <u>CTT : O(n)</u>
+	 *
+	 * @param		action Action à exécuter pour chaque association.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@SuppressWarnings("unchecked")
+	void forEach(BiConsumer<? super K, ? super V> action) {
+		if (root != null) {
+			root.forEach((BiConsumer<Object, Object>) action);
+		}
+	}
+
+	private static int hash(Object key) {
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Noeud du trie.
+	 */
+	private abstract static class Node {
+		abstract Object find(int shift, int hash, Object key);
+
+		abstract Node assoc(int shift, int hash, Object key, Object value, boolean[] added);
+
+		abstract Node without(int shift, int hash, Object key);
+
+		abstract void forEach(BiConsumer<Object, Object> action);
+	}
+
+	/**
+	 * Noeud à 32 branches : le tableau contient une paire par branche utilisée, soit
+	 * (clé, valeur) soit (null, sous-noeud).
+	 */
+	private static final class BitmapNode extends Node {
+		private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+		private final int bitmap;
+		private final Object[] array;
+
+		private BitmapNode(int bitmap, Object[] array) {
+			this.bitmap = bitmap;
+			this.array = array;
+		}
+
+		private int index(int bit) {
+			return Integer.bitCount(bitmap & (bit - 1));
+		}
+
+		@Override
+		Object find(int shift, int hash, Object key) {
+			int bit = 1 << ((hash >>> shift) & MASK);
+			if ((bitmap & bit) == 0) {
+				return NOT_FOUND;
+			}
+			int i = 2 * index(bit);
+			Object k = array[i];
+			if (k == null) {
+				return ((Node) array[i + 1]).find(shift + BITS, hash, key);
+			}
+			return key.equals(k) ? array[i + 1] : NOT_FOUND;
+		}
+
+		@Override
+		Node assoc(int shift, int hash, Object key, Object value, boolean[] added) {
+			int bit = 1 << ((hash >>> shift) & MASK);
+			int i = 2 * index(bit);
+			if ((bitmap & bit) == 0) {
+				Object[] copy = new Object[array.length + 2];
+				System.arraycopy(array, 0, copy, 0, i);
+				copy[i] = key;
+				copy[i + 1] = value;
+				System.arraycopy(array, i, copy, i + 2, array.length - i);
+				added[0] = true;
+				return new BitmapNode(bitmap | bit, copy);
+			}
+			Object k = array[i];
+			Object v = array[i + 1];
+			Object replacement;
+			Object newKey = k;
+			if (k == null) {
+				replacement = ((Node) v).assoc(shift + BITS, hash, key, value, added);
+				if (replacement == v) {
+					return this;
+				}
+			} else if (key.equals(k)) {
+				if (v == value) {
+					return this;
+				}
+				replacement = value;
+			} else {
+				added[0] = true;
+				replacement = createNode(shift + BITS, k, v, hash, key, value);
+				newKey = null;
+			}
+			Object[] copy = array.clone();
+			copy[i] = newKey;
+			copy[i + 1] = replacement;
+			return new BitmapNode(bitmap, copy);
+		}
+
+		@Override
+		Node without(int shift, int hash, Object key) {
+			int bit = 1 << ((hash >>> shift) & MASK);
+			if ((bitmap & bit) == 0) {
+				return this;
+			}
+			int i = 2 * index(bit);
+			Object k = array[i];
+			if (k == null) {
+				Node child = (Node) array[i + 1];
+				Node newChild = child.without(shift + BITS, hash, key);
+				if (newChild == child) {
+					return this;
+				}
+				if (newChild != null) {
+					Object[] copy = array.clone();
+					copy[i + 1] = newChild;
+					return new BitmapNode(bitmap, copy);
+				}
+			} else if (!key.equals(k)) {
+				return this;
+			}
+			if (bitmap == bit) {
+				return null;
+			}
+			Object[] copy = new Object[array.length - 2];
+			System.arraycopy(array, 0, copy, 0, i);
+			System.arraycopy(array, i + 2, copy, i, array.length - i - 2);
+			return new BitmapNode(bitmap ^ bit, copy);
+		}
+
+		@Override
+		void forEach(BiConsumer<Object, Object> action) {
+			for (int i = 0; i < array.length; i += 2) {
+				if (array[i] == null) {
+					((Node) array[i + 1]).forEach(action);
+				} else {
+					action.accept(array[i], array[i + 1]);
+				}
+			}
+		}
+
+		private static Node createNode(int shift, Object k1, Object v1, int h2, Object k2, Object v2) {
+			int h1 = hash(k1);
+			if (h1 == h2) {
+				return new CollisionNode(h1, new Object[] {k1, v1, k2, v2});
+			}
+			boolean[] ignored = {false};
+			return EMPTY.assoc(shift, h1, k1, v1, ignored).assoc(shift, h2, k2, v2, ignored);
+		}
+	}
+
+	/**
+	 * Noeud des clés dont le hash complet est identique : recherche linéaire.
+	 */
+	private static final class CollisionNode extends Node {
+		private final int hash;
+		private final Object[] array;
+
+		private CollisionNode(int hash, Object[] array) {
+			this.hash = hash;
+			this.array = array;
+		}
+
+		private int indexOf(Object key) {
+			for (int i = 0; i < array.length; i += 2) {
+				if (key.equals(array[i])) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		Object find(int shift, int hash, Object key) {
+			int i = (hash == this.hash) ? indexOf(key) : -1;
+			return (i < 0) ? NOT_FOUND : array[i + 1];
+		}
+
+		@Override
+		Node assoc(int shift, int hash, Object key, Object value, boolean[] added) {
+			if (hash != this.hash) {
+				// Les hash diffèrent : le noeud devient une branche d'un noeud à 32 branches.
+				BitmapNode parent = new BitmapNode(1 << ((this.hash >>> shift) & MASK), new Object[] {null, this});
+				return parent.assoc(shift, hash, key, value, added);
+			}
+			int i = indexOf(key);
+			Object[] copy;
+			if (i < 0) {
+				copy = new Object[array.length + 2];
+				System.arraycopy(array, 0, copy, 0, array.length);
+				copy[array.length] = key;
+				copy[array.length + 1] = value;
+				added[0] = true;
+			} else {
+				if (array[i + 1] == value) {
+					return this;
+				}
+				copy = array.clone();
+				copy[i + 1] = value;
+			}
+			return new CollisionNode(hash, copy);
+		}
+
+		@Override
+		Node without(int shift, int hash, Object key) {
+			int i = (hash == this.hash) ? indexOf(key) : -1;
+			if (i < 0) {
+				return this;
+			}
+			if (array.length == 2) {
+				return null;
+			}
+			Object[] copy = new Object[array.length - 2];
+			System.arraycopy(array, 0, copy, 0, i);
+			System.arraycopy(array, i + 2, copy, i, array.length - i - 2);
+			return new CollisionNode(hash, copy);
+		}
+
+		@Override
+		void forEach(BiConsumer<Object, Object> action) {
+			for (int i = 0; i < array.length; i += 2) {
+				action.accept(array[i], array[i + 1]);
+			}
+		}
+	}
+}
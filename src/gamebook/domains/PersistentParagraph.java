@@ -0,0 +1,235 @@
+/**
+ * File name    : PersistentParagraph.java
+ *
+ * Description  : Paragraphe immuable d'un livre persistant.
+ *
+ * Version      : 1.0
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * PersistentParagraph
+ *
+ * Version immuable d'un {@link Paragraph} utilisée par {@link PersistentGameBook}. Un choix
+ * ne référence pas un objet mais la clé du paragraphe ciblé : une clé est attribuée par le livre
+ * à la création du paragraphe et ne change plus, même si le paragraphe est déplacé. Chaque
+ * modification retourne un nouveau paragraphe, l'ancien reste utilisé par les anciennes versions
+ * du livre.
+ *
+ * <hr>
+ *
+ * <h2>Les choix : deux tableaux</h2>
+ * <p>Comme dans {@link ChoiceStore}, les libellés et les clés ciblées sont rangés dans deux
+ * tableaux parallèles, dans l'ordre d'ajout. Un paragraphe n'a que quelques choix : recopier
+ * les tableaux à chaque modification coûte moins qu'un dictionnaire persistant.</p>
+ *
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>getTargetKey() :   <u>CTT:</u> <b>O(k)</b> ou 'k' est le nombre de choix du paragraphe</li>
+ * 	<li>getContent() :     <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>getChoices() :     <u>CTT:</u> <b>O(1)</b> (vue non modifiable)</li>
+ * </ul>
+ * <hr>
+ *
+ * @version     1.0
+ *
+ * @see         PersistentGameBook
+ * @author      Jérémi Nihart
+ */
+public final class PersistentParagraph {
+	// Constante(s)
+	private static final String[] NO_LABELS = new String[0];
+	private static final int[] NO_TARGETS = new int[0];
+
+	// Variables Objet
+	private final int key;
+	private final String content;
+	private final String[] labels;
+	private final int[] targets;
+
+	PersistentParagraph(int key, String content) {
+		this(key, content, NO_LABELS, NO_TARGETS);
+	}
+
+	private PersistentParagraph(int key, String content, String[] labels, int[] targets) {
+		this.key = key;
+		this.content = content;
+		this.labels = labels;
+		this.targets = targets;
+	}
+
+	/**
+	 * Getter, permettant de récupérer la clé du paragraphe dans son livre.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      La clé, stable pour toutes les versions du livre.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getKey() {
+		return key;
+	}
+
+	/**
+	 * Getter, permettant de récupérer le contenu du paragraphe.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Le contenu du paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public String getContent() {
+		return content;
+	}
+
+	/**
+	 * Getter, permettant de récupérer le nombre de choix du paragraphe.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Nombre de choix.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getChoiceCount() {
+		return labels.length;
+	}
+
+	/**
+	 * Getter, permettant de récupérer les libellés des choix dans l'ordre d'ajout.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      List non modifiable des libellés.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public List<String> getChoices() {
+		return Collections.unmodifiableList(Arrays.asList(labels));
+	}
+
+	/**
+	 * Getter, permettant de récupérer la clé du paragraphe ciblé par le choix 'label'.<br>
+	 * <u>CTT : O(k)</u> ou 'k' est le nombre de choix du paragraphe.
+	 *
+	 * @return      La clé du paragraphe ciblé, -1 si le choix n'existe pas ou ne cible
+	 * 				aucun paragraphe du livre.
+	 * @param		label Libellé du choix.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getTargetKey(String label) {
+		int i = indexOf(label);
+		return (i < 0) ? -1 : targets[i];
+	}
+
+	/**
+	 * Parcourt les choix du paragraphe dans l'ordre d'ajout.<br>
+	 * <u>CTT : O(k)</u>
+	 *
+	 * @param		action Action recevant le libellé et la clé ciblée de chaque choix.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public void forEachChoice(ObjIntConsumer<String> action) {
+		for (int i = 0; i < labels.length; i++) {
+			action.accept(labels[i], targets[i]);
+		}
+	}
+
+	int[] targetKeys() {
+		return targets.clone();
+	}
+
+	PersistentParagraph withContent(String content) {
+		return new PersistentParagraph(key, content, labels, targets);
+	}
+
+	/**
+	 * Retourne un paragraphe où le choix 'label' cible 'target' (ajouté ou remplacé).
+	 */
+	PersistentParagraph withChoice(String label, int target) {
+		int i = indexOf(label);
+		if (i >= 0) {
+			int[] newTargets = targets.clone();
+			newTargets[i] = target;
+			return new PersistentParagraph(key, content, labels, newTargets);
+		}
+		String[] newLabels = Arrays.copyOf(labels, labels.length + 1);
+		int[] newTargets = Arrays.copyOf(targets, targets.length + 1);
+		newLabels[labels.length] = label;
+		newTargets[targets.length] = target;
+		return new PersistentParagraph(key, content, newLabels, newTargets);
+	}
+
+	/**
+	 * Retourne un paragraphe sans le choix 'label', ou ce paragraphe si il est absent.
+	 */
+	PersistentParagraph withoutChoice(String label) {
+		int i = indexOf(label);
+		if (i < 0) {
+			return this;
+		}
+		String[] newLabels = new String[labels.length - 1];
+		int[] newTargets = new int[targets.length - 1];
+		System.arraycopy(labels, 0, newLabels, 0, i);
+		System.arraycopy(labels, i + 1, newLabels, i, labels.length - i - 1);
+		System.arraycopy(targets, 0, newTargets, 0, i);
+		System.arraycopy(targets, i + 1, newTargets, i, targets.length - i - 1);
+		return new PersistentParagraph(key, content, newLabels, newTargets);
+	}
+
+	/**
+	 * Retourne un paragraphe sans les choix qui ciblent 'target'.
+	 */
+	PersistentParagraph withoutChoicesTo(int target) {
+		int kept = 0;
+		for (int t : targets) {
+			if (t != target) {
+				kept++;
+			}
+		}
+		if (kept == targets.length) {
+			return this;
+		}
+		String[] newLabels = new String[kept];
+		int[] newTargets = new int[kept];
+		int j = 0;
+		for (int i = 0; i < targets.length; i++) {
+			if (targets[i] != target) {
+				newLabels[j] = labels[i];
+				newTargets[j++] = targets[i];
+			}
+		}
+		return new PersistentParagraph(key, content, newLabels, newTargets);
+	}
+
+	private int indexOf(String label) {
+		for (int i = 0; i < labels.length; i++) {
+			if (labels[i].equals(label)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,284 @@
+/**
+ * File name    : PersistentVector.java
+ *
+ * Description  : Liste immuable dont chaque modification produit une
+ *                nouvelle version qui partage la structure de l'ancienne.
+ *
+ * Version      : 1.0
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * PersistentVector
+ *
+ * Liste immuable : {@link PersistentVector#with(int, Object)},
+ * {@link PersistentVector#withInserted(int, Object)} et {@link PersistentVector#without(int)}
+ * retournent une nouvelle version et laissent l'ancienne intacte. Les méthodes de modification
+ * de {@link java.util.List} lèvent {@link UnsupportedOperationException}.
+ *
+ * <hr>
+ *
+ * <h2>La structure utilisée : Treap implicite à recopie de chemin</h2>
+ * <p>Même arbre que {@link ParagraphSequence} (position déduite de la taille des sous-arbres
+ * gauches, priorités aléatoires), mais aucun noeud n'est jamais modifié : une opération recopie
+ * uniquement les noeuds qu'elle traverse, en moyenne <b>O(log n)</b>, et la nouvelle racine partage
+ * tous les autres sous-arbres avec l'ancienne. Contrairement à un trie à 32 branches, l'insertion
+ * et la suppression au milieu de la liste restent en <b>O(log n)</b>.</p>
+ *
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>get() :         <u>CTT:</u> <b>O(log n)</b></li>
+ * 	<li>with() :        <u>CTT:</u> <b>O(log n)</b></li>
+ *  <li>withInserted() : <u>CTT:</u> <b>O(log n)</b></li>
+ *  <li>without() :     <u>CTT:</u> <b>O(log n)</b></li>
+ *  <li>size() :        <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>iterator() :    <u>CTT:</u> <b>O(n)</b> pour un parcours complet</li>
+ * </ul>
+ * <hr>
+ *
+ * @version     1.0
+ *
+ * @see         PersistentGameBook
+ * @author      Jérémi Nihart
+ */
+final class PersistentVector<E> extends AbstractList<E> {
+
+	/**
+	 * Noeud immuable de l'arbre : une valeur, sa priorité et la taille de son sous-arbre.
+	 */
+	private static final class Node {
+		private final Object value;
+		private final int priority;
+		private final int size;
+		private final Node left;
+		private final Node right;
+
+		private Node(Object value, int priority, Node left, Node right) {
+			this.value = value;
+			this.priority = priority;
+			this.left = left;
+			this.right = right;
+			this.size = 1 + size(left) + size(right);
+		}
+
+		private Node withChildren(Node left, Node right) {
+			return (left == this.left && right == this.right) ? this : new Node(value, priority, left, right);
+		}
+	}
+
+	// Constante(s)
+	private static final PersistentVector<?> EMPTY = new PersistentVector<>(null);
+
+	// Variables Objet
+	private final Node root;
+
+	private PersistentVector(Node root) {
+		this.root = root;
+	}
+
+	/**
+	 * Permet d'obtenir la liste vide.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		La liste vide (partagée).
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@SuppressWarnings("unchecked")
+	static <E> PersistentVector<E> empty() {
+		return (PersistentVector<E>) EMPTY;
+	}
+
+	@Override
+	public int size() {
+		return size(root);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E get(int index) {
+		Objects.checkIndex(index, size());
+		Node node = root;
+		int i = index;
+		while (true) {
+			int leftSize = size(node.left);
+			if (i < leftSize) {
+				node = node.left;
+			} else if (i == leftSize) {
+				return (E) node.value;
+			} else {
+				i -= leftSize + 1;
+				node = node.right;
+			}
+		}
+	}
+
+	/**
+	 * Permet d'obtenir une version où la position 'index' contient 'value'.<br>
+	 * <u>CTT : O(log n)</u>
+	 *
+	 * @return		La nouvelle version.
+	 * @param		index Position à remplacer.
+	 * @param		value Nouvelle valeur.
+	 *
+	 * @throws		IndexOutOfBoundsException si 'index' est hors limite.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	PersistentVector<E> with(int index, E value) {
+		Objects.checkIndex(index, size());
+		return new PersistentVector<>(replace(root, index, value));
+	}
+
+	/**
+	 * Permet d'obtenir une version où 'value' est insérée à la position 'index', les
+	 * valeurs suivantes étant décalées d'une position.<br>
+	 * <u>CTT : O(log n)</u>
+	 *
+	 * @return		La nouvelle version.
+	 * @param		index Position d'insertion (0 &lt;= index &lt;= size()).
+	 * @param		value Valeur à insérer.
+	 *
+	 * @throws		IndexOutOfBoundsException si 'index' est hors limite.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	PersistentVector<E> withInserted(int index, E value) {
+		Objects.checkIndex(index, size() + 1);
+		Node node = new Node(value, ThreadLocalRandom.current().nextInt(), null, null);
+		Node[] parts = split(root, index);
+		return new PersistentVector<>(merge(merge(parts[0], node), parts[1]));
+	}
+
+	/**
+	 * Permet d'obtenir une version sans la valeur de la position 'index', les valeurs
+	 * suivantes étant décalées d'une position.<br>
+	 * <u>CTT : O(log n)</u>
+	 *
+	 * @return		La nouvelle version.
+	 * @param		index Position à retirer.
+	 *
+	 * @throws		IndexOutOfBoundsException si 'index' est hors limite.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	PersistentVector<E> without(int index) {
+		Objects.checkIndex(index, size());
+		Node[] parts = split(root, index);
+		Node[] rest = split(parts[1], 1);
+		return new PersistentVector<>(merge(parts[0], rest[1]));
+	}
+
+	/**
+	 * Parcourt les valeurs dans l'ordre avec une pile, sans recopier l'arbre.<br>
+	 * <u>CTT : O(n)</u> pour un parcours complet.
+	 *
+	 * @return		Un itérateur sur les valeurs.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<>() {
+			private final Deque<Node> stack = new ArrayDeque<>();
+			{
+				pushLeft(root);
+			}
+
+			private void pushLeft(Node node) {
+				for (Node n = node; n != null; n = n.left) {
+					stack.push(n);
+				}
+			}
+
+			@Override
+			public boolean hasNext() {
+				return !stack.isEmpty();
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public E next() {
+				if (stack.isEmpty()) {
+					throw new NoSuchElementException();
+				}
+				Node node = stack.pop();
+				pushLeft(node.right);
+				return (E) node.value;
+			}
+		};
+	}
+
+	private static Node replace(Node node, int index, Object value) {
+		int leftSize = size(node.left);
+		if (index < leftSize) {
+			return node.withChildren(replace(node.left, index, value), node.right);
+		}
+		if (index > leftSize) {
+			return node.withChildren(node.left, replace(node.right, index - leftSize - 1, value));
+		}
+		return new Node(value, node.priority, node.left, node.right);
+	}
+
+	/**
+	 * Sépare l'arbre 'node' en deux : les 'count' premiers éléments et les autres.
+	 * Seuls les noeuds du chemin de séparation sont recopiés.
+	 */
+	private static Node[] split(Node node, int count) {
+		if (node == null) {
+			return new Node[] {null, null};
+		}
+		Node[] parts;
+		if (size(node.left) < count) {
+			parts = split(node.right, count - size(node.left) - 1);
+			parts[0] = node.withChildren(node.left, parts[0]);
+		} else {
+			parts = split(node.left, count);
+			parts[1] = node.withChildren(parts[1], node.right);
+		}
+		return parts;
+	}
+
+	/**
+	 * Fusionne deux arbres, tous les éléments de 'left' précédant ceux de 'right'.
+	 */
+	private static Node merge(Node left, Node right) {
+		if (left == null) {
+			return right;
+		}
+		if (right == null) {
+			return left;
+		}
+		if (left.priority > right.priority) {
+			return left.withChildren(left.left, merge(left.right, right));
+		}
+		return right.withChildren(merge(left, right.left), right.right);
+	}
+
+	private static int size(Node node) {
+		return (node == null) ? 0 : node.size;
+	}
+}
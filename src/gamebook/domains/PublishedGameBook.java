@@ -0,0 +1,579 @@
+/**
+ * File name    : PublishedGameBook.java
+ *
+ * Description  : Version figée d'un livre, destinée à la lecture.
+ *
+ * Version      : 1.0
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * PublishedGameBook
+ *
+ * Livre compilé par {@link GameBook#freeze()} en tableaux d'entiers non modifiables : les
+ * paragraphes sont désignés par leur ID, les choix par leur position dans un tableau commun.
+ * La lecture ne parcourt plus le graphe d'objets {@link Paragraph} et une navigation ne
+ * crée aucun objet. L'objet est immuable, plusieurs lecteurs peuvent donc l'utiliser en même
+ * temps sans verrou.
+ *
+ * <hr>
+ *
+ * <h2>Les choix : tableaux CSR</h2>
+ * <p>Les choix de tous les paragraphes sont rangés à la suite dans deux tableaux (libellé et
+ * paragraphe ciblé), dans l'ordre des paragraphes puis des choix. Les choix du paragraphe 'p'
+ * occupent les positions <code>firstChoice[p]</code> à <code>firstChoice[p+1]</code> (exclue).</p>
+ * <p>Les choix entrants sont rangés de la même manière (CSR inverse) : pour chaque paragraphe
+ * ciblé, le paragraphe source et la position du choix, dans l'ordre des sources. Les deux sens
+ * sont construits par une seule passe de comptage en <b>O(n+e)</b> et sont exposés élément par
+ * élément ({@link PublishedGameBook#getFirstChoice(int)}, {@link PublishedGameBook#getChoiceTarget(int)},
+ * {@link PublishedGameBook#getFirstIncoming(int)}, ...) : un algorithme de graphe parcourt des
+ * tableaux d'entiers contigus au lieu d'objets {@link Paragraph} et de HashMap, sans qu'un
+ * tableau partagé entre les lecteurs puisse être modifié.</p>
+ *
+ * <h2>Les contenus : tranches de la zone du livre</h2>
+ * <p>Les contenus ne sont pas décodés à la compilation : chaque paragraphe garde la tranche
+ * de la zone du livre ({@link TextArena.Slice}) qui contient son contenu, décodée à la demande
+ * par {@link PublishedGameBook#getContent(int)}. Une compilation reste donc en <b>O(n+e)</b>
+ * quelle que soit la taille des textes, ce qui permet de recompiler le livre après chaque
+ * modification ({@link GameBook#getChainGraph()}) sans décoder ni remettre en cache tous les
+ * contenus.</p>
+ *
+ * <h2>Les libellés : table de symboles</h2>
+ * <p>Chaque libellé distinct reçoit un identifiant, les choix rangent cet identifiant. Une
+ * HashMap convertit le libellé demandé par le lecteur en identifiant.</p>
+ *
+ * <h2>Libellé vers choix : table ouverte par paragraphe</h2>
+ * <p>Chaque paragraphe possède une petite table d'adressage ouvert (sondage linéaire) de 'm'
+ * cases, la plus petite puissance de deux au moins double de son nombre de choix : la table est
+ * au plus à moitié remplie, une recherche compare en moyenne moins de deux identifiants et
+ * s'arrête au plus tard sur une case vide. La table est construite en une passe, en <b>O(k)</b>
+ * pour 'k' choix, quelle que soit la répartition des libellés (un hachage parfait demanderait
+ * 'k²' cases et plusieurs essais de graine, ce qui devient prohibitif pour un paragraphe
+ * comptant des milliers de choix).</p>
+ *
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>getTarget() :      <u>CTT:</u> <b>O(1)</b> en moyenne</li>
+ * 	<li>getContent() :     <u>CTT:</u> <b>O(m)</b> ou 'm' est la taille du contenu</li>
+ *  <li>getChoiceCount() : <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>getChoices() :     <u>CTT:</u> <b>O(1)</b> (vue sur les tableaux)</li>
+ *  <li>getChoiceTarget() : <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>getIncomingSource() : <u>CTT:</u> <b>O(1)</b></li>
+ * </ul>
+ * <hr>
+ *
+ * @version     1.0
+ *
+ * @see         GameBook#freeze()
+ * @see         GameBook#snapshot()
+ * @see         GameBookGraph
+ * @see         Session#forPublished(GameBookGraph)
+ * @author      Jérémi Nihart
+ */
+public final class PublishedGameBook implements GameBookGraph {
+	// Constante(s)
+	private static final int MAX_SLOTS = Integer.MAX_VALUE - 8;
+
+	// Variables Objet
+	private final String title;
+	private final Object[] contents;  // String ou TextArena.Slice, décodé par toString().
+	private final int[] permanentIds;
+	private final int[] firstChoice;
+	private final int[] choiceLabels;
+	private final int[] choiceTargets;
+	private final int[] firstIncoming;
+	private final int[] incomingSources;
+	private final int[] incomingChoices;
+	private final String[] labels;
+	private final Map<String, Integer> labelIds = new HashMap<>();
+	private final int[] firstSlot;
+	private final int[] slots;
+	private final MemoryFootprint footprint;
+
+	/**
+	 * Constructeur, compile le livre 'book' (voir {@link GameBook#freeze()}).<br>
+	 * <u>CTT : O(n+e)</u> en moyenne ou 'n' est le nombre de paragraphes et 'e' le nombre de choix.
+	 *
+	 * @param		book Livre à compiler.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	PublishedGameBook(GameBook book) {
+		int size = book.getSize();
+		title = book.getTitle();
+		contents = new Object[size];
+		permanentIds = new int[size];
+		firstChoice = new int[size + 1];
+		Map<Paragraph, Integer> ids = new HashMap<>();
+		int index = 0;
+		int choiceCount = 0;
+		for (Paragraph paragraph : book.sequence()) {
+			ids.put(paragraph, index);
+			contents[index] = paragraph.publishedContent();
+			permanentIds[index] = paragraph.getPermanentId();
+			choiceCount += paragraph.choiceCount();
+			firstChoice[++index] = choiceCount;
+		}
+		choiceLabels = new int[choiceCount];
+		choiceTargets = new int[choiceCount];
+		int[] next = {0};
+		for (Paragraph paragraph : book.sequence()) {
+			paragraph.forEachChoice((key, target) -> {
+				Integer id = labelIds.computeIfAbsent(key, label -> labelIds.size());
+				Integer targetId = (target == null) ? null : ids.get(target);
+				choiceLabels[next[0]] = id;
+				choiceTargets[next[0]] = (targetId == null) ? -1 : targetId;
+				next[0]++;
+			});
+		}
+		labels = new String[labelIds.size()];
+		labelIds.forEach((label, id) -> labels[id] = label);
+		firstIncoming = new int[size + 1];
+		for (int target : choiceTargets) {
+			if (target >= 0) {
+				firstIncoming[target + 1]++;
+			}
+		}
+		for (int p = 0; p < size; p++) {
+			firstIncoming[p + 1] += firstIncoming[p];
+		}
+		incomingSources = new int[firstIncoming[size]];
+		incomingChoices = new int[firstIncoming[size]];
+		int[] free = Arrays.copyOf(firstIncoming, size);
+		for (int p = 0; p < size; p++) {
+			for (int c = firstChoice[p]; c < firstChoice[p + 1]; c++) {
+				int target = choiceTargets[c];
+				if (target >= 0) {
+					incomingSources[free[target]] = p;
+					incomingChoices[free[target]++] = c;
+				}
+			}
+		}
+		firstSlot = new int[size + 1];
+		slots = buildSlots(size);
+		footprint = measure();
+	}
+
+	/**
+	 * Estime la mémoire retenue par les tableaux et les chaînes du livre (voir {@link MemoryFootprint}).
+	 */
+	private MemoryFootprint measure() {
+		long content = MemoryFootprint.string(title) + MemoryFootprint.array(contents.length, MemoryFootprint.REFERENCE);
+		for (Object text : contents) {
+			content += (text instanceof String) ? MemoryFootprint.string((String) text) : TextArena.Slice.BYTES;
+		}
+		long choices = 0;
+		for (int[] table : new int[][] {firstChoice, choiceLabels, choiceTargets, firstIncoming, incomingSources,
+				incomingChoices, firstSlot, slots}) {
+			choices += MemoryFootprint.array(table.length, Integer.BYTES);
+		}
+		long labelBytes = MemoryFootprint.array(labels.length, MemoryFootprint.REFERENCE)
+				+ (long) labels.length * MemoryFootprint.MAP_ENTRY;
+		for (String label : labels) {
+			labelBytes += MemoryFootprint.string(label);
+		}
+		return new MemoryFootprint(content, choices, labelBytes, MemoryFootprint.array(permanentIds.length, Integer.BYTES), 0, 0);
+	}
+
+	/**
+	 * Calcule la table d'adressage ouvert de chaque paragraphe, en O(k) pour 'k' choix.
+	 *
+	 * @throws		IllegalStateException si les tables ne tiennent pas dans un tableau Java.
+	 */
+	private int[] buildSlots(int size) {
+		long total = 0;
+		for (int p = 0; p < size; p++) {
+			firstSlot[p] = (int) total;
+			total += widthOf(firstChoice[p + 1] - firstChoice[p]);
+			if (total > MAX_SLOTS) {
+				throw new IllegalStateException("Too many choices to publish the book");
+			}
+		}
+		firstSlot[size] = (int) total;
+		int[] all = new int[(int) total];
+		Arrays.fill(all, -1);
+		for (int p = 0; p < size; p++) {
+			int base = firstSlot[p];
+			int mask = firstSlot[p + 1] - base - 1;
+			for (int c = firstChoice[p]; c < firstChoice[p + 1]; c++) {
+				int slot = slotOf(choiceLabels[c], mask);
+				while (all[base + slot] >= 0) {
+					slot = (slot + 1) & mask;
+				}
+				all[base + slot] = c;
+			}
+		}
+		return all;
+	}
+
+	/**
+	 * Nombre de cases de la table d'un paragraphe de 'count' choix : 0 sans choix, sinon la
+	 * plus petite puissance de deux supérieure ou égale à 2 * count (taux de remplissage ½).
+	 */
+	private static long widthOf(int count) {
+		if (count == 0) {
+			return 0;
+		}
+		long width = 2;
+		while (width < 2L * count) {
+			width <<= 1;
+		}
+		return width;
+	}
+
+	private static int slotOf(int labelId, int mask) {
+		int h = (labelId + 1) * 0x9E3779B9;
+		h ^= h >>> 15;
+		h *= 0x2C1B3C6D;
+		h ^= h >>> 13;
+		return h & mask;
+	}
+
+	/**
+	 * Permet de recréer un livre modifiable identique à cette version, pour les traitements
+	 * qui travaillent sur les objets {@link Paragraph} (analyses {@link GameBookStatement}).
+	 * Le livre obtenu est indépendant de celui qui a été publié.<br>
+	 * <u>CTT : O(n log n + e)</u>
+	 *
+	 * @return		Un nouveau {@link GameBook}.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			GameBook#snapshot()
+	 * @author      Jérémi Nihart
+	 */
+	public GameBook toGameBook() {
+		List<Paragraph> copies = new ArrayList<>(contents.length);
+		for (Object content : contents) {
+			copies.add(new Paragraph(content.toString()));
+		}
+		GameBook book = new GameBook(title, copies);
+		for (int p = 0; p < contents.length; p++) {
+			for (int c = firstChoice[p]; c < firstChoice[p + 1]; c++) {
+				Paragraph target = (choiceTargets[c] < 0) ? null : copies.get(choiceTargets[c]);
+				copies.get(p).addChoice(labels[choiceLabels[c]], target);
+			}
+		}
+		return book;
+	}
+
+	/**
+	 * Getter, permettant de récupérer le titre du livre au moment de sa publication.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Titre du livre.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public String getTitle() {
+		return title;
+	}
+
+	/**
+	 * Getter, permettant de récupérer l'estimation des octets retenus par la version : contenus,
+	 * tableaux des choix (CSR, CSR inverse et hachage parfait), libellés et identifiants permanents.<br>
+	 * <u>CTT : O(1)</u>, calculée une fois à la compilation.
+	 *
+	 * @return      Le relevé de la mémoire retenue.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public MemoryFootprint getMemoryFootprint() {
+		return footprint;
+	}
+
+	/**
+	 * Getter, permettant de récupérer le nombre de paragraphes du livre.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Nombre de paragraphes.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public int getSize() {
+		return contents.length;
+	}
+
+	/**
+	 * Getter, permettant de récupérer le contenu d'un paragraphe, décodé à chaque appel.<br>
+	 * <u>CTT : O(m)</u> ou 'm' est la taille du contenu.
+	 *
+	 * @return      Le contenu du paragraphe.
+	 * @param		paragraph ID du paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public String getContent(int paragraph) {
+		return contents[paragraph].toString();
+	}
+
+	/**
+	 * Getter, permettant de récupérer l'identifiant permanent qu'avait le paragraphe dans le
+	 * livre publié, pour le retrouver dans ce livre après des modifications
+	 * (voir {@link GameBook#getParagraphByPermanentId(int)}).<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      L'identifiant permanent du paragraphe.
+	 * @param		paragraph ID du paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			Paragraph#getPermanentId()
+	 * @author      Jérémi Nihart
+	 */
+	public int getPermanentId(int paragraph) {
+		return permanentIds[paragraph];
+	}
+
+	/**
+	 * Getter, permettant de récupérer le nombre de choix d'un paragraphe.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Nombre de choix.
+	 * @param		paragraph ID du paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public int getChoiceCount(int paragraph) {
+		return firstChoice[paragraph + 1] - firstChoice[paragraph];
+	}
+
+	/**
+	 * Getter, permettant de récupérer les libellés des choix d'un paragraphe, dans
+	 * l'ordre de {@link Paragraph#getChoices()}.<br>
+	 * <u>CTT : O(1)</u> la liste est une vue non modifiable sur les tableaux du livre.
+	 *
+	 * @return      List des libellés.
+	 * @param		paragraph ID du paragraphe.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public List<String> getChoices(int paragraph) {
+		int first = firstChoice[paragraph];
+		int count = getChoiceCount(paragraph);
+		return new AbstractList<>() {
+			@Override
+			public String get(int index) {
+				return labels[choiceLabels[first + Objects.checkIndex(index, count)]];
+			}
+
+			@Override
+			public int size() {
+				return count;
+			}
+		};
+	}
+
+	/**
+	 * Getter, permettant de récupérer l'ID du paragraphe ciblé par le choix 'key' du
+	 * paragraphe 'paragraph' (sondage de sa table d'adressage ouvert).<br>
+	 * <u>CTT : O(1)</u> en moyenne, la table étant au plus à moitié remplie.
+	 *
+	 * @return      L'ID du paragraphe ciblé, -1 si le choix n'existe pas ou ne cible
+	 * 				aucun paragraphe du livre.
+	 * @param		paragraph ID du paragraphe.
+	 * @param		key Libellé du choix.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public int getTarget(int paragraph, String key) {
+		Integer id = labelIds.get(key);
+		int width = firstSlot[paragraph + 1] - firstSlot[paragraph];
+		if (id == null || width == 0) {
+			return -1;
+		}
+		int base = firstSlot[paragraph];
+		int mask = width - 1;
+		for (int slot = slotOf(id, mask);; slot = (slot + 1) & mask) {
+			int choice = slots[base + slot];
+			if (choice < 0) {
+				return -1;
+			}
+			if (choiceLabels[choice] == id) {
+				return choiceTargets[choice];
+			}
+		}
+	}
+
+	/**
+	 * Getter, permettant de récupérer le nombre total de choix du livre.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Nombre de choix, les positions des choix vont de 0 à ce nombre (exclu).
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public int getTotalChoiceCount() {
+		return choiceTargets.length;
+	}
+
+	/**
+	 * Getter, permettant de récupérer la position du premier choix d'un paragraphe dans le
+	 * tableau des choix (CSR) : les choix du paragraphe 'p' occupent les positions
+	 * <code>getFirstChoice(p)</code> à <code>getFirstChoice(p+1)</code> (exclue).<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Position du premier choix.
+	 * @param		paragraph ID du paragraphe, de 0 à {@link PublishedGameBook#getSize()} (inclus).
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public int getFirstChoice(int paragraph) {
+		return firstChoice[paragraph];
+	}
+
+	/**
+	 * Getter, permettant de récupérer l'ID du paragraphe ciblé par le choix de position 'choice'.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      L'ID du paragraphe ciblé, -1 si le choix ne cible aucun paragraphe du livre.
+	 * @param		choice Position du choix (voir {@link PublishedGameBook#getFirstChoice(int)}).
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public int getChoiceTarget(int choice) {
+		return choiceTargets[choice];
+	}
+
+	/**
+	 * Getter, permettant de récupérer l'identifiant du libellé du choix de position 'choice'.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      L'identifiant du libellé (voir {@link PublishedGameBook#getLabel(int)}).
+	 * @param		choice Position du choix (voir {@link PublishedGameBook#getFirstChoice(int)}).
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public int getChoiceLabelId(int choice) {
+		return choiceLabels[choice];
+	}
+
+	/**
+	 * Getter, permettant de récupérer le nombre de libellés distincts du livre.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Nombre de libellés, les identifiants vont de 0 à ce nombre (exclu).
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public int getLabelCount() {
+		return labels.length;
+	}
+
+	/**
+	 * Getter, permettant de récupérer le libellé d'identifiant 'labelId'.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Le libellé.
+	 * @param		labelId Identifiant du libellé.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			PublishedGameBook#getChoiceLabelId(int)
+	 * @author      Jérémi Nihart
+	 */
+	@Override
+	public String getLabel(int labelId) {
+		return labels[labelId];
+	}
+
+	/**
+	 * Getter, permettant de récupérer la position du premier choix entrant d'un paragraphe dans
+	 * les tableaux inverses (CSR inverse) : les choix qui ciblent le paragraphe 'p' occupent les
+	 * positions <code>getFirstIncoming(p)</code> à <code>getFirstIncoming(p+1)</code> (exclue),
+	 * dans l'ordre de leurs sources.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      Position du premier choix entrant.
+	 * @param		paragraph ID du paragraphe, de 0 à {@link PublishedGameBook#getSize()} (inclus).
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getFirstIncoming(int paragraph) {
+		return firstIncoming[paragraph];
+	}
+
+	/**
+	 * Getter, permettant de récupérer l'ID du paragraphe source du choix entrant de position 'incoming'.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      L'ID du paragraphe qui possède le choix.
+	 * @param		incoming Position du choix entrant (voir {@link PublishedGameBook#getFirstIncoming(int)}).
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getIncomingSource(int incoming) {
+		return incomingSources[incoming];
+	}
+
+	/**
+	 * Getter, permettant de récupérer la position, dans le tableau des choix, du choix entrant
+	 * de position 'incoming' (pour en connaître le libellé).<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return      La position du choix (voir {@link PublishedGameBook#getChoiceLabelId(int)}).
+	 * @param		incoming Position du choix entrant (voir {@link PublishedGameBook#getFirstIncoming(int)}).
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getIncomingChoice(int incoming) {
+		return incomingChoices[incoming];
+	}
+}
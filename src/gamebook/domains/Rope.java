@@ -0,0 +1,472 @@
+/**
+ * File name    : Rope.java
+ *
+ * Description  : Texte modifiable par insertion et suppression sans recopie
+ *                de tout son contenu.
+ *
+ * Version      : 1.0
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Rope
+ *
+ * Texte découpé en morceaux d'au plus {@link Rope#MAX_LEAF} caractères rangés dans
+ * un arbre : une insertion ou une suppression ne recopie que les morceaux touchés,
+ * et non tout le texte comme le fait {@link String}.
+ *
+ * <hr>
+ *
+ * <h2>La structure utilisée : Treap implicite de morceaux</h2>
+ * <p>Chaque noeud contient un morceau du texte, une priorité aléatoire, le nombre de
+ * caractères de son sous-arbre et le nombre de ces caractères qui ne sont pas des espaces.
+ * La position d'un caractère est déduite des longueurs des sous-arbres (comme dans
+ * {@link ParagraphSequence}), les priorités aléatoires gardent l'arbre équilibré en moyenne.</p>
+ * <p>Une modification qui tient dans un seul morceau ne recopie que ce morceau. Sinon l'arbre
+ * est coupé à la position de la modification puis recollé autour du texte inséré. Les coupes
+ * multiplient les petits morceaux : lorsque le nombre de morceaux dépasse le double du nécessaire,
+ * le texte est redécoupé en une passe, un coût en <b>O(1)</b> amorti par modification.</p>
+ *
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>insert() :      <u>CTT:</u> <b>O(log n + m)</b> ou 'm' est la taille du texte inséré</li>
+ * 	<li>delete() :      <u>CTT:</u> <b>O(log n)</b></li>
+ *  <li>length() :      <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>isBlank() :     <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>toString() :    <u>CTT:</u> <b>O(n)</b></li>
+ * </ul>
+ * <hr>
+ *
+ * @version     1.0
+ *
+ * @see         Paragraph#insertText(int, String)
+ * @see         Paragraph#deleteText(int, int)
+ * @author      Jérémi Nihart
+ */
+final class Rope {
+	// Constante(s)
+	static final int MAX_LEAF = 512;
+
+	private static final int NODE_BYTES = 48;
+
+	/**
+	 * Noeud de l'arbre : un morceau du texte, sa priorité et les compteurs de son sous-arbre.
+	 */
+	private static final class Node {
+		private String text;
+		private int textVisible;
+		private final int priority = ThreadLocalRandom.current().nextInt();
+		private int length;
+		private int visible;
+		private int leaves;
+		private Node left;
+		private Node right;
+
+		private Node(String text) {
+			setText(this, text);
+		}
+	}
+
+	// Variables Objet
+	private Node root;
+
+	/**
+	 * Constructeur
+	 *
+	 * @param		text Texte initial.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	Rope(String text) {
+		root = build(text);
+	}
+
+	/**
+	 * Getter, permettant de récupérer le nombre de caractères du texte.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre de caractères.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	int length() {
+		return length(root);
+	}
+
+	/**
+	 * Permet d'estimer les octets retenus par le texte : un noeud et une String Latin-1 par
+	 * morceau (voir {@link MemoryFootprint}).<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre d'octets estimé.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	long footprint() {
+		return leaves(root) * (NODE_BYTES + MemoryFootprint.string("")) + length();
+	}
+
+	/**
+	 * Indique si le texte est vide ou ne contient que des espaces (comme {@link String#isBlank()}).<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		True : Le texte est vide ou blanc.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	boolean isBlank() {
+		return visible(root) == 0;
+	}
+
+	/**
+	 * Permet d'insérer 'text' à la position 'offset'.<br>
+	 * <u>CTT : O(log n + m)</u> ou 'm' est la taille du texte inséré.
+	 *
+	 * @param		offset Position d'insertion (0 &lt;= offset &lt;= length()).
+	 * @param		text Texte à insérer.
+	 *
+	 * @throws		IndexOutOfBoundsException si 'offset' est hors limite.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	void insert(int offset, String text) {
+		if (offset < 0 || offset > length()) {
+			throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + length());
+		}
+		if (text.isEmpty() || insertInLeaf(root, offset, text)) {
+			return;
+		}
+		Node[] parts = split(root, offset);
+		root = merge(merge(parts[0], build(text)), parts[1]);
+		rebuildIfFragmented();
+	}
+
+	/**
+	 * Permet de supprimer 'count' caractères à partir de la position 'offset'.<br>
+	 * <u>CTT : O(log n)</u>
+	 *
+	 * @param		offset Position du premier caractère supprimé.
+	 * @param		count Nombre de caractères à supprimer.
+	 *
+	 * @throws		IndexOutOfBoundsException si la plage est hors limite.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	void delete(int offset, int count) {
+		checkRange(offset, count);
+		if (count == 0 || deleteInLeaf(root, offset, count)) {
+			return;
+		}
+		Node[] parts = split(root, offset);
+		Node[] rest = split(parts[1], count);
+		root = merge(parts[0], rest[1]);
+		rebuildIfFragmented();
+	}
+
+	/**
+	 * Permet de savoir si le texte resterait blanc après la suppression de la plage.<br>
+	 * <u>CTT : O(log n)</u>
+	 *
+	 * @return		True : Seuls des espaces resteraient après la suppression.
+	 * @param		offset Position du premier caractère supprimé.
+	 * @param		count Nombre de caractères supprimés.
+	 *
+	 * @throws		IndexOutOfBoundsException si la plage est hors limite.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	boolean isBlankWithout(int offset, int count) {
+		checkRange(offset, count);
+		return visibleBefore(root, offset + count) - visibleBefore(root, offset) == visible(root);
+	}
+
+	/**
+	 * Permet de récupérer 'count' caractères à partir de la position 'offset' sans
+	 * reconstruire tout le texte.<br>
+	 * <u>CTT : O(log n + count)</u>
+	 *
+	 * @return		Les caractères de la plage.
+	 * @param		offset Position du premier caractère.
+	 * @param		count Nombre de caractères.
+	 *
+	 * @throws		IndexOutOfBoundsException si la plage est hors limite.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	String substring(int offset, int count) {
+		checkRange(offset, count);
+		StringBuilder builder = new StringBuilder(count);
+		append(root, offset, offset + count, builder);
+		return builder.toString();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(length());
+		Deque<Node> stack = new ArrayDeque<>();
+		Node node = root;
+		while (node != null || !stack.isEmpty()) {
+			while (node != null) {
+				stack.push(node);
+				node = node.left;
+			}
+			node = stack.pop();
+			builder.append(node.text);
+			node = node.right;
+		}
+		return builder.toString();
+	}
+
+	private void checkRange(int offset, int count) {
+		if (offset < 0 || count < 0 || offset > length() - count) {
+			throw new IndexOutOfBoundsException("Offset: " + offset + ", Count: " + count + ", Length: " + length());
+		}
+	}
+
+	/**
+	 * Redécoupe le texte lorsque les coupes ont trop multiplié les petits morceaux.
+	 */
+	private void rebuildIfFragmented() {
+		if (leaves(root) > 2 * (length() / MAX_LEAF) + 16) {
+			root = build(toString());
+		}
+	}
+
+	/**
+	 * Insère le texte dans le morceau qui contient 'offset' si le résultat tient dans un morceau.
+	 */
+	private static boolean insertInLeaf(Node node, int offset, String text) {
+		if (node == null) {
+			return false;
+		}
+		int leftLength = length(node.left);
+		boolean done;
+		if (offset < leftLength) {
+			done = insertInLeaf(node.left, offset, text);
+		} else if (offset <= leftLength + node.text.length()) {
+			done = node.text.length() + text.length() <= MAX_LEAF;
+			if (done) {
+				int cut = offset - leftLength;
+				setText(node, node.text.substring(0, cut) + text + node.text.substring(cut));
+			}
+		} else {
+			done = insertInLeaf(node.right, offset - leftLength - node.text.length(), text);
+		}
+		if (done) {
+			update(node);
+		}
+		return done;
+	}
+
+	/**
+	 * Supprime la plage dans le morceau qui la contient entièrement, si il n'est pas vidé.
+	 */
+	private static boolean deleteInLeaf(Node node, int offset, int count) {
+		if (node == null) {
+			return false;
+		}
+		int leftLength = length(node.left);
+		boolean done;
+		if (offset < leftLength) {
+			done = deleteInLeaf(node.left, offset, count);
+		} else if (offset < leftLength + node.text.length()) {
+			int cut = offset - leftLength;
+			done = cut + count < node.text.length() || (cut > 0 && cut + count == node.text.length());
+			if (done) {
+				setText(node, node.text.substring(0, cut) + node.text.substring(cut + count));
+			}
+		} else {
+			done = deleteInLeaf(node.right, offset - leftLength - node.text.length(), count);
+		}
+		if (done) {
+			update(node);
+		}
+		return done;
+	}
+
+	/**
+	 * Nombre de caractères qui ne sont pas des espaces parmi les 'count' premiers.
+	 */
+	private static int visibleBefore(Node node, int count) {
+		int result = 0;
+		Node n = node;
+		int remaining = count;
+		while (n != null && remaining > 0) {
+			int leftLength = length(n.left);
+			if (remaining <= leftLength) {
+				n = n.left;
+			} else {
+				result += visible(n.left);
+				remaining -= leftLength;
+				int own = Math.min(remaining, n.text.length());
+				result += visible(n.text, 0, own);
+				remaining -= own;
+				n = n.right;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Sépare l'arbre 'node' en deux : les 'count' premiers caractères et les autres.
+	 * Le morceau qui contient la coupe est divisé en deux morceaux.
+	 */
+	private static Node[] split(Node node, int count) {
+		if (node == null) {
+			return new Node[] {null, null};
+		}
+		int leftLength = length(node.left);
+		int own = node.text.length();
+		if (count <= leftLength) {
+			Node[] parts = split(node.left, count);
+			node.left = parts[1];
+			update(node);
+			parts[1] = node;
+			return parts;
+		}
+		if (count >= leftLength + own) {
+			Node[] parts = split(node.right, count - leftLength - own);
+			node.right = parts[0];
+			update(node);
+			parts[0] = node;
+			return parts;
+		}
+		int cut = count - leftLength;
+		Node tail = merge(new Node(node.text.substring(cut)), node.right);
+		setText(node, node.text.substring(0, cut));
+		node.right = null;
+		update(node);
+		return new Node[] {node, tail};
+	}
+
+	/**
+	 * Fusionne deux arbres, tous les caractères de 'left' précédant ceux de 'right'.
+	 */
+	private static Node merge(Node left, Node right) {
+		if (left == null) {
+			return right;
+		}
+		if (right == null) {
+			return left;
+		}
+		if (left.priority > right.priority) {
+			left.right = merge(left.right, right);
+			update(left);
+			return left;
+		}
+		right.left = merge(left, right.left);
+		update(right);
+		return right;
+	}
+
+	/**
+	 * Découpe 'text' en morceaux de {@link Rope#MAX_LEAF} caractères et construit l'arbre
+	 * en une passe avec une pile (construction d'un arbre cartésien).
+	 */
+	private static Node build(String text) {
+		Deque<Node> rightSpine = new ArrayDeque<>();
+		for (int start = 0; start < text.length(); start += MAX_LEAF) {
+			Node node = new Node(text.substring(start, Math.min(text.length(), start + MAX_LEAF)));
+			Node last = null;
+			while (!rightSpine.isEmpty() && rightSpine.peek().priority < node.priority) {
+				last = rightSpine.pop();
+				update(last);
+			}
+			node.left = last;
+			update(node);
+			if (!rightSpine.isEmpty()) {
+				rightSpine.peek().right = node;
+			}
+			rightSpine.push(node);
+		}
+		Node root = null;
+		while (!rightSpine.isEmpty()) {
+			root = rightSpine.pop();
+			update(root);
+		}
+		return root;
+	}
+
+	/**
+	 * Remplace le morceau d'un noeud, seul ce morceau est parcouru pour compter ses espaces.
+	 */
+	private static void setText(Node node, String text) {
+		node.text = text;
+		node.textVisible = visible(text, 0, text.length());
+		update(node);
+	}
+
+	private static void update(Node node) {
+		node.length = node.text.length() + length(node.left) + length(node.right);
+		node.visible = node.textVisible + visible(node.left) + visible(node.right);
+		node.leaves = 1 + leaves(node.left) + leaves(node.right);
+	}
+
+	private static int visible(String text, int from, int to) {
+		int count = 0;
+		for (int i = from; i < to; i++) {
+			if (!Character.isWhitespace(text.charAt(i))) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Ajoute à 'builder' les caractères [from, to[ du sous-arbre 'node' (positions relatives
+	 * au sous-arbre), seuls les noeuds qui chevauchent la plage sont visités.
+	 */
+	private static void append(Node node, int from, int to, StringBuilder builder) {
+		if (node == null || from >= to) {
+			return;
+		}
+		int leftLength = length(node.left);
+		int textEnd = leftLength + node.text.length();
+		if (from < leftLength) {
+			append(node.left, from, Math.min(to, leftLength), builder);
+		}
+		if (from < textEnd && to > leftLength) {
+			builder.append(node.text, Math.max(from, leftLength) - leftLength, Math.min(to, textEnd) - leftLength);
+		}
+		if (to > textEnd) {
+			append(node.right, Math.max(from, textEnd) - textEnd, to - textEnd, builder);
+		}
+	}
+
+	private static int length(Node node) {
+		return (node == null) ? 0 : node.length;
+	}
+
+	private static int visible(Node node) {
+		return (node == null) ? 0 : node.visible;
+	}
+
+	private static int leaves(Node node) {
+		return (node == null) ? 0 : node.leaves;
+	}
+}
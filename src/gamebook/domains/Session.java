@@ -1,40 +1,42 @@
 /**
  * File name    : Session.java
  *
- * Description  : Classe permetant de grer l'historique des pages du livre
- * 				  qui ont t parcourue, de reset la lecture...
+ * Description  : Classe permetant de gérer l'historique des pages du livre
+ * 				  qui ont été parcourue, de reset la lecture...
  *
- * Version      : 1.1
+ * Version      : 1.2
  * Since        : 1.0
- * Date         : 04/05/2021
+ * Date         : 18/10/2026
  *
- * Author       : Jrmi Nihart <j.nihart@student.helmo.be>
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
  * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
  */
 package gamebook.domains;
 
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Session
  *
- * Permet d'attribuer un livre  une session de lecture.
+ * Permet d'attribuer un livre à une session de lecture.
  * 
  * <hr>
  * 
- * <h2>L'interface utilise : Deque</h2>
+ * <h2>L'interface utilisée : Deque</h2>
  * <p>J'utilise une Deque comme interface car elle permet de construire une liste
- * linaire (une queue), et le parcours des paragraphes d'un livre en est trs similaire.</p>
+ * linéaire (une queue), et le parcours des paragraphes d'un livre en est très similaire.</p>
  * 
- * <h2>L'implmentation utilise : LinkedList</h2>
- * <p>J'utilise une LinkedList comme implmentation car la LinkedList connait sont
- * lment prcdent et suivant (si disponible). Il m'ai utile de rcuprer le
- * premire lment pour dfinir le paragraphe en cours de lecture ainsi que
- * pour la fonctionnalite de retour en arrire.</p>
+ * <h2>L'implémentation utilisée : LinkedList</h2>
+ * <p>J'utilise une LinkedList comme implémentation car la LinkedList connait sont
+ * élément précédent et suivant (si disponible). Il m'ai utile de récupérer le
+ * première élément pour définir le paragraphe en cours de lecture ainsi que
+ * pour la fonctionnalitée de retour en arrière.</p>
  * 
- * Pincipales oprations :
+ * Pincipales opérations :
  * <ul>
  * 	<li>size() :       	<u>CTT:</u> <b>O(1)</b></li>
  *  <li>removeLast() : 	<u>CTT:</u> <b>O(1)</b></li>
@@ -43,76 +45,161 @@ import java.util.List;
  *  <li>getLast() : 	<u>CTT:</u> <b>O(1)</b></li>
  * </ul>
  * 
- * <h2>Complmentaire :</h2>
- * <p>La LinkedList est constitue d'objets {@link Paragraph}.
- * On a principalement besoin de travailler avec son dernier lment et celui
- * le prcdent pour aller en avant et en arrire dans la lecture. Ainsi que le
- * premier pour la fonction de rinitialisation de l'objet courant ({@link Session}).
+ * <h2>Complémentaire :</h2>
+ * <p>La LinkedList est constituée d'objets {@link Paragraph}.
+ * On a principalement besoin de travailler avec son dernier élément et celui
+ * le précédent pour aller en avant et en arrière dans la lecture. Ainsi que le
+ * premier pour la fonction de réinitialisation de l'objet courant ({@link Session}).
  * Certains paragraphes peuvent apparaitre plusieurs fois dans la LinkedList.</p>
  *
- * <p>La {@link Session} doit avoir perptuellement un paragraphe dans son historique,
- * le paragraphe un et ne doit pas permettre qu'aucun paragraphe ne soit dfini en tant
+ * <p>La {@link Session} doit avoir perpétuellement un paragraphe dans son historique,
+ * le paragraphe un et ne doit pas permettre qu'aucun paragraphe ne soit défini en tant
  * que paragraphe courant.</p>
+ * 
+ * <h2>Lecture d'un livre publié :</h2>
+ * <p>Une session créée par {@link Session#forPublished(GameBookGraph)} n'utilise pas la
+ * LinkedList : son historique est un tableau d'ID de paragraphes (dont la taille double
+ * lorsqu'il est plein) et elle lit directement le livre par son interface {@link GameBookGraph}
+ * ({@link PublishedGameBook}, {@link OffHeapGameBook} ou {@link ChapteredGameBook}).</p>
  * <hr>
  *
  * @version     1.0
  *
  * @see         GameBook
  * @see			Paragraph
- * @author      Jrmi Nihart
+ * @author      Jérémi Nihart
  */
 public class Session {
+	// Constante(s)
+	private static final int HISTORY_LIST = 32;  // LinkedList.
+	private static final int HISTORY_NODE = 24;  // Noeud de la LinkedList.
+
 	// Variables Objet
 	private final GameBook book;
 	private Paragraph currentParagraph;  // paragraphe courant
 	private final Deque<Paragraph> history = new LinkedList<>();
+	private final GameBookGraph published;
+	private int[] trail;  // Historique des ID pour un livre publié.
+	private int trailSize;
 	
 	/** 
 	 * Constructeur
 	 *
-	 * @param		book Objet du livre  lire, parcourire,
+	 * @param		book Objet du livre à lire, parcourire,
 	 * 					 dont il faut versionifier la lecture.
 	 *
 	 * @since       1.0
 	 *
 	 * @see 		GameBook
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public Session(GameBook book) {
 		this.book = (book != null) ? book : new GameBook(null, null);
+		this.published = null;
 		reset();
 	}
 	
 	/** 
-	 * Getter, permettant de rcuprer l'objet livre de la session.
+	 * Constructeur d'une session de lecture d'un livre publié.
+	 *
+	 * @param		published Livre publié à lire.
+	 *
+	 * @since       1.2
+	 *
+	 * @see 		Session#forPublished(GameBookGraph)
+	 * @author      Jérémi Nihart
+	 */
+	private Session(GameBookGraph published) {
+		this.book = null;
+		this.published = published;
+		this.trail = new int[16];
+		reset();
+	}
+	
+	/** 
+	 * Permet de créer une session de lecture d'un livre publié ({@link GameBook#freeze()}).
+	 * 
+	 * <hr>
+	 * 
+	 * <p>La session lit alors directement le livre par ID ({@link PublishedGameBook},
+	 *    {@link OffHeapGameBook} ou {@link ChapteredGameBook}) et son historique est un tableau d'ID de paragraphes : un choix
+	 *    coûte une recherche parmi les choix du paragraphe courant et ne crée aucun objet (hors
+	 *    agrandissement de l'historique, amorti).</p>
+	 * <p>Dans ce mode {@link Session#getBook()} et {@link Session#getCurrentParagraph()} retournent
+	 *    null (il n'y a pas d'objet {@link Paragraph}), {@link Session#getCurrentParagraphId()}
+	 *    donne le paragraphe courant et {@link Session#goTo(Paragraph)} ne fait rien.</p>
+	 * <hr>
+	 *
+	 * @return		Une nouvelle session positionnée sur le premier paragraphe.
+	 * @param		published Livre publié à lire, non null.
+	 *
+	 * @since       1.2
+	 *
+	 * @see 		GameBookGraph
+	 * @author      Jérémi Nihart
+	 */
+	public static Session forPublished(GameBookGraph published) {
+		return new Session(Objects.requireNonNull(published));
+	}
+	
+	/** 
+	 * Getter, permettant de récupérer le livre publié lu par la session.
+	 *
+	 * @return      Le livre publié, null si la session lit un {@link GameBook}.
+	 *
+	 * @since       1.2
+	 *
+	 * @see			Session#forPublished(GameBookGraph)
+	 * @author      Jérémi Nihart
+	 */
+	public GameBookGraph getPublishedBook() {
+		return published;
+	}
+	
+	/** 
+	 * Getter, permettant de récupérer l'ID du paragraphe en cours de lecture.<br>
+	 * <u>CTT : O(1)</u> pour un livre publié, <b>O(log n)</b> sinon.
 	 *
-	 * @return      Objet livre {@link GameBook}.
+	 * @return      L'ID du paragraphe courant.
+	 *
+	 * @since       1.2
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	public int getCurrentParagraphId() {
+		return (published != null) ? current() : book.getParagraphIdByObject(currentParagraph);
+	}
+	
+	/** 
+	 * Getter, permettant de récupérer l'objet livre de la session.
+	 *
+	 * @return      Objet livre {@link GameBook}, null pour un livre publié.
 	 *
 	 * @since       1.0
 	 *
 	 * @see			GameBook
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public GameBook getBook() {
 		return book;
 	}
 	
 	/** 
-	 * Getter, permettant de rcuprer le paragraphe en cours de lecture.
+	 * Getter, permettant de récupérer le paragraphe en cours de lecture.
 	 *
 	 * @return      Objet paragraphe {@link Paragraph}.
 	 *
 	 * @since       1.0
 	 *
 	 * @see			Paragraph
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public Paragraph getCurrentParagraph() {
 		return currentParagraph;
 	}
 	
 	/** 
-	 * Getter, permettant de rcuprer le head (titre) du paragraphe courrant.<br>
+	 * Getter, permettant de récupérer le head (titre) du paragraphe courrant.<br>
 	 * (fait appelle au livre jeu)
 	 *
 	 * @return      Le head (titre) du paragraphe courrant.
@@ -120,14 +207,17 @@ public class Session {
 	 * @since       1.0
 	 *
 	 * @see			GameBook#getParagraphHead(Paragraph)
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public String getCurrentHead() {
+		if (published != null) {
+			return published.getHead(current());
+		}
 		return book.getParagraphHead(currentParagraph);
 	}
 	
 	/** 
-	 * Getter, permettant de rcuprer le contenu du paragraphe courrant.<br>
+	 * Getter, permettant de récupérer le contenu du paragraphe courrant.<br>
 	 * (fait appelle au paragraphe en cours de lecture)
 	 *
 	 *
@@ -136,15 +226,18 @@ public class Session {
 	 * @since       1.0
 	 *
 	 * @see			Paragraph#getContent()
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public String getCurrentContent() {
+		if (published != null) {
+			return published.getContent(current());
+		}
 		return currentParagraph.getContent();
 	}
 	
 	/** 
-	 * Getter, permettant de rcuprer un boolean indiquant si
-	 * le paragraphe courrant  des choix disponibles.<br>
+	 * Getter, permettant de récupérer un boolean indiquant si
+	 * le paragraphe courrant à des choix disponibles.<br>
 	 * (fait appelle au paragraphe en cours de lecture)
 	 *
 	 *
@@ -154,14 +247,17 @@ public class Session {
 	 * @since       1.0
 	 *
 	 * @see			Paragraph#hasChoice()
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public boolean isCurrentHasChoice() {
+		if (published != null) {
+			return published.getChoiceCount(current()) > 0;
+		}
 		return currentParagraph.hasChoice();
 	}
 	
 	/** 
-	 * Getter, permettant de rcuprer les choix disponibles pour le
+	 * Getter, permettant de récupérer les choix disponibles pour le
 	 * paragraphe courrant sous forme de List.<br>
 	 * (fait appelle au paragraphe en cours de lecture)
 	 *
@@ -171,44 +267,51 @@ public class Session {
 	 * @since       1.0
 	 *
 	 * @see			Paragraph#getChoices()
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public List<String> getCurrentChoices() {
+		if (published != null) {
+			return published.getChoices(current());
+		}
 		return currentParagraph.getChoices();
 	}
 	
 	/** 
-	 * Retourner en arrire dans l'historique de lecture de la Session.<br>
+	 * Retourner en arrière dans l'historique de lecture de la Session.<br>
 	 * <u>CTT : O(1)</u>
 	 * <hr>
 	 * Postconditions :
-	 * <p>Pour qu'un retour en arrire soit valid et excut par
+	 * <p>Pour qu'un retour en arrière soit validé et exécuté par
 	 * cette fonction il faut que le nombre de paragraphe dans l'historique soit
-	 * plus grand qu'un. En effet la session doit perptuellement
-	 * avoir le paragraphe de dpart dans son historique.</p>
+	 * plus grand qu'un. En effet la session doit perpétuellement
+	 * avoir le paragraphe de départ dans son historique.</p>
 	 * Questions :
 	 * <p>Si l'on retire le dernier paragraphe lu <code>1X</code>, le paragraphe
-	 * prcdent celui retir devient le nouveau paragraphe courant. Si aucun
-	 * paragraphe ne prcde celui  retirer le retrait est annul.</p>
+	 * précédent celui retiré devient le nouveau paragraphe courant. Si aucun
+	 * paragraphe ne précède celui à retirer le retrait est annulé.</p>
 	 * <p>Si l'on retire le dernier paragraphe lu <code>nX</code>, le nouveau paragraphe
-	 * courant devient le numro (<code>nombre de paragraphes - n</code>) dans l'historique.
-	 * Si <code>n</code> est gale ou plus grand que <code>nombre paragraphes</code>
-	 * le retrait est annul.</p>
+	 * courant devient le numéro (<code>nombre de paragraphes - n</code>) dans l'historique.
+	 * Si <code>n</code> est égale ou plus grand que <code>nombre paragraphes</code>
+	 * le retrait est annulé.</p>
 	 * <hr>
 	 *
 	 * @since       1.0
 	 *
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public void goBack() {
-		if (history.size() > 1) {
+		if (published != null) {
+			if (trailSize > 1) {
+				trailSize--;
+			}
+		} else if (history.size() > 1) {
 			history.removeLast();
 			updateCurrent();
 		}
 	}
 	
 	/** 
-	 * Ce rendre  un paragraphe particuli.<br>
+	 * Ce rendre à un paragraphe particulié.<br>
 	 * <u>CTT : O(1)</u>
 	 *
 	 * @param		paragraph Objet paragraph auquel continuer la lecture.
@@ -216,52 +319,136 @@ public class Session {
 	 * @since       1.0
 	 *
 	 * @see			Paragraph
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public void goTo(Paragraph paragraph) {
-		history.add(paragraph);
-		updateCurrent();
+		if (published == null) {
+			history.add(paragraph);
+			updateCurrent();
+		}
 	}
 	
 	/** 
-	 * Ce rendre  un paragraphe particuli depuis 
-	 * une cl 'key' d'un choix du paragraph courant.
+	 * Ce rendre à un paragraphe particulié depuis 
+	 * une clé 'key' d'un choix du paragraph courant.
 	 *
-	 * @param		key Cl du choix  utiliser pour ce rendre au paragraphe suivant.
+	 * @param		key Clé du choix à utiliser pour ce rendre au paragraphe suivant.
 	 *
 	 * @since       1.0
 	 *
 	 * @see 		Paragraph#getParagraphByChoiceKey(String)
 	 * @see 		Session#goTo(Paragraph)
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public void goToParagraphByChoiceKey(String key) {
-		goTo(currentParagraph.getParagraphByChoiceKey(key));
+		if (published != null) {
+			int target = published.getTarget(current(), key);
+			if (target >= 0) {
+				push(target);
+			}
+		} else {
+			goTo(currentParagraph.getParagraphByChoiceKey(key));
+		}
 	}
 	
 	/** 
-	 * Rinitialiser l'objet courant session ainsi que la lecture.<br>
-	 * <u>CTT : O(n)</u> car la fonction hrit <code>Collection.clear()</code> boucle sur ces lments pour les nuller.
+	 * Réinitialiser l'objet courant session ainsi que la lecture.<br>
+	 * <u>CTT : O(n)</u> car la fonction hérité <code>Collection.clear()</code> boucle sur ces éléments pour les nuller.
 	 *
 	 * @since       1.0
 	 *
 	 * @see			Session#goTo(Paragraph)
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	public void reset() {
-		history.clear();
-		goTo(book.getParagraphByID(0));
+		if (published != null) {
+			trailSize = 0;
+			push(0);
+		} else {
+			history.clear();
+			goTo(book.getParagraphByID(0));
+		}
 	}
 	
 	/** 
-	 * Mise  jour du paragraph courant.<br>
+	 * Getter, permettant de récupérer l'estimation des octets retenus par la session : ceux
+	 * du livre lu ({@link GameBook#getMemoryFootprint()} ou {@link GameBookGraph#getMemoryFootprint()})
+	 * et ceux de l'historique de lecture (liste de paragraphes ou tableau d'ID).<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Le relevé de la mémoire retenue par le livre et l'historique.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			MemoryFootprint
+	 * @author      Jérémi Nihart
+	 */
+	public MemoryFootprint getMemoryFootprint() {
+		if (published != null) {
+			return published.getMemoryFootprint().withHistory(MemoryFootprint.array(trail.length, Integer.BYTES));
+		}
+		return book.getMemoryFootprint().withHistory(HISTORY_LIST + (long) history.size() * HISTORY_NODE);
+	}
+	
+	/** 
+	 * Permet de garder la lecture en cours après une suppression de paragraphes (par exemple
+	 * {@link GameBook#compact()}) au lieu de la recommencer : l'historique est coupé avant le
+	 * premier paragraphe qui n'est plus dans le livre, le dernier paragraphe conservé devient le
+	 * paragraphe courant. Un livre publié ne change pas, la méthode ne fait alors rien.<br>
+	 * <u>CTT : O(h)</u> ou 'h' est la taille de l'historique.
+	 *
+	 * @return		True si l'historique a été coupé.
+	 *
+	 * @since       1.3
+	 *
+	 * @see			Session#reset()
+	 * @author      Jérémi Nihart
+	 */
+	public boolean dropRemovedParagraphs() {
+		if (published != null) {
+			return false;
+		}
+		int kept = 0;
+		for (Paragraph paragraph : history) {
+			if (book.getParagraphByPermanentId(paragraph.getPermanentId()) != paragraph) {
+				break;
+			}
+			kept++;
+		}
+		if (kept == history.size()) {
+			return false;
+		}
+		if (kept == 0) {
+			reset();
+		} else {
+			while (history.size() > kept) {
+				history.removeLast();
+			}
+			updateCurrent();
+		}
+		return true;
+	}
+	
+	/** 
+	 * Mise à jour du paragraph courant.<br>
 	 * <u>CTT : O(1)</u>
 	 *
 	 * @since       1.0
 	 *
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	private void updateCurrent() {
 		currentParagraph = history.getLast();
 	}
-}
+	
+	private int current() {
+		return trail[trailSize - 1];
+	}
+	
+	private void push(int paragraph) {
+		if (trailSize == trail.length) {
+			trail = Arrays.copyOf(trail, trailSize * 2);
+		}
+		trail[trailSize++] = paragraph;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,338 @@
+/**
+ * File name    : TextArena.java
+ *
+ * Description  : Stockage en UTF-8 du contenu des paragraphes d'un livre.
+ *
+ * Version      : 1.0
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * TextArena
+ *
+ * Zone mémoire partagée par les paragraphes d'un livre dans laquelle leur contenu
+ * est rangé sous forme d'octets UTF-8, sans objet String par paragraphe. Un contenu
+ * est désigné par une référence (bloc et position dans le bloc) et sa longueur en octets.
+ *
+ * <hr>
+ *
+ * <h2>La structure utilisée : blocs d'octets en ajout seul</h2>
+ * <p>Les contenus sont ajoutés les uns à la suite des autres dans des blocs de
+ * {@link TextArena#CHUNK_SIZE} octets, un contenu plus grand qu'un quart de bloc reçoit
+ * son propre bloc de la taille exacte. Un contenu n'est jamais modifié sur place : une
+ * modification ajoute le nouveau contenu et libère l'ancien. Le nombre d'octets encore
+ * utilisés de chaque bloc est compté, un bloc qui n'est plus utilisé est rendu au GC.</p>
+ *
+ * <h2>Compactage</h2>
+ * <p>Lorsque les octets libérés dépassent les octets utilisés (et au moins quatre blocs), les
+ * contenus de tous les paragraphes du livre sont recopiés dans de nouveaux blocs. Le coût de
+ * cette recopie est proportionnel aux octets utilisés, qui sont au plus égaux aux octets libérés
+ * depuis le compactage précédent : il reste donc en <b>O(1)</b> amorti par octet écrit.</p>
+ *
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>store() :       <u>CTT:</u> <b>O(m)</b> ou 'm' est la taille du contenu</li>
+ * 	<li>load() :        <u>CTT:</u> <b>O(m)</b></li>
+ * 	<li>slice() :       <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>release() :     <u>CTT:</u> <b>O(1)</b> amorti</li>
+ * </ul>
+ *
+ * <h2>Complémentaire :</h2>
+ * <p><b><u>Invariant:</u></b> Tous les paragraphes qui utilisent la zone figurent dans le
+ * livre qui la possède.</p>
+ * <hr>
+ *
+ * @version     1.0
+ *
+ * @see         Paragraph#getContent()
+ * @author      Jérémi Nihart
+ */
+final class TextArena {
+	// Constante(s)
+	static final int CHUNK_SIZE = 1 << 16;
+
+	private static final int LARGE_TEXT = CHUNK_SIZE / 4;
+	private static final int COMPACT_MIN_WASTE = 4 * CHUNK_SIZE;
+
+	// Variables Objet
+	private final Iterable<Paragraph> book;
+	private List<byte[]> chunks = new ArrayList<>();
+	private int[] live = new int[8];
+	private final Deque<Integer> freeSlots = new ArrayDeque<>();
+	private int current = -1;
+	private int position = CHUNK_SIZE;
+	private long liveBytes;
+	private long wastedBytes;
+	private List<byte[]> relocating;
+
+	/**
+	 * Constructeur
+	 *
+	 * @param		book Paragraphes du livre qui possède la zone (parcourus lors d'un compactage).
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	TextArena(Iterable<Paragraph> book) {
+		this.book = book;
+	}
+
+	/**
+	 * Permet de ranger dans la zone un contenu déjà encodé en UTF-8.<br>
+	 * <u>CTT : O(m)</u> ou 'm' est la taille du contenu.
+	 *
+	 * @return		La référence du contenu, sa longueur est celle de 'bytes'.
+	 * @param		bytes Contenu encodé en UTF-8.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	long store(byte[] bytes) {
+		return append(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Permet d'encoder un contenu avant de le ranger via {@link TextArena#store(byte[])}.<br>
+	 * <u>CTT : O(m)</u>
+	 *
+	 * @return		Le contenu encodé en UTF-8.
+	 * @param		text Contenu à encoder.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	static byte[] encode(String text) {
+		return text.getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Permet de décoder un contenu rangé dans la zone.<br>
+	 * <u>CTT : O(m)</u> ou 'm' est la taille du contenu.
+	 *
+	 * @return		Une nouvelle String du contenu.
+	 * @param		ref Référence du contenu.
+	 * @param		length Longueur du contenu en octets.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	String load(long ref, int length) {
+		return new String(chunks.get(chunkOf(ref)), offsetOf(ref), length, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Permet de désigner un contenu rangé dans la zone sans le décoder : la tranche obtenue garde
+	 * le bloc qui contient le contenu et reste valide après une modification du paragraphe ou un
+	 * compactage, puisqu'un bloc n'est jamais réécrit (voir {@link TextArena.Slice}).<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Une tranche du contenu.
+	 * @param		ref Référence du contenu.
+	 * @param		length Longueur du contenu en octets.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			PublishedGameBook#getContent(int)
+	 * @author      Jérémi Nihart
+	 */
+	Slice slice(long ref, int length) {
+		return new Slice(chunks.get(chunkOf(ref)), offsetOf(ref), length);
+	}
+
+	/**
+	 * Signale que le contenu 'ref' n'est plus utilisé, le bloc qui le contient est rendu
+	 * au GC si plus aucun contenu ne l'utilise. Peut déclencher un compactage.<br>
+	 * <u>CTT : O(1)</u> amorti.
+	 *
+	 * @param		ref Référence du contenu.
+	 * @param		length Longueur du contenu en octets.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	void release(long ref, int length) {
+		int chunk = chunkOf(ref);
+		live[chunk] -= length;
+		liveBytes -= length;
+		wastedBytes += length;
+		if (live[chunk] == 0 && chunk != current) {
+			wastedBytes -= chunks.get(chunk).length;
+			chunks.set(chunk, null);
+			freeSlots.push(chunk);
+		}
+		if (wastedBytes > liveBytes && wastedBytes > COMPACT_MIN_WASTE) {
+			compact();
+		}
+	}
+
+	/**
+	 * Recopie un contenu de l'ancien jeu de blocs vers le nouveau pendant un compactage.<br>
+	 * <u>CTT : O(m)</u>
+	 *
+	 * @return		La nouvelle référence du contenu.
+	 * @param		ref Référence du contenu avant compactage.
+	 * @param		length Longueur du contenu en octets.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	long relocate(long ref, int length) {
+		return append(relocating.get(chunkOf(ref)), offsetOf(ref), length);
+	}
+
+	/**
+	 * Getter, permettant de récupérer le nombre d'octets utilisés par des contenus.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre d'octets utilisés.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	long liveBytes() {
+		return liveBytes;
+	}
+
+	/**
+	 * Getter, permettant de récupérer le nombre d'octets alloués par les blocs.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		Nombre d'octets alloués.
+	 *
+	 * @since       1.0
+	 *
+	 * @author      Jérémi Nihart
+	 */
+	long allocatedBytes() {
+		return liveBytes + wastedBytes + ((current < 0) ? 0 : CHUNK_SIZE - position);
+	}
+
+	private void compact() {
+		relocating = chunks;
+		chunks = new ArrayList<>();
+		live = new int[8];
+		freeSlots.clear();
+		current = -1;
+		position = CHUNK_SIZE;
+		liveBytes = 0;
+		wastedBytes = 0;
+		for (Paragraph paragraph : book) {
+			paragraph.relocateContent(this);
+		}
+		relocating = null;
+	}
+
+	private long append(byte[] source, int offset, int length) {
+		int chunk;
+		int start;
+		if (length > LARGE_TEXT) {
+			chunk = newChunk(length);
+			start = 0;
+		} else {
+			if (CHUNK_SIZE - position < length) {
+				if (current >= 0) {
+					// La fin inutilisée du bloc courant ne sera jamais remplie.
+					wastedBytes += CHUNK_SIZE - position;
+					if (live[current] == 0) {
+						wastedBytes -= CHUNK_SIZE;
+						chunks.set(current, null);
+						freeSlots.push(current);
+					}
+				}
+				current = newChunk(CHUNK_SIZE);
+				position = 0;
+			}
+			chunk = current;
+			start = position;
+			position += length;
+		}
+		System.arraycopy(source, offset, chunks.get(chunk), start, length);
+		live[chunk] += length;
+		liveBytes += length;
+		return ((long) chunk << 32) | start;
+	}
+
+	private int newChunk(int size) {
+		byte[] bytes = new byte[size];
+		if (!freeSlots.isEmpty()) {
+			int slot = freeSlots.pop();
+			chunks.set(slot, bytes);
+			return slot;
+		}
+		chunks.add(bytes);
+		if (chunks.size() > live.length) {
+			live = Arrays.copyOf(live, live.length * 2);
+		}
+		return chunks.size() - 1;
+	}
+
+	private static int chunkOf(long ref) {
+		return (int) (ref >>> 32);
+	}
+
+	private static int offsetOf(long ref) {
+		return (int) ref;
+	}
+
+	/**
+	 * Slice
+	 *
+	 * Contenu figé désigné par son bloc, sa position et sa longueur. Les octets d'un bloc ne sont
+	 * jamais modifiés : un contenu modifié est ajouté ailleurs, un bloc libéré puis réutilisé
+	 * est un nouveau tableau et un compactage recopie dans de nouveaux blocs.
+	 *
+	 * @version     1.0
+	 *
+	 * @see			TextArena#slice(long, int)
+	 * @author      Jérémi Nihart
+	 */
+	static final class Slice {
+		// Constante(s)
+		static final long BYTES = MemoryFootprint.align(MemoryFootprint.HEADER + MemoryFootprint.REFERENCE + 2 * Integer.BYTES);
+
+		// Variables Objet
+		private final byte[] chunk;
+		private final int offset;
+		private final int length;
+
+		private Slice(byte[] chunk, int offset, int length) {
+			this.chunk = chunk;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		/**
+		 * Permet de décoder le contenu.<br>
+		 * <u>CTT : O(m)</u> ou 'm' est la taille du contenu.
+		 *
+		 * @return		Une nouvelle String du contenu.
+		 *
+		 * @since       1.0
+		 *
+		 * @author      Jérémi Nihart
+		 */
+		@Override
+		public String toString() {
+			return new String(chunk, offset, length, StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -0,0 +1,69 @@
+/**
+ * File name    : GameBookStatementCache.java
+ *
+ * Description  : Classe de base des relevés qui gardent le résultat de leur analyse.
+ *
+ * Version      : 1.0
+ * Since        : 1.3
+ * Date         : 18/10/2026
+ *
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
+ * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
+ */
+package gamebook.domains.statements;
+
+import gamebook.domains.GameBook;
+import gamebook.domains.GameBookStatement;
+
+/**
+ * GameBookStatementCache
+ *
+ * Classe de base d'un relevé qui garde les résultats de son analyse précédente : tant que le
+ * livre analysé n'a pas été modifié, {@link GameBookStatementCache#isParsed(GameBook)} indique
+ * que l'analyse peut être évitée.
+ *
+ * <hr>
+ *
+ * <p>Les relevés qui parcourent les objets {@link gamebook.domains.Paragraph} du livre héritent de
+ *    {@link GameBookStatementReader}, ceux qui parcourent le graphe compressé du livre
+ *    ({@link GameBook#getChainGraph()}) héritent directement de cette classe.</p>
+ *
+ * <hr>
+ *
+ * @version     1.0
+ *
+ * @see			GameBookStatement
+ * @see			GameBookStatementReader
+ * @author      Jérémi Nihart
+ */
+public abstract class GameBookStatementCache implements GameBookStatement {
+
+	private GameBook parsedBook;
+	private long parsedModifications;
+
+	/**
+	 * Indique si 'book' est le livre de l'analyse précédente et n'a pas été modifié depuis
+	 * (même nombre de modifications) : les résultats de l'analyse précédente sont alors toujours
+	 * valides. Sinon 'book' et son nombre de modifications sont retenus pour le prochain appel.
+	 * L'empreinte n'est pas utilisée : deux états différents peuvent avoir la même empreinte.<br>
+	 * <u>CTT : O(1)</u>
+	 *
+	 * @return		True si l'analyse de 'book' peut être évitée.
+	 * @param		book Objet du livre {@link GameBook} à analyser.
+	 *
+	 * @since       1.0
+	 *
+	 * @see			GameBook#getModificationCount()
+	 * @author      Jérémi Nihart
+	 */
+	protected boolean isParsed(GameBook book) {
+		long modifications = book.getModificationCount();
+		if (book == parsedBook && modifications == parsedModifications) {
+			return true;
+		}
+		parsedBook = book;
+		parsedModifications = modifications;
+		return false;
+	}
+
+}
@@ -1,23 +1,22 @@
 /**
  * File name    : GameBookStatementReader.java
  *
- * Description  : Classe grant le livre.
+ * Description  : Classe gérant le livre.
  *
- * Version      : 1.0
+ * Version      : 1.1
  * Since        : 1.2
  * Date         : 14/05/2021
  *
- * Author       : Jrmi Nihart <j.nihart@student.helmo.be>
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
  * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
  */
 package gamebook.domains.statements;
 
 import java.util.ArrayDeque;
-import java.util.ArrayList;
 import java.util.Deque;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 import gamebook.domains.GameBook;
 import gamebook.domains.GameBookStatement;
@@ -30,62 +29,87 @@ import gamebook.domains.Paragraph;
  * 
  * <hr>
  * 
- * <p>Complexit des collections disponibles dans {@link ShortestWayToTheEnd}
- *    et sa mthode de cration du plus court chemin.</p>
+ * <p>Une analyse qui parcourt plutôt le graphe compressé du livre ({@link GameBook#getChainGraph()}),
+ *    ou les couloirs de paragraphes à choix unique ne sont qu'un arc, n'hérite pas de cette classe
+ *    mais de {@link GameBookStatementCache} : c'est le cas de {@link ShortestWayToTheEnd} et
+ *    {@link TargetParagraphFrequency}.</p>
+ * 
+ * <hr>
+ * 
+ * <b>Collection stockant les paragraphes déjà visités:</b>
+ * 
+ * <h2>L'interface utilisée : Set</h2>
+ * <p>J'utilise un Set comme interface car j'ai besoin de stocker un ensemble de paragraphes
+ *    dans lequel chaque paragraphe est unique.</p>
+ * 
+ * <h2>L'implémentation utilisée : HashSet</h2>
+ * <p>J'utilise un HashSet comme implémentation car il permet d'offrir des performances optimales
+ *    pour les principales opérations dont j'ai besoin avec une CTT de <b>O(1)</b>. Je n'ai
+ *    nullement besoin de fonctionnalités particulières (comme par exemple trier mon set et
+ *    ou lier les éléments entre eux...) donc pour l'implémentation un simple HashSet est suffisant.</p>
+ * 
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>clear() :       <u>CTT:</u> <b>O(n)</b></li>
+ *  <li>add() :         <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>contains() :    <u>CTT:</u> <b>O(1)</b></li>
+ * </ul>
+ * 
+ * <hr>
+ * 
+ * <b>Collection stockant les paragraphes à visiter:</b>
+ * 
+ * <h2>L'interface utilisée : Deque</h2>
+ * <p>J'utilise une Deque comme interface car j'ai besoin de créer une file d'attente pour
+ *    le parcours des sous noeuds de mes noeuds.</p>
+ * 
+ * <h2>L'implémentation utilisée : ArrayDeque</h2>
+ * <p>J'utilise une ArrayDeque car elle me permet de récupérer son première élément et de
+ *    le supprimer en une fois de plus j'ai la possibilité d'ajouter des élément à sa fin.
+ *    Toutes ces opération sont réalisable avec un petite CTT qui est généralement de <b>
+ *    O(1)</b></p>
+ * 
+ * Pincipales opérations :
+ * <ul>
+ * 	<li>clear() :       <u>CTT:</u> <b>O(n)</b></li>
+ *  <li>add() :         <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>addLast() :     <u>CTT:</u> <b>O(1)</b></li>
+ *  <li>removeFirst() : <u>CTT:</u> <b>O(1)</b></li>
+ * </ul>
  * 
  * <hr>
  *
- * @version     1.0
+ * @version     1.1
  * 
  * @see			GameBookStatement
- * @author      Jrmi Nihart
+ * @see			GameBookStatementCache
+ * @author      Jérémi Nihart
  */
-public abstract class GameBookStatementReader implements GameBookStatement {
+public abstract class GameBookStatementReader extends GameBookStatementCache {
 	
 	private final Set<Paragraph> visited = new HashSet<>();
 	private final Deque<Paragraph> queue = new ArrayDeque<>();
+	private final BiConsumer<String, Paragraph> choiceVisitor = this::visitChoice;
 	
 	private Paragraph pCurrent;
 	
 	/** 
-	 * Rcupre une list des objet {@link Paragraph} des choix
-	 * d'un des paragraphes du livre {@link GameBook}.
-	 * 
-	 * @return 		Liste d'objet {@link Paragraph}.
-	 * @param		book Objet {@link Paragraph} dont on veut rcuprer
-	 * 					 les choix.
-	 *
-	 * @since       1.0
-	 * 
-	 * @see			Paragraph#getChoices()
-	 * @see			Paragraph#getParagraphByChoiceKey(String)
-	 * @author      Jrmi Nihart
-	 */
-	private  List<Paragraph> getChoices(Paragraph paragraph) {
-		List<Paragraph> choices = new ArrayList<>();
-		for (String key : paragraph.getChoices()) {
-			choices.add(paragraph.getParagraphByChoiceKey(key));
-		}
-		return choices;
-	}
-	
-	/** 
-	 * Initialise le livre dans un tat cohrent.
+	 * Initialise le livre dans un état cohérent.
 	 * 
 	 * @param		book Objet du livre {@link GameBook}.
 	 *
 	 * @since       1.0
 	 *
 	 * @see			GameBook#getParagraphByID(int)
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	private void ini(GameBook book) {
 		// Vider fil d'attente et ensemble.
 		visited.clear();
 		queue.clear();
-		// Rcupre premier paragraphe.
+		// Récupère premier paragraphe.
 		pCurrent = book.getParagraphByID(0);
-		// Initialiser la fil d'attente & l'ensemble dj visit.
+		// Initialiser la fil d'attente & l'ensemble déjà visité.
 		visited.add(pCurrent);
 		queue.add(pCurrent);
 		// Initialise la fille.
@@ -93,15 +117,15 @@ public abstract class GameBookStatementReader implements GameBookStatement {
 	}
 	
 	/** 
-	 * Dmarre l'exploration du livre.
+	 * Démarre l'exploration du livre.
 	 * 
 	 * <hr>
 	 * 
 	 * <p><u>Pire CTT : <b>O(n*m)</b></u> ou 'n' est le nombre de paragraphe qui est
-	 *    connect directement ou via dautre paragraphe au paragraphe 1. Et ou 'm' est
+	 *    connecté directement ou via d’autre paragraphe au paragraphe 1. Et ou 'm' est
 	 *    le nombre de choix du paragraphe courant.</p>
 	 * <p><u>Meilleur CTT : <b>O(1)</b></u> dans le cas ou il n'y a qu'un seul noeud
-	 *    ne possdent aucun sous noeud.</p>
+	 *    ne possédent aucun sous noeud.</p>
 	 * 
 	 * <hr>
 	 * 
@@ -110,59 +134,73 @@ public abstract class GameBookStatementReader implements GameBookStatement {
 	 * @since       1.0
 	 * 
 	 * @see			GameBookStatementReader#int()
-	 * @see			GameBookStatementReader#onNewNodeVisited(Paragraph, Paragraph)
-	 * @see			GameBookStatementReader#onNodeVisited(Paragraph)
-	 * @author      Jrmi Nihart
+	 * @see			GameBookStatementReader#visitChoice(String, Paragraph)
+	 * @see			Paragraph#forEachChoice(BiConsumer)
+	 * @author      Jérémi Nihart
 	 */
 	public void parseBook(GameBook book) {
 		ini(book);
 		do {
 			pCurrent = queue.removeFirst();
-			for (Paragraph pChoice : getChoices(pCurrent)) {
-				if (!visited.contains(pChoice)) {
-					visited.add(pChoice);
-					queue.addLast(pChoice);
-					onNewNodeVisited(pCurrent, pChoice);
-				}
-				onNodeVisited(pChoice);
-			}
+			pCurrent.forEachChoice(choiceVisitor);
 		} while (!queue.isEmpty());
 	}
 	
 	/** 
-	 * Mthode d'initialisation, est appel lorsque la classe mre
+	 * Visite un choix du paragraphe courant : le paragraphe ciblé est ajouté
+	 * à la fil d'attente s'il n'a pas encore été visité.
+	 * 
+	 * @param		key Clé du choix (non utilisée).
+	 * @param		pChoice Objet {@link Paragraph} ciblé par le choix.
+	 *
+	 * @since       1.0
+	 * 
+	 * @see			GameBookStatementReader#onNewNodeVisited(Paragraph, Paragraph)
+	 * @see			GameBookStatementReader#onNodeVisited(Paragraph)
+	 * @author      Jérémi Nihart
+	 */
+	private void visitChoice(String key, Paragraph pChoice) {
+		if (visited.add(pChoice)) {
+			queue.addLast(pChoice);
+			onNewNodeVisited(pCurrent, pChoice);
+		}
+		onNodeVisited(pChoice);
+	}
+	
+	/** 
+	 * Méthode d'initialisation, est appelé lorsque la classe mère
 	 * s'initialise en vu d'effectuer une exploration du livre.
 	 *
 	 * @since       1.0
 	 *
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	protected abstract void iniDaughter();
 	
 	/** 
-	 * Mthode d'vnement, est appel lorsqu'un nouveau noeud du livre
-	 * est visit et que celui-ci n'avait pas encore t visit.
+	 * Méthode d'évènement, est appelé lorsqu'un nouveau noeud du livre
+	 * est visité et que celui-ci n'avait pas encore été visité.
 	 * 
-	 * @param 		previous Objet {@link Paragraph} : noeud du livre prcdent
-	 * 						 celle venant d'tre visit.
-	 * @param 		element Objet {@link Paragraph} : noeud du livre qui 
-	 * 						t visit.
+	 * @param 		previous Objet {@link Paragraph} : noeud du livre précédent
+	 * 						 celle venant d'être visité.
+	 * @param 		element Objet {@link Paragraph} : noeud du livre qui à
+	 * 						été visité.
 	 *
 	 * @since       1.0
 	 *
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	protected abstract void onNewNodeVisited(Paragraph previous, Paragraph element);
 	
 	/** 
-	 * Mthode d'vnement, est appel lorsqu'un noeud du livre est visit.
+	 * Méthode d'évènement, est appelé lorsqu'un noeud du livre est visité.
 	 * 
-	 * @param		element Objet {@link Paragraph} : noeud du livre qui 
-	 * 						t visit.
+	 * @param		element Objet {@link Paragraph} : noeud du livre qui à
+	 * 						été visité.
 	 *
 	 * @since       1.0
 	 *
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
 	protected abstract void onNodeVisited(Paragraph element);
 
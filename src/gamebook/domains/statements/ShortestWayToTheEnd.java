@@ -1,252 +1,198 @@
 /**
  * File name    : ShortestWayToTheEnd.java
  *
- * Description  : Cette class est une implmentation de controller.
+ * Description  : Cette class est une implémentation de controller.
  *
- * Version      : 1.0
+ * Version      : 1.1
  * Since        : 1.2
  * Date         : 13/05/2021
  *
- * Author       : Jrmi Nihart <j.nihart@student.helmo.be>
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
  * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
  */
 package gamebook.domains.statements;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
 
+import gamebook.domains.ChainGraph;
 import gamebook.domains.GameBook;
-import gamebook.domains.Paragraph;
+import gamebook.domains.GameBookGraph;
 
 /**
  * ShortestWayToTheEnd
  * 
  * Cette classe permet de trouver le chemin passant par le moins de
- * noeud (le plus cours), dmarrant du paragraphe numro un et
- * s'arretant au premier noeud terminal trouv.
+ * noeud (le plus cours), démarrant du paragraphe numéro un et
+ * s'arretant au premier noeud terminal trouvé.
  * 
  * <hr>
  * 
- * <p>Choix de collection du traitement disponible dans {@link ShortestWayToTheEnd#recursivityWayMaker}</p>
+ * <p>La recherche est faite sur le graphe compressé du livre ({@link GameBook#getChainGraph()}) :
+ *    un couloir de paragraphes à choix unique y est un seul arc dont la longueur est le nombre de
+ *    choix suivis. Les noeuds sont traités par distance croissante depuis le paragraphe un, puis
+ *    dans l'ordre où ils ont été atteints : sans couloir, c'est l'ordre d'un parcours en largeur.
+ *    Lorsque plusieurs chemins terminaux ont la même longueur, celui retourné est l'un des plus
+ *    courts. Le chemin est ensuite déplié en vrais numéros de paragraphe ({@link ChainGraph#expand(int)}).</p>
  * 
  * <hr>
  * 
- * <b>Collection stockant les diffrents noeuds parcourus jusqu' ce qu'un noeud terminal soit trouv:</b>
+ * <b>Collection stockant les noeuds à traiter par distance croissante:</b>
  * 
- * <h2>L'interface utilise : Map</h2>
- * <p>J'utilise une Map comme interface car j'ai besoin d'avoir un dictionaire cl valeur
- * ou ma cl serait un noeud (paragraph) et la valeur le noeud aillant prcd ma cl
- * (un autre paragraph qui comportait mon noeud cl dans ses choix).</p>
+ * <h2>L'interface utilisée : Queue</h2>
+ * <p>J'utilise une Queue comme interface car j'ai besoin d'une file d'attente dont je récupère
+ *    toujours le prochain noeud à traiter.</p>
  * 
- * <h2>L'implmentation utilise : HashMap</h2>
- * <p>J'ai implment une HashMap car dans mon cas chaque cl doit tre unique.
- * De plus avec cette implmentation les oprations on une petite CTT
- * (gnralement <b>O(1)</b>). Je n'ai pas non plus besoin d'avoir un ordre de tri
- * particuli dans ma map.</p>
+ * <h2>L'implémentation utilisée : PriorityQueue</h2>
+ * <p>J'utilise une PriorityQueue car les arcs n'ont pas tous la même longueur : le prochain noeud
+ *    est celui de plus petite distance. Chaque entrée code la distance et l'ordre d'ajout dans un
+ *    long, à distance égale le premier noeud atteint sort en premier.</p>
  * 
- * Pincipales oprations :
+ * Pincipales opérations :
  * <ul>
- * 	<li>put() :         <u>CTT:</u> <b>O(1)</b></li>
- *  <li>get() :         <u>CTT:</u> <b>O(1)</b></li>
- *  <li>clear() :       <u>CTT:</u> <b>O(n)</b></li>
- *  <li>replace() :     <u>CTT:</u> <b>O(1)</b></li>
+ * 	<li>add() :         <u>CTT:</u> <b>O(log E)</b></li>
+ *  <li>poll() :        <u>CTT:</u> <b>O(log E)</b></li>
  * </ul>
  * 
+ * <p>Les distances et l'arc par lequel chaque noeud est atteint sont gardés dans des tableaux
+ *    indexés par noeud, le chemin est reconstruit en remontant ces arcs depuis le noeud terminal
+ *    sans récursivité.</p>
+ * 
  * <hr>
  * 
- * <b>Collection stockant le rsultat final format:</b>
+ * <b>Collection stockant le résultat final formaté:</b>
  * 
- * <h2>L'interface utilise : List</h2>
+ * <h2>L'interface utilisée : List</h2>
  * <p>J'utilise une List comme interface car elle permet de construire une simple
- *    liste de String ordonne par index dans l'ordre croissant d'insertion.</p>
+ *    liste de String ordonnée par index dans l'ordre croissant d'insertion.</p>
  * 
- * <h2>L'implmentation utilise : ArrayList</h2>
- * <p>L'ArrayList est l'implmentation la plus couramment utilis lorsque l'on a
- *    besoin de stocker des lments pour ensuite les parcourir tout en gardant
- *    leur ordre d'insertion et le tout de manire fficase (Bonne CTT gnbrale).</p>
+ * <h2>L'implémentation utilisée : ArrayList</h2>
+ * <p>L'ArrayList est l'implémentation la plus couramment utilisé lorsque l'on a
+ *    besoin de stocker des éléments pour ensuite les parcourir tout en gardant
+ *    leur ordre d'insertion et le tout de manière éfficase (Bonne CTT génbérale).</p>
  *    
- * Pincipales oprations :
+ * Pincipales opérations :
  * <ul>
  * 	<li>add() :         <u>CTT:</u> <b>O(1)</b></li>
  *  <li>size() :        <u>CTT:</u> <b>O(1)</b></li>
  *  <li>clear() :       <u>CTT:</u> <b>O(n)</b></li>
  * </ul>
  *
- * @version     1.0
+ * @version     1.1
  * 
- * @see			GameBookStatementReader
- * @author      Jrmi Nihart
+ * @see			GameBookStatementCache
+ * @see			ChainGraph
+ * @author      Jérémi Nihart
  */
-public class ShortestWayToTheEnd extends GameBookStatementReader {
-	// Constantee prives
+public class ShortestWayToTheEnd extends GameBookStatementCache {
+	// Constantee privées
 	private static final String TITLE = "Chemin terminale le plus rapide";
-	private static final String DESCRIPTION = "Le livre '%s' traverse %d  pour atteindre le %d.";
-	private static final String RESULT_ANSWER = "Le %d : %s";
+	private static final String DESCRIPTION = "Le livre '%s' traverse %d § pour atteindre le %d.";
+	private static final String RESULT_ANSWER = "Le §%d : %s";
 	private static final String NO_RESULT_ANSWER = "Aucun resultat";
 	
 	// Variables Objet
-	private final Map<Paragraph, Paragraph> history = new HashMap<>();
 	private final List<String> result = new ArrayList<>();
 
 	private GameBook book;
-	private Paragraph terminal;
+	private int terminal = -1;
 	
 	/** 
-	 * tablit un ordre de lecture de manire rcursif en commencant
-	 * par le noeud terminal pour aller jusqu'au noeud de dpart.
-	 * 
-	 * <hr>
-	 * 
-	 * <b>Collection stockant les paragraphes dj visits ({@link GameBookStatementReader}):</b>
-	 * 
-	 * <h2>L'interface utilise : Set</h2>
-	 * <p>J'utilise un Set comme interface car j'ai besoin de stocker un ensemble de paragraphes
-	 *    dans lequel chaque paragraphe est unique.</p>
-	 * 
-	 * <h2>L'implmentation utilise : HashSet</h2>
-	 * <p>J'utilise un HashSet comme implmentation car il permet d'offrir des performances optimales
-	 *    pour les principales oprations dont j'ai besoin avec une CTT de <b>O(1)</b>. Je n'ai
-	 *    nullement besoin de fonctionnalits particulires (comme par exemple trier mon set et
-	 *    ou lier les lments entre eux...) donc pour l'implmentation un simple HashSet est suffisant.</p>
-	 * 
-	 * Pincipales oprations :
-	 * <ul>
-	 * 	<li>clear() :       <u>CTT:</u> <b>O(n)</b></li>
-	 *  <li>add() :         <u>CTT:</u> <b>O(1)</b></li>
-	 *  <li>contains() :    <u>CTT:</u> <b>O(1)</b></li>
-	 * </ul>
-	 * 
-	 * <hr>
-	 * 
-	 * <b>Collection stockant les paragraphes  visiter ({@link GameBookStatementReader}):</b>
-	 * 
-	 * <h2>L'interface utilise : Deque</h2>
-	 * <p>J'utilise une Deque comme interface car j'ai besoin de crer une file d'attente pour
-	 *    le parcours des sous noeuds de mes noeuds.</p>
-	 * 
-	 * <h2>L'implmentation utilise : ArrayDeque</h2>
-	 * <p>J'utilise une ArrayDeque car elle me permet de rcuprer son premire lment et de
-	 *    le supprimer en une fois de plus j'ai la possibilit d'ajouter des lment  sa fin.
-	 *    Toutes ces opration sont ralisable avec un petite CTT qui est gnralement de <b>
-	 *    O(1)</b></p>
-	 * 
-	 * Pincipales oprations :
-	 * <ul>
-	 * 	<li>clear() :       <u>CTT:</u> <b>O(n)</b></li>
-	 *  <li>add() :         <u>CTT:</u> <b>O(1)</b></li>
-	 *  <li>addLast() :     <u>CTT:</u> <b>O(1)</b></li>
-	 *  <li>removeFirst() : <u>CTT:</u> <b>O(1)</b></li>
-	 * </ul>
-	 * 
-	 * <hr>
-	 * 
-	 * <b>Collection stockant le chemin parcourus avant la cration du rsultat final:</b>
-	 * 
-	 * <h2>L'interface utilise : Deque</h2>
-	 * <p>J'utilise une Deque comme interface car j'ai besoin de crer une queue qui sera
-	 *    l'odre des noeuds  prendre pour arriver au noeud terminal le plus proche, de plus
-	 *    j'ai besoin d'ajouter des lments devant tous les autres car le chemin ce craie
-	 *    en partant du noeud terminal en utilisant la map de mapping {@link ShortestWayToTheEnd#history}.</p>
-	 * 
-	 * <h2>L'implmentation utilise : ArrayDeque</h2>
-	 * <p>J'implmente une ArrayDeque, car j'ai besoin d'un tableau dynamique sous forme de liste me permettant
-	 *    d'ajouter des lment en tte de queue sans pour autant devoir dcaler tout les autres lments. Je
-	 *    n'utilise pas de linkedlist car bnficier d'un jeu de nodes entre les lments de ma file d'attente
-	 *    m'est inutile.</p>
-	 * 
-	 * Pincipales oprations :
-	 * <ul>
-	 * 	<li>addFirst() :    <u>CTT:</u> <b>O(1)</b></li>
-	 * </ul>
-	 * 
-	 * <hr>
-	 * 
-	 * <h2>valuation de la CTT</h2>
-	 * <p>La CTT de {@link ShortestWayToTheEnd#recursivityWayMaker} est de <b>O(n)</b> ou 'n' est le nombre de
-	 *    fois qu'elle s'appel. Ce nombre dpend du nombre de noeud dans le map {@link ShortestWayToTheEnd#history}
-	 *    que le noeud 'paragraph' pass en argument traverse avant de tomber sur le noeud de dpart.
-	 *    Dans le cas ou cette mthode s'appelle elle-mme moins de 2 fois ca complexit est de <b>O(1)</b>.</p>
+	 * Cherche le noeud terminal le plus proche du paragraphe un dans le graphe compressé
+	 * (algorithme de Dijkstra, les longueurs des arcs sont les poids).
 	 * 
 	 * <hr>
+	 * <u>CTT : O((N+E) log E)</u> ou 'N' et 'E' sont les nombres de noeuds et d'arcs
+	 * du graphe compressé, la recherche s'arrête au premier noeud terminal traité.
 	 * 
-	 * @return 		Liste d'objet {@link Paragraph} du noeud final
-	 * 				      au noeud de dpart.
-	 * @param		way Liste vide ou contenant un morceau du chemin.
-	 * @param 		paragraph Objet {@link Paragraph} d'un noeud terminal
-	 * 					      ou d'un maillon pour lequel il faut reconstruire
-	 *                        son chemin jusqu'au noeud de dpart.
+	 * @return 		Tableau indexé par noeud de l'arc par lequel il a été atteint (-1 : aucun).
+	 * @param		graph Graphe compressé du livre.
 	 *
-	 * @since       1.0
+	 * @since       1.1
 	 * 
-	 * @see			ShortestWayToTheEnd#recursivityWayMaker(List, Paragraph)
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
-	private Deque<Paragraph> recursivityWayMaker(Deque<Paragraph> way, Paragraph paragraph) {
-		if (paragraph == null) {
-			return way;
+	private int[] searchTerminal(ChainGraph graph) {
+		GameBookGraph version = graph.getBook();
+		int[] distance = new int[graph.getNodeCount()];
+		int[] parent = new int[graph.getNodeCount()];
+		int[] added = new int[graph.getEdgeCount() + 1];  // Noeud de chaque entrée, par ordre d'ajout.
+		Arrays.fill(distance, Integer.MAX_VALUE);
+		Arrays.fill(parent, -1);
+		Queue<Long> queue = new PriorityQueue<>();
+		int count = 0;
+		distance[0] = 0;
+		added[count] = 0;
+		queue.add((long) count++);
+		while (!queue.isEmpty()) {
+			long entry = queue.poll();
+			int node = added[(int) entry];
+			if ((int) (entry >>> 32) > distance[node]) {
+				continue;  // Noeud déjà atteint par un chemin plus court.
+			}
+			if (node > 0 && version.getChoiceCount(graph.getParagraph(node)) == 0) {
+				terminal = graph.getParagraph(node);
+				break;
+			}
+			for (int e = graph.getFirstEdge(node); e < graph.getFirstEdge(node + 1); e++) {
+				int target = graph.getEdgeTarget(e);
+				int way = distance[node] + graph.getEdgeLength(e);
+				if (target >= 0 && way < distance[target]) {
+					distance[target] = way;
+					parent[target] = e;
+					added[count] = target;
+					queue.add(((long) way << 32) | count++);
+				}
+			}
 		}
-		way.addFirst(paragraph);
-		return recursivityWayMaker(way, history.get(paragraph));
+		return parent;
 	}
 	
 	/** 
-	 * Permet de formater un rsultat de la classe.
+	 * Permet de formater un résultat de la classe.
 	 * 
-	 * @return 		String format d'une rponse.
-	 * @param		p Objet {@link Paragraph}  utiliser pour le
-	 * 				  formatage du message.
+	 * @return 		String formaté d'une réponse.
+	 * @param		version Version publiée du livre à utiliser pour le
+	 * 				        contenu du paragraphe.
+	 * @param		paragraph ID du paragraphe à utiliser pour le
+	 * 				          formatage du message.
 	 *
 	 * @since       1.0
 	 * 
 	 * @see			ShortestWayToTheEnd#RESULT_ANSWER
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
-	private String formatResult(Paragraph p) {
-		return String.format(RESULT_ANSWER, book.getParagraphIdByObject(p)+1, p.getContent());
-	}
-	
-	@Override
-	protected void iniDaughter() {
-		history.clear();
-		result.clear();
-		terminal = null;
-		for (int i = 0; i < book.getSize(); i++) {
-			history.put(book.getParagraphByID(i), null);
-		}
-	}
-	
-	@Override
-	protected void onNewNodeVisited(Paragraph previous, Paragraph element) {
-		if (terminal == null) {
-			history.replace(element, previous);
-			if (!element.hasChoice()) {
-				terminal = element;
-			}
-		}
-	}
-	
-	@Override
-	protected void onNodeVisited(Paragraph element) {
-		return;
+	private String formatResult(GameBookGraph version, int paragraph) {
+		return String.format(RESULT_ANSWER, paragraph+1, version.getContent(paragraph));
 	}
 
 	@Override
 	public void parse(GameBook book) {
-		this.book = (book == null) ? new GameBook(null, null) : book;
-		super.parseBook(this.book);
-		
-		Deque<Paragraph> way = new ArrayDeque<>();
+		GameBook parsed = (book == null) ? new GameBook(null, null) : book;
+		if (isParsed(parsed)) {
+			return;
+		}
+		this.book = parsed;
+		result.clear();
+		terminal = -1;
 		
-		if (terminal == null) {
+		ChainGraph graph = parsed.getChainGraph();
+		int[] parent = searchTerminal(graph);
+		if (terminal < 0) {
 			result.add(NO_RESULT_ANSWER);
-		} else {
-			recursivityWayMaker(way, terminal);
-			for (Paragraph p : way) {
-				result.add(formatResult(p));
+			return;
+		}
+		List<Integer> edges = new ArrayList<>();
+		for (int node = graph.getNode(terminal); parent[node] >= 0; node = graph.getEdgeSource(parent[node])) {
+			edges.add(parent[node]);
+		}
+		result.add(formatResult(graph.getBook(), 0));
+		for (int i = edges.size() - 1; i >= 0; i--) {
+			for (int paragraph : graph.expand(edges.get(i))) {
+				result.add(formatResult(graph.getBook(), paragraph));
 			}
 		}
 	}
@@ -258,10 +204,10 @@ public class ShortestWayToTheEnd extends GameBookStatementReader {
 
 	@Override
 	public String getDescription() {
-		if (terminal == null) {
+		if (terminal < 0) {
 			return String.format(DESCRIPTION, book.getTitle(), 0, 0);
 		}
-		return String.format(DESCRIPTION, book.getTitle(), result.size(), book.getParagraphIdByObject(terminal)+1);
+		return String.format(DESCRIPTION, book.getTitle(), result.size(), terminal+1);
 	}
 
 	@Override
@@ -1,106 +1,104 @@
 /**
  * File name    : TargetParagraphFrequency.java
  *
- * Description  : Cette class est une implmentation de controller.
+ * Description  : Cette class est une implémentation de controller.
  *
- * Version      : 1.0
+ * Version      : 1.1
  * Since        : 1.2
  * Date         : 13/05/2021
  *
- * Author       : Jrmi Nihart <j.nihart@student.helmo.be>
+ * Author       : Jérémi Nihart <j.nihart@student.helmo.be>
  * Link 		: https://server.endmove.eu/~endmove/HELMo/2020_2021/AIit3
  */
 package gamebook.domains.statements;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
+import gamebook.domains.ChainGraph;
 import gamebook.domains.GameBook;
-import gamebook.domains.Paragraph;
+import gamebook.domains.GameBookGraph;
 
 /**
  * TargetParagraphFrequency
  * 
  * Cette classe permet de compter le nombre de fois qu'un paragraphe
- * revient dans les choix des noeuds, chaque noeud n'est explor qu'une
- * fois et l'exploration commence au paragraphe numro un.
+ * revient dans les choix des noeuds, chaque noeud n'est exploré qu'une
+ * fois et l'exploration commence au paragraphe numéro un.
  * 
  * <hr>
  * 
- * <p>La CTT de la cration du relev de base est de <b>O(n+m)</b> pour
- *    le cas moyen et <b>O(1)</b> pour le meilleur. (voir
- *    {@link GameBookStatementReader#parseBook(GameBook)}) pour plus
- *    d'information sur les variables de complexit 'n' et 'm'.<br>
- *    Contre cas : Dans le cas ou la CTT de <code>parseBook(GameBook)</code>
- *    est de 1 mais que le livre contien plus de 1 paragraphe cela signifie
- *    que la CTT applicable est de <b>O(n)</b> ou 'n' est le nombre de paragraphe
- *    dans le livre jeu.</p>
+ * <p>Le relevé est fait sur le graphe compressé du livre ({@link GameBook#getChainGraph()}) :
+ *    un couloir (paragraphe à un seul choix et un seul choix entrant) apparaît une fois si
+ *    l'arc qui le traverse part d'un noeud atteint, zéro fois sinon. Seuls les autres
+ *    paragraphes comptent les arcs qui y arrivent, le parcours ne visite donc pas les
+ *    couloirs un par un.</p>
+ * <p>La CTT de la création du relevé est de <b>O(n+N+E)</b> ou 'n' est le nombre de paragraphes
+ *    du livre (une ligne de résultat par paragraphe) et 'N' et 'E' les nombres de noeuds et
+ *    d'arcs du graphe compressé (voir {@link ChainGraph#reachable()}).</p>
  * 
  * <hr>
  *
- * @version     1.0
+ * @version     1.1
  * 
- * @see			GameBookStatementReader
- * @author      Jrmi Nihart
+ * @see			GameBookStatementCache
+ * @see			ChainGraph
+ * @author      Jérémi Nihart
  */
-public class TargetParagraphFrequency extends GameBookStatementReader {
-	// Constantee prives
+public class TargetParagraphFrequency extends GameBookStatementCache {
+	// Constantee privées
 	private static final String TITLE = "Nombre d'apparition des paragraphes dans les choix";
-	private static final String DESCRIPTION = "Relve pour le livre '%s' le nombre de fois que chaque  figure dans une destination.";
-	private static final String RESULT_ANSWER = "Le %d apparat (%dx) : %s";
+	private static final String DESCRIPTION = "Relève pour le livre '%s' le nombre de fois que chaque § figure dans une destination.";
+	private static final String RESULT_ANSWER = "Le §%d apparaît (%dx) : %s";
 	
 	// Variables Objet
-	private final Map<Paragraph, Integer> count = new HashMap<>();
 	private final List<String> result = new ArrayList<>();
 	
 	private GameBook book;
 	
 	/** 
-	 * Permet de formater un rsultat de la classe.
+	 * Permet de formater un résultat de la classe.
 	 * 
-	 * @return 		String format d'une rponse.
-	 * @param		p Objet {@link Paragraph}  utiliser pour le
-	 *   			  formatage du message.
-	 * @param 		index Numro du paragraphe dans le livre pour
+	 * @return 		String formaté d'une réponse.
+	 * @param		version Version publiée du livre à utiliser
+	 * 				        pour le contenu du paragraphe.
+	 * @param 		index Numéro du paragraphe dans le livre pour
 	 *   			      le formatage du message.
+	 * @param		count Nombre d'apparitions du paragraphe.
 	 *
 	 * @since       1.0
 	 * 
 	 * @see			TargetParagraphFrequency#RESULT_ANSWER
-	 * @author      Jrmi Nihart
+	 * @author      Jérémi Nihart
 	 */
-	private String formatResult(Paragraph p, int index) {
-		return String.format(RESULT_ANSWER, index+1, count.get(p), p.getContent());
-	}
-	
-	@Override
-	protected void iniDaughter() {
-		count.clear();
-		result.clear();
-		for (int i = 0; i < book.getSize(); i++) {
-			count.put(book.getParagraphByID(i), 0);
-		}
-	}
-	
-	@Override
-	protected void onNewNodeVisited(Paragraph previous, Paragraph element) {
-		return;
-	}
-	
-	@Override
-	protected void onNodeVisited(Paragraph element) {
-		count.replace(element, count.get(element)+1);
+	private String formatResult(GameBookGraph version, int index, int count) {
+		return String.format(RESULT_ANSWER, index+1, count, version.getContent(index));
 	}
 
 	@Override
 	public void parse(GameBook book) {
-		this.book = (book == null) ? new GameBook(null, null) : book;
-		super.parseBook(this.book);
+		GameBook parsed = (book == null) ? new GameBook(null, null) : book;
+		if (isParsed(parsed)) {
+			return;
+		}
+		this.book = parsed;
+		result.clear();
 		
-		for (int index = 0; index < this.book.getSize(); index++) {
-			result.add(formatResult(this.book.getParagraphByID(index), index));
+		ChainGraph graph = parsed.getChainGraph();
+		GameBookGraph version = graph.getBook();
+		boolean[] reached = graph.reachable();
+		int[] count = new int[version.getSize()];
+		for (int e = 0; e < graph.getEdgeCount(); e++) {
+			if (reached[graph.getEdgeSource(e)] && graph.getEdgeTarget(e) >= 0) {
+				count[graph.getParagraph(graph.getEdgeTarget(e))]++;
+			}
+		}
+		for (int p = 0; p < count.length; p++) {
+			int edge = graph.getEdge(p);
+			if (edge >= 0 && reached[graph.getEdgeSource(edge)]) {
+				count[p] = 1;
+			}
+			result.add(formatResult(version, p, count[p]));
 		}
 	}
 
@@ -3,10 +3,11 @@ package gamebook.supervisers;
 import gamebook.domains.BookEditedEventHandler;
 import gamebook.domains.GameBook;
 import gamebook.domains.GameBookStatement;
+import gamebook.domains.PublishedGameBook;
 
 /**
  * Traite les demandes issues d'une {@code CheckView}.
- *  cette fin, elle contrle d'autres objets parmi lesquels un livre-jeu.
+ * À cette fin, elle contrôle d'autres objets parmi lesquels un livre-jeu.
  */
 public class CheckSuperviser implements BookEditedEventHandler {
 	
@@ -14,9 +15,11 @@ public class CheckSuperviser implements BookEditedEventHandler {
 	private final GameBook book;
 	private final GameBookStatement swtte;
 	private final GameBookStatement tpf;
+	private PublishedGameBook published;
+	private GameBook publishedCopy;
 
 	/**
-	 * Construit une instance du superviser  l'aide d'un gamebook
+	 * Construit une instance du superviser à l'aide d'un gamebook
 	 * et de plusieurs {@code parsers}
 	 */
 	public CheckSuperviser(GameBook book, GameBookStatement swtte, GameBookStatement tpf) {
@@ -35,15 +38,15 @@ public class CheckSuperviser implements BookEditedEventHandler {
 	}
 	
 	/**
-	 * Permet d'ajouter un rsultat  la vue
+	 * Permet d'ajouter un résultat à la vue
 	 * 
 	 * @param 			GBStatement Un objet {@link GameBookStatement}
-	 * 								(exposition des mthodes de l'interface).
+	 * 								(exposition des méthodes de l'interface).
 	 * 
 	 * @see 			GameBookStatement#getTitle()
 	 * @see				GameBookStatement#getDescription()
 	 * @see				GameBookStatement#getResults()
-	 * @author			Jrmi Nihart
+	 * @author			Jérémi Nihart
 	 */
 	public void addViewResult(GameBookStatement GBStatement) {
 		this.view.startResultFor(GBStatement.getTitle());
@@ -55,19 +58,25 @@ public class CheckSuperviser implements BookEditedEventHandler {
 	}
 
 	/**
-	 * Met  jour la vue en lui donnant pour titre celui du livre
-	 * et en construisant les cadres de rsultat des analyses effectus.
+	 * Met à jour la vue en lui donnant pour titre celui du livre
+	 * et en construisant les cadres de résultat des analyses effectués.
+	 * Si le livre est partagé entre plusieurs threads, les analyses travaillent sur
+	 * une copie de sa version publiée courante ({@link GameBook#snapshot()}) et ne
+	 * voient donc jamais une modification à moitié appliquée.
+	 * Les analyses qui reçoivent le même livre inchangé (même empreinte, voir
+	 * {@link GameBook#getFingerprint()}) gardent leurs résultats précédents.
 	 */
 	public void onParse() {
-		// Vrifie que la vue est dj dfinie
+		// Vérifie que la vue est déjà définie
 		if (this.view == null) {
 			return;
 		}
-		// Excution des algorithmes
-		swtte.parse(book);
-		tpf.parse(book);
-		// Nettoyage de la vue et affichage des rsultats
-		this.view.setTitle(book.getTitle());
+		// Exécution des algorithmes
+		GameBook parsed = book.isConcurrent() ? snapshotCopy() : book;
+		swtte.parse(parsed);
+		tpf.parse(parsed);
+		// Nettoyage de la vue et affichage des résultats
+		this.view.setTitle(parsed.getTitle());
 		this.view.clearResult();
 		// -- TargetParagraphFrequency
 		addViewResult(tpf);
@@ -76,7 +85,20 @@ public class CheckSuperviser implements BookEditedEventHandler {
 	}
 	
 	/**
-	 * Mthode d'vnement, est appel lorsque le livre est modifi.
+	 * Retourne une copie de la version publiée courante du livre, la même tant que
+	 * le livre n'est pas modifié.
+	 */
+	private GameBook snapshotCopy() {
+		PublishedGameBook current = book.snapshot();
+		if (current != published) {
+			published = current;
+			publishedCopy = current.toGameBook();
+		}
+		return publishedCopy;
+	}
+	
+	/**
+	 * Méthode d'évènement, est appelé lorsque le livre est modifié.
 	 */
 	@Override
 	public void onBookEdited() {
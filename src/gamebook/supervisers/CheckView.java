@@ -1,38 +1,38 @@
 package gamebook.supervisers;
 
 /**
- * La vue de vrification permet  l'auteur d'analyser certains aspects de son livre
+ * La vue de vérification permet à l'auteur d'analyser certains aspects de son livre
  * */
 public interface CheckView {
 	/**
-	 * Mthode appele pour vider la vue des rsultats prcdents.
+	 * Méthode appelée pour vider la vue des résultats précédents.
 	 * */
 	void clearResult();
 
 	/**
-	 * Dfinit le titre  afficher.
+	 * Définit le titre à afficher.
 	 * */
 	void setTitle(String title);
 
 	/**
-	 * Dbute un nouveau cadre de rsultat pour l'analyse {@code analysisName}.
+	 * Débute un nouveau cadre de résultat pour l'analyse {@code analysisName}.
 	 * */
 	void startResultFor(String analysisName);
 	
 	/**
-	 * Dfinit la description du cadre de rsultat actuel  {@code description}.
+	 * Définit la description du cadre de résultat actuel à {@code description}.
 	 * */
 	void setDescription(String description);
 
 	/**
-	 * Ajoute un lment du rsultat d'analyse. Il peut s'agir du contenu
+	 * Ajoute un élément du résultat d'analyse. Il peut s'agir du contenu
 	 * d'un paragraphe par exemple.
 	 * */
 	void addResultItem(String content);
 
 	/**
-	 * Termine la construction du cadre de rsultat et l'affiche  l'utilisateur.
-	 * Si cette mthode n'est pas appele, le cadre de rsultat n'est pas affich.
+	 * Termine la construction du cadre de résultat et l'affiche à l'utilisateur.
+	 * Si cette méthode n'est pas appelée, le cadre de résultat n'est pas affiché.
 	 * */
 	void endResult();
 
@@ -1,15 +1,16 @@
 package gamebook.supervisers;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import gamebook.domains.BookEditedEventHandler;
 import gamebook.domains.GameBook;
+import gamebook.domains.GameBookBatch;
 import gamebook.domains.Paragraph;
 
 /**
  * Traite les demandes issues d'une {@code EditView}.
- *  cette fin, elle contrle d'autres objets parmi lesquels un livre-jeu.
+ * À cette fin, elle contrôle d'autres objets parmi lesquels un livre-jeu.
  */
 public final class EditSuperviser {
 
@@ -20,7 +21,7 @@ public final class EditSuperviser {
 	private final BookEditedEventHandler csHandler;
 	
 	/**
-	 * Initialise un superviseur pour diter le livre-jeu {@code gameBook}
+	 * Initialise un superviseur pour éditer le livre-jeu {@code gameBook}
 	 * @param handler 
 	 * @param b 
 	 */
@@ -39,18 +40,18 @@ public final class EditSuperviser {
 		this.view = view;
 		this.view.setTitle(book.getTitle());
 		refreshParagraphAll();
-		this.view.setChoices(currentParagraph.getChoices());
+		this.view.setChoices(currentParagraph.getChoiceView().keySet());
 		refreshSelectedChoice();
 	}
 	
 	/**
-	 * Permet de rafrchir le contenu des paragraphes prsent dans les combo-box,
-	 * le contenu du paragraphe courant, ainsi que slectionner le pargraphe affich.
+	 * Permet de rafréchir le contenu des paragraphes présent dans les combo-box,
+	 * le contenu du paragraphe courant, ainsi que sélectionner le pargraphe affiché.
 	 * 
 	 * @see 			Paragraph#getContent()
 	 * @see 			GameBook#getParagraphsContents()
 	 * @see 			GameBook#getParagraphIdByObject(Paragraph)
-	 * @author			Jrmi Nihart
+	 * @author			Jérémi Nihart
 	 */
 	private void refreshParagraphAll() {
 		this.view.setParagraphs(book.getParagraphsContents());
@@ -59,59 +60,76 @@ public final class EditSuperviser {
 	}
 	
 	/**
-	 * Permet de rafrchir les choix prsent dans le combo-box pour le paragraphe courant,
-	 * le choix slection et le paragraphe afili.
+	 * Permet de rafréchir le contenu des paragraphes présent dans les combo-box et de
+	 * resélectionner le paragraphe affiché, sans renvoyer son contenu à la zone de texte
+	 * (modification partielle venant de cette zone, qui la contient déjà).
 	 * 
-	 * @param 			key Cl du choix a slectionn par dfaut si dfini.
+	 * @see 			GameBook#getParagraphsContents()
+	 * @see 			EditSuperviser#refreshParagraphAll()
+	 * @author			Jérémi Nihart
+	 */
+	private void refreshParagraphList() {
+		this.view.setParagraphs(book.getParagraphsContents());
+		this.view.setSelectedParagraph(book.getParagraphIdByObject(currentParagraph));
+	}
+	
+	/**
+	 * Permet de rafréchir les choix présent dans le combo-box pour le paragraphe courant,
+	 * le choix sélectioné et le paragraphe afilié.
+	 * 
+	 * @param 			key Clé du choix a sélectionné par défaut si défini.
 	 * 
-	 * @see				Paragraph#getChoices()
-	 * @see				Paragraph#getParagraphByChoiceKey(String)
+	 * @see				Paragraph#getChoiceView()
 	 * @see 			GameBook#getParagraphIdByObject(Paragraph)
-	 * @author			Jrmi Nihart
+	 * @author			Jérémi Nihart
 	 */
 	private void refreshSelectedChoice(String key) {
-		List<String> choices = new ArrayList<>(currentParagraph.getChoices()); // TODO
-		String choiceKey;  // La cl du choix qu'il faudrait afficher.
-		int paragraphID;   // L'id du paragraphe associ  ce choix.
+		Map<String, Paragraph> choices = currentParagraph.getChoiceView();
+		String choiceKey;  // La clé du choix qu'il faudrait afficher.
+		int paragraphID;   // L'id du paragraphe associé à ce choix.
 		if (choices.isEmpty()) {
 			choiceKey = "";
 			paragraphID = -1;
+		} else if (key == null) {
+			Map.Entry<String, Paragraph> first = choices.entrySet().iterator().next();
+			choiceKey = first.getKey();
+			paragraphID = book.getParagraphIdByObject(first.getValue());
 		} else {
-			choiceKey = (key == null) ? choices.get(0) : key;
-			paragraphID = book.getParagraphIdByObject(currentParagraph.getParagraphByChoiceKey(choiceKey));
+			choiceKey = key;
+			paragraphID = book.getParagraphIdByObject(choices.get(choiceKey));
 		}
 		this.view.setSelectedChoice(choiceKey, paragraphID);
 	}
 	
 	/**
-	 * Surcharge de la mthode prive {@link EditSuperviser#refreshSelectedChoice(String)}.
+	 * Surcharge de la méthode privée {@link EditSuperviser#refreshSelectedChoice(String)}.
 	 * 
 	 * @see				EditSuperviser#refreshSelectedChoice(String)
-	 * @author			Jrmi Nihart
+	 * @author			Jérémi Nihart
 	 */
 	private void refreshSelectedChoice() {
 		refreshSelectedChoice(null);
 	}
 
 	/**
-	 * Prsente le contenu du paragraphe demand par l'utilisateur.
+	 * Présente le contenu du paragraphe demandé par l'utilisateur.
 	 */
 	public void onSelectedParagraphChanged(int paragraphIndex) {  // OK
-		// Action(s) de la mthode
+		// Action(s) de la méthode
 		currentParagraph = book.getParagraphByID(paragraphIndex);
 		
 		// Actualisation vue
 		this.view.setCurrentParagraphContent(currentParagraph.getContent());
-		this.view.setChoices(currentParagraph.getChoices());
+		this.view.setChoices(currentParagraph.getChoiceView().keySet());
 		refreshSelectedChoice();
 	}
 	
 
 	/**
-	 * Modifie le titre du livre si {@code newTitle} est dfini et non-blanc.
+	 * Modifie le titre du livre si {@code newTitle} est défini et non-blanc.
 	 */
 	public void onTitleChanged(String newTitle) {  // OK
-		// Action(s) de la mthode
+		// Action(s) de la méthode
 		if (book.setTitle(newTitle)) {
 			rsHandler.onBookEdited();
 			csHandler.onBookEdited();
@@ -122,26 +140,26 @@ public final class EditSuperviser {
 	}
 
 	/**
-	 * Ajoute un nouveau paragraphe  la fin du livre-jeu.
-	 * La vue est mise  jour avec le contenu de ce nouveau paragraphe.
+	 * Ajoute un nouveau paragraphe à la fin du livre-jeu.
+	 * La vue est mise à jour avec le contenu de ce nouveau paragraphe.
 	 */
 	public void onNewParagraph() {  // OK
-		// Action(s) de la mthode
+		// Action(s) de la méthode
 		currentParagraph = new Paragraph(null);
 		book.addParagraph(currentParagraph);
 		
 		// Actualisation vue
 		refreshParagraphAll();
-		this.view.setChoices(currentParagraph.getChoices());
+		this.view.setChoices(currentParagraph.getChoiceView().keySet());
 		refreshSelectedChoice();
 	}
 
 	/**
 	 * Supprime le paragraphe {@code index}.
-	 * La mthode ne fait rien si {@code index} est hors limite.
+	 * La méthode ne fait rien si {@code index} est hors limite.
 	 */
 	public void onDeleteParagraph(int index) {  // OK
-		// Action(s) de la mthode
+		// Action(s) de la méthode
 		if (book.deleteParagraph(index)) {
 			rsHandler.onBookEdited();
 			csHandler.onBookEdited();
@@ -154,11 +172,11 @@ public final class EditSuperviser {
 	}
 
 	/**
-	 * Met  jour le paragraphe {@code index} du livre-jeu avec le contenu {@code newContent}.
-	 * La mthode ne fait rien si {@code index} est hors limite ou si index est hors-limite.
+	 * Met à jour le paragraphe {@code index} du livre-jeu avec le contenu {@code newContent}.
+	 * La méthode ne fait rien si {@code index} est hors limite ou si index est hors-limite.
 	 */
 	public void onParagraphContentChanged(int index, String newContent) {  // OK
-		// Action(s) de la mthode
+		// Action(s) de la méthode
 		if (Paragraph.setContent(book.getParagraphByID(index), newContent)) {
 			rsHandler.onBookEdited();
 			csHandler.onBookEdited();
@@ -169,10 +187,44 @@ public final class EditSuperviser {
 	}
 
 	/**
-	 * Prsente le contenu du choix identifi par {@code key}
+	 * Insère le texte {@code text} à la position {@code offset} du paragraphe {@code index}
+	 * sans recopier tout son contenu (voir {@link Paragraph#insertText(int, String)}).
+	 * Seule la liste des paragraphes est rafraîchie : la modification vient de la zone de texte,
+	 * qui la contient déjà. La méthode ne fait rien si {@code index} ou {@code offset} est hors limite.
+	 */
+	public void onParagraphTextInserted(int index, int offset, String text) {
+		// Action(s) de la méthode
+		if (index >= 0 && index < book.getSize() && book.getParagraphByID(index).insertText(offset, text)) {
+			rsHandler.onBookEdited();
+			csHandler.onBookEdited();
+			
+			// Actualisation vue
+			refreshParagraphList();
+		}
+	}
+
+	/**
+	 * Supprime {@code length} caractères à partir de la position {@code offset} du paragraphe
+	 * {@code index} sans recopier tout son contenu (voir {@link Paragraph#deleteText(int, int)}).
+	 * Seule la liste des paragraphes est rafraîchie, comme pour {@link EditSuperviser#onParagraphTextInserted(int, int, String)}.
+	 * La méthode ne fait rien si la plage est hors limite ou si le paragraphe deviendrait blanc.
+	 */
+	public void onParagraphTextDeleted(int index, int offset, int length) {
+		// Action(s) de la méthode
+		if (index >= 0 && index < book.getSize() && book.getParagraphByID(index).deleteText(offset, length)) {
+			rsHandler.onBookEdited();
+			csHandler.onBookEdited();
+			
+			// Actualisation vue
+			refreshParagraphList();
+		}
+	}
+
+	/**
+	 * Présente le contenu du choix identifié par {@code key}
 	 */
 	public void onSelectedChoiceChanged(String key) {  // OK
-		// Action(s) de la mthode
+		// Action(s) de la méthode
 		// Actualisation vue
 		refreshSelectedChoice(key);
 	}
@@ -181,41 +233,41 @@ public final class EditSuperviser {
 	 * Ajoute un nouveau choix au paragraphe courant.
 	 */
 	public void onNewChoice() {  // OK
-		// Action(s) de la mthode
+		// Action(s) de la méthode
 		currentParagraph.addChoice(null, book.getParagraphByID(0));
 		rsHandler.onBookEdited();
 		csHandler.onBookEdited();
 		
 		// Actualisation vue
-		this.view.setChoices(currentParagraph.getChoices());
+		this.view.setChoices(currentParagraph.getChoiceView().keySet());
 		refreshSelectedChoice(Paragraph.PARAGRAPH_CHOICE);
 	}
 
 	/**
-	 * Retire le choix correspondant  {@code key} du paragraphe courant.
+	 * Retire le choix correspondant à {@code key} du paragraphe courant.
 	 */
 	public void onDeleteChoice(String key) {  // OK
-		// Action(s) de la mthode
+		// Action(s) de la méthode
 		currentParagraph.deleteChoice(key);
 		rsHandler.onBookEdited();
 		csHandler.onBookEdited();
 
 		// Actualisation vue
-		this.view.setChoices(currentParagraph.getChoices());
+		this.view.setChoices(currentParagraph.getChoiceView().keySet());
 		refreshSelectedChoice();
 	}
 
 	/**
-	 * Remplace le libell {@code oldKey} par {@code newKey} dans le paragraphe courant.
+	 * Remplace le libellé {@code oldKey} par {@code newKey} dans le paragraphe courant.
 	 */
 	public void onChoiceLabelChanged(String oldKey, String newKey) {  // OK
-		// Action(s) de la mthode
+		// Action(s) de la méthode
 		if (currentParagraph.updateChoiceKey(oldKey, newKey)) {
 			rsHandler.onBookEdited();
 			csHandler.onBookEdited();
 
 		// Actualisation vues
-			this.view.setChoices(currentParagraph.getChoices());
+			this.view.setChoices(currentParagraph.getChoiceView().keySet());
 			refreshSelectedChoice(newKey);
 		} else {
 			refreshSelectedChoice(oldKey);
@@ -226,7 +278,7 @@ public final class EditSuperviser {
 	 * Modifie la cible du choix {@code key} du paragraphe courant.
 	 */
 	public void onChoiceTargetChanged(String key, int index) {  // OK
-		// Action(s) de la mthode
+		// Action(s) de la méthode
 		currentParagraph.updateChoiceParagraph(key, book.getParagraphByID(index));
 		rsHandler.onBookEdited();
 		csHandler.onBookEdited();
@@ -235,4 +287,55 @@ public final class EditSuperviser {
 		refreshSelectedChoice(key);
 	}
 
+	/**
+	 * Supprime les paragraphes que le lecteur ne peut pas atteindre depuis le premier
+	 * (voir {@link GameBook#compact()}). Le paragraphe courant reste sélectionné s'il
+	 * est conservé, sinon le premier paragraphe est sélectionné.
+	 * 
+	 * @see				BookEditedEventHandler#onBookCompacted(int[])
+	 * @author			Jérémi Nihart
+	 */
+	public void onCompactBook() {
+		// Action(s) de la méthode
+		int current = book.getParagraphIdByObject(currentParagraph);
+		int[] map = book.compact();
+		if (map.length > book.getSize()) {
+			rsHandler.onBookCompacted(map);
+			csHandler.onBookCompacted(map);
+		}
+		currentParagraph = book.getParagraphByID(Math.max(map[current], 0));
+
+		// Actualisation vue
+		refreshParagraphAll();
+		this.view.setChoices(currentParagraph.getChoiceView().keySet());
+		refreshSelectedChoice();
+	}
+
+	/**
+	 * Applique un lot de modifications au livre dans une même transaction
+	 * et ne signale qu'une seule fois la modification du livre.
+	 * Si la transaction est annulée, rien n'est signalé.
+	 * 
+	 * @param 			changes Modifications à appliquer via {@link GameBookBatch}.
+	 * 
+	 * @see				GameBook#edit(Consumer)
+	 * @author			Jérémi Nihart
+	 */
+	public void onBatchEdit(Consumer<GameBookBatch> changes) {
+		// Action(s) de la méthode
+		if (book.edit(changes)) {
+			rsHandler.onBookEdited();
+			csHandler.onBookEdited();
+		}
+		if (book.getParagraphIdByObject(currentParagraph) < 0) {
+			currentParagraph = book.getLastParagraph();
+		}
+
+		// Actualisation vue
+		this.view.setTitle(book.getTitle());
+		refreshParagraphAll();
+		this.view.setChoices(currentParagraph.getChoiceView().keySet());
+		refreshSelectedChoice();
+	}
+
 }
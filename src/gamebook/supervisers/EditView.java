@@ -3,43 +3,43 @@ package gamebook.supervisers;
 import java.util.*;
 
 /**
- * La vue d'dition permet  l'auteur d'diter son livre
+ * La vue d'édition permet à l'auteur d'éditer son livre
  * */
 public interface EditView {
 	/**
-	 * Dfinit le titre du livre.
+	 * Définit le titre du livre.
 	 * */
 	void setTitle(String newTitle);
 	
 	/**
-	 * Dfinit les libells des paragraphes  diter.
+	 * Définit les libellés des paragraphes à éditer.
 	 * */
 	void setParagraphs(List<String> paragraphs);
 	
 	/**
-	 * Dfinit le paragraphe slectionn comme tant celui de position {@code index}.
+	 * Définit le paragraphe sélectionné comme étant celui de position {@code index}.
 	 * 
 	 * @param index un entier compris entre {@code 0 <= index < paragraphs.size()}
 	 * */
 	void setSelectedParagraph(int index);
 	
 	/**
-	 * Dfinit le contenu  afficher pour le paragraphe courant.
+	 * Définit le contenu à afficher pour le paragraphe courant.
 	 * */
 	void setCurrentParagraphContent(String content);
 	
 	/**
-	 * Dfinit les choix qui se prsentent  l'utilisateur.
+	 * Définit les choix qui se présentent à l'utilisateur.
 	 * 
-	 * @param une collection de choix sans ordre prcis.
+	 * @param une collection de choix sans ordre précis.
 	 * */
 	void setChoices(Collection<String> choices);
 	
 	/**
-	 * Dfinit le choix courant.
+	 * Définit le choix courant.
 	 * 
-	 * @param key le label du choix courant. Il doit correspondre  un String dfini la collection de choix passe  {@code setChoices}
-	 * @param targetIndex la position du paragraphe dans la liste passe  {@code setParagraphs}.
+	 * @param key le label du choix courant. Il doit correspondre à un String défini la collection de choix passée à {@code setChoices}
+	 * @param targetIndex la position du paragraphe dans la liste passée à {@code setParagraphs}.
 	 * */
 	void setSelectedChoice(String key, int targetIndex);
 }
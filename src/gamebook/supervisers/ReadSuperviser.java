@@ -4,11 +4,12 @@ import java.util.List;
 
 import gamebook.domains.BookEditedEventHandler;
 import gamebook.domains.GameBook;
+import gamebook.domains.GameBookGraph;
 import gamebook.domains.Session;
 
 /**
  * Traite les demandes issues d'une {@code ReadView}.
- * � cette fin, elle contr�le d'autres objets parmi lesquels un livre-jeu et une session.
+ * ï¿½ cette fin, elle contrï¿½le d'autres objets parmi lesquels un livre-jeu et une session.
  */
 public final class ReadSuperviser implements BookEditedEventHandler {
 
@@ -17,6 +18,7 @@ public final class ReadSuperviser implements BookEditedEventHandler {
 	private ReadView view;
 	private final Session sess;
 	private final GameBook book;
+	private final GameBookGraph published;
 	
 	/**
 	 * Construit un ReadSuperviser en attente d'une vue.
@@ -24,11 +26,24 @@ public final class ReadSuperviser implements BookEditedEventHandler {
 	public ReadSuperviser(Session sess, GameBook book) {
 		this.sess = (sess == null) ? new Session(new GameBook(null, null)) : sess;
 		this.book = (book == null) ? new GameBook(null, null) : book;
+		this.published = null;
+	}
+	
+	/**
+	 * Construit un ReadSuperviser qui lit le livre publié {@code book} (voir {@link GameBook#freeze()}
+	 * et {@link gamebook.domains.OffHeapGameBook}) avec sa propre session, en attente d'une vue.
+	 * 
+	 * @throws NullPointerException si book est null
+	 */
+	public ReadSuperviser(GameBookGraph book) {
+		this.sess = Session.forPublished(book);
+		this.book = null;
+		this.published = book;
 	}
 
 	/**
-	 * D�finit la vue dont le superviseur doit traiter les demandes.
-	 * Met � jour cette vue avec les donn�es de lecture.
+	 * Dï¿½finit la vue dont le superviseur doit traiter les demandes.
+	 * Met ï¿½ jour cette vue avec les donnï¿½es de lecture.
 	 * 
 	 * @throws NullPointerException si view est null
 	 */
@@ -38,26 +53,26 @@ public final class ReadSuperviser implements BookEditedEventHandler {
 	}
 	
 	/**
-	 * Permet de rafrchir la vue avec les donnes du paragraph courant de la session.
+	 * Permet de rafréchir la vue avec les données du paragraph courant de la session.
 	 * 
 	 * @see 			Session#isCurrentHasChoice()
 	 * @see				Session#getCurrentChoices()
 	 * @see				Session#getCurrentHead()
 	 * @see 			Session#getCurrentContent()
 	 * @see				GameBook#getTitle()
-	 * @author			Jrmi Nihart
+	 * @author			Jérémi Nihart
 	 */
 	private void refreshView() {
-		// Grer la rcupration des choix du paragraphe actuel
+		// Gérer la récupération des choix du paragraphe actuel
 		List<String> choices = (sess.isCurrentHasChoice()) ? sess.getCurrentChoices() : List.of(RESTART_KEY);
-		// Grer la mise  jour de la vue
-		this.view.setTitle(book.getTitle());
+		// Gérer la mise à jour de la vue
+		this.view.setTitle((published != null) ? published.getTitle() : book.getTitle());
 		this.view.setParagraph(sess.getCurrentHead(), sess.getCurrentContent());
 		this.view.setChoices(choices);
 	}
 
 	/** 
-	 * Ragit aux choix de l'utilisateur en mettant  jour la session de lecture.
+	 * Réagit aux choix de l'utilisateur en mettant à jour la session de lecture.
 	 * <hr>
 	 * Informations sur la CTT :
 	 * <ul>
@@ -65,28 +80,28 @@ public final class ReadSuperviser implements BookEditedEventHandler {
 	 * 	<li><u>CTT</u> dans le pire des cas : <b>O(n)</b></li>
 	 * </ul>
 	 *
-	 * Description de mon rsonement :
-	 * <p>Dans le cas ou le choix <code>RESTART_KEY</code> est press cette
+	 * Description de mon résonement :
+	 * <p>Dans le cas ou le choix <code>RESTART_KEY</code> est pressé cette
 	 * fonction appelle {@link Session#reset()} qui boucle <b>O(n)</b> ensuite *
-	 * est excut. La CTT dans ce cas est la pire <b>O(n)</b>.</p>
+	 * est exécuté. La CTT dans ce cas est la pire <b>O(n)</b>.</p>
 	 * 
-	 * <p>Dans le cas ou un autre choix est press cette fonction appelle
-	 * {@link Session#goToParagraphByChoiceKey(String)} qui ajout un lment 
+	 * <p>Dans le cas ou un autre choix est pressé cette fonction appelle
+	 * {@link Session#goToParagraphByChoiceKey(String)} qui ajout un élément à
 	 * l'historique et actualise le paragraphe courrant de la session <b>O(1)</b>.
-	 * Ensuite * est excut. La CTT dans ce cas dpend de * et peut soit tre la
-	 * meilleur <b>O(1)</b> soit tre la pire <b>O(n)</b></p>
+	 * Ensuite * est exécuté. La CTT dans ce cas dépend de * et peut soit être la
+	 * meilleur <b>O(1)</b> soit être la pire <b>O(n)</b></p>
 	 * 
-	 * <u>Lgende :</u>
-	 * <p>* : {@link ReadSuperviser#refreshView()}  thoriquement une CTT de <b>O(m)</b>
-	 * En effet dans le cas ou la liste de choix qui est pass en argument de
-	 * <code>this.view.setChoices()</code> contient plus de 1 lment la CTT est de <b>O(m)</b>
-	 * Dans le cas ou la liste en argument contient de 0  1 choix la CTT est de <b>O(1)</b>.</p>
-	 * <p><b>n</b> : est ne nombre d'lment  supprimer de l'historique de la Session.</p>
+	 * <u>Légende :</u>
+	 * <p>* : {@link ReadSuperviser#refreshView()} à théoriquement une CTT de <b>O(m)</b>
+	 * En effet dans le cas ou la liste de choix qui est passé en argument de
+	 * <code>this.view.setChoices()</code> contient plus de 1 élément la CTT est de <b>O(m)</b>
+	 * Dans le cas ou la liste en argument contient de 0 à 1 choix la CTT est de <b>O(1)</b>.</p>
+	 * <p><b>n</b> : est ne nombre d'élément à supprimer de l'historique de la Session.</p>
 	 * <p><b>m</b> : est le nombre de de choix disponibles pour le Paragraph courant.</p>
 	 * <hr>
 	 *
-	 * @param		choiceKey le libell du choix. Ce libell sert  dterminer
-	 * 					      le paragraphe suivant  afficher.
+	 * @param		choiceKey le libellé du choix. Ce libellé sert à déterminer
+	 * 					      le paragraphe suivant à afficher.
 	 *
 	 * @see			ReadSuperviser#refreshView()
 	 * @see 		Session#goToParagraphByChoiceKey(String)
@@ -99,7 +114,7 @@ public final class ReadSuperviser implements BookEditedEventHandler {
 	}
 	
 	/**
-	 * Revient au paragraphe pr�c�dent, sauf si le lecteur est au d�but du livre. 
+	 * Revient au paragraphe prï¿½cï¿½dent, sauf si le lecteur est au dï¿½but du livre. 
 	 */
 	public void onGoBack() {
 		sess.goBack();
@@ -107,11 +122,23 @@ public final class ReadSuperviser implements BookEditedEventHandler {
 	}
 	
 	/**
-	 * Mthode d'vnement, est appel lorsque le livre est modifi.
+	 * Méthode d'évènement, est appelé lorsque le livre est modifié.
 	 */
 	@Override
 	public void onBookEdited() {
 		sess.reset();
 		refreshView();
 	}
+	
+	/**
+	 * Méthode d'évènement, est appelé lorsque des paragraphes orphelins ont été supprimés.
+	 * La lecture continue jusqu'au dernier paragraphe encore présent de l'historique.
+	 * 
+	 * @see				Session#dropRemovedParagraphs()
+	 */
+	@Override
+	public void onBookCompacted(int[] map) {
+		sess.dropRemovedParagraphs();
+		refreshView();
+	}
 }
@@ -3,7 +3,7 @@ package gamebook.supervisers;
 import java.util.Collection;
 
 /**
- * Une vue d'une lecture permet  l'utilisateur de lire son livre jeu.
+ * Une vue d'une lecture permet à l'utilisateur de lire son livre jeu.
  * */
 public interface ReadView {
 	
@@ -14,17 +14,17 @@ public interface ReadView {
 	void setTitle(String bookTitle);
 
 	/**
-	 * Modifie le paragraphe prsent.
+	 * Modifie le paragraphe présenté.
 	 * 
-	 * @param head l'en-tte du paragraphe. Correspond typiquement  un texte de la forme {@code Paragraphe #}.
+	 * @param head l'en-tête du paragraphe. Correspond typiquement à un texte de la forme {@code Paragraphe #}.
 	 * @param content le contenu du paragraphe.
 	 * */
 	void setParagraph(String head, String content);
 
 	/**
-	 * Dfinit les choix qui se prsentent  l'utilisateur.
+	 * Définit les choix qui se présentent à l'utilisateur.
 	 * 
-	 * @param une collection de choix sans ordre prcis.
+	 * @param une collection de choix sans ordre précis.
 	 * */
 	void setChoices(Collection<String> choices);
 
@@ -5,17 +5,17 @@ import javax.swing.*;
 import static gamebook.swing.Theme.*;
 
 /**
- * La fentre principale est compose d'un panneau  onglet (tab pannel).
- * Chaque vue correspond  un onglet du panneau.
+ * La fenêtre principale est composée d'un panneau à onglet (tab pannel).
+ * Chaque vue correspond à un onglet du panneau.
  * */
 @SuppressWarnings("serial")
 public final class MainWindow extends JFrame {
 
 	/**
-	 * Construit une fentre principal compos des vues {@code reader, edit, verify}
+	 * Construit une fenêtre principal composé des vues {@code reader, edit, verify}
 	 * */
 	public MainWindow(JPanel read, JPanel edit, JPanel verify) {
-		super("AI 2021 : lecteur et diteur d'un livre jeu");
+		super("AI 2021 : lecteur et éditeur d'un livre jeu");
 		
 		setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 		setSize(PANEL_WIDTH, PANEL_HEIGHT);
@@ -9,7 +9,7 @@ import net.miginfocom.swing.MigLayout;
 import static gamebook.swing.Theme.*;
 
 /**
- * Implmente la vue de vrification en Swing.
+ * Implémente la vue de vérification en Swing.
  * */
 @SuppressWarnings("serial")
 public class SwingCheckView extends JPanel implements CheckView {
@@ -31,7 +31,7 @@ public class SwingCheckView extends JPanel implements CheckView {
 	private final JButton parseBtn = new JButton("Analyser");
 
 	/**
-	 * Construit une instance de la vue  l'aide de son {@code superviser}.
+	 * Construit une instance de la vue à l'aide de son {@code superviser}.
 	 * */
 	public SwingCheckView(CheckSuperviser superviser) {
 		setBackground(Theme.BACKGROUND_COLOR);
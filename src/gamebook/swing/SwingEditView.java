@@ -15,7 +15,7 @@ import javax.swing.border.LineBorder;
 import gamebook.supervisers.*;
 import gamebook.swing.renderers.WrappedListCellRenderer;
 /**
- * Implmente la vue d'dition en Swing.
+ * Implémente la vue d'édition en Swing.
  * */
 @SuppressWarnings("serial")
 public final class SwingEditView extends JPanel implements EditView {
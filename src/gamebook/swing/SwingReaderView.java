@@ -11,7 +11,7 @@ import net.miginfocom.swing.MigLayout;
 import static gamebook.swing.Theme.*;
 
 /**
- * Implmente la vue de lecture en Swing.
+ * Implémente la vue de lecture en Swing.
  * */
 @SuppressWarnings("serial")
 public final class SwingReaderView extends JPanel implements ReadView {
@@ -105,7 +105,7 @@ public final class SwingReaderView extends JPanel implements ReadView {
 	}
 
 	/**
-	 * Reprsente la paire (en-tte/contenu) d'un paragraphe.
+	 * Représente la paire (en-tête/contenu) d'un paragraphe.
 	 * */
 	private static class ParagraphView extends JPanel {
 		private final JLabel paragraphHeadLbl = new JLabel();
@@ -132,7 +132,7 @@ public final class SwingReaderView extends JPanel implements ReadView {
 		}
 		
 		/**
-		 * Dfinit l'en-tte et le contenu du paragraphe.
+		 * Définit l'en-tête et le contenu du paragraphe.
 		 * */
 		public void setParagraph(String head, String content) {
 			this.paragraphHeadLbl.setText(head);
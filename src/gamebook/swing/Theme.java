@@ -8,7 +8,7 @@ import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
 
 /**
- * Dfinit l'aspect gnral des vues.
+ * Définit l'aspect général des vues.
  * */
 final class Theme {
 	static {
@@ -24,7 +24,7 @@ final class Theme {
 	public static final int PANEL_HEIGHT = 512;
 	public static final int PANEL_WIDTH = 1024;
 	
-	//Police de caractres
+	//Police de caractères
 	public static final Font TITLE_FONT = new Font("Segoe UI Light", Font.PLAIN, 24);
 	public static final Font SUBTITLE_FONT = new Font("Segoe UI", Font.PLAIN, 20);
 	public static final Font NORMAL_FONT = new Font("Segoe UI", Font.PLAIN, 12);
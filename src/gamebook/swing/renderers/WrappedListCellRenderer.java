@@ -6,9 +6,9 @@ import java.util.StringJoiner;
 import javax.swing.*;
 
 /**
- * Dfinis une cellule contenant du texte.
- * Quand le texte est trop long, la cellule le dcoupe de sorte que la longueur du texte
- * compte moins de 20 caractres tout en conservant les mots entiers.
+ * Définis une cellule contenant du texte.
+ * Quand le texte est trop long, la cellule le découpe de sorte que la longueur du texte
+ * compte moins de 20 caractères tout en conservant les mots entiers.
  * */
 @SuppressWarnings("serial")
 public class WrappedListCellRenderer extends JLabel implements ListCellRenderer<String> {
@@ -16,7 +16,7 @@ public class WrappedListCellRenderer extends JLabel implements ListCellRenderer<
 	private final Color focusBackground;
 	
 	/**
-	 * Initialise une cellule avec deux couleurs appliqus quand la cellule est slectionne.
+	 * Initialise une cellule avec deux couleurs appliqués quand la cellule est sélectionnée.
 	 * */
 	public WrappedListCellRenderer(Color focusForeground, Color focusBackground) {
 		super();
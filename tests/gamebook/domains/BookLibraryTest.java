@@ -0,0 +1,176 @@
+package gamebook.domains;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class BookLibraryTest {
+
+	private final Map<String, AtomicInteger> loads = new ConcurrentHashMap<>();
+
+	private GameBook load(String id) {
+		loads.computeIfAbsent(id, key -> new AtomicInteger()).incrementAndGet();
+		if (id.startsWith("absent")) {
+			return null;
+		}
+		if (id.startsWith("erreur")) {
+			throw new IllegalStateException(id);
+		}
+		List<Paragraph> paragraphs = GameBookFactory.makeParagraphs();
+		GameBookFactory.makeChoices(paragraphs);
+		return new GameBook(id, paragraphs, true);
+	}
+
+	private int loadCount(String id) {
+		AtomicInteger count = loads.get(id);
+		return (count == null) ? 0 : count.get();
+	}
+
+	@Test
+	public void getLoadsOnce() {
+		BookLibrary library = new BookLibrary(this::load, Long.MAX_VALUE);
+		GameBook book = library.get("a");
+		assertEquals(book.getTitle(), "a");
+		assertSame(library.get("a"), book);
+		assertTrue(loadCount("a") == 1);
+		assertTrue(library.isResident("a"));
+		assertTrue(library.getResidentBytes() == book.getMemoryFootprint().getTotalBytes());
+		assertNull(library.get("absent"));
+		assertFalse(library.isResident("absent"));
+		assertTrue(library.evict("a"));
+		assertFalse(library.evict("a"));
+		assertTrue(library.getResidentBytes() == 0);
+		library.get("a");
+		assertTrue(loadCount("a") == 2);
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsed() {
+		long bookBytes = load("mesure").getMemoryFootprint().getTotalBytes();
+		BookLibrary library = new BookLibrary(this::load, 2 * bookBytes);
+		library.get("a");
+		library.get("b");
+		library.get("a");
+		library.get("c");
+		assertTrue(library.isResident("a") && library.isResident("c"));
+		assertFalse(library.isResident("b"));
+		assertTrue(library.getResidentCount() == 2);
+		assertTrue(library.getResidentBytes() <= library.getCapacity());
+		// Un livre plus grand que la capacité reste seul en mémoire.
+		BookLibrary tiny = new BookLibrary(this::load, 0);
+		GameBook a = tiny.get("a");
+		assertSame(tiny.get("a"), a);
+		tiny.get("b");
+		assertFalse(tiny.isResident("a"));
+		assertTrue(tiny.getResidentCount() == 1);
+	}
+
+	@Test
+	public void failedLoadIsRetried() {
+		BookLibrary library = new BookLibrary(this::load, Long.MAX_VALUE);
+		assertThrows(IllegalStateException.class, () -> library.get("erreur"));
+		assertThrows(IllegalStateException.class, () -> library.get("erreur"));
+		assertTrue(loadCount("erreur") == 2);
+		assertTrue(library.getResidentCount() == 0);
+	}
+
+	@Test
+	public void concurrentRequestsShareOneLoad() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		BookLibrary library = new BookLibrary(id -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return load(id);
+		}, Long.MAX_VALUE);
+		Queue<GameBook> results = new ConcurrentLinkedQueue<>();
+		List<Thread> readers = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			readers.add(new Thread(() -> results.add(library.get("a"))));
+		}
+		readers.get(0).start();
+		started.await();
+		for (int i = 1; i < readers.size(); i++) {
+			readers.get(i).start();
+		}
+		release.countDown();
+		for (Thread reader : readers) {
+			reader.join();
+		}
+		assertTrue(loadCount("a") == 1);
+		assertTrue(results.size() == 8);
+		GameBook book = results.peek();
+		assertTrue(results.stream().allMatch(b -> b == book));
+	}
+
+	@Test
+	public void distinctBooksLoadedConcurrently() throws InterruptedException {
+		final int books = 8;
+		final int choices = 2000;
+		CountDownLatch start = new CountDownLatch(1);
+		BookLibrary library = new BookLibrary(id -> {
+			try {
+				start.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			// Les choix sont créés hors livre, en même temps dans tous les threads.
+			List<Paragraph> paragraphs = new ArrayList<>(GameBookFactory.makeParagraphs());
+			GameBookFactory.makeChoices(paragraphs);
+			Paragraph hub = new Paragraph("Carrefour " + id);
+			for (int c = 0; c < choices; c++) {
+				hub.addChoice(id + " choix " + c, paragraphs.get(c % paragraphs.size()));
+			}
+			paragraphs.add(hub);
+			return new GameBook(id, paragraphs, true);
+		}, Long.MAX_VALUE);
+		GameBook reference = GameBookFactory.makeGameBook();
+		Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+		List<Thread> readers = new ArrayList<>();
+		for (int b = 0; b < books; b++) {
+			String id = "livre" + b;
+			readers.add(new Thread(() -> {
+				try {
+					GameBook book = library.get(id);
+					for (int p = 0; p < reference.getSize(); p++) {
+						assertEquals(book.getParagraphByID(p).getChoices(), reference.getParagraphByID(p).getChoices());
+					}
+					Paragraph hub = book.getLastParagraph();
+					List<String> labels = hub.getChoices();
+					assertTrue(labels.size() == choices);
+					for (int c = 0; c < choices; c++) {
+						assertEquals(labels.get(c), id + " choix " + c);
+						assertTrue(hub.getParagraphByChoiceKey(labels.get(c)) == book.getParagraphByID(c % reference.getSize()));
+					}
+				} catch (Throwable e) {
+					errors.add(e);
+				}
+			}));
+		}
+		readers.forEach(Thread::start);
+		start.countDown();
+		for (Thread reader : readers) {
+			reader.join();
+		}
+		assertTrue(errors.isEmpty(), errors.toString());
+		assertTrue(library.getResidentCount() == books);
+	}
+}
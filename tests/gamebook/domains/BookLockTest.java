@@ -0,0 +1,76 @@
+package gamebook.domains;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+class BookLockTest {
+
+	private final BookLock lock = new BookLock();
+
+	/**
+	 * Lance une lecture dans un thread et une écriture pendant cette lecture, retourne
+	 * l'ordre des évènements. 'read' reçoit le corps de la lecture à exécuter.
+	 */
+	private List<String> writeDuring(Consumer<Runnable> read) throws InterruptedException {
+		List<String> events = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread reader = new Thread(() -> read.accept(() -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			events.add("lecture");
+		}));
+		reader.start();
+		started.await();
+		Thread writer = new Thread(() -> lock.update(() -> events.add("écriture")));
+		writer.start();
+		writer.join(200);
+		events.add("attente");
+		release.countDown();
+		reader.join();
+		writer.join();
+		return events;
+	}
+
+	@Test
+	public void readLockedBlocksWriters() throws InterruptedException {
+		List<String> events = writeDuring(body -> lock.readLocked(() -> {
+			body.run();
+			return null;
+		}));
+		assertEquals(events, List.of("attente", "lecture", "écriture"));
+	}
+
+	@Test
+	public void latestBuildsUnderReadLock() throws InterruptedException {
+		List<String> events = writeDuring(body -> lock.latest(() -> {
+			body.run();
+			return new Object();
+		}));
+		assertEquals(events, List.of("attente", "lecture", "écriture"));
+	}
+
+	@Test
+	public void latestKeepsVersionUntilWrite() {
+		Object first = lock.latest(Object::new);
+		assertSame(first, lock.latest(Object::new));
+		assertSame(first, lock.cached());
+		lock.update(() -> { });
+		Object second = lock.latest(Object::new);
+		assertNotSame(first, second);
+		assertSame(second, lock.latest(Object::new));
+	}
+}
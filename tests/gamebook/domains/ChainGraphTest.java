@@ -0,0 +1,81 @@
+package gamebook.domains;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ChainGraphTest {
+
+	/**
+	 * Craie un livre dont le paragraphe un mène par deux couloirs au même paragraphe terminal
+	 * (§1 -> §2 -> §3 -> §4 et §1 -> §5 -> §6 -> §4), avec un cycle de couloirs inaccessible
+	 * (§7 <-> §8).
+	 * @return Livre à couloirs.
+	 */
+	private GameBookGraph makeChains() {
+		OffHeapGameBook.Builder builder = new OffHeapGameBook.Builder("Couloirs");
+		builder.addParagraph("Départ");
+		builder.addChoice("Gauche", 1).addChoice("Droite", 4).addChoice("Nulle part", -1);
+		builder.addParagraph("G1");
+		builder.addChoice("Avancer", 2);
+		builder.addParagraph("G2");
+		builder.addChoice("Avancer", 3);
+		builder.addParagraph("Fin");
+		builder.addParagraph("D1");
+		builder.addChoice("Avancer", 5);
+		builder.addParagraph("D2");
+		builder.addChoice("Avancer", 3);
+		builder.addParagraph("Cycle 1");
+		builder.addChoice("Avancer", 7);
+		builder.addParagraph("Cycle 2");
+		builder.addChoice("Avancer", 6);
+		return builder.build();
+	}
+
+	@Test
+	public void of() {
+		ChainGraph graph = ChainGraph.of(makeChains());
+		assertTrue(graph.getNodeCount() == 2);
+		assertTrue(graph.getParagraph(0) == 0 && graph.getParagraph(1) == 3);
+		assertTrue(graph.getNode(3) == 1 && graph.getNode(1) == -1 && graph.getNode(6) == -1);
+		assertTrue(graph.getEdgeCount() == 3);
+		assertTrue(graph.getFirstEdge(0) == 0 && graph.getFirstEdge(1) == 3 && graph.getFirstEdge(2) == 3);
+		assertTrue(graph.getEdgeTarget(0) == 1 && graph.getEdgeLength(0) == 3 && graph.getEdgeChoice(0) == 0);
+		assertTrue(graph.getEdgeTarget(1) == 1 && graph.getEdgeLength(1) == 3 && graph.getEdgeChoice(1) == 1);
+		assertTrue(graph.getEdgeTarget(2) == -1 && graph.getEdgeLength(2) == 1);
+		assertTrue(graph.getEdge(1) == 0 && graph.getEdge(5) == 1 && graph.getEdge(0) == -1 && graph.getEdge(7) == -1);
+		assertTrue(graph.getEdgeSource(1) == 0);
+	}
+
+	@Test
+	public void expand() {
+		ChainGraph graph = ChainGraph.of(makeChains());
+		assertArrayEquals(graph.expand(0), new int[] {1, 2, 3});
+		assertArrayEquals(graph.expand(1), new int[] {4, 5, 3});
+		assertArrayEquals(graph.expand(2), new int[0]);
+	}
+
+	@Test
+	public void reachable() {
+		ChainGraph graph = ChainGraph.of(GameBookFactory.makeGameBook().snapshot());
+		boolean[] reached = graph.reachable();
+		assertTrue(reached.length == graph.getNodeCount());
+		for (boolean node : reached) {
+			assertTrue(node);
+		}
+	}
+
+	@Test
+	public void getChainGraph() {
+		GameBook book = GameBookFactory.makeGameBook();
+		ChainGraph graph = book.getChainGraph();
+		assertSame(graph.getBook(), book.snapshot());
+		assertSame(book.getChainGraph(), graph);
+		book.getParagraphByID(4).setContent("Modifié");
+		assertNotSame(book.getChainGraph(), graph);
+		assertSame(book.getChainGraph().getBook(), book.snapshot());
+	}
+}
@@ -0,0 +1,121 @@
+package gamebook.domains;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class ChapteredGameBookTest {
+
+	private final PublishedGameBook published = GameBookFactory.makeGameBook().snapshot();
+
+	@Test
+	public void of() {
+		ChapteredGameBook chaptered = ChapteredGameBook.of(published, 2);
+		assertTrue(chaptered.getChapterCount() == 3);
+		assertEquals(chaptered.getTitle(), published.getTitle());
+		assertTrue(chaptered.getSize() == published.getSize());
+		assertTrue(chaptered.getTotalChoiceCount() == published.getTotalChoiceCount());
+		for (int id = 0; id < published.getSize(); id++) {
+			assertEquals(chaptered.getContent(id), published.getContent(id));
+			assertEquals(chaptered.getChoices(id), published.getChoices(id));
+			assertTrue(chaptered.getFirstChoice(id) == published.getFirstChoice(id));
+			for (String key : published.getChoices(id)) {
+				assertTrue(chaptered.getTarget(id, key) == published.getTarget(id, key));
+			}
+		}
+		for (int c = 0; c < published.getTotalChoiceCount(); c++) {
+			assertTrue(chaptered.getChoiceTarget(c) == published.getChoiceTarget(c));
+		}
+		assertTrue(chaptered.getTarget(0, "Inconnu") == -1);
+		assertThrows(IndexOutOfBoundsException.class, () -> chaptered.getContent(published.getSize()));
+		assertThrows(IllegalArgumentException.class, () -> ChapteredGameBook.of(published, 0));
+	}
+
+	@Test
+	public void sessionLoadsChaptersOnDemand() {
+		ChapteredGameBook chaptered = ChapteredGameBook.of(published, 2);
+		Session s = Session.forPublished(chaptered);
+		assertEquals(s.getCurrentContent(), GameBookFactory.P1_CONTENT);
+		assertEquals(s.getCurrentChoices(), published.getChoices(0));
+		assertTrue(chaptered.isLoaded(0));
+		assertFalse(chaptered.isLoaded(1));
+		assertTrue(chaptered.getChoiceCount(1) == published.getChoiceCount(1));
+		assertFalse(chaptered.isLoaded(1));
+		s.goToParagraphByChoiceKey(GameBookFactory.WALK);
+		assertTrue(s.getCurrentParagraphId() == 3);
+		assertEquals(s.getCurrentContent(), GameBookFactory.P4_CONTENT);
+		assertTrue(chaptered.isLoaded(1));
+		assertFalse(chaptered.isLoaded(2));
+		assertTrue(chaptered.getChapterOf(4) == 2);
+	}
+
+	@Test
+	public void chapterChecks() {
+		AtomicInteger calls = new AtomicInteger();
+		ChapteredGameBook chaptered = new ChapteredGameBook("Livre", new int[] {1, 0, 2}, new int[] {1, 0, 1}, chapter -> {
+			ChapteredGameBook.Chapter loaded = new ChapteredGameBook.Chapter();
+			if (chapter == 0) {
+				loaded.addParagraph("Début");
+				loaded.addChoice("Suite", 2);
+			} else if (calls.incrementAndGet() > 1) {
+				loaded.addParagraph("Milieu");
+				loaded.addParagraph("Fin");
+				loaded.addChoice("Retour", 0);
+			}
+			return loaded;
+		});
+		assertTrue(chaptered.getFirstChoice(1) == 1);
+		assertTrue(chaptered.getFirstChoice(3) == 2);
+		assertFalse(chaptered.isLoaded(2));
+		assertThrows(IllegalStateException.class, () -> chaptered.getContent(1));
+		assertFalse(chaptered.isLoaded(2));
+		assertEquals(chaptered.getContent(1), "Milieu");
+		assertTrue(chaptered.getTarget(0, "Suite") == 2);
+		assertTrue(chaptered.getChoiceTarget(1) == 0);
+		assertTrue(chaptered.getLabelCount() == 2);
+		assertThrows(IllegalArgumentException.class, () -> new ChapteredGameBook("Livre", new int[] {0}, new int[] {0}, c -> null));
+		assertThrows(IllegalStateException.class, () -> new ChapteredGameBook.Chapter().addChoice("A", 0));
+	}
+
+	@Test
+	public void slowChapterDoesNotBlockOthers() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		ChapteredGameBook chaptered = new ChapteredGameBook("Livre", new int[] {1, 1}, new int[] {0, 0}, chapter -> {
+			calls.incrementAndGet();
+			if (chapter == 0) {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			ChapteredGameBook.Chapter loaded = new ChapteredGameBook.Chapter();
+			loaded.addParagraph("Chapitre " + chapter);
+			return loaded;
+		});
+		Thread[] readers = new Thread[2];
+		for (int t = 0; t < readers.length; t++) {
+			readers[t] = new Thread(() -> chaptered.getContent(0));
+			readers[t].start();
+		}
+		started.await();
+		// Le chapitre 0 est en cours de chargement : le chapitre 1 se charge sans l'attendre.
+		assertEquals(chaptered.getContent(1), "Chapitre 1");
+		assertFalse(chaptered.isLoaded(0));
+		release.countDown();
+		for (Thread reader : readers) {
+			reader.join();
+		}
+		assertEquals(chaptered.getContent(0), "Chapitre 0");
+		assertTrue(calls.get() == 2);
+	}
+}
@@ -0,0 +1,92 @@
+package gamebook.domains;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ChoiceStoreTest {
+	
+	private final ChoiceStore store = new ChoiceStore(new Paragraph(null));
+	private final Map<String, Paragraph> expected = new LinkedHashMap<>();
+
+	private void put(String key, Paragraph target) {
+		assertTrue(store.put(key, target) == expected.put(key, target));
+		assertEquals(store, expected);
+	}
+
+	@Test
+	public void keepsInsertionOrderWhileInline() {
+		for (int i = 0; i < ChoiceStore.INLINE_LIMIT; i++) {
+			put("c" + i, new Paragraph("p" + i));
+		}
+		put("c3", new Paragraph("other"));
+		assertEquals(store.keySet().toString(), expected.keySet().toString());
+		assertTrue(store.remove("c0") == expected.remove("c0"));
+		assertEquals(store.keySet().toString(), expected.keySet().toString());
+	}
+
+	@Test
+	public void upgradesPastInlineLimit() {
+		for (int i = 0; i <= ChoiceStore.INLINE_LIMIT * 2; i++) {
+			put("c" + i, new Paragraph("p" + i));
+		}
+		assertTrue(store.size() == ChoiceStore.INLINE_LIMIT * 2 + 1);
+		assertTrue(store.get("c5") == expected.get("c5"));
+		assertTrue(store.remove("c5") == expected.remove("c5"));
+		assertEquals(store, expected);
+	}
+
+	@Test
+	public void iteratorRemove() {
+		for (int i = 0; i < 4; i++) {
+			put("c" + i, new Paragraph("p" + i));
+		}
+		Iterator<Paragraph> it = store.values().iterator();
+		while (it.hasNext()) {
+			if (it.next().getContent().equals("p1")) {
+				it.remove();
+			}
+		}
+		expected.remove("c1");
+		assertEquals(store, expected);
+		store.clear();
+		assertTrue(store.isEmpty());
+	}
+
+	@Test
+	public void keepsInsertionOrderPastInlineLimit() {
+		Random random = new Random(7);
+		Paragraph[] targets = new Paragraph[50];
+		for (int i = 0; i < targets.length; i++) {
+			targets[i] = new Paragraph("p" + i);
+		}
+		for (int step = 0; step < 5000; step++) {
+			String key = "c" + random.nextInt(300);
+			if (random.nextInt(3) == 0) {
+				assertTrue(store.remove(key) == expected.remove(key));
+			} else {
+				put(key, targets[random.nextInt(targets.length)]);
+			}
+			assertTrue(store.size() == expected.size());
+		}
+		assertEquals(store.keySet().toString(), expected.keySet().toString());
+		Iterator<String> it = store.keySet().iterator();
+		while (it.hasNext()) {
+			String key = it.next();
+			if (key.hashCode() % 2 == 0) {
+				it.remove();
+				expected.remove(key);
+			}
+		}
+		assertEquals(store.keySet().toString(), expected.keySet().toString());
+		for (String key : expected.keySet()) {
+			assertTrue(store.get(key) == expected.get(key));
+		}
+	}
+}
@@ -1,10 +1,19 @@
 package gamebook.domains;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
 
@@ -63,6 +72,112 @@ class GameBookTest {
 	public void getParagraphIdByObject() {
 		Paragraph p = book.getParagraphByID(2);
 		assertTrue(book.getParagraphIdByObject(p) == 2);
+		assertTrue(book.getParagraphIdByObject(new Paragraph(null)) == -1);
+	}
+
+	@Test
+	public void getParagraphIdByObjectAfterDeletion() {
+		Paragraph p = book.getParagraphByID(3);
+		Paragraph removed = book.getParagraphByID(1);
+		assertTrue(book.deleteParagraph(1));
+		assertTrue(book.getParagraphIdByObject(p) == 2);
+		assertTrue(book.getParagraphIdByObject(removed) == -1);
+	}
+
+	@Test
+	public void permanentIdSurvivesDeletion() {
+		Paragraph p = book.getParagraphByID(3);
+		Paragraph removed = book.getParagraphByID(1);
+		assertTrue(p.getPermanentId() == 3);
+		assertTrue(book.deleteParagraph(1));
+		assertTrue(p.getPermanentId() == 3);
+		assertTrue(book.getParagraphByPermanentId(3) == p);
+		assertTrue(book.getParagraphIdByPermanentId(3) == 2);
+		assertTrue(removed.getPermanentId() == Paragraph.NO_PERMANENT_ID);
+		assertTrue(book.getParagraphByPermanentId(1) == null);
+		assertTrue(book.getParagraphIdByPermanentId(1) == -1);
+		Paragraph added = new Paragraph(null);
+		assertTrue(book.insertParagraphAt(0, added));
+		assertTrue(added.getPermanentId() == 5);
+		assertEquals(book.getParagraphHead(p), Paragraph.PARAGRAPH_HEAD + " 4");
+		assertTrue(book.getParagraphByPermanentId(42) == null);
+	}
+
+	@Test
+	public void getFingerprint() {
+		long initial = book.getFingerprint();
+		assertTrue(initial == GameBookFactory.makeGameBook().getFingerprint());
+		Paragraph first = book.getParagraphByID(0);
+		assertTrue(first.setContent("Autre contenu"));
+		assertTrue(book.getFingerprint() != initial);
+		assertTrue(first.setContent(GameBookFactory.P1_CONTENT));
+		assertTrue(book.getFingerprint() == initial);
+		assertTrue(first.insertText(0, "Début. "));
+		assertTrue(book.getFingerprint() != initial);
+		assertTrue(first.deleteText(0, 7));
+		assertTrue(book.getFingerprint() == initial);
+		first.updateChoiceParagraph(GameBookFactory.WALK, book.getParagraphByID(4));
+		assertTrue(book.getFingerprint() != initial);
+		first.updateChoiceParagraph(GameBookFactory.WALK, book.getParagraphByID(3));
+		assertTrue(book.getFingerprint() == initial);
+		book.moveParagraph(0, 4);
+		assertTrue(book.getFingerprint() != initial);
+		book.moveParagraph(4, 0);
+		assertTrue(book.getFingerprint() == initial);
+		assertTrue(book.setTitle("Titre"));
+		assertTrue(book.getFingerprint() != initial);
+		assertTrue(book.setTitle(GameBookFactory.BOOK_TITLE));
+		assertTrue(book.deleteParagraph(4));
+		assertTrue(book.getFingerprint() != initial);
+	}
+
+	@Test
+	public void getReachableFingerprint() {
+		Paragraph first = book.getParagraphByID(0);
+		Paragraph second = book.getParagraphByID(1);
+		long fromFirst = book.getReachableFingerprint(first);
+		long fromSecond = book.getReachableFingerprint(second);
+		assertTrue(first.setContent("Autre contenu"));
+		assertTrue(book.getReachableFingerprint(first) != fromFirst);
+		assertTrue(book.getReachableFingerprint(second) == fromSecond);
+		assertTrue(book.getReachableFingerprint(new Paragraph(null)) == 0);
+	}
+
+	@Test
+	public void paragraphs() {
+		List<Paragraph> expected = new ArrayList<>();
+		for (int i = 0; i < book.getSize(); i++) {
+			expected.add(book.getParagraphByID(i));
+		}
+		assertEquals(book.paragraphs().collect(Collectors.toList()), expected);
+		assertEquals(book.paragraphs().parallel().collect(Collectors.toList()), expected);
+		Spliterator<Paragraph> all = book.paragraphs().spliterator();
+		assertTrue(all.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+		Spliterator<Paragraph> first = all.trySplit();
+		assertTrue(first.estimateSize() == 2);
+		assertTrue(all.estimateSize() == 3);
+		assertTrue(first.tryAdvance(p -> assertTrue(p == expected.get(0))));
+		assertTrue(all.tryAdvance(p -> assertTrue(p == expected.get(2))));
+	}
+
+	@Test
+	public void edges() {
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < book.getSize(); i++) {
+			int source = i;
+			book.getParagraphByID(i).forEachChoice((label, target) -> expected.add(source + label + book.getParagraphIdByObject(target)));
+		}
+		List<String> edges = book.edges().parallel()
+				.map(e -> book.getParagraphIdByObject(e.getSource()) + e.getLabel() + book.getParagraphIdByObject(e.getTarget()))
+				.collect(Collectors.toList());
+		assertEquals(edges, expected);
+		Spliterator<ChoiceEdge> all = book.edges().spliterator();
+		Spliterator<ChoiceEdge> first = all.trySplit();
+		assertTrue(first.estimateSize() + all.estimateSize() == expected.size());
+		assertTrue(first.estimateSize() == expected.size() / 2);
+		book.getParagraphByID(1).addChoice("Nouveau", book.getParagraphByID(0));
+		assertTrue(book.deleteParagraph(4));
+		assertTrue(book.edges().count() == book.paragraphs().mapToInt(Paragraph::choiceCount).sum());
 	}
 
 	@Test
@@ -77,20 +192,591 @@ class GameBookTest {
 	@Test
 	public void addParagraph() {
 		Paragraph p = new Paragraph("Nouveau p");
-		book.addParagraph(p);
+		assertTrue(book.addParagraph(p));
 		assertEquals(book.getLastParagraph(), p);
+		assertTrue(book.getParagraphIdByObject(p) == 5);
+		assertFalse(book.addParagraph(p));
+		assertFalse(book.addParagraph(null));
+		assertEquals(book.getSize(), 6);
+	}
+
+	@Test
+	public void getParagraphsByChoiceLabel() {
+		Paragraph p0 = book.getParagraphByID(0);
+		Paragraph p1 = book.getParagraphByID(1);
+		Paragraph p2 = book.getParagraphByID(2);
+		assertTrue(book.getParagraphsByChoiceLabel("Vers la fin").isEmpty());
+		p0.addChoice(new String("Vers la fin"), p2);
+		p1.addChoice(new String("Vers la fin"), p2);
+		assertEquals(book.getParagraphsByChoiceLabel("Vers la fin"), Set.of(p0, p1));
+		assertTrue(p0.getChoices().get(p0.getChoices().size() - 1)
+				== p1.getChoices().get(p1.getChoices().size() - 1));
+		p0.updateChoiceKey("Vers la fin", "Autre");
+		assertEquals(book.getParagraphsByChoiceLabel("Vers la fin"), Set.of(p1));
+		assertEquals(book.getParagraphsByChoiceLabel("Autre"), Set.of(p0));
+		book.deleteParagraph(1);
+		assertTrue(book.getParagraphsByChoiceLabel("Vers la fin").isEmpty());
+	}
+
+	@Test
+	public void unusedChoiceLabelsAreReleased() {
+		ChoiceLabels labels = book.getChoiceLabels();
+		int size = labels.size();
+		Paragraph p0 = book.getParagraphByID(0);
+		Paragraph p1 = book.getParagraphByID(1);
+		p0.addChoice("Éphémère", p1);
+		p1.addChoice("Éphémère", p0);
+		int id = labels.idOf("Éphémère");
+		assertTrue(labels.size() == size + 1);
+		p0.deleteChoice("Éphémère");
+		assertTrue(labels.idOf("Éphémère") == id);
+		p1.updateChoiceKey("Éphémère", "Durable");
+		assertTrue(labels.idOf("Éphémère") == -1);
+		assertTrue(labels.size() == size + 1);
+		assertTrue(labels.idOf("Durable") == id);
+		assertTrue(labels.footprint() > 0);
+		book.deleteParagraph(1);
+		assertTrue(labels.idOf("Durable") == -1);
+		assertEquals(book.getParagraphsByChoiceLabel("Durable"), Set.of());
+	}
+
+	@Test
+	public void refusesParagraphOfAnotherBook() {
+		Paragraph p = new Paragraph("Nouveau p");
+		p.addChoice("Choix", book.getParagraphByID(0));
+		assertTrue(book.addParagraph(p));
+		GameBook other = new GameBook(null, null);
+		assertFalse(other.addParagraph(p));
+		assertTrue(book.deleteParagraph(book.getParagraphIdByObject(p)));
+		assertTrue(other.addParagraph(p));
+	}
+
+	@Test
+	public void insertParagraphAt() {
+		Paragraph p = new Paragraph("Nouveau p");
+		Paragraph second = book.getParagraphByID(1);
+		assertTrue(book.insertParagraphAt(1, p));
+		assertEquals(book.getParagraphByID(1), p);
+		assertTrue(book.getParagraphIdByObject(second) == 2);
+		assertFalse(book.insertParagraphAt(0, p));
+		assertEquals(book.getSize(), 6);
+	}
+
+	@Test
+	public void moveParagraph() {
+		Paragraph first = book.getParagraphByID(0);
+		Paragraph last = book.getLastParagraph();
+		book.moveParagraph(0, 4);
+		assertEquals(book.getLastParagraph(), first);
+		assertTrue(book.getParagraphIdByObject(last) == 3);
+		assertEquals(book.getSize(), 5);
+		assertEquals(book.getParagraphHead(first), Paragraph.PARAGRAPH_HEAD+" 5");
+	}
+
+	@Test
+	public void editCommits() {
+		Paragraph first = book.getParagraphByID(0);
+		Paragraph p = new Paragraph("Nouveau p");
+		assertTrue(book.edit(batch -> {
+			batch.setTitle("Titre");
+			batch.addParagraph(p);
+			batch.addChoice(first, "Aller plus loin", p);
+			batch.deleteParagraph(1);
+		}));
+		assertEquals(book.getTitle(), "Titre");
+		assertEquals(book.getSize(), 5);
+		assertEquals(first.getParagraphByChoiceKey("Aller plus loin"), p);
+		assertEquals(first.getChoices().size(), 3);
+	}
+
+	@Test
+	public void editRollsBack() {
+		Paragraph first = book.getParagraphByID(0);
+		Paragraph removed = book.getParagraphByID(1);
+		List<String> contents = book.getParagraphsContents();
+		assertFalse(book.edit(batch -> {
+			batch.setTitle("Titre");
+			batch.setContent(first, "Autre contenu");
+			batch.deleteParagraph(1);
+			batch.moveParagraph(0, 2);
+			batch.addChoice(first, null, new Paragraph("Hors du livre"));
+		}));
+		assertEquals(book.getTitle(), GameBookFactory.BOOK_TITLE);
+		assertEquals(book.getParagraphsContents(), contents);
+		assertEquals(first.getParagraphByChoiceKey(GameBookFactory.KEEP_READING), removed);
+		assertEquals(first.getChoices().size(), 3);
+		assertTrue(removed.getIncomingParagraphs().contains(first));
+		assertTrue(removed.getPermanentId() == 1);
+		assertTrue(book.getParagraphByPermanentId(1) == removed);
+		assertFalse(book.edit(batch -> {
+			batch.addParagraph(new Paragraph(null));
+			batch.rollback();
+		}));
+		assertEquals(book.getSize(), 5);
+	}
+
+	@Test
+	public void editRollbackIsExact() {
+		Paragraph first = book.getParagraphByID(0);
+		Paragraph second = book.getParagraphByID(1);
+		List<String> choices = first.getChoices();
+		List<String> secondChoices = second.getChoices();
+		String content = second.getContent();
+		second.addChoice("Boucle", second);
+		List<String> loop = second.getChoices();
+		assertFalse(book.edit(batch -> {
+			batch.deleteChoice(first, choices.get(0));
+			batch.updateChoiceKey(first, choices.get(1), "Renommé");
+			batch.insertText(second, 2, "ajout ");
+			batch.deleteText(second, 0, 4);
+			batch.deleteParagraph(1);
+			assertTrue(batch.getSize() == 4);
+			batch.rollback();
+		}));
+		assertEquals(first.getChoices(), choices);
+		assertEquals(second.getChoices(), loop);
+		assertEquals(second.getContent(), content);
+		second.deleteChoice("Boucle");
+		assertEquals(second.getChoices(), secondChoices);
+		int next = book.getParagraphByID(book.getSize() - 1).getPermanentId() + 1;
+		assertFalse(book.edit(batch -> {
+			batch.addParagraph(new Paragraph("A"));
+			batch.insertParagraphAt(0, new Paragraph("B"));
+			batch.rollback();
+		}));
+		Paragraph added = new Paragraph("C");
+		book.addParagraph(added);
+		assertTrue(added.getPermanentId() == next);
+		assertTrue(book.getParagraphByPermanentId(next) == added);
+	}
+
+	@Test
+	public void editRollsBackOnException() {
+		try {
+			book.edit(batch -> {
+				batch.addParagraph(new Paragraph(null));
+				batch.deleteParagraph(10);
+			});
+			fail("Exception expected");
+		} catch (IndexOutOfBoundsException e) {
+			assertEquals(book.getSize(), 5);
+		}
+	}
+
+	@Test
+	public void deleteParagraphs() {
+		Paragraph first = book.getParagraphByID(0);
+		Paragraph third = book.getParagraphByID(2);
+		assertTrue(book.deleteParagraphs(List.of(4, 1, 3, 1)));
+		assertEquals(book.getSize(), 2);
+		assertTrue(book.getParagraphIdByObject(first) == 0);
+		assertTrue(book.getParagraphIdByObject(third) == 1);
+		assertEquals(first.getChoices(), List.of(GameBookFactory.LOOK_BEHIND));
+		assertTrue(third.getChoices().isEmpty());
+		assertFalse(book.deleteParagraphs(List.of()));
+		assertFalse(book.deleteParagraphs(List.of(0, 1)));
+		assertEquals(book.getSize(), 2);
+	}
+
+	@Test
+	public void deleteParagraphsWithLargeContents() {
+		String text = "Texte assez long pour remplir la zone de texte. ".repeat(40);
+		List<Integer> ids = new ArrayList<>();
+		List<String> kept = new ArrayList<>(book.getParagraphsContents());
+		for (int i = 0; i < 400; i++) {
+			book.addParagraph(new Paragraph(i + text));
+			if (i % 4 == 0) {
+				kept.add(i + text);
+			} else {
+				ids.add(book.getSize() - 1);
+			}
+		}
+		assertTrue(book.deleteParagraphs(ids));
+		assertEquals(book.getParagraphsContents(), kept);
+	}
+
+	@Test
+	public void compact() {
+		Paragraph orphan = new Paragraph("Orphelin");
+		Paragraph orphanTarget = new Paragraph("Cible d'un orphelin");
+		Paragraph reachable = new Paragraph("Atteignable");
+		book.addParagraph(orphan);
+		book.addParagraph(orphanTarget);
+		book.addParagraph(reachable);
+		orphan.addChoice("Suivant", orphanTarget);
+		orphanTarget.addChoice("Retour", book.getParagraphByID(0));
+		book.getParagraphByID(4).addChoice("Plus loin", reachable);
+		int permanentId = reachable.getPermanentId();
+		assertArrayEquals(book.compact(), new int[] {0, 1, 2, 3, 4, -1, -1, 5});
+		assertEquals(book.getSize(), 6);
+		assertTrue(book.getParagraphIdByObject(reachable) == 5);
+		assertTrue(book.getParagraphByPermanentId(permanentId) == reachable);
+		assertTrue(book.getParagraphIdByObject(orphan) == -1);
+		assertFalse(book.getParagraphByID(0).getIncomingParagraphs().contains(orphanTarget));
+		assertArrayEquals(book.compact(), new int[] {0, 1, 2, 3, 4, 5});
+	}
+
+	@Test
+	public void compactManyParagraphs() {
+		for (int i = 0; i < 300; i++) {
+			book.addParagraph(new Paragraph(i + "x".repeat(2000)));
+		}
+		assertTrue(book.compact().length == 305);
+		assertEquals(book.getSize(), 5);
+		assertEquals(book.getParagraphByID(0).getContent(), GameBookFactory.P1_CONTENT);
+		assertEquals(book.getLastParagraph().getContent(), GameBookFactory.P5_CONTENT);
+	}
+
+	@Test
+	public void compactAfterManyDeletions() {
+		for (int i = 0; i < 300; i++) {
+			book.addParagraph(new Paragraph("Supprimé " + i));
+		}
+		Paragraph reachable = new Paragraph("Atteignable");
+		book.addParagraph(reachable);
+		book.getParagraphByID(4).addChoice("Plus loin", reachable);
+		// Les 300 paragraphes supprimés laissent leur pierre tombale, seuls les présents sont indexés.
+		assertTrue(book.compact().length == 306);
+		assertArrayEquals(book.compact(), new int[] {0, 1, 2, 3, 4, 5});
+		List<Paragraph> before = book.paragraphs().collect(Collectors.toList());
+		assertReordered(before, book.reorderBreadthFirst());
+		assertTrue(book.getParagraphByPermanentId(reachable.getPermanentId()) == reachable);
+	}
+
+	private void assertReordered(List<Paragraph> before, int[] map) {
+		assertTrue(map.length == before.size());
+		assertTrue(map[0] == 0);
+		for (int id = 0; id < before.size(); id++) {
+			assertTrue(book.getParagraphByID(map[id]) == before.get(id));
+			assertTrue(book.getParagraphByPermanentId(before.get(id).getPermanentId()) == before.get(id));
+		}
+	}
+
+	@Test
+	public void reorderBreadthFirst() {
+		Paragraph orphan = new Paragraph("Orphelin");
+		book.insertParagraphAt(1, orphan);
+		List<Paragraph> before = book.paragraphs().collect(Collectors.toList());
+		List<String> firstChoices = book.getParagraphByID(0).getChoices();
+		assertReordered(before, book.reorderBreadthFirst());
+		Paragraph first = book.getParagraphByID(0);
+		for (int i = 0; i < firstChoices.size(); i++) {
+			assertTrue(book.getParagraphByID(i + 1) == first.getParagraphByChoiceKey(firstChoices.get(i)));
+		}
+		assertTrue(book.getLastParagraph() == orphan);
+	}
+
+	@Test
+	public void reorderCuthillMcKee() {
+		List<Paragraph> before = book.paragraphs().collect(Collectors.toList());
+		long fingerprint = book.getReachableFingerprint(book.getParagraphByID(0));
+		assertReordered(before, book.reorderCuthillMcKee());
+		assertTrue(book.getReachableFingerprint(book.getParagraphByID(0)) == fingerprint);
 	}
 
 	@Test
 	public void deleteParagraph() {
 		Paragraph p = book.getParagraphByID(2);
 		assertEquals(p.getChoices().size(), 3);
+		Paragraph removed = book.getParagraphByID(4);
 		assertTrue(book.deleteParagraph(4));
 		assertEquals(p.getChoices().size(), 2);
+		assertTrue(removed.getIncomingParagraphs().isEmpty());
 		// try to reach the deletion limit
 		assertTrue(book.deleteParagraph(0));
 		assertTrue(book.deleteParagraph(0));
 		assertTrue(book.deleteParagraph(0));
 		assertFalse(book.deleteParagraph(0));
 	}
+
+	@Test
+	public void snapshotPinsVersion() {
+		List<Paragraph> paragraphs = GameBookFactory.makeParagraphs();
+		GameBookFactory.makeChoices(paragraphs);
+		GameBook shared = new GameBook(GameBookFactory.BOOK_TITLE, paragraphs, true);
+		assertTrue(shared.isConcurrent());
+		PublishedGameBook first = shared.snapshot();
+		assertTrue(shared.snapshot() == first);
+		paragraphs.get(0).setContent("Modifié");
+		assertTrue(shared.deleteParagraph(3));
+		PublishedGameBook second = shared.snapshot();
+		assertTrue(second != first);
+		assertTrue(shared.snapshot() == second);
+		assertTrue(first.getSize() == 5);
+		assertEquals(first.getContent(0), GameBookFactory.P1_CONTENT);
+		assertTrue(first.getTarget(0, GameBookFactory.WALK) == 3);
+		assertTrue(second.getSize() == 4);
+		assertEquals(second.getContent(0), "Modifié");
+		assertFalse(book.isConcurrent());
+		PublishedGameBook plain = book.snapshot();
+		assertTrue(book.snapshot() == plain);
+		assertTrue(book.getParagraphByID(0).setContent("Modifié"));
+		assertTrue(book.snapshot() != plain);
+	}
+
+	@Test
+	public void modificationCount() {
+		long count = book.getModificationCount();
+		long fingerprint = book.getFingerprint();
+		assertTrue(book.getModificationCount() == count);
+		Paragraph p = book.getParagraphByID(0);
+		assertTrue(p.setContent("Modifié"));
+		assertTrue(p.setContent(GameBookFactory.P1_CONTENT));
+		assertTrue(book.getFingerprint() == fingerprint);
+		assertTrue(book.getModificationCount() > count);
+		count = book.getModificationCount();
+		assertTrue(book.setTitle("Autre titre"));
+		assertTrue(book.getModificationCount() > count);
+		count = book.getModificationCount();
+		p.addChoice("Nouveau", p);
+		assertTrue(book.getModificationCount() > count);
+		count = book.getModificationCount();
+		book.moveParagraph(0, 2);
+		assertTrue(book.getModificationCount() > count);
+		count = book.getModificationCount();
+		assertFalse(book.setTitle(" "));
+		assertTrue(book.getModificationCount() == count);
+	}
+
+	@Test
+	public void snapshotKeyedOnModifications() {
+		PublishedGameBook first = book.snapshot();
+		Paragraph p = book.getParagraphByID(0);
+		long fingerprint = book.getFingerprint();
+		assertTrue(p.setContent("Modifié"));
+		assertTrue(p.setContent(GameBookFactory.P1_CONTENT));
+		// Même empreinte, mais le livre a été modifié entre-temps : nouvelle version.
+		assertTrue(book.getFingerprint() == fingerprint);
+		PublishedGameBook second = book.snapshot();
+		assertTrue(second != first);
+		assertTrue(book.snapshot() == second);
+		assertTrue(book.setTitle("Autre titre"));
+		assertEquals(book.snapshot().getTitle(), "Autre titre");
+		book.moveParagraph(0, 1);
+		assertEquals(book.snapshot().getContent(1), GameBookFactory.P1_CONTENT);
+	}
+
+	@Test
+	public void readOnlyQueriesKeepSnapshot() {
+		List<Paragraph> paragraphs = GameBookFactory.makeParagraphs();
+		GameBookFactory.makeChoices(paragraphs);
+		GameBook shared = new GameBook(GameBookFactory.BOOK_TITLE, paragraphs, true);
+		PublishedGameBook first = shared.snapshot();
+		long fingerprint = shared.getFingerprint();
+		assertTrue(shared.getReachableFingerprint(paragraphs.get(0)) != 0);
+		assertTrue(paragraphs.get(1).getFingerprint() != 0);
+		assertTrue(shared.getParagraphsByChoiceLabel(GameBookFactory.WALK).contains(paragraphs.get(0)));
+		assertTrue(shared.getParagraphsByChoiceLabel("x").isEmpty());
+		assertTrue(shared.snapshot() == first);
+		assertTrue(shared.getFingerprint() == fingerprint);
+	}
+
+	@Test
+	public void concurrentAppendsAndDeletes() throws InterruptedException {
+		List<Paragraph> originals = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			originals.add(new Paragraph("p" + i));
+		}
+		GameBook shared = new GameBook("Partagé", originals, true);
+		Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 2; t++) {
+			int writer = t;
+			threads.add(new Thread(() -> {
+				try {
+					for (int i = 0; i < 2000; i++) {
+						Paragraph added = new Paragraph("w" + writer + " " + i);
+						assertTrue(shared.addParagraph(added));
+					}
+				} catch (Throwable e) {
+					errors.add(e);
+				}
+			}));
+		}
+		threads.add(new Thread(() -> {
+			try {
+				for (int i = 0; i < 2000; i++) {
+					shared.deleteParagraph(shared.getSize() - 1);
+				}
+			} catch (Throwable e) {
+				errors.add(e);
+			}
+		}));
+		threads.forEach(Thread::start);
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertTrue(errors.isEmpty(), errors.toString());
+	}
+
+	private static long choiceBytes(GameBook book) {
+		return book.paragraphs().mapToLong(Paragraph::choiceFootprint).sum();
+	}
+
+	private static long ropeBytes(GameBook book) {
+		return book.paragraphs().mapToLong(Paragraph::contentFootprint).sum();
+	}
+
+	@Test
+	public void memoryFootprint() {
+		MemoryFootprint before = book.getMemoryFootprint();
+		assertTrue(before.getChoiceBytes() == choiceBytes(book));
+		assertTrue(before.getCacheBytes() == 0 && before.getHistoryBytes() == 0);
+		assertTrue(before.getTotalBytes() == before.getContentBytes() + before.getChoiceBytes()
+				+ before.getLabelBytes() + before.getParagraphBytes());
+		Paragraph first = book.getParagraphByID(0);
+		for (int i = 0; i < 12; i++) {
+			first.addChoice("Choix " + i, book.getParagraphByID(i % 5));
+		}
+		MemoryFootprint edited = book.getMemoryFootprint();
+		assertTrue(edited.getChoiceBytes() == choiceBytes(book) && edited.getChoiceBytes() > before.getChoiceBytes());
+		assertTrue(edited.getLabelBytes() > before.getLabelBytes());
+		assertTrue(first.insertText(0, "x".repeat(2000)));
+		assertTrue(book.getMemoryFootprint().getContentBytes() >= before.getContentBytes() + 2000);
+		assertTrue(first.setContent("Court"));
+		assertTrue(ropeBytes(book) == 0);
+		book.addParagraph(new Paragraph("Nouveau"));
+		assertTrue(book.getMemoryFootprint().getParagraphBytes() > before.getParagraphBytes());
+		PublishedGameBook published = book.snapshot();
+		ChainGraph graph = book.getChainGraph();
+		assertTrue(book.getMemoryFootprint().getCacheBytes() == published.getMemoryFootprint().getTotalBytes() + graph.footprint());
+	}
+
+	@Test
+	public void rejectedTextEditKeepsRepresentation() {
+		Paragraph p = book.getParagraphByID(0);
+		int length = p.getContent().length();
+		long before = book.getMemoryFootprint().getContentBytes();
+		assertTrue(p.contentFootprint() == 0);  // Contenu rangé dans la zone du livre.
+		assertFalse(p.insertText(-5, "x"));
+		assertFalse(p.insertText(length + 1, "x"));
+		assertFalse(p.deleteText(-1, 2));
+		assertFalse(p.deleteText(length, 1));
+		assertFalse(p.deleteText(0, length));
+		assertTrue(p.contentFootprint() == 0);
+		assertTrue(book.getMemoryFootprint().getContentBytes() == before);
+		assertTrue(p.insertText(0, "x"));
+		assertTrue(p.contentFootprint() > 0);
+		assertTrue(book.getMemoryFootprint().getContentBytes() == before + p.contentFootprint());
+		assertEquals(p.getContent(), "x" + GameBookFactory.P1_CONTENT);
+	}
+
+	@Test
+	public void memoryFootprintFollowsEdits() {
+		Random random = new Random(7);
+		for (int i = 0; i < 400; i++) {
+			int size = book.getSize();
+			Paragraph p = book.getParagraphByID(random.nextInt(size));
+			switch (random.nextInt(7)) {
+			case 0:
+				p.addChoice("Choix " + random.nextInt(20), book.getParagraphByID(random.nextInt(size)));
+				break;
+			case 1:
+				p.deleteChoice("Choix " + random.nextInt(20));
+				break;
+			case 2:
+				p.updateChoiceParagraph("Choix " + random.nextInt(20), book.getParagraphByID(random.nextInt(size)));
+				break;
+			case 3:
+				book.addParagraph(new Paragraph("Paragraphe " + i));
+				break;
+			case 4:
+				book.deleteParagraph(random.nextInt(size));
+				break;
+			case 5:
+				p.insertText(0, "Texte " + i);
+				break;
+			default:
+				p.setContent("Contenu " + i);
+			}
+			MemoryFootprint footprint = book.getMemoryFootprint();
+			assertTrue(footprint.getChoiceBytes() == choiceBytes(book));
+			assertTrue(footprint.getContentBytes() >= ropeBytes(book));
+		}
+		book.compact();
+		assertTrue(book.getMemoryFootprint().getChoiceBytes() == choiceBytes(book));
+	}
+
+	@Test
+	public void concurrentReadsDuringEdits() throws InterruptedException {
+		final String next = "Suivant";
+		final int size = 50;
+		List<Paragraph> originals = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			originals.add(new Paragraph("p" + i));
+		}
+		GameBook shared = new GameBook("Partagé", originals, true);
+		for (int i = 0; i < size; i++) {
+			originals.get(i).addChoice(next, originals.get((i + 1) % size));
+		}
+		Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+		Thread writer = new Thread(() -> {
+			Random random = new Random(1);
+			try {
+				for (int i = 0; i < 3000; i++) {
+					Paragraph original = originals.get(random.nextInt(size));
+					switch (i % 5) {
+					case 0:
+						Paragraph added = new Paragraph("ajout " + i);
+						shared.edit(batch -> {
+							batch.insertParagraphAt(random.nextInt(shared.getSize() + 1), added);
+							batch.addChoice(added, next, original);
+						});
+						break;
+					case 1:
+						shared.moveParagraph(random.nextInt(shared.getSize()), random.nextInt(shared.getSize()));
+						break;
+					case 2:
+						original.updateChoiceParagraph(next, originals.get(random.nextInt(size)));
+						break;
+					case 3:
+						original.insertText(0, "+");
+						break;
+					default:
+						int id = random.nextInt(shared.getSize());
+						if (!originals.contains(shared.getParagraphByID(id))) {
+							shared.deleteParagraph(id);
+						}
+					}
+				}
+			} catch (Throwable e) {
+				errors.add(e);
+			}
+		});
+		List<Thread> readers = new ArrayList<>();
+		for (int r = 0; r < 4; r++) {
+			readers.add(new Thread(() -> {
+				Random random = new Random();
+				try {
+					while (writer.isAlive()) {
+						assertFalse(shared.getParagraphByID(random.nextInt(size)).getContent().isBlank());
+						// Les paragraphes d'origine ne sont jamais supprimés et gardent un seul choix.
+						Paragraph p = originals.get(random.nextInt(size));
+						assertTrue(shared.getParagraphIdByObject(p) >= 0);
+						assertEquals(p.getChoices(), List.of(next));
+						assertTrue(originals.contains(p.getParagraphByChoiceKey(next)));
+						assertTrue(shared.getParagraphsContents().size() >= size);
+						// Une transaction est vue entière : chaque paragraphe publié a son choix.
+						PublishedGameBook published = shared.snapshot();
+						for (int id = 0; id < published.getSize(); id++) {
+							assertTrue(published.getTarget(id, next) >= 0);
+						}
+					}
+				} catch (Throwable e) {
+					errors.add(e);
+				}
+			}));
+		}
+		writer.start();
+		readers.forEach(Thread::start);
+		writer.join();
+		for (Thread reader : readers) {
+			reader.join();
+		}
+		assertTrue(errors.isEmpty(), errors.toString());
+		for (Paragraph p : originals) {
+			assertTrue(shared.getParagraphIdByObject(p) >= 0);
+			p.forEachChoice((key, target) -> assertTrue(target.getIncomingParagraphs().contains(p)));
+		}
+	}
 }
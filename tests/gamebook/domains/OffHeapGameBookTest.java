@@ -0,0 +1,89 @@
+package gamebook.domains;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class OffHeapGameBookTest {
+
+	private final GameBook book = GameBookFactory.makeGameBook();
+
+	private void assertSameGraph(PublishedGameBook expected, GameBookGraph actual) {
+		assertEquals(actual.getTitle(), expected.getTitle());
+		assertTrue(actual.getSize() == expected.getSize());
+		assertTrue(actual.getTotalChoiceCount() == expected.getTotalChoiceCount());
+		for (int id = 0; id < expected.getSize(); id++) {
+			assertEquals(actual.getContent(id), expected.getContent(id));
+			assertEquals(actual.getHead(id), expected.getHead(id));
+			assertEquals(actual.getChoices(id), expected.getChoices(id));
+			assertTrue(actual.getFirstChoice(id) == expected.getFirstChoice(id));
+			for (String key : expected.getChoices(id)) {
+				assertTrue(actual.getTarget(id, key) == expected.getTarget(id, key));
+			}
+		}
+		for (int c = 0; c < expected.getTotalChoiceCount(); c++) {
+			assertTrue(actual.getChoiceTarget(c) == expected.getChoiceTarget(c));
+			assertEquals(actual.getLabel(actual.getChoiceLabelId(c)), expected.getLabel(expected.getChoiceLabelId(c)));
+		}
+	}
+
+	@Test
+	public void of() {
+		PublishedGameBook published = book.snapshot();
+		OffHeapGameBook offHeap = OffHeapGameBook.of(published);
+		assertSameGraph(published, offHeap);
+		assertTrue(offHeap.getTarget(0, "Inconnu") == -1);
+		assertTrue(offHeap.getTarget(1, GameBookFactory.WALK) == -1);
+		assertThrows(IndexOutOfBoundsException.class, () -> offHeap.getContent(published.getSize()));
+		assertTrue(offHeap.getMemoryFootprint().getContentBytes() > 0);
+		assertTrue(offHeap.getMemoryFootprint().getLabelBytes() == published.getMemoryFootprint().getLabelBytes());
+	}
+
+	@Test
+	public void manyParagraphs() {
+		Paragraph hub = book.getParagraphByID(0);
+		for (int i = 0; i < 3000; i++) {
+			Paragraph p = new Paragraph("Paragraphe n°" + i + " é".repeat(i % 7));
+			book.addParagraph(p);
+			hub.addChoice("Aller en " + i, p);
+			p.addChoice(GameBookFactory.WALK, hub);
+		}
+		PublishedGameBook published = book.snapshot();
+		assertSameGraph(published, OffHeapGameBook.of(published));
+	}
+
+	@Test
+	public void builder() {
+		OffHeapGameBook.Builder builder = new OffHeapGameBook.Builder("Livre");
+		assertThrows(IllegalStateException.class, () -> builder.addChoice("A", 0));
+		assertTrue(builder.addParagraph("Début") == 0);
+		builder.addChoice("Avancer", 1).addChoice("Nulle part", -1);
+		assertThrows(IllegalArgumentException.class, () -> builder.addChoice("Avancer", 0));
+		assertTrue(builder.addParagraph("") == 1);
+		OffHeapGameBook offHeap = builder.build();
+		assertThrows(IllegalStateException.class, () -> builder.addParagraph("Fin"));
+		assertEquals(offHeap.getContent(0), "Début");
+		assertEquals(offHeap.getContent(1), "");
+		assertTrue(offHeap.getTarget(0, "Avancer") == 1);
+		assertTrue(offHeap.getTarget(0, "Nulle part") == -1);
+		assertTrue(offHeap.getChoiceCount(1) == 0);
+	}
+
+	@Test
+	public void buildRejectsMissingTarget() {
+		OffHeapGameBook.Builder builder = new OffHeapGameBook.Builder("Livre");
+		builder.addParagraph("Début");
+		builder.addChoice("Avancer", 1);
+		assertThrows(IllegalStateException.class, () -> builder.build());
+	}
+
+	@Test
+	public void session() {
+		Session sess = Session.forPublished(OffHeapGameBook.of(book.snapshot()));
+		sess.goToParagraphByChoiceKey(GameBookFactory.WALK);
+		assertTrue(sess.getCurrentParagraphId() == 3);
+		assertEquals(sess.getCurrentContent(), book.getParagraphByID(3).getContent());
+	}
+}
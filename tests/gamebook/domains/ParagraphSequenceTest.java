@@ -0,0 +1,111 @@
+package gamebook.domains;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ParagraphSequenceTest {
+	
+	private final ParagraphSequence sequence = new ParagraphSequence();
+	private final List<Paragraph> expected = new ArrayList<>();
+
+	private void assertSameOrder() {
+		assertEquals(sequence.size(), expected.size());
+		assertEquals(sequence, expected);
+		for (int i = 0; i < expected.size(); i++) {
+			assertTrue(sequence.get(i) == expected.get(i));
+			assertTrue(sequence.indexOf(expected.get(i)) == i);
+		}
+	}
+
+	@Test
+	public void addAndRemove() {
+		for (String content : List.of("a", "b", "c", "d")) {
+			Paragraph p = new Paragraph(content);
+			sequence.add(p);
+			expected.add(p);
+		}
+		Paragraph p = new Paragraph("e");
+		sequence.add(1, p);
+		expected.add(1, p);
+		assertSameOrder();
+		assertTrue(sequence.remove(2) == expected.remove(2));
+		assertSameOrder();
+		assertTrue(sequence.indexOf(new Paragraph("f")) == -1);
+		assertFalse(sequence.contains(new Paragraph("f")));
+	}
+
+	@Test
+	public void refusesDuplicates() {
+		Paragraph p = new Paragraph(null);
+		sequence.add(p);
+		try {
+			sequence.add(p);
+			fail("Duplicate paragraph accepted");
+		} catch (IllegalArgumentException e) {
+			assertTrue(sequence.size() == 1);
+		}
+	}
+
+	@Test
+	public void move() {
+		for (int i = 0; i < 6; i++) {
+			Paragraph p = new Paragraph("p" + i);
+			sequence.add(p);
+			expected.add(p);
+		}
+		sequence.move(0, 5);
+		expected.add(5, expected.remove(0));
+		assertSameOrder();
+		sequence.move(4, 1);
+		expected.add(1, expected.remove(4));
+		assertSameOrder();
+	}
+
+	@Test
+	public void rebuild() {
+		for (int i = 0; i < 100; i++) {
+			Paragraph p = new Paragraph("p" + i);
+			sequence.add(p);
+			if (i % 3 != 0) {
+				expected.add(0, p);
+			}
+		}
+		Paragraph p = new Paragraph("new");
+		expected.add(p);
+		sequence.rebuild(expected);
+		assertSameOrder();
+		sequence.add(10, new Paragraph("after"));
+		assertTrue(sequence.indexOf(p) == expected.size());
+	}
+
+	@Test
+	public void randomOperationsMatchList() {
+		Random random = new Random(42);
+		for (int step = 0; step < 5000; step++) {
+			int operation = random.nextInt(3);
+			if (expected.isEmpty() || operation == 0) {
+				Paragraph p = new Paragraph("p" + step);
+				int index = random.nextInt(expected.size() + 1);
+				sequence.add(index, p);
+				expected.add(index, p);
+			} else if (operation == 1) {
+				int index = random.nextInt(expected.size());
+				assertTrue(sequence.remove(index) == expected.remove(index));
+			} else {
+				int from = random.nextInt(expected.size());
+				int to = random.nextInt(expected.size());
+				sequence.move(from, to);
+				expected.add(to, expected.remove(from));
+			}
+		}
+		assertSameOrder();
+	}
+}
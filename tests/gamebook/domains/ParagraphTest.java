@@ -3,8 +3,15 @@ package gamebook.domains;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -43,6 +50,30 @@ class ParagraphTest {
 		assertFalse(choices.contains(GameBookFactory.FOLLOW));
 	}
 
+	@Test
+	public void getChoiceView() {
+		Map<String, Paragraph> view = p0.getChoiceView();
+		assertEquals(view.keySet(), Set.copyOf(p0.getChoices()));
+		assertEquals(view.get(GameBookFactory.WALK), p3);
+		p0.deleteChoice(GameBookFactory.WALK);
+		assertFalse(view.containsKey(GameBookFactory.WALK));
+		try {
+			view.clear();
+			fail("Choice view is modifiable");
+		} catch (UnsupportedOperationException e) {
+			assertEquals(p0.choiceCount(), 2);
+		}
+	}
+
+	@Test
+	public void forEachChoice() {
+		Map<String, Paragraph> visited = new HashMap<>();
+		p2.forEachChoice(visited::put);
+		assertEquals(visited, p2.getChoiceView());
+		assertEquals(p2.choiceCount(), 3);
+		assertEquals(p4.choiceCount(), 0);
+	}
+
 	@Test
 	public void getParagraphByChoiceKey() {
 		assertEquals(p0.getParagraphByChoiceKey(GameBookFactory.KEEP_READING), p1);
@@ -57,6 +88,22 @@ class ParagraphTest {
 		assertFalse(p4.setContent(null));
 	}
 	
+	@Test
+	public void insertAndDeleteText() {
+		Paragraph p = new Paragraph("abc");
+		assertTrue(p.insertText(3, "def"));
+		assertTrue(p.insertText(0, "> "));
+		assertEquals(p.getContent(), "> abcdef");
+		assertTrue(p.deleteText(0, 2));
+		assertEquals(p.getContent(), "abcdef");
+		assertFalse(p.insertText(7, "x"));
+		assertFalse(p.insertText(0, ""));
+		assertFalse(p.deleteText(0, 6));
+		assertFalse(p.deleteText(4, 3));
+		assertTrue(p.setContent("xyz"));
+		assertEquals(p.getContent(), "xyz");
+	}
+	
 	@Test
 	public void setContentWithSpecifiedParagraph() {
 		String newContent = "New content of this paragraph";
@@ -91,6 +138,21 @@ class ParagraphTest {
 		assertEquals(p2.getChoices().size(), 2);
 	}
 
+	@Test
+	public void getIncomingParagraphs() {
+		assertEquals(p0.getIncomingParagraphs(), Set.of());
+		assertEquals(p4.getIncomingParagraphs(), Set.of(p2, p3));
+		p2.deleteChoice(GameBookFactory.FOLLOW);
+		assertEquals(p4.getIncomingParagraphs(), Set.of(p3));
+		p3.updateChoiceParagraph(GameBookFactory.FOLLOW, p1);
+		assertEquals(p4.getIncomingParagraphs(), Set.of());
+		assertTrue(p1.getIncomingParagraphs().contains(p3));
+		assertTrue(p3.updateChoiceKey(GameBookFactory.FOLLOW, "Abandonner"));
+		assertTrue(p1.getIncomingParagraphs().contains(p3));
+		p3.deleteChoiceByParagraph(p1);
+		assertFalse(p1.getIncomingParagraphs().contains(p3));
+	}
+
 	@Test
 	public void updateChoiceKey() {
 		assertTrue(p3.updateChoiceKey(GameBookFactory.FOLLOW, GameBookFactory.WALK));
@@ -114,4 +176,37 @@ class ParagraphTest {
 		assertTrue(p0.hasChoice());
 		assertFalse(p4.hasChoice());
 	}
+
+	@Test
+	public void looseParagraphsBuiltConcurrently() throws InterruptedException {
+		Queue<String> errors = new ConcurrentLinkedQueue<>();
+		List<String> firstChoices = GameBookFactory.makeGameBook().getParagraphByID(0).getChoices();
+		List<Thread> builders = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			String prefix = "T" + t + "-";
+			builders.add(new Thread(() -> {
+				Paragraph next = new Paragraph("Fin");
+				for (int i = 0; i < 20000; i++) {
+					Paragraph p = new Paragraph(prefix + i);
+					p.addChoice(prefix + i, next);
+					p.addChoice(GameBookFactory.WALK, next);
+					if (!p.getChoices().equals(List.of(prefix + i, GameBookFactory.WALK))
+							|| p.getParagraphByChoiceKey(prefix + i) != next) {
+						errors.add(prefix + i);
+					}
+				}
+				GameBook book = GameBookFactory.makeGameBook();
+				if (!book.getParagraphByID(0).getChoices().equals(firstChoices)) {
+					errors.add(prefix + "livre");
+				}
+			}));
+		}
+		for (Thread builder : builders) {
+			builder.start();
+		}
+		for (Thread builder : builders) {
+			builder.join();
+		}
+		assertTrue(errors.isEmpty());
+	}
 }
@@ -0,0 +1,89 @@
+package gamebook.domains;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class PersistentGameBookTest {
+
+	private final GameBook book = GameBookFactory.makeGameBook();
+	private final PersistentGameBook first = PersistentGameBook.of(book);
+
+	private void assertSameGraph(GameBook expected, PersistentGameBook persistent) {
+		assertEquals(expected.getTitle(), persistent.getTitle());
+		assertTrue(persistent.getSize() == expected.getSize());
+		for (int id = 0; id < expected.getSize(); id++) {
+			Paragraph p = expected.getParagraphByID(id);
+			PersistentParagraph copy = persistent.getParagraphByID(id);
+			assertEquals(p.getContent(), copy.getContent());
+			assertEquals(p.getChoices(), copy.getChoices());
+			p.forEachChoice((key, target) -> assertTrue(
+					persistent.getParagraphIdByKey(copy.getTargetKey(key)) == expected.getParagraphIdByObject(target)));
+		}
+	}
+
+	@Test
+	public void copiesGameBook() {
+		assertSameGraph(book, first);
+		assertSameGraph(first.toGameBook(), first);
+	}
+
+	@Test
+	public void editsKeepOlderVersions() {
+		PersistentGameBook second = first.withTitle("Suite").withContent(0, "Modifié");
+		PersistentGameBook third = second.withParagraph("Fin").withChoice(0, "Aller à la fin", 5);
+		assertSameGraph(book, first);
+		assertEquals("Suite", second.getTitle());
+		assertEquals("Modifié", second.getParagraphByID(0).getContent());
+		assertTrue(second.getSize() == 5);
+		assertTrue(third.getSize() == 6);
+		int end = third.getParagraphByID(0).getTargetKey("Aller à la fin");
+		assertEquals("Fin", third.getParagraphByKey(end).getContent());
+		assertTrue(second.getParagraphByID(0).getTargetKey("Aller à la fin") == -1);
+	}
+
+	@Test
+	public void refusesInvalidEdits() {
+		assertSame(first, first.withTitle(" "));
+		assertSame(first, first.withContent(1, null));
+		assertSame(first, first.withoutChoice(0, "Inconnu"));
+		assertSame(first, first.withChoice(0, GameBookFactory.WALK, 3));
+		PersistentGameBook single = new PersistentGameBook(null);
+		assertEquals(GameBook.BOOK_TITLE, single.getTitle());
+		assertSame(single, single.withoutParagraph(0));
+	}
+
+	@Test
+	public void withoutChoiceNormalizesLabel() {
+		PersistentGameBook added = first.withChoice(0, null, 1);
+		assertTrue(added.getParagraphByID(0).getChoices().size() == first.getParagraphByID(0).getChoices().size() + 1);
+		PersistentGameBook removed = added.withoutChoice(0, null);
+		assertEquals(first.getParagraphByID(0).getChoices(), removed.getParagraphByID(0).getChoices());
+		assertTrue(removed.toGameBook().getParagraphByID(1).getIncomingParagraphs().size()
+				== first.toGameBook().getParagraphByID(1).getIncomingParagraphs().size());
+	}
+
+	@Test
+	public void movesWithoutTouchingChoices() {
+		int target = first.getParagraphByID(0).getTargetKey(GameBookFactory.WALK);
+		PersistentGameBook moved = first.withParagraphMoved(3, 0);
+		assertTrue(moved.getParagraphByID(0).getKey() == target);
+		assertTrue(moved.getParagraphIdByKey(target) == 0);
+		assertTrue(moved.getParagraphByID(1).getTargetKey(GameBookFactory.WALK) == target);
+		assertTrue(first.getParagraphIdByKey(target) == 3);
+	}
+
+	@Test
+	public void deletesIncomingChoices() {
+		GameBook expected = GameBookFactory.makeGameBook();
+		expected.deleteParagraph(3);
+		PersistentGameBook deleted = first.withoutParagraph(3);
+		assertSameGraph(expected, deleted);
+		assertSameGraph(book, first);
+		PersistentGameBook restored = deleted.withParagraphAt(3, "Retour").withChoice(0, GameBookFactory.WALK, 3);
+		assertTrue(restored.withoutParagraph(3).getParagraphByID(0).getChoiceCount()
+				== deleted.getParagraphByID(0).getChoiceCount());
+	}
+}
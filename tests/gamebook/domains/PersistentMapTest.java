@@ -0,0 +1,101 @@
+package gamebook.domains;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class PersistentMapTest {
+
+	/**
+	 * Clé dont le hash ne dépend que de 'hash', pour forcer les collisions.
+	 */
+	private static final class Key {
+		private final int hash;
+		private final int id;
+
+		private Key(int hash, int id) {
+			this.hash = hash;
+			this.id = id;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Key && ((Key) o).hash == hash && ((Key) o).id == id;
+		}
+	}
+
+	private static <K, V> void assertSameContent(Map<K, V> expected, PersistentMap<K, V> map) {
+		assertEquals(expected.size(), map.size());
+		for (Map.Entry<K, V> entry : expected.entrySet()) {
+			assertEquals(entry.getValue(), map.get(entry.getKey()));
+		}
+		Map<K, V> seen = new HashMap<>();
+		map.forEach(seen::put);
+		assertEquals(expected, seen);
+	}
+
+	@Test
+	public void matchesHashMapAndKeepsVersions() {
+		Random random = new Random(7);
+		Map<Integer, Integer> expected = new HashMap<>();
+		PersistentMap<Integer, Integer> map = PersistentMap.empty();
+		List<Map<Integer, Integer>> expectedVersions = new ArrayList<>();
+		List<PersistentMap<Integer, Integer>> versions = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			int key = random.nextInt(2000);
+			if (random.nextInt(3) == 0) {
+				expected.remove(key);
+				map = map.without(key);
+			} else {
+				expected.put(key, i);
+				map = map.with(key, i);
+			}
+			if (i % 500 == 0) {
+				expectedVersions.add(new HashMap<>(expected));
+				versions.add(map);
+			}
+		}
+		assertSameContent(expected, map);
+		for (int v = 0; v < versions.size(); v++) {
+			assertSameContent(expectedVersions.get(v), versions.get(v));
+		}
+	}
+
+	@Test
+	public void handlesCollisions() {
+		PersistentMap<Key, String> map = PersistentMap.empty();
+		for (int id = 0; id < 5; id++) {
+			map = map.with(new Key(42, id), "v" + id);
+		}
+		map = map.with(new Key(42 + 32, 0), "other");
+		assertEquals(6, map.size());
+		assertEquals("v3", map.get(new Key(42, 3)));
+		assertEquals("other", map.get(new Key(42 + 32, 0)));
+		PersistentMap<Key, String> smaller = map.without(new Key(42, 3));
+		assertNull(smaller.get(new Key(42, 3)));
+		assertEquals("v3", map.get(new Key(42, 3)));
+		assertTrue(smaller.size() == 5);
+	}
+
+	@Test
+	public void unchangedVersionIsReturned() {
+		PersistentMap<String, Integer> map = PersistentMap.<String, Integer>empty().with("a", 1);
+		assertSame(map, map.without("b"));
+		assertSame(PersistentMap.empty(), map.without("a"));
+		assertTrue(map.with("a", map.get("a")) == map);
+	}
+}
@@ -0,0 +1,55 @@
+package gamebook.domains;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class PersistentVectorTest {
+
+	@Test
+	public void matchesArrayListAndKeepsVersions() {
+		Random random = new Random(11);
+		List<Integer> expected = new ArrayList<>();
+		PersistentVector<Integer> vector = PersistentVector.empty();
+		List<List<Integer>> expectedVersions = new ArrayList<>();
+		List<PersistentVector<Integer>> versions = new ArrayList<>();
+		for (int i = 0; i < 3000; i++) {
+			int action = expected.isEmpty() ? 0 : random.nextInt(3);
+			if (action == 0) {
+				int index = random.nextInt(expected.size() + 1);
+				expected.add(index, i);
+				vector = vector.withInserted(index, i);
+			} else if (action == 1) {
+				int index = random.nextInt(expected.size());
+				expected.remove(index);
+				vector = vector.without(index);
+			} else {
+				int index = random.nextInt(expected.size());
+				expected.set(index, -i);
+				vector = vector.with(index, -i);
+			}
+			if (i % 300 == 0) {
+				expectedVersions.add(new ArrayList<>(expected));
+				versions.add(vector);
+			}
+		}
+		assertEquals(expected, vector);
+		assertEquals(expected, new ArrayList<>(vector));
+		for (int v = 0; v < versions.size(); v++) {
+			assertEquals(expectedVersions.get(v), versions.get(v));
+		}
+	}
+
+	@Test
+	public void isNotModifiable() {
+		PersistentVector<String> vector = PersistentVector.<String>empty().withInserted(0, "a");
+		assertThrows(UnsupportedOperationException.class, () -> vector.add("b"));
+		assertThrows(IndexOutOfBoundsException.class, () -> vector.withInserted(2, "b"));
+		assertThrows(IndexOutOfBoundsException.class, () -> vector.get(1));
+	}
+}
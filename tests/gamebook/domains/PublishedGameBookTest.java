@@ -0,0 +1,145 @@
+package gamebook.domains;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PublishedGameBookTest {
+	
+	private final GameBook book = GameBookFactory.makeGameBook();
+
+	private void assertSameGraph(GameBook expected, PublishedGameBook published) {
+		assertTrue(published.getSize() == expected.getSize());
+		for (int id = 0; id < expected.getSize(); id++) {
+			Paragraph p = expected.getParagraphByID(id);
+			int source = id;
+			assertEquals(published.getContent(id), p.getContent());
+			assertEquals(published.getHead(id), expected.getParagraphHead(p));
+			assertEquals(published.getChoices(id), p.getChoices());
+			p.forEachChoice((key, target) -> 
+				assertTrue(published.getTarget(source, key) == expected.getParagraphIdByObject(target)));
+			assertSameChoices(expected, published, id);
+		}
+		assertTrue(published.getFirstChoice(published.getSize()) == published.getTotalChoiceCount());
+	}
+
+	private void assertSameChoices(GameBook expected, PublishedGameBook published, int id) {
+		Paragraph p = expected.getParagraphByID(id);
+		int[] next = {published.getFirstChoice(id)};
+		p.forEachChoice((key, target) -> {
+			assertEquals(published.getLabel(published.getChoiceLabelId(next[0])), key);
+			assertTrue(published.getChoiceTarget(next[0]++) == expected.getParagraphIdByObject(target));
+		});
+		assertTrue(next[0] == published.getFirstChoice(id + 1));
+		int incoming = 0;
+		for (Paragraph source : p.getIncomingParagraphs()) {
+			incoming += (int) source.getChoiceView().values().stream().filter(target -> target == p).count();
+		}
+		assertTrue(published.getFirstIncoming(id + 1) - published.getFirstIncoming(id) == incoming);
+		for (int i = published.getFirstIncoming(id); i < published.getFirstIncoming(id + 1); i++) {
+			int source = published.getIncomingSource(i);
+			int choice = published.getIncomingChoice(i);
+			assertTrue(published.getChoiceTarget(choice) == id);
+			assertTrue(choice >= published.getFirstChoice(source) && choice < published.getFirstChoice(source + 1));
+		}
+	}
+
+	@Test
+	public void freeze() {
+		PublishedGameBook published = book.freeze();
+		assertEquals(published.getTitle(), GameBookFactory.BOOK_TITLE);
+		assertSameGraph(book, published);
+		assertTrue(published.getTarget(0, "Inconnu") == -1);
+		assertTrue(published.getTarget(1, GameBookFactory.WALK) == -1);
+	}
+
+	@Test
+	public void manyChoices() {
+		Paragraph hub = book.getParagraphByID(0);
+		for (int i = 0; i < 40; i++) {
+			Paragraph p = new Paragraph("p" + i);
+			book.addParagraph(p);
+			hub.addChoice("Aller en " + i, p);
+			p.addChoice(GameBookFactory.WALK, hub);
+		}
+		assertSameGraph(book, book.freeze());
+	}
+
+	@Test
+	public void largeFanOut() {
+		Paragraph hub = book.getParagraphByID(0);
+		Paragraph end = book.getParagraphByID(book.getSize() - 1);
+		int count = 50_000;
+		for (int i = 0; i < count; i++) {
+			hub.addChoice("Choix " + i, (i % 2 == 0) ? end : hub);
+		}
+		PublishedGameBook published = book.freeze();
+		int total = published.getTotalChoiceCount();
+		assertTrue(published.getChoiceCount(0) == count + 3);
+		for (int i = 0; i < count; i++) {
+			int expected = (i % 2 == 0) ? book.getSize() - 1 : 0;
+			assertTrue(published.getTarget(0, "Choix " + i) == expected);
+		}
+		assertTrue(published.getTarget(0, "Choix " + count) == -1);
+		// Tables au plus deux fois plus grandes que nécessaire : linéaire en nombre de choix.
+		assertTrue(published.getMemoryFootprint().getChoiceBytes() < 64L * total);
+	}
+
+	@Test
+	public void getPermanentId() {
+		Paragraph third = book.getParagraphByID(2);
+		assertTrue(book.deleteParagraph(1));
+		PublishedGameBook published = book.freeze();
+		assertTrue(published.getPermanentId(1) == 2);
+		assertTrue(book.getParagraphByPermanentId(published.getPermanentId(1)) == third);
+	}
+
+	@Test
+	public void toGameBook() {
+		PublishedGameBook published = book.freeze();
+		GameBook copy = published.toGameBook();
+		assertEquals(copy.getTitle(), GameBookFactory.BOOK_TITLE);
+		assertSameGraph(copy, published);
+		assertTrue(copy.getParagraphByID(0) != book.getParagraphByID(0));
+	}
+
+	@Test
+	public void ignoresLaterEdits() {
+		PublishedGameBook published = book.freeze();
+		book.getParagraphByID(0).setContent("Modifié");
+		book.deleteParagraph(3);
+		assertTrue(published.getSize() == 5);
+		assertEquals(published.getContent(0), GameBookFactory.P1_CONTENT);
+		assertTrue(published.getTarget(0, GameBookFactory.WALK) == 3);
+	}
+
+	@Test
+	public void keepsContentsDecodedLazily() {
+		List<Paragraph> paragraphs = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			paragraphs.add(new Paragraph(i + "é".repeat(5000)));
+		}
+		GameBook large = new GameBook("Grand livre", paragraphs);
+		PublishedGameBook published = large.freeze();
+		// Les contenus (10 Ko chacun) ne sont pas décodés par la compilation.
+		assertTrue(published.getMemoryFootprint().getContentBytes() < 100 * 1000);
+		assertEquals(published.getContent(42), 42 + "é".repeat(5000));
+	}
+
+	@Test
+	public void keepsContentsAfterCompaction() {
+		PublishedGameBook published = book.freeze();
+		List<String> expected = book.getParagraphsContents();
+		for (int i = 0; i < 200; i++) {
+			// Chaque contenu dépasse un quart de bloc : les blocs libérés sont réutilisés et la zone compactée.
+			book.getParagraphByID(i % book.getSize()).setContent(i + "€".repeat(6000));
+		}
+		for (int p = 0; p < published.getSize(); p++) {
+			assertEquals(published.getContent(p), expected.get(p));
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package gamebook.domains;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RopeTest {
+
+	@Test
+	public void insertAndDelete() {
+		Rope rope = new Rope("Bonjour");
+		rope.insert(7, " le monde");
+		rope.insert(0, "» ");
+		assertEquals(rope.toString(), "» Bonjour le monde");
+		rope.delete(0, 2);
+		assertEquals(rope.toString(), "Bonjour le monde");
+		assertTrue(rope.length() == 16);
+	}
+
+	@Test
+	public void isBlankWithout() {
+		Rope rope = new Rope("  a  b  ");
+		assertFalse(rope.isBlank());
+		assertFalse(rope.isBlankWithout(0, 3));
+		assertTrue(rope.isBlankWithout(2, 4));
+		assertTrue(new Rope(" \n ").isBlank());
+	}
+
+	@Test
+	public void randomOperationsMatchStringBuilder() {
+		Random random = new Random(3);
+		StringBuilder expected = new StringBuilder("x".repeat(3000));
+		Rope rope = new Rope(expected.toString());
+		for (int i = 0; i < 3000; i++) {
+			if (random.nextBoolean() || expected.length() < 10) {
+				int offset = random.nextInt(expected.length() + 1);
+				String text = (i % 7 == 0) ? "é ".repeat(random.nextInt(600)) : "ab" + i;
+				rope.insert(offset, text);
+				expected.insert(offset, text);
+			} else {
+				int offset = random.nextInt(expected.length());
+				int count = random.nextInt(Math.min(900, expected.length() - offset) + 1);
+				rope.delete(offset, count);
+				expected.delete(offset, offset + count);
+			}
+			assertTrue(rope.length() == expected.length());
+		}
+		assertEquals(rope.toString(), expected.toString());
+	}
+}
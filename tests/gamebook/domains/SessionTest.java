@@ -83,4 +83,53 @@ class SessionTest {
 		assertEquals(sess.getCurrentParagraph(), book.getParagraphByID(0));
 	}
 
+
+	@Test
+	public void dropRemovedParagraphs() {
+		Paragraph orphan = new Paragraph("Orphelin");
+		book.addParagraph(orphan);
+		sess.goToParagraphByChoiceKey(GameBookFactory.WALK);
+		assertFalse(sess.dropRemovedParagraphs());
+		sess.goTo(orphan);
+		book.compact();
+		assertTrue(sess.dropRemovedParagraphs());
+		assertEquals(sess.getCurrentParagraph(), book.getParagraphByID(3));
+		sess.goBack();
+		assertEquals(sess.getCurrentParagraph(), book.getParagraphByID(0));
+	}
+
+	@Test
+	public void readsPublishedBook() {
+		Session s = Session.forPublished(book.freeze());
+		assertEquals(s.getCurrentContent(), GameBookFactory.P1_CONTENT);
+		assertEquals(s.getCurrentChoices(), book.getParagraphByID(0).getChoices());
+		s.goToParagraphByChoiceKey(GameBookFactory.WALK);
+		assertTrue(s.getCurrentParagraphId() == 3);
+		assertEquals(s.getCurrentHead(), "Paragraphe 4");
+		s.goToParagraphByChoiceKey("Inconnu");
+		assertTrue(s.getCurrentParagraphId() == 3);
+		s.goBack();
+		s.goBack();
+		assertTrue(s.getCurrentParagraphId() == 0);
+		for (int i = 0; i < 40; i++) {
+			s.goToParagraphByChoiceKey(GameBookFactory.WALK);
+			s.goToParagraphByChoiceKey(GameBookFactory.FOLLOW);
+		}
+		s.reset();
+		assertTrue(s.getCurrentParagraphId() == 0);
+		assertTrue(s.getCurrentParagraph() == null);
+	}
+
+	@Test
+	public void memoryFootprint() {
+		MemoryFootprint start = sess.getMemoryFootprint();
+		assertTrue(start.getHistoryBytes() > 0);
+		assertTrue(start.getTotalBytes() == book.getMemoryFootprint().getTotalBytes() + start.getHistoryBytes());
+		sess.goToParagraphByChoiceKey(GameBookFactory.WALK);
+		assertTrue(sess.getMemoryFootprint().getHistoryBytes() > start.getHistoryBytes());
+		PublishedGameBook published = book.freeze();
+		Session s = Session.forPublished(published);
+		assertTrue(s.getMemoryFootprint().getContentBytes() == published.getMemoryFootprint().getContentBytes());
+		assertTrue(s.getMemoryFootprint().getHistoryBytes() > 0);
+	}
 }
@@ -0,0 +1,46 @@
+package gamebook.domains;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TextArenaTest {
+	
+	private final GameBook book = GameBookFactory.makeGameBook();
+
+	@Test
+	public void contentMovesWithParagraph() {
+		Paragraph p = new Paragraph("Texte accentué : l’été — «fin»");
+		assertTrue(book.addParagraph(p));
+		assertEquals(p.getContent(), "Texte accentué : l’été — «fin»");
+		assertFalse(p.setContent(" "));
+		assertEquals(p.getContent(), "Texte accentué : l’été — «fin»");
+		assertTrue(book.deleteParagraph(book.getParagraphIdByObject(p)));
+		assertEquals(p.getContent(), "Texte accentué : l’été — «fin»");
+	}
+
+	@Test
+	public void compactionKeepsContents() {
+		Random random = new Random(7);
+		List<String> expected = new ArrayList<>(book.getParagraphsContents());
+		for (int i = 0; i < 50; i++) {
+			String content = "p" + i + "é";
+			book.addParagraph(new Paragraph(content));
+			expected.add(content);
+		}
+		for (int i = 0; i < 2000; i++) {
+			int id = random.nextInt(book.getSize());
+			// Certains contenus dépassent un quart de bloc et reçoivent leur propre bloc.
+			String content = i + "€".repeat(random.nextInt(8000) + 1);
+			book.getParagraphByID(id).setContent(content);
+			expected.set(id, content);
+		}
+		assertEquals(book.getParagraphsContents(), expected);
+	}
+}
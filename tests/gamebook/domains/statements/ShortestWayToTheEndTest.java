@@ -3,6 +3,7 @@ package gamebook.domains.statements;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.Test;
 
 import gamebook.domains.GameBook;
 import gamebook.domains.GameBookFactory;
+import gamebook.domains.Paragraph;
 
 class ShortestWayToTheEndTest {
 	
@@ -25,8 +27,8 @@ class ShortestWayToTheEndTest {
 		// Test du livre jeu du programme.
 		swtte.parse(getBookDefault());
 		List<String> expectedResults = List.of(
-				"Le 1 : " + GameBookFactory.P1_CONTENT,
-				"Le 2 : " + GameBookFactory.P2_CONTENT
+				"Le §1 : " + GameBookFactory.P1_CONTENT,
+				"Le §2 : " + GameBookFactory.P2_CONTENT
 		);
 		checkResults(swtte.getResults(), expectedResults);
 		// Test livre jeu null.
@@ -37,6 +39,53 @@ class ShortestWayToTheEndTest {
 		checkResults(swtte.getResults(), expectedResults);
 	}
 
+	@Test
+	void parseAfterEdit() {
+		GameBook book = getBookDefault();
+		swtte.parse(book);
+		List<String> results = List.copyOf(swtte.getResults());
+		swtte.parse(book);
+		checkResults(swtte.getResults(), results);
+		book.getParagraphByID(1).setContent("Fin");
+		swtte.parse(book);
+		checkResults(swtte.getResults(), List.of(
+				"Le §1 : " + GameBookFactory.P1_CONTENT,
+				"Le §2 : Fin"
+		));
+	}
+
+	@Test
+	void parseChains() {
+		List<Paragraph> p = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			p.add(new Paragraph("P" + (i + 1)));
+		}
+		p.get(0).addChoice("Long", p.get(4));
+		p.get(0).addChoice("Court", p.get(1));
+		p.get(1).addChoice("Avancer", p.get(2));
+		p.get(2).addChoice("Avancer", p.get(3));
+		p.get(4).addChoice("Avancer", p.get(5));
+		p.get(5).addChoice("Avancer", p.get(6));
+		p.get(6).addChoice("Avancer", p.get(7));
+		swtte.parse(new GameBook("Couloirs", p));
+		checkResults(swtte.getResults(), List.of("Le §1 : P1", "Le §2 : P2", "Le §3 : P3", "Le §4 : P4"));
+		assertEquals(swtte.getDescription(), "Le livre 'Couloirs' traverse 4 § pour atteindre le 4.");
+	}
+
+	@Test
+	void parseLongWay() {
+		List<Paragraph> p = new ArrayList<>();
+		for (int i = 0; i < 50000; i++) {
+			p.add(new Paragraph("P" + (i + 1)));
+			if (i > 0) {
+				p.get(i - 1).addChoice("Avancer", p.get(i));
+			}
+		}
+		swtte.parse(new GameBook("Long", p));
+		assertEquals(swtte.getResults().size(), 50000);
+		assertEquals(swtte.getResults().get(49999), "Le §50000 : P50000");
+	}
+
 	@Test
 	void getTitle() {
 		assertEquals(swtte.getTitle(), "Chemin terminale le plus rapide");
@@ -46,16 +95,16 @@ class ShortestWayToTheEndTest {
 	void getDecription() {
 		// Test du livre jeu du programme.
 		swtte.parse(getBookDefault());
-		assertEquals(swtte.getDescription(), "Le livre '"+GameBookFactory.BOOK_TITLE+"' traverse 2  pour atteindre le 2.");
+		assertEquals(swtte.getDescription(), "Le livre '"+GameBookFactory.BOOK_TITLE+"' traverse 2 § pour atteindre le 2.");
 		// Test livre jeu vide.
 		swtte.parse(null);
-		assertEquals(swtte.getDescription(), "Le livre '"+GameBook.BOOK_TITLE+"' traverse 0  pour atteindre le 0.");
+		assertEquals(swtte.getDescription(), "Le livre '"+GameBook.BOOK_TITLE+"' traverse 0 § pour atteindre le 0.");
 	}
 	
 	/**
-	 * Mthode de vrification des rsultats.
-	 * @param result Rsultat.
-	 * @param expectedResult Rsultat attendu par l'algorithme.
+	 * Méthode de vérification des résultats.
+	 * @param result Résultat.
+	 * @param expectedResult Résultat attendu par l'algorithme.
 	 */
 	private void checkResults(List<String> results, List<String> expectedResults) {
 		if (results.size() == expectedResults.size()) {
@@ -63,7 +112,7 @@ class ShortestWayToTheEndTest {
 				assertEquals(results.get(i), expectedResults.get(i));
 			}
 		} else {
-			fail("Les rsultats ne correspondent pas !");
+			fail("Les résultats ne correspondent pas !");
 		}
 	}
 	
@@ -3,6 +3,7 @@ package gamebook.domains.statements;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -16,12 +17,12 @@ import gamebook.domains.Paragraph;
  * Introduction:
  * TargetParagraphFrequency est une classe permettant de comptabiliser le nombre de fois qu'un paragraphe
  * peut revenir dans les choix lors d'une lecture du livre jeu commencant au paragraphe un. Cette classe
- * comptabilise les choix en circuit sans ordre de parcourt prdfini ormit le fait que la lecture commence
+ * comptabilise les choix en circuit sans ordre de parcourt prédéfini ormit le fait que la lecture commence
  * toujours au paragraphe un.
  * 
- * Cette classe de test permet de vrifier que tout les cas et type de livre sont bien gr. 
+ * Cette classe de test permet de vérifier que tout les cas et type de livre sont bien géré. 
  * 
- * @author Jrmi Nihart
+ * @author Jérémi Nihart
  */
 class TargetParagraphFrequencyTest {
 	
@@ -44,61 +45,61 @@ class TargetParagraphFrequencyTest {
 	@Test
 	public void getDecription() {
 		tpf.parse(getBookDefault());
-		assertEquals(tpf.getDescription(), "Relve pour le livre '"+GameBookFactory.BOOK_TITLE+"' le nombre de fois que chaque  figure dans une destination.");
+		assertEquals(tpf.getDescription(), "Relève pour le livre '"+GameBookFactory.BOOK_TITLE+"' le nombre de fois que chaque § figure dans une destination.");
 	}
 	
 	/**
 	 * +++ PLAN DE TEST +++
-	 * Ce plan de test comporte 5 tests de 5 livres jeu diffrent dans 4
-	 * situations diffrentes pour certaine aillant des similitudes.
+	 * Ce plan de test comporte 5 tests de 5 livres jeu différent dans 4
+	 * situations différentes pour certaine aillant des similitudes.
 	 * 
-	 * Les tests #01 et #02 vrifient deux livres normaux avec des liaisons pour
+	 * Les tests #01 et #02 vérifient deux livres normaux avec des liaisons pour
 	 * chaque paragraphe et un ou plusieur paragraphe final pour chaqu'un d'eux deux
 	 * 
-	 * Le test #03 permet de vrifier que mme en l'absence d'un paragraphe terminal
-	 * l'algorithme arrive quand mme  s'arreter et  parcourir tout les choix accessibles.
+	 * Le test #03 permet de vérifier que même en l'absence d'un paragraphe terminal
+	 * l'algorithme arrive quand même à s'arreter et à parcourir tout les choix accessibles.
 	 * 
-	 * Le test #04 permet de vrifier que l'algorithme ne comptabilise pas les paragraphes
-	 * hors circuit et que dans le cas ou le livre fini au paragraphe un, il s'arrte.
+	 * Le test #04 permet de vérifier que l'algorithme ne comptabilise pas les paragraphes
+	 * hors circuit et que dans le cas ou le livre fini au paragraphe un, il s'arrête.
 	 * 
-	 * Le test #05 permet de vrifier que l'algorithme ne boucle pas infiniment dans le
+	 * Le test #05 permet de vérifier que l'algorithme ne boucle pas infiniment dans le
 	 * cas ou tout les paragraphes pointent sur tout les paragraphe et que le livre jeu ne
-	 * possde pas de fin dfinie.
+	 * possède pas de fin définie.
 	 * 
-	 * Le test #06 permet de vrifie qu'il n'y a pas d'erreur dans le cas ou un livre jeu est vide
+	 * Le test #06 permet de vérifie qu'il n'y a pas d'erreur dans le cas ou un livre jeu est vide
 	 * ou null.
 	 */
 	
 	/**
-	 * Test #01 d'un cas normal et ses rsultats avec le livre
+	 * Test #01 d'un cas normal et ses résultats avec le livre
 	 * de base du programme.
 	 */
 	@Test
 	public void normalBookResultsAndParseCheck() {
 		tpf.parse(getBookDefault());
 		List<String> expectedResults = List.of(
-				"Le 1 apparat (0x) : " + GameBookFactory.P1_CONTENT,
-				"Le 2 apparat (3x) : " + GameBookFactory.P2_CONTENT,
-				"Le 3 apparat (1x) : " + GameBookFactory.P3_CONTENT,
-				"Le 4 apparat (2x) : " + GameBookFactory.P4_CONTENT,
-				"Le 5 apparat (2x) : " + GameBookFactory.P5_CONTENT
+				"Le §1 apparaît (0x) : " + GameBookFactory.P1_CONTENT,
+				"Le §2 apparaît (3x) : " + GameBookFactory.P2_CONTENT,
+				"Le §3 apparaît (1x) : " + GameBookFactory.P3_CONTENT,
+				"Le §4 apparaît (2x) : " + GameBookFactory.P4_CONTENT,
+				"Le §5 apparaît (2x) : " + GameBookFactory.P5_CONTENT
 		);
 		checkResults(tpf.getResults(), expectedResults);
 	}
 	
 	/**
-	 * Test #02 d'un autre cas normal et ses rsultats avec un
+	 * Test #02 d'un autre cas normal et ses résultats avec un
 	 * livre jeu classic.
 	 */
 	@Test
 	public void anOtherNormalBookResultsAndParseCheck() {
 		tpf.parse(getBookNormal());
 		List<String> expectedResults = List.of(
-				"Le 1 apparat (1x) : " + GameBookFactory.P1_CONTENT,
-				"Le 2 apparat (2x) : " + GameBookFactory.P2_CONTENT,
-				"Le 3 apparat (1x) : " + GameBookFactory.P3_CONTENT,
-				"Le 4 apparat (1x) : " + GameBookFactory.P4_CONTENT,
-				"Le 5 apparat (1x) : " + GameBookFactory.P5_CONTENT
+				"Le §1 apparaît (1x) : " + GameBookFactory.P1_CONTENT,
+				"Le §2 apparaît (2x) : " + GameBookFactory.P2_CONTENT,
+				"Le §3 apparaît (1x) : " + GameBookFactory.P3_CONTENT,
+				"Le §4 apparaît (1x) : " + GameBookFactory.P4_CONTENT,
+				"Le §5 apparaît (1x) : " + GameBookFactory.P5_CONTENT
 		);
 		checkResults(tpf.getResults(), expectedResults);
 	}
@@ -110,46 +111,46 @@ class TargetParagraphFrequencyTest {
 	public void withOutEndBookResultsAndParseCheck() {
 		tpf.parse(getBookWithoutEnd());
 		List<String> expectedResults = List.of(
-				"Le 1 apparat (2x) : " + GameBookFactory.P1_CONTENT,
-				"Le 2 apparat (1x) : " + GameBookFactory.P2_CONTENT,
-				"Le 3 apparat (1x) : " + GameBookFactory.P3_CONTENT,
-				"Le 4 apparat (1x) : " + GameBookFactory.P4_CONTENT,
-				"Le 5 apparat (0x) : " + GameBookFactory.P5_CONTENT
-				// Le p5 ne fait pas partie du circuit du livre par dfinition
-				// un paragraphe hors circuit ne doit pas tre comptabilis.
+				"Le §1 apparaît (2x) : " + GameBookFactory.P1_CONTENT,
+				"Le §2 apparaît (1x) : " + GameBookFactory.P2_CONTENT,
+				"Le §3 apparaît (1x) : " + GameBookFactory.P3_CONTENT,
+				"Le §4 apparaît (1x) : " + GameBookFactory.P4_CONTENT,
+				"Le §5 apparaît (0x) : " + GameBookFactory.P5_CONTENT
+				// Le p5 ne fait pas partie du circuit du livre par définition
+				// un paragraphe hors circuit ne doit pas être comptabilisé.
 		);
 		checkResults(tpf.getResults(), expectedResults);
 	}
 	
 	/**
 	 * Test #04 d'un cas d'erreurs et cas limite, livre ou le paragraphe un n'est
-	 * pas reli aux autres et ou il est terminal.
+	 * pas relié aux autres et ou il est terminal.
 	 */
 	@Test
 	public void notLinkedWithPOneBookResultsAndParseCheck() {
 		tpf.parse(getBookNotLinkedWithPOne());
 		List<String> expectedResults = List.of(
-				"Le 1 apparat (0x) : " + GameBookFactory.P1_CONTENT,
-				"Le 2 apparat (0x) : " + GameBookFactory.P2_CONTENT,
-				"Le 3 apparat (0x) : " + GameBookFactory.P3_CONTENT,
-				"Le 4 apparat (0x) : " + GameBookFactory.P4_CONTENT,
-				"Le 5 apparat (0x) : " + GameBookFactory.P5_CONTENT
+				"Le §1 apparaît (0x) : " + GameBookFactory.P1_CONTENT,
+				"Le §2 apparaît (0x) : " + GameBookFactory.P2_CONTENT,
+				"Le §3 apparaît (0x) : " + GameBookFactory.P3_CONTENT,
+				"Le §4 apparaît (0x) : " + GameBookFactory.P4_CONTENT,
+				"Le §5 apparaît (0x) : " + GameBookFactory.P5_CONTENT
 		);
 		checkResults(tpf.getResults(), expectedResults);
 	}
 	
 	/**
-	 * Test #05 d'un cas avec un surplus de combinaisons et possibilites.
+	 * Test #05 d'un cas avec un surplus de combinaisons et possibilitées.
 	 */
 	@Test
 	public void allPConnectedBookResultsAndParseCheck() {
 		tpf.parse(getBookAllPConnected());
 		List<String> expectedResults = List.of(
-				"Le 1 apparat (5x) : " + GameBookFactory.P1_CONTENT,
-				"Le 2 apparat (5x) : " + GameBookFactory.P2_CONTENT,
-				"Le 3 apparat (5x) : " + GameBookFactory.P3_CONTENT,
-				"Le 4 apparat (5x) : " + GameBookFactory.P4_CONTENT,
-				"Le 5 apparat (5x) : " + GameBookFactory.P5_CONTENT
+				"Le §1 apparaît (5x) : " + GameBookFactory.P1_CONTENT,
+				"Le §2 apparaît (5x) : " + GameBookFactory.P2_CONTENT,
+				"Le §3 apparaît (5x) : " + GameBookFactory.P3_CONTENT,
+				"Le §4 apparaît (5x) : " + GameBookFactory.P4_CONTENT,
+				"Le §5 apparaît (5x) : " + GameBookFactory.P5_CONTENT
 		);
 		checkResults(tpf.getResults(), expectedResults);
 	}
@@ -159,16 +160,35 @@ class TargetParagraphFrequencyTest {
 	 */
 	@Test
 	public void emptyBookResultsAndParseCheck() {
-		// livre jeu dj cre
+		// livre jeu déjà crée
 		tpf.parse(getBookEmpty());
 		List<String> expectedResults = List.of(
-				"Le 1 apparat (0x) : " + Paragraph.PARAGRAPH_CONTENT
+				"Le §1 apparaît (0x) : " + Paragraph.PARAGRAPH_CONTENT
 		);
 		checkResults(tpf.getResults(), expectedResults);
 		// livre jeu null
 		tpf.parse(null);
 		expectedResults = List.of(
-				"Le 1 apparat (0x) : " + Paragraph.PARAGRAPH_CONTENT
+				"Le §1 apparaît (0x) : " + Paragraph.PARAGRAPH_CONTENT
+		);
+		checkResults(tpf.getResults(), expectedResults);
+	}
+	
+	/**
+	 * Test #07 d'un livre à couloirs (paragraphes à un seul choix), avec un cycle
+	 * de couloirs hors circuit.
+	 */
+	@Test
+	public void chainsBookResultsAndParseCheck() {
+		tpf.parse(getBookChains());
+		List<String> expectedResults = List.of(
+				"Le §1 apparaît (0x) : " + GameBookFactory.P1_CONTENT,
+				"Le §2 apparaît (1x) : " + GameBookFactory.P2_CONTENT,
+				"Le §3 apparaît (1x) : " + GameBookFactory.P3_CONTENT,
+				"Le §4 apparaît (2x) : " + GameBookFactory.P4_CONTENT,
+				"Le §5 apparaît (1x) : " + GameBookFactory.P5_CONTENT,
+				"Le §6 apparaît (0x) : Cycle 1",
+				"Le §7 apparaît (0x) : Cycle 2"
 		);
 		checkResults(tpf.getResults(), expectedResults);
 	}
@@ -178,9 +198,9 @@ class TargetParagraphFrequencyTest {
 	 */
 	
 	/**
-	 * Mthode de vrification des rsultats.
-	 * @param result Rsultat.
-	 * @param expectedResult Rsultat attendu par l'algorithme.
+	 * Méthode de vérification des résultats.
+	 * @param result Résultat.
+	 * @param expectedResult Résultat attendu par l'algorithme.
 	 */
 	private void checkResults(List<String> results, List<String> expectedResults) {
 		if (results.size() == expectedResults.size()) {
@@ -188,7 +208,7 @@ class TargetParagraphFrequencyTest {
 				assertEquals(results.get(i), expectedResults.get(i));
 			}
 		} else {
-			fail("Les rsultats ne correspondent pas !");
+			fail("Les résultats ne correspondent pas !");
 		}
 	}
 	
@@ -228,9 +248,9 @@ class TargetParagraphFrequencyTest {
 	}
 	
 	/**
-	 * Craie un livre jeu non reli au paragraphe
+	 * Craie un livre jeu non relié au paragraphe
 	 * un ou les choix et paragraphes son inaccessible 
-	 * @return Livre jeu non reli
+	 * @return Livre jeu non relié
 	 */
 	private GameBook getBookNotLinkedWithPOne() {
 		List<Paragraph> p = GameBookFactory.makeParagraphs();
@@ -242,8 +262,8 @@ class TargetParagraphFrequencyTest {
 	
 	/**
 	 * Craie un livre jeu ou tous les paragraphes sont
-	 * reli les un aux-autres.
-	 * @return Livre jeu tout reli
+	 * relié les un aux-autres.
+	 * @return Livre jeu tout relié
 	 */
 	private GameBook getBookAllPConnected() {
 		List<Paragraph> p = GameBookFactory.makeParagraphs();
@@ -256,9 +276,27 @@ class TargetParagraphFrequencyTest {
 	}
 	
 	/**
-	 * Craie un livre jeu vide, par dfinition un livre
-	 * jeu ne peux pas tre vide, le gamebook va donc
-	 * gnrer un patragraphe factice.
+	 * Craie un livre jeu à couloirs : §1 -> §2 -> §3 -> §4 et §1 -> §5 -> §4,
+	 * §6 et §7 se suivent en cycle hors circuit.
+	 * @return Livre jeu à couloirs
+	 */
+	private GameBook getBookChains() {
+		List<Paragraph> p = new ArrayList<>(GameBookFactory.makeParagraphs());
+		p.add(new Paragraph("Cycle 1"));
+		p.add(new Paragraph("Cycle 2"));
+		GameBookFactory.setChoices(p.get(1), "vers p2", p.get(0));
+		GameBookFactory.setChoices(p.get(4), "vers p5", p.get(0));
+		GameBookFactory.setChoices(p.get(2), "vers p3", p.get(1));
+		GameBookFactory.setChoices(p.get(3), "vers p4", p.get(2), p.get(4));
+		GameBookFactory.setChoices(p.get(6), "vers p7", p.get(5));
+		GameBookFactory.setChoices(p.get(5), "vers p6", p.get(6));
+		return new GameBook("EndMoveBook 06", p);
+	}
+	
+	/**
+	 * Craie un livre jeu vide, par définition un livre
+	 * jeu ne peux pas être vide, le gamebook va donc
+	 * générer un patragraphe factice.
 	 * @return Livre jeu vide
 	 */
 	private GameBook getBookEmpty() {
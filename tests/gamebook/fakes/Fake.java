@@ -19,35 +19,35 @@ class Fake {
 	}
 
 	/**
-	 * Vide la collection des appels reus.
-	 * Appelez cette mthode quand vous souhaitez vrifier qu'une action
-	 * appelle une mthode dj appele prcdemment.
+	 * Vide la collection des appels reçus.
+	 * Appelez cette méthode quand vous souhaitez vérifier qu'une action
+	 * appelle une méthode déjà appelée précédemment.
 	 * */
 	public void resetCallsTrace() {
 		callsCount.clear();
 	}
 
 	/**
-	 * Vrifie que l'appel {@code methodeName(arg1, ..., argN)} a t reu.
+	 * Vérifie que l'appel {@code methodeName(arg1, ..., argN)} a été reçu.
 	 * Attention, l'ordre des arguments est important.
 	 * 
-	 * @param methodName le nom de la mthode sans paranthses ni modificateur
+	 * @param methodName le nom de la méthode sans paranthèses ni modificateur
 	 * @param args les N arguments transmis au moment de l'appel.
 	 * 
-	 * @throws AssertionError si l'appel n'a pas t reu.
+	 * @throws AssertionError si l'appel n'a pas été reçu.
 	 * */
 	public void verify(String methodName, Object...args) {
 		verifyTimes(1, methodName, args);
 	}
 	
 	/**
-	 * Vrifie que l'appel {@code methodeName(arg1, ..., argN)} n'a pas t reu.
+	 * Vérifie que l'appel {@code methodeName(arg1, ..., argN)} n'a pas été reçu.
 	 * Attention, l'ordre des arguments est important.
 	 * 
-	 * @param methodName le nom de la mthode sans paranthses ni modificateur
+	 * @param methodName le nom de la méthode sans paranthèses ni modificateur
 	 * @param args les N arguments transmis au moment de l'appel.
 	 * 
-	 * @throws AssertionError si l'appel a pas t reu au moins une fois.
+	 * @throws AssertionError si l'appel a pas été reçu au moins une fois.
 	 * */
 	public void verifyNoCall(String methodName, Object...args) {
 		var call = MethodCall.of(methodName, args);
@@ -57,14 +57,14 @@ class Fake {
 	}
 
 	/**
-	 * Vrifie que l'appel {@code methodeName(arg)} a t reu.
-	 * La vrification transforme la collection reu en liste trie.
-	 * Cette transformation permet vrifier les appels sans tenir compte de la collection concrte.
+	 * Vérifie que l'appel {@code methodeName(arg)} a été reçu.
+	 * La vérification transforme la collection reçu en liste triée.
+	 * Cette transformation permet vérifier les appels sans tenir compte de la collection concrète.
 	 * 
-	 * @param methodName le nom de la mthode sans paranthses ni modificateur
+	 * @param methodName le nom de la méthode sans paranthèses ni modificateur
 	 * @param arg la collection de String.
 	 * 
-	 * @throws AssertionError si l'appel n'a pas t reu.
+	 * @throws AssertionError si l'appel n'a pas été reçu.
 	 * */
 	public void verifyInAnyOrder(String methodName, Collection<? extends Object> arg) {
 		var argAsList = new ArrayList<>(arg);
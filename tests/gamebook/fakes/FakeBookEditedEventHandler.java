@@ -8,4 +8,9 @@ public class FakeBookEditedEventHandler extends Fake implements BookEditedEventH
 	public void onBookEdited() {
 		countCall("onBookEdited");
 	}
+
+	@Override
+	public void onBookCompacted(int[] map) {
+		countCall("onBookCompacted");
+	}
 }
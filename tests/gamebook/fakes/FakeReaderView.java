@@ -5,8 +5,8 @@ import java.util.*;
 import gamebook.supervisers.ReadView;
 
 /**
- * Conserve une trace des appels de mthodes dont elle a hrite.
- * Vrifie si un appel a t reu.
+ * Conserve une trace des appels de méthodes dont elle a héritée.
+ * Vérifie si un appel a été reçu.
  * 
  * */
 public class FakeReaderView extends Fake implements ReadView {
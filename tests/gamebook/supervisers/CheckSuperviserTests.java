@@ -1,5 +1,6 @@
 package gamebook.supervisers;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
@@ -11,6 +12,8 @@ import gamebook.domains.BookEditedEventHandler;
 import gamebook.domains.GameBook;
 import gamebook.domains.GameBookFactory;
 import gamebook.domains.GameBookStatement;
+import gamebook.domains.Paragraph;
+import gamebook.domains.statements.ShortestWayToTheEnd;
 import gamebook.fakes.FakeCheckView;
 import gamebook.fakes.FakeGameBookStatement;
 
@@ -33,19 +36,19 @@ public class CheckSuperviserTests {
 		
 		// STMT1
 		swtteTitle = "Chemin terminale le plus rapide";
-		swtteDescription = "Le livre 'Titre' traverse %2  pour atteindre le %2.";
+		swtteDescription = "Le livre 'Titre' traverse %2 § pour atteindre le %2.";
 		swtteResults = null;
 		stmt1 = new FakeGameBookStatement(swtteTitle, swtteDescription, swtteResults);
 		
 		// STMT2
 		tpfTitle = "Nombre d'apparition des paragraphes dans les choix";
-		tpfDescription = "Relve pour le livre 'Titre' le nombre de fois que chaque  figure dans une destination.";
+		tpfDescription = "Relève pour le livre 'Titre' le nombre de fois que chaque § figure dans une destination.";
 		tpfResults = List.of(
-			"Le 1 apparat (0x) : Paragraphe n1...",
-			"Le 2 apparat (3x) : Paragraphe n2...",
-			"Le 3 apparat (1x) : Paragraphe n3...",
-			"Le 4 apparat (2x) : Paragraphe n4...",
-			"Le 5 apparat (2x) : Paragraphe n5..."
+			"Le §1 apparaît (0x) : Paragraphe n1...",
+			"Le §2 apparaît (3x) : Paragraphe n2...",
+			"Le §3 apparaît (1x) : Paragraphe n3...",
+			"Le §4 apparaît (2x) : Paragraphe n4...",
+			"Le §5 apparaît (2x) : Paragraphe n5..."
 		);
 		stmt2 = new FakeGameBookStatement(tpfTitle, tpfDescription, tpfResults);
 		
@@ -138,6 +141,21 @@ public class CheckSuperviserTests {
 		verifyViewRefreshedForStatement(stmt2);
 	}
 	
+	@Test
+	public void parsesSnapshotOfConcurrentBook() {
+		List<Paragraph> paragraphs = GameBookFactory.makeParagraphs();
+		GameBookFactory.makeChoices(paragraphs);
+		GameBook shared = new GameBook(GameBookFactory.BOOK_TITLE, paragraphs, true);
+		ShortestWayToTheEnd swtte = new ShortestWayToTheEnd();
+		FakeGameBookStatement fake = new FakeGameBookStatement(tpfTitle, tpfDescription, tpfResults);
+		new CheckSuperviser(shared, swtte, fake).setView(new FakeCheckView());
+		fake.verifyNoCall("parse", shared);
+		ShortestWayToTheEnd live = new ShortestWayToTheEnd();
+		live.parse(GameBookFactory.makeGameBook());
+		assertEquals(live.getResults(), swtte.getResults());
+		assertEquals(live.getDescription(), swtte.getDescription());
+	}
+
 	private void verifyStatementRefreshed() {
 		stmt1.verify("parse", book);
 		stmt2.verify("parse", book);
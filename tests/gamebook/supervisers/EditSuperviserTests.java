@@ -1,6 +1,7 @@
 package gamebook.supervisers;
 
 import static gamebook.utils.MethodCall.of;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.util.List;
 
@@ -9,6 +10,7 @@ import org.junit.jupiter.api.Test;
 
 import gamebook.domains.GameBook;
 import gamebook.domains.GameBookFactory;
+import gamebook.domains.Paragraph;
 import gamebook.fakes.FakeBookEditedEventHandler;
 import gamebook.fakes.FakeEditView;
 
@@ -145,18 +147,18 @@ public class EditSuperviserTests {
 	//AI-2.2 : Test d'acceptation 5
 	@Test
 	public void ignoresRemovalOnOneParagraphLeft() {		
-		//GIVEN : un superviser et un livre ou on a supprim 4
+		//GIVEN : un superviser et un livre ou on a supprimé 4§
 		superviser.onDeleteParagraph(1);
 		superviser.onDeleteParagraph(1);
 		superviser.onDeleteParagraph(1);
 		superviser.onDeleteParagraph(1);
 		
-		//WHEN : j'essaie de supprimer le dernier 
+		//WHEN : j'essaie de supprimer le dernier §
 		view.resetCallsTrace();
 		handler.resetCallsTrace();
 		superviser.onDeleteParagraph(1);
 		
-		//THEN : cette demande est ignore
+		//THEN : cette demande est ignorée
 		view.verifyNoCall("setSelectedParagraph", 1);
 		handler.verifyNoCall("onBookEdited");
 	}
@@ -189,6 +191,47 @@ public class EditSuperviserTests {
 		handler.verifyNoCall("onBookEdited");
 	}
 	
+	@Test
+	public void updatesParagraphTextIncrementally() {
+		view.resetCallsTrace();
+		
+		superviser.onParagraphTextInserted(0, 0, "Début. ");
+		
+		view.verifyNoCall("setCurrentParagraphContent", "Début. " + GameBookFactory.P1_CONTENT);
+		view.verify("setParagraphs", List.of(
+				"Début. " + GameBookFactory.P1_CONTENT,
+				GameBookFactory.P2_CONTENT,
+				GameBookFactory.P3_CONTENT,
+				GameBookFactory.P4_CONTENT,
+				GameBookFactory.P5_CONTENT
+		));
+		handler.verify("onBookEdited");
+		csHandler.verify("onBookEdited");
+		
+		view.resetCallsTrace();
+		superviser.onParagraphTextDeleted(0, 0, 3);
+		
+		assertEquals(book.getParagraphByID(0).getContent(), "ut. " + GameBookFactory.P1_CONTENT);
+		view.verifyNoCall("setCurrentParagraphContent", "ut. " + GameBookFactory.P1_CONTENT);
+		view.verify("setParagraphs", List.of(
+				"ut. " + GameBookFactory.P1_CONTENT,
+				GameBookFactory.P2_CONTENT,
+				GameBookFactory.P3_CONTENT,
+				GameBookFactory.P4_CONTENT,
+				GameBookFactory.P5_CONTENT
+		));
+	}
+	
+	@Test
+	public void ignoresInvalidIncrementalEdits() {
+		superviser.onParagraphTextInserted(0, -1, "x");
+		superviser.onParagraphTextInserted(9, 0, "x");
+		superviser.onParagraphTextDeleted(0, 0, GameBookFactory.P1_CONTENT.length());
+		
+		handler.verifyNoCall("onBookEdited");
+		assertEquals(book.getParagraphByID(0).getContent(), GameBookFactory.P1_CONTENT);
+	}
+	
 	//AI-2.3 : Test d'acceptation 1
 	@Test
 	public void updatesOnSelectedChoiceChanged() {
@@ -272,4 +315,57 @@ public class EditSuperviserTests {
 		
 		handler.verify("onBookEdited");
 	}
+	
+	@Test
+	public void notifiesOnceOnBatchEdit() {
+		view.resetCallsTrace();
+		
+		superviser.onBatchEdit(batch -> {
+			for (int i = 0; i < 10; i++) {
+				batch.addParagraph(new Paragraph("Batch " + i));
+			}
+			batch.deleteParagraph(0);
+		});
+		
+		handler.verify("onBookEdited");
+		csHandler.verify("onBookEdited");
+		view.verify("setSelectedParagraph", 13);
+	}
+	
+	@Test
+	public void ignoresRolledBackBatchEdit() {
+		view.resetCallsTrace();
+		
+		superviser.onBatchEdit(batch -> {
+			batch.setTitle("Rolled back");
+			batch.rollback();
+		});
+		
+		handler.verifyNoCall("onBookEdited");
+		csHandler.verifyNoCall("onBookEdited");
+		view.verify("setTitle", GameBookFactory.BOOK_TITLE);
+	}
+	
+	@Test
+	public void compactsBook() {
+		superviser.onNewParagraph();
+		view.resetCallsTrace();
+		
+		superviser.onCompactBook();
+		
+		handler.verify("onBookCompacted");
+		csHandler.verify("onBookCompacted");
+		view.verify("setSelectedParagraph", 0);
+	}
+	
+	@Test
+	public void keepsSelectionOnCompact() {
+		superviser.onSelectedParagraphChanged(3);
+		view.resetCallsTrace();
+		
+		superviser.onCompactBook();
+		
+		handler.verifyNoCall("onBookCompacted");
+		view.verify("setSelectedParagraph", 3);
+	}
 }
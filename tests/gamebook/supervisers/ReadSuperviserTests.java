@@ -26,7 +26,7 @@ public class ReadSuperviserTests {
 	//AI-1.1 : Test d'acceptation 1
 	@Test
 	public void refreshesHisViewOnNewViewSet() {
-		//EXPECT : quand le superviseur reoit sa vue, il lui fournit les donnes du 1.
+		//EXPECT : quand le superviseur reçoit sa vue, il lui fournit les données du §1.
 		view.verify("setTitle", GameBookFactory.BOOK_TITLE);
 		view.verify("setParagraph", "Paragraphe 1", GameBookFactory.P1_CONTENT);
 		view.verifyInAnyOrder("setChoices", List.of(GameBookFactory.LOOK_BEHIND, GameBookFactory.KEEP_READING, GameBookFactory.WALK));
@@ -35,10 +35,10 @@ public class ReadSuperviserTests {
 	//AI-1.1 : Test d'acceptation 2
 	@Test
 	public void switchesOfParagraphsOnChoiceSelected() {
-		//GIVEN : 1 et ses choix sont affichs
-		//WHEN : l'utilisateur choisit de se dgourdir les jambes
+		//GIVEN : §1 et ses choix sont affichés
+		//WHEN : l'utilisateur choisit de se dégourdir les jambes
 		superviser.onChoiceSelected(GameBookFactory.WALK);
-		//THEN : le superviseur met  jour sa vue avec le contenu de 4
+		//THEN : le superviseur met à jour sa vue avec le contenu de §4
 		view.verify("setParagraph", "Paragraphe 4", GameBookFactory.P4_CONTENT);
 		view.verifyInAnyOrder("setChoices",List.of(GameBookFactory.FOLLOW, GameBookFactory.IGNORE));
 	}
@@ -46,18 +46,18 @@ public class ReadSuperviserTests {
 	//AI-1.1 : Test d'acceptation 3
 	@Test
 	public void switchesOnSeveralChoicesSelected() {
-		//GIVEN : 1 et ses choix sont affichs
-		//WHEN  : l'utilisateur passe de 1 -> 4, puis choisit de "Suivre cet individu"
+		//GIVEN : §1 et ses choix sont affichés
+		//WHEN  : l'utilisateur passe de §1 -> §4, puis choisit de "Suivre cet individu"
 		superviser.onChoiceSelected(GameBookFactory.WALK);
 		superviser.onChoiceSelected(GameBookFactory.FOLLOW);
-		//THEN : le superviseur met  jour sa vue avec le contenu de 5
+		//THEN : le superviseur met à jour sa vue avec le contenu de §5
 		view.verify("setParagraph", "Paragraphe 5", GameBookFactory.P5_CONTENT);
 	}
 	
 	//AI-1.2 : Test d'acceptation 1
 	@Test
 	public void reachesTheEnd() {
-		//WHEN : l'utilisateur passe de 1 -> 2 ( de fin)
+		//WHEN : l'utilisateur passe de §1 -> §2 (§ de fin)
 		superviser.onChoiceSelected(GameBookFactory.KEEP_READING);
 		//THEN : le superviseur propose de recommencer la lecture
 		view.verify("setChoices", List.of("Recommencer l'aventure"));
@@ -66,12 +66,12 @@ public class ReadSuperviserTests {
 	//AI-1.2 : Test d'acceptation 2
 	@Test
 	public void goesBackToFirstParagraphOnRestart() {
-		//GIVEN: une trace des appels vide
+		//GIVEN: une trace des appels vidée
 		view.resetCallsTrace();
-		//WHEN : l'utilisateur passe de 1 -> 2, puis recommence la lecture
+		//WHEN : l'utilisateur passe de §1 -> §2, puis recommence la lecture
 		superviser.onChoiceSelected(GameBookFactory.KEEP_READING);
 		superviser.onChoiceSelected(ReadSuperviser.RESTART_KEY);
-		//THEN : le superviseur met  jour sa vue avec le contenu de 1
+		//THEN : le superviseur met à jour sa vue avec le contenu de §1
 		view.verify("setParagraph", "Paragraphe 1", GameBookFactory.P1_CONTENT);
 		view.verifyInAnyOrder("setChoices", List.of(GameBookFactory.LOOK_BEHIND, GameBookFactory.KEEP_READING, GameBookFactory.WALK));
 	}
@@ -79,11 +79,11 @@ public class ReadSuperviserTests {
 	//AI-1.3 : Test d'acceptation 1
 	@Test
 	public void doesNotGoBackOnDisplayingFirstNode() {
-		//GIVEN: une trace des appels vide
+		//GIVEN: une trace des appels vidée
 		view.resetCallsTrace();
-		//WHEN: l'utilisateur souhaite revenir en arrire
+		//WHEN: l'utilisateur souhaite revenir en arrière
 		superviser.onGoBack();
-		//THEN : le superviseur met  jour sa vue avec le contenu de 1
+		//THEN : le superviseur met à jour sa vue avec le contenu de §1
 		view.verify("setParagraph", "Paragraphe 1", GameBookFactory.P1_CONTENT);
 		view.verifyInAnyOrder("setChoices", List.of(GameBookFactory.LOOK_BEHIND, GameBookFactory.KEEP_READING, GameBookFactory.WALK));
 	}
@@ -91,13 +91,13 @@ public class ReadSuperviserTests {
 	//AI-1.3 : Test d'acceptation 2
 	@Test
 	public void goesOneParagraphBackAtTheTime() {
-		//GIVEN : l'utilisateur fait le parcours 1 -> 4 -> 5
+		//GIVEN : l'utilisateur fait le parcours §1 -> §4 -> §5
 		superviser.onChoiceSelected(GameBookFactory.WALK);
 		superviser.onChoiceSelected(GameBookFactory.FOLLOW);
-		//WHEN : on efface la trace des appels avant de revenir en arrire 1 fois
+		//WHEN : on efface la trace des appels avant de revenir en arrière 1 fois
 		view.resetCallsTrace();
 		superviser.onGoBack();
-		//THEN : le superviseur met  jour sa vue avec le contenu de 4
+		//THEN : le superviseur met à jour sa vue avec le contenu de §4
 		view.verify("setParagraph", "Paragraphe 4", GameBookFactory.P4_CONTENT);
 		view.verifyInAnyOrder("setChoices",List.of(GameBookFactory.FOLLOW, GameBookFactory.IGNORE));
 	}
@@ -105,15 +105,28 @@ public class ReadSuperviserTests {
 	//AI-1.3 : Test d'acceptation 3
 	@Test
 	public void goesToTheStart() {
-		//GIVEN : l'utilisateur fait le parcours 1 -> 4 -> 5
+		//GIVEN : l'utilisateur fait le parcours §1 -> §4 -> §5
 		superviser.onChoiceSelected(GameBookFactory.WALK);
 		superviser.onChoiceSelected(GameBookFactory.FOLLOW);
-		//WHEN : on efface la trace des appels avant de revenir en arrire 2 fois
+		//WHEN : on efface la trace des appels avant de revenir en arrière 2 fois
 		view.resetCallsTrace();
 		superviser.onGoBack();
 		superviser.onGoBack();
-		//THEN : le superviseur met  jour sa vue avec le contenu de 4
+		//THEN : le superviseur met à jour sa vue avec le contenu de §4
 		view.verify("setParagraph", "Paragraphe 1", GameBookFactory.P1_CONTENT);
 		view.verifyInAnyOrder("setChoices", List.of(GameBookFactory.LOOK_BEHIND, GameBookFactory.KEEP_READING, GameBookFactory.WALK));
 	}
-}
+
+	@Test
+	public void readsPublishedBook() {
+		ReadSuperviser published = new ReadSuperviser(GameBookFactory.makeGameBook().freeze());
+		FakeReaderView publishedView = new FakeReaderView();
+		published.setView(publishedView);
+		publishedView.verify("setTitle", GameBookFactory.BOOK_TITLE);
+		
+		published.onChoiceSelected(GameBookFactory.WALK);
+		
+		publishedView.verify("setParagraph", "Paragraphe 4", GameBookFactory.P4_CONTENT);
+		publishedView.verifyInAnyOrder("setChoices", List.of(GameBookFactory.FOLLOW, GameBookFactory.IGNORE));
+	}
+}
\ No newline at end of file